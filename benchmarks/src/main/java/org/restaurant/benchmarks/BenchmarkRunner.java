@@ -0,0 +1,110 @@
+package org.restaurant.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks with the GC/allocation profiler, writes results/latest.json and, once a
+ * baseline has been recorded, compares each score with results/baseline.json.
+ * Accepts the usual JMH command line, e.g. {@code java -jar target/benchmarks.jar Kitchen -t 4}.
+ * System properties:
+ * - baseline.update=true records this run as the baseline
+ * - baseline.tolerance=0.10 is the slowdown reported as a regression (fraction of the baseline)
+ */
+public class BenchmarkRunner {
+
+    private static final Path RESULTS_DIR = Paths.get("results");
+    private static final Path LATEST = RESULTS_DIR.resolve("latest.json");
+    private static final Path BASELINE = RESULTS_DIR.resolve("baseline.json");
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(RESULTS_DIR);
+
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(LATEST.toString())
+                .build()).run();
+
+        if (Boolean.getBoolean("baseline.update")) {
+            Files.copy(LATEST, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated from " + LATEST);
+            return;
+        }
+
+        // No gate until a baseline has been recorded on the reference machine
+        if (!Files.exists(BASELINE)) {
+            System.out.println("No baseline at " + BASELINE + "; record one with -Dbaseline.update=true");
+            return;
+        }
+        if (compareWithBaseline(Double.parseDouble(System.getProperty("baseline.tolerance", "0.10"))) > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int compareWithBaseline(double tolerance) throws IOException {
+        Map<String, JsonNode> baseline = readScores(BASELINE);
+        Map<String, JsonNode> latest = readScores(LATEST);
+
+        System.out.printf("%n%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Latest", "Change");
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : latest.entrySet()) {
+            JsonNode current = entry.getValue().get("primaryMetric");
+            JsonNode previous = baseline.containsKey(entry.getKey()) ? baseline.get(entry.getKey()).get("primaryMetric") : null;
+            String unit = current.get("scoreUnit").asText();
+
+            if (previous == null || !unit.equals(previous.get("scoreUnit").asText())) {
+                System.out.printf("%-80s %14s %14.3f %9s  %s%n", entry.getKey(), "-", current.get("score").asDouble(), "new", unit);
+                continue;
+            }
+
+            double before = previous.get("score").asDouble();
+            double after = current.get("score").asDouble();
+            // Time-per-op modes get worse as the score grows, throughput modes as it shrinks
+            double slowdown = unit.endsWith("/op") ? (after - before) / before : (before - after) / before;
+            boolean regressed = slowdown > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before, after,
+                    (after - before) / before * 100, unit, regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regression(s) beyond %.0f%% against %s%n", regressions, tolerance * 100, BASELINE);
+        return regressions;
+    }
+
+    // Results keyed by benchmark, mode, thread count and parameters
+    private static Map<String, JsonNode> readScores(Path file) throws IOException {
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText())
+                    .append(" [").append(result.get("mode").asText())
+                    .append(", t=").append(result.get("threads").asInt());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(", ").append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            scores.put(key.append(']').toString(), result);
+        }
+        return scores;
+    }
+}
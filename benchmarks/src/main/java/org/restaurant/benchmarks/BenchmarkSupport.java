@@ -0,0 +1,24 @@
+package org.restaurant.benchmarks;
+
+import java.lang.reflect.Field;
+
+/**
+ * Helpers for wiring Spring components by hand, without starting an application context
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {}
+
+    /**
+     * Set a field that Spring would normally inject
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + fieldName + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
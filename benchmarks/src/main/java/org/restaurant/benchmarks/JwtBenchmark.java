@@ -0,0 +1,49 @@
+package org.restaurant.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.restaurant.security.JwtUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification, which every authenticated request pays for in JwtAuthenticationFilter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dlogback.configurationFile=bench-logback.xml"})
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    // The docker profile's jwt.secret; HS512 needs a key of at least 512 bits
+    private static final String SECRET = "RestaurantManagementSystem2024SecretKeyForJWTTokenGenerationWithAdditionalSecurityToMeetHS512Requirements123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void createUtils() {
+        jwtUtils = new JwtUtils();
+        BenchmarkSupport.inject(jwtUtils, "jwtSecret", SECRET);
+        BenchmarkSupport.inject(jwtUtils, "jwtExpirationMs", 86_400_000L);
+        BenchmarkSupport.inject(jwtUtils, "refreshExpirationMs", 604_800_000L);
+        token = jwtUtils.generateTokenFromUsername("waiter1");
+    }
+
+    @Benchmark
+    public String generateTokenFromUsername() {
+        return jwtUtils.generateTokenFromUsername("waiter1");
+    }
+
+    @Benchmark
+    public Boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Boolean validateJwtToken_contended() {
+        return jwtUtils.validateJwtToken(token);
+    }
+}
@@ -0,0 +1,65 @@
+package org.restaurant.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.restaurant.dto.response.OrderResponse;
+import org.restaurant.entities.MenuItem;
+import org.restaurant.entities.Order;
+import org.restaurant.entities.OrderItem;
+import org.restaurant.enums.OrderStatus;
+import org.restaurant.repository.OrderRepository;
+import org.restaurant.service.impl.OrderServiceImpl;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response conversion in OrderServiceImpl, reached through getOrderById
+ * with a repository stub that hands back an already loaded order
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dlogback.configurationFile=bench-logback.xml"})
+@State(Scope.Benchmark)
+public class OrderResponseBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int items;
+
+    private OrderServiceImpl orderService;
+
+    @Setup
+    public void prepareOrder() {
+        Order order = new Order();
+        order.setOrderId(1L);
+        order.setTableNumber(4);
+        order.setStatus(OrderStatus.PLACED);
+        order.setCreatedAt(LocalDateTime.now());
+        for (int i = 0; i < items; i++) {
+            MenuItem menuItem = new MenuItem("Dish " + i, "Main Course", new BigDecimal("12.49"));
+            order.addOrderItem(new OrderItem(1 + i % 3, order, menuItem));
+        }
+
+        OrderRepository repository = (OrderRepository) Proxy.newProxyInstance(
+                OrderRepository.class.getClassLoader(),
+                new Class<?>[]{OrderRepository.class},
+                (proxy, method, args) -> {
+                    if ("findById".equals(method.getName())) {
+                        return Optional.of(order);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        orderService = new OrderServiceImpl();
+        BenchmarkSupport.inject(orderService, "orderRepository", repository);
+    }
+
+    @Benchmark
+    public OrderResponse convertOrder() {
+        return orderService.getOrderById(1L);
+    }
+}
@@ -0,0 +1,264 @@
+package org.restaurant.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The simulated service. Arrivals are an open model: walk-in parties and phone bookings arrive as
+ * Poisson processes at the configured rates whether or not the server keeps up, and every request
+ * a party triggers is timed from the moment the party walked in. A party that has to wait for a
+ * free waiter therefore shows up in the corrected histograms, which is what a guest would feel.
+ * - waiters: find the best table for the party, place an order, send it to the kitchen
+ * - hosts: take phone bookings for a table at a future time
+ * - chefs: poll the kitchen queue on a fixed interval and mark their share of orders as served
+ */
+final class DinnerService {
+
+    private final LoadTestConfig config;
+    private final RestaurantClient client;
+    private final BlockingQueue<String> waiterTokens = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> hostTokens = new LinkedBlockingQueue<>();
+    private final List<String> chefTokens = new ArrayList<>();
+    private final List<Long> menuItemIds = new ArrayList<>();
+    private final Map<Long, Integer> tableCapacities = new LinkedHashMap<>();
+
+    // Scenario counters, reset together with the histograms when the warmup ends
+    final LongAdder partiesArrived = new LongAdder();
+    final LongAdder partiesSeated = new LongAdder();
+    final LongAdder partiesTurnedAway = new LongAdder();
+    final LongAdder ordersSentToKitchen = new LongAdder();
+    final LongAdder ordersServed = new LongAdder();
+    final LongAdder bookingsMade = new LongAdder();
+    final LongAdder bookingsRejected = new LongAdder();
+
+    private volatile boolean running;
+
+    DinnerService(LoadTestConfig config, RestaurantClient client) {
+        this.config = config;
+        this.client = client;
+    }
+
+    /**
+     * Create the staff accounts and read the menu and floor plan with the seeded admin account
+     */
+    void prepare(String adminUsername, String adminPassword) {
+        String admin = client.login(adminUsername, adminPassword);
+
+        for (int i = 1; i <= config.waiters; i++) {
+            waiterTokens.add(staff(admin, "WAITER", "loadwaiter" + i));
+        }
+        for (int i = 1; i <= config.hosts; i++) {
+            hostTokens.add(staff(admin, "WAITER", "loadhost" + i));
+        }
+        for (int i = 1; i <= config.chefs; i++) {
+            chefTokens.add(staff(admin, "CHEF", "loadchef" + i));
+        }
+
+        for (JsonNode item : client.send("GET /menu", admin, "GET", "/menu", null, System.nanoTime()).body) {
+            menuItemIds.add(item.get("itemId").asLong());
+        }
+        for (JsonNode table : client.send("GET /tables", admin, "GET", "/tables", null, System.nanoTime()).body) {
+            tableCapacities.put(table.get("tableId").asLong(), table.get("capacity").asInt());
+        }
+        if (menuItemIds.isEmpty() || tableCapacities.isEmpty()) {
+            throw new IllegalStateException("The server has no menu items or tables to run a service against");
+        }
+    }
+
+    private String staff(String adminToken, String role, String username) {
+        String password = username + "-pass";
+        // Re-runs against a persistent database find the account already there
+        client.send("POST /users", adminToken, "POST", "/users", Map.of(
+                "fullName", "Load Test " + username,
+                "email", username + "@loadtest.local",
+                "role", role,
+                "username", username,
+                "password", password), System.nanoTime());
+        return client.login(username, password);
+    }
+
+    /**
+     * Run the service until the deadline, calling onWarmupEnd once the warmup period has passed
+     */
+    void run(Runnable onWarmupEnd) throws InterruptedException {
+        running = true;
+        long start = System.nanoTime();
+        long warmupEnd = start + config.warmup.toNanos();
+        long end = warmupEnd + config.duration.toNanos();
+
+        ExecutorService waiters = Executors.newFixedThreadPool(config.waiters);
+        ExecutorService hosts = Executors.newFixedThreadPool(config.hosts);
+        List<Thread> threads = new ArrayList<>();
+        threads.add(arrivals("parties", config.partiesPerSecond, start, end, config.seed,
+                intended -> waiters.execute(() -> seatParty(intended))));
+        threads.add(arrivals("bookings", config.bookingsPerSecond, start, end, config.seed + 1,
+                intended -> hosts.execute(() -> takeBooking(intended))));
+        for (int i = 0; i < chefTokens.size(); i++) {
+            int chef = i;
+            threads.add(start("chef-" + chef, () -> cook(chef, end)));
+        }
+
+        LockSupport.parkNanos(warmupEnd - System.nanoTime());
+        resetCounters();
+        onWarmupEnd.run();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        running = false;
+        waiters.shutdown();
+        hosts.shutdown();
+        waiters.awaitTermination(1, TimeUnit.MINUTES);
+        hosts.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private interface Arrival {
+        void arrive(long intendedStartNanos);
+    }
+
+    // Schedule from the planned timeline, never from "now", so a slow server cannot thin out the load
+    private Thread arrivals(String name, double perSecond, long start, long end, long seed, Arrival arrival) {
+        return start(name, () -> {
+            if (perSecond <= 0) {
+                return;
+            }
+            Random random = new Random(seed);
+            double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / perSecond;
+            long next = start;
+            while (true) {
+                next += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+                if (next >= end) {
+                    return;
+                }
+                LockSupport.parkNanos(next - System.nanoTime());
+                arrival.arrive(next);
+            }
+        });
+    }
+
+    private void seatParty(long arrivedAt) {
+        partiesArrived.increment();
+        String token = take(waiterTokens);
+        try {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int partySize = 1 + random.nextInt(6);
+
+            RestaurantClient.Response table = client.send("GET /tables/best-available/{capacity}", token,
+                    "GET", "/tables/best-available/" + partySize, null, arrivedAt);
+            if (!table.isSuccess()) {
+                partiesTurnedAway.increment();
+                return;
+            }
+            partiesSeated.increment();
+
+            List<Map<String, Object>> items = new ArrayList<>();
+            int dishes = 1 + random.nextInt(4);
+            for (int i = 0; i < dishes; i++) {
+                items.add(Map.of(
+                        "menuItemId", menuItemIds.get(random.nextInt(menuItemIds.size())),
+                        "quantity", 1 + random.nextInt(partySize)));
+            }
+            // The order follows straight on from the seating, so it is due as soon as the table is known
+            RestaurantClient.Response order = client.send("POST /orders", token, "POST", "/orders",
+                    Map.of("tableNumber", table.body.get("tableId").asInt(), "items", items), System.nanoTime());
+            if (!order.isSuccess()) {
+                return;
+            }
+
+            RestaurantClient.Response kitchen = client.send("PUT /orders/{id}/kitchen", token, "PUT",
+                    "/orders/" + order.body.get("id").asLong() + "/kitchen", null, System.nanoTime());
+            if (kitchen.isSuccess()) {
+                ordersSentToKitchen.increment();
+            }
+        } finally {
+            waiterTokens.add(token);
+        }
+    }
+
+    private void takeBooking(long calledAt) {
+        String token = take(hostTokens);
+        try {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<Long> tables = new ArrayList<>(tableCapacities.keySet());
+            long tableId = tables.get(random.nextInt(tables.size()));
+            // Half-hour slots over the next week keep a steady rate of double bookings
+            LocalDateTime slot = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)
+                    .plusMinutes(30L * (2 + random.nextInt(7 * 24 * 2)));
+
+            RestaurantClient.Response booking = client.send("POST /bookings", token, "POST", "/bookings", Map.of(
+                    "customerName", "Guest " + random.nextInt(100_000),
+                    "bookingTime", slot,
+                    "tableNumber", tableId,
+                    "numberOfGuests", 1 + random.nextInt(tableCapacities.get(tableId))), calledAt);
+            if (booking.isSuccess()) {
+                bookingsMade.increment();
+            } else {
+                bookingsRejected.increment();
+            }
+        } finally {
+            hostTokens.add(token);
+        }
+    }
+
+    // Chefs split the queue by order id so they do not race to serve the same ticket
+    private void cook(int chef, long end) {
+        String token = chefTokens.get(chef);
+        long interval = config.chefPollInterval.toNanos();
+        long next = System.nanoTime();
+        while (running && next < end) {
+            RestaurantClient.Response queue = client.poll("GET /orders/in-kitchen", token, "/orders/in-kitchen", interval);
+            if (queue.isSuccess()) {
+                for (JsonNode order : queue.body) {
+                    long id = order.get("id").asLong();
+                    if (id % chefTokens.size() != chef) {
+                        continue;
+                    }
+                    RestaurantClient.Response served = client.send("PUT /orders/{id}/served", token, "PUT",
+                            "/orders/" + id + "/served", null, System.nanoTime());
+                    if (served.isSuccess()) {
+                        ordersServed.increment();
+                    }
+                }
+            }
+            next += interval;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+    }
+
+    private static Thread start(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.start();
+        return thread;
+    }
+
+    private static String take(BlockingQueue<String> tokens) {
+        try {
+            return tokens.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free member of staff", e);
+        }
+    }
+
+    private void resetCounters() {
+        for (LongAdder counter : List.of(partiesArrived, partiesSeated, partiesTurnedAway, ordersSentToKitchen,
+                ordersServed, bookingsMade, bookingsRejected)) {
+            counter.reset();
+        }
+    }
+}
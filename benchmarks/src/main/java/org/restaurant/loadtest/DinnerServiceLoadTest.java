@@ -0,0 +1,129 @@
+package org.restaurant.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.restaurant.RestaurantManagementSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test simulating a dinner service against miniProject_2.
+ * Boots the application in-process on a random port (H2 by default, or a local Postgres with
+ * --db=postgres), or drives an already running server given with --base-url.
+ * e.g. {@code java -cp target/benchmarks.jar org.restaurant.loadtest.DinnerServiceLoadTest --duration=PT5M --party-rate=20}
+ * The report goes to stdout and results/loadtest-report.txt.
+ */
+public class DinnerServiceLoadTest {
+
+    private static final Path REPORT = Paths.get("results", "loadtest-report.txt");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ConfigurableApplicationContext application = config.baseUrl == null ? boot(config) : null;
+        try {
+            String baseUrl = config.baseUrl != null ? config.baseUrl
+                    : "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort() + "/api";
+
+            EndpointStats stats = new EndpointStats();
+            RestaurantClient client = new RestaurantClient(baseUrl, stats, config.waiters + config.hosts + config.chefs);
+            DinnerService service = new DinnerService(config, client);
+            service.prepare(System.getProperty("loadtest.admin.username", "admin"),
+                    System.getProperty("loadtest.admin.password", "admin123"));
+
+            System.out.println("Dinner service: " + config);
+            long[] measuredFrom = new long[1];
+            service.run(() -> {
+                stats.startRecording();
+                measuredFrom[0] = System.nanoTime();
+            });
+            stats.stopRecording();
+            double seconds = (System.nanoTime() - measuredFrom[0]) / 1e9;
+
+            report(config, service, stats, seconds);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext boot(LoadTestConfig config) {
+        boolean postgres = "postgres".equals(config.database);
+        Map<String, String> properties = Map.ofEntries(
+                Map.entry("server.port", "0"),
+                Map.entry("server.servlet.context-path", "/api"),
+                Map.entry("spring.datasource.url", postgres ? config.jdbcUrl
+                        : "jdbc:h2:mem:dinner;DB_CLOSE_DELAY=-1;MODE=PostgreSQL"),
+                Map.entry("spring.datasource.username", postgres ? config.jdbcUser : "sa"),
+                Map.entry("spring.datasource.password", postgres ? config.jdbcPassword : ""),
+                Map.entry("spring.datasource.driver-class-name", postgres ? "org.postgresql.Driver" : "org.h2.Driver"),
+                Map.entry("spring.jpa.properties.hibernate.dialect", postgres
+                        ? "org.hibernate.dialect.PostgreSQLDialect" : "org.hibernate.dialect.H2Dialect"),
+                Map.entry("spring.jpa.hibernate.ddl-auto", postgres ? "update" : "create-drop"),
+                Map.entry("spring.jpa.show-sql", "false"),
+                Map.entry("jwt.secret", "RestaurantManagementSystem2024SecretKeyForJWTTokenGenerationWithAdditionalSecurityToMeetHS512Requirements123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ"),
+                Map.entry("jwt.expiration", "86400000"),
+                Map.entry("jwt.refresh-expiration", "604800000"),
+                // One in-process instance, so there are no other nodes to notify
+                Map.entry("restaurant.cluster-cache.enabled", "false"),
+                // Request logging would dominate the profile of the server under test
+                Map.entry("logging.level.root", "WARN"),
+                Map.entry("logging.level.com.restaurant", "WARN"),
+                Map.entry("logging.level.org.restaurant", "WARN"),
+                Map.entry("logging.level.org.springframework.security", "WARN"),
+                Map.entry("logging.level.org.hibernate.SQL", "WARN"),
+                Map.entry("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN"));
+
+        // Passed as command line arguments so they outrank the application.properties bundled in the jar
+        String[] arguments = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(RestaurantManagementSystemApplication.class).run(arguments);
+    }
+
+    private static void report(LoadTestConfig config, DinnerService service, EndpointStats stats, double seconds) throws IOException {
+        Files.createDirectories(REPORT.getParent());
+        try (PrintStream file = new PrintStream(Files.newOutputStream(REPORT), true, StandardCharsets.UTF_8)) {
+            for (PrintStream out : new PrintStream[]{System.out, file}) {
+                out.printf("%nDinner service: %s%n", config);
+                out.printf("Measured %.1fs after %s warmup%n%n", seconds, config.warmup);
+                out.printf("Parties:  %d arrived, %d seated, %d turned away (no table free)%n",
+                        service.partiesArrived.sum(), service.partiesSeated.sum(), service.partiesTurnedAway.sum());
+                out.printf("Orders:   %d sent to kitchen, %d served%n",
+                        service.ordersSentToKitchen.sum(), service.ordersServed.sum());
+                out.printf("Bookings: %d made, %d rejected%n%n", service.bookingsMade.sum(), service.bookingsRejected.sum());
+
+                out.printf("%-38s %8s %6s %6s %8s  %-33s  %-33s%n", "Endpoint", "Count", "4xx", "Error", "Req/s",
+                        "Service ms p50/p99/p999/max", "Corrected ms p50/p99/p999/max");
+                for (Map.Entry<String, EndpointStats.Endpoint> entry : stats.snapshot().entrySet()) {
+                    EndpointStats.Endpoint endpoint = entry.getValue();
+                    long count = endpoint.service.getTotalCount();
+                    out.printf("%-38s %8d %6d %6d %8.1f  %-33s  %-33s%n", entry.getKey(), count,
+                            endpoint.rejections.sum(), endpoint.failures.sum(), count / seconds,
+                            percentiles(endpoint.service), percentiles(endpoint.corrected));
+                }
+            }
+        }
+        System.out.println("\nReport written to " + REPORT);
+    }
+
+    private static String percentiles(Histogram histogram) {
+        return String.format("%.1f/%.1f/%.1f/%.1f",
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
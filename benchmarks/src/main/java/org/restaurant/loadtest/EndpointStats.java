@@ -0,0 +1,75 @@
+package org.restaurant.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per endpoint. Each endpoint keeps two histograms:
+ * - service: time from sending the request to receiving the response
+ * - corrected: time from when the request should have been sent, which charges any backlog in
+ *   the load generator (a stalled server holding up later requests) to the latency it caused
+ */
+final class EndpointStats {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    void startRecording() {
+        endpoints.clear();
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+    }
+
+    void record(String endpoint, long intendedStartNanos, long sentNanos, long completedNanos, int status) {
+        if (!recording) {
+            return;
+        }
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.service.recordValue(Math.min(completedNanos - sentNanos, MAX_TRACKABLE_NANOS));
+        stats.corrected.recordValue(Math.min(completedNanos - intendedStartNanos, MAX_TRACKABLE_NANOS));
+        stats.count(status);
+    }
+
+    // Closed-loop callers (chefs polling on a fixed interval) backfill the samples a stall swallowed
+    void recordWithExpectedInterval(String endpoint, long sentNanos, long completedNanos, long intervalNanos, int status) {
+        if (!recording) {
+            return;
+        }
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        long latency = Math.min(completedNanos - sentNanos, MAX_TRACKABLE_NANOS);
+        stats.service.recordValue(latency);
+        stats.corrected.recordValueWithExpectedInterval(latency, intervalNanos);
+        stats.count(status);
+    }
+
+    Map<String, Endpoint> snapshot() {
+        return new TreeMap<>(endpoints);
+    }
+
+    static final class Endpoint {
+        final Histogram service = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+        final Histogram corrected = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+        // 4xx answers are business outcomes (table taken, no table free); 5xx and I/O errors are failures
+        final LongAdder rejections = new LongAdder();
+        final LongAdder failures = new LongAdder();
+
+        private void count(int status) {
+            if (status >= 400 && status < 500) {
+                rejections.increment();
+            } else if (status < 200 || status >= 500) {
+                failures.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.restaurant.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line settings for a dinner service run, given as --name=value
+ */
+final class LoadTestConfig {
+
+    final Duration duration;
+    final Duration warmup;
+    final int waiters;
+    final int hosts;
+    final int chefs;
+    final double partiesPerSecond;
+    final double bookingsPerSecond;
+    final Duration chefPollInterval;
+    final String database;
+    final String jdbcUrl;
+    final String jdbcUser;
+    final String jdbcPassword;
+    final String baseUrl;
+    final long seed;
+
+    private LoadTestConfig(Map<String, String> options) {
+        duration = Duration.parse(options.getOrDefault("duration", "PT2M"));
+        warmup = Duration.parse(options.getOrDefault("warmup", "PT15S"));
+        waiters = Integer.parseInt(options.getOrDefault("waiters", "8"));
+        hosts = Integer.parseInt(options.getOrDefault("hosts", "2"));
+        chefs = Integer.parseInt(options.getOrDefault("chefs", "3"));
+        partiesPerSecond = Double.parseDouble(options.getOrDefault("party-rate", "5"));
+        bookingsPerSecond = Double.parseDouble(options.getOrDefault("booking-rate", "1"));
+        chefPollInterval = Duration.parse(options.getOrDefault("chef-poll", "PT1S"));
+        database = options.getOrDefault("db", "h2");
+        jdbcUrl = options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/restaurant_db");
+        jdbcUser = options.getOrDefault("jdbc-user", "postgres");
+        jdbcPassword = options.getOrDefault("jdbc-password", "password");
+        baseUrl = options.get("base-url");
+        seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return new LoadTestConfig(options);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("duration=%s warmup=%s waiters=%d hosts=%d chefs=%d party-rate=%.2f/s booking-rate=%.2f/s db=%s",
+                duration, warmup, waiters, hosts, chefs, partiesPerSecond, bookingsPerSecond,
+                baseUrl != null ? "external " + baseUrl : database);
+    }
+}
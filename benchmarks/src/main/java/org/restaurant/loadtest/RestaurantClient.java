@@ -0,0 +1,121 @@
+package org.restaurant.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Thin JSON client for the REST API that times every call into {@link EndpointStats}.
+ * The endpoint name is the route template (e.g. "PUT /orders/{id}/kitchen") so calls to
+ * different ids share one histogram.
+ */
+final class RestaurantClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final EndpointStats stats;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    RestaurantClient(String baseUrl, EndpointStats stats, int connections) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.stats = stats;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(2, connections)))
+                .build();
+    }
+
+    static final class Response {
+        final int status;
+        final JsonNode body;
+
+        Response(int status, JsonNode body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    String login(String username, String password) {
+        Response response = send("POST /auth/login", null, "POST", "/auth/login",
+                Map.of("username", username, "password", password), System.nanoTime());
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("Login failed for " + username + ": HTTP " + response.status);
+        }
+        return response.body.get("token").asText();
+    }
+
+    /**
+     * Send a request whose corrected latency is measured from intendedStartNanos
+     */
+    Response send(String endpoint, String token, String method, String path, Object body, long intendedStartNanos) {
+        long sent = System.nanoTime();
+        Response response = execute(token, method, path, body);
+        stats.record(endpoint, intendedStartNanos, sent, System.nanoTime(), response.status);
+        return response;
+    }
+
+    /**
+     * Send a request issued on a fixed schedule, backfilling the samples a stall would have hidden
+     */
+    Response poll(String endpoint, String token, String path, long intervalNanos) {
+        long sent = System.nanoTime();
+        Response response = execute(token, "GET", path, null);
+        stats.recordWithExpectedInterval(endpoint, sent, System.nanoTime(), intervalNanos, response.status);
+        return response;
+    }
+
+    private Response execute(String token, String method, String path, Object body) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Accept", "application/json");
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            if (body != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            byte[] payload = response.body();
+            JsonNode json = payload.length == 0 ? mapper.nullNode() : readQuietly(payload);
+            return new Response(response.statusCode(), json);
+        } catch (IOException e) {
+            return new Response(-1, mapper.nullNode());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, mapper.nullNode());
+        }
+    }
+
+    private JsonNode readQuietly(byte[] payload) {
+        try {
+            return mapper.readTree(payload);
+        } catch (IOException e) {
+            // Non-JSON error pages still carry a useful status code
+            return mapper.nullNode();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package zeta.foods.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import zeta.foods.model.Bill;
+import zeta.foods.model.Order;
+import zeta.foods.model.OrderItem;
+import zeta.foods.service.impl.CustomerServiceImpl;
+import zeta.foods.utils.BillingEngine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bill totals and printable bill formatting, without the database update that precedes them in generateBill
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dlogback.configurationFile=bench-logback.xml"})
+@State(Scope.Benchmark)
+public class BillingBenchmark {
+
+    @Param({"3", "12"})
+    public int lines;
+
+    private Order order;
+    private Bill bill;
+
+    @Setup
+    public void prepareOrder() {
+        order = new Order();
+        order.setCustomerName("Bench Customer");
+        for (int i = 0; i < lines; i++) {
+            order.addItem(new OrderItem("Main Course", "Dish " + i, 1 + i % 3, 149.0 + i));
+        }
+        bill = BillingEngine.getInstance().bill(order.getSubtotalPaise());
+    }
+
+    @Benchmark
+    public Bill computeTotals() {
+        return BillingEngine.getInstance().bill(order.getSubtotalPaise());
+    }
+
+    @Benchmark
+    public String formatBill() {
+        return CustomerServiceImpl.formatBill(order, bill);
+    }
+}
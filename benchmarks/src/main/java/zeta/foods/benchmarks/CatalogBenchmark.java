@@ -0,0 +1,79 @@
+package zeta.foods.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import zeta.foods.model.Dish;
+import zeta.foods.model.Recipe;
+import zeta.foods.utils.DishSearchIndex;
+import zeta.foods.utils.MenuCatalog;
+import zeta.foods.utils.menu;
+import zeta.foods.utils.recipes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recipe and menu price lookups, rotating through every dish so no single key stays hot.
+ * getPriceValue parses the menu's price strings; findDishPrice reads the compiled catalog.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dlogback.configurationFile=bench-logback.xml"})
+@State(Scope.Thread)
+public class CatalogBenchmark {
+
+    private String[] dishNames;
+    private String[] prices;
+    private int next;
+
+    @Setup
+    public void loadCatalog() {
+        dishNames = recipes.getAllRecipes().keySet().toArray(new String[0]);
+
+        List<String> allPrices = new ArrayList<>();
+        for (Map<String, String> category : menu.menuItems.values()) {
+            allPrices.addAll(category.values());
+        }
+        prices = allPrices.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public Recipe getRecipe() {
+        return recipes.getRecipe(dishNames[next++ % dishNames.length]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Recipe getRecipe_contended() {
+        return recipes.getRecipe(dishNames[next++ % dishNames.length]);
+    }
+
+    @Benchmark
+    public int getPriceValue() {
+        return menu.getPriceValue(prices[next++ % prices.length]);
+    }
+
+    @Benchmark
+    public long findDishPrice() {
+        Dish dish = MenuCatalog.getInstance().findDish(dishNames[next++ % dishNames.length]);
+        return dish == null ? 0 : dish.getPricePaise();
+    }
+
+    @Benchmark
+    public List<Dish> searchByPrefix() {
+        return DishSearchIndex.getInstance().search("pan tik", 9);
+    }
+
+    @Benchmark
+    public List<Dish> searchWithTypo() {
+        return DishSearchIndex.getInstance().search("chiken", 9);
+    }
+
+    @Benchmark
+    public List<Dish> searchByIngredient() {
+        return DishSearchIndex.getInstance().findByIngredient("paneer", 9);
+    }
+}
@@ -0,0 +1,81 @@
+package zeta.foods.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import zeta.foods.model.OrderItem;
+import zeta.foods.utils.CurrentInventory;
+import zeta.foods.utils.recipes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingredient checks and deductions against the day's inventory.
+ * CurrentInventory persists to ~/restaurant_data, so user.home is pointed at a scratch
+ * directory before the class loads to keep benchmark runs away from real data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dlogback.configurationFile=bench-logback.xml"})
+@State(Scope.Benchmark)
+public class InventoryBenchmark {
+
+    static {
+        try {
+            System.setProperty("user.home", Files.createTempDirectory("restaurant-bench").toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Param({"1", "5"})
+    public int dishes;
+
+    private List<OrderItem> orderItems;
+    private Set<String> ingredients;
+
+    @Setup(Level.Trial)
+    public void prepareOrder() {
+        orderItems = new ArrayList<>();
+        ingredients = new HashSet<>();
+        for (Map.Entry<String, Map<String, Integer>> recipe : recipes.getAllRecipes().entrySet()) {
+            if (orderItems.size() == dishes) {
+                break;
+            }
+            orderItems.add(new OrderItem("Bench", recipe.getKey(), 2, 100.0));
+            ingredients.addAll(recipe.getValue().keySet());
+        }
+    }
+
+    // Stock up so deductions never run out mid-iteration and every call takes the success path
+    @Setup(Level.Iteration)
+    public void restock() {
+        for (String ingredient : ingredients) {
+            CurrentInventory.updateQuantity(ingredient, Integer.MAX_VALUE / 2);
+        }
+    }
+
+    @Benchmark
+    public boolean checkIngredientsAvailability() {
+        return CurrentInventory.checkIngredientsAvailability(orderItems);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean checkIngredientsAvailability_contended() {
+        return CurrentInventory.checkIngredientsAvailability(orderItems);
+    }
+
+    @Benchmark
+    public boolean useIngredientsForOrder() {
+        return CurrentInventory.useIngredientsForOrder(orderItems);
+    }
+}
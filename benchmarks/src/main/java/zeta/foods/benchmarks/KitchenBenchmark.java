@@ -0,0 +1,69 @@
+package zeta.foods.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import zeta.foods.model.OrderStatus;
+import zeta.foods.service.impl.KitchenServiceImpl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A full kitchen ticket lifecycle per call: place, then move every item through
+ * preparation, ready and served, after which the table drops out of the live orders.
+ * The contended variant has several threads sharing one kitchen, each on its own table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dlogback.configurationFile=bench-logback.xml"})
+public class KitchenBenchmark {
+
+    private static final OrderStatus[] LIFECYCLE = {OrderStatus.IN_PREPARATION, OrderStatus.READY, OrderStatus.SERVED};
+
+    @State(Scope.Benchmark)
+    public static class Kitchen {
+        final KitchenServiceImpl kitchenService = new KitchenServiceImpl();
+        final AtomicInteger tables = new AtomicInteger();
+    }
+
+    @State(Scope.Thread)
+    public static class Ticket {
+        String tableNumber;
+        Map<String, Integer> items;
+        String[] itemKeys;
+
+        @Setup
+        public void prepare(Kitchen kitchen) {
+            tableNumber = String.valueOf(kitchen.tables.incrementAndGet());
+            items = new LinkedHashMap<>();
+            items.put("Paneer Tikka", 1);
+            items.put("Butter Naan", 3);
+            items.put("Dal Makhani", 1);
+            itemKeys = new String[]{"Paneer Tikka", "Butter Naan #1", "Butter Naan #2", "Butter Naan #3", "Dal Makhani"};
+        }
+    }
+
+    @Benchmark
+    public boolean ticketLifecycle(Kitchen kitchen, Ticket ticket) {
+        return runTicket(kitchen.kitchenService, ticket);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean ticketLifecycle_contended(Kitchen kitchen, Ticket ticket) {
+        return runTicket(kitchen.kitchenService, ticket);
+    }
+
+    private static boolean runTicket(KitchenServiceImpl kitchenService, Ticket ticket) {
+        boolean ok = kitchenService.placeOrder(ticket.tableNumber, ticket.items);
+        for (OrderStatus status : LIFECYCLE) {
+            for (String item : ticket.itemKeys) {
+                ok &= kitchenService.updateOrderStatus(ticket.tableNumber, item, status);
+            }
+        }
+        return ok;
+    }
+}
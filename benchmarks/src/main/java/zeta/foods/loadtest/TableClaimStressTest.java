@@ -0,0 +1,173 @@
+package zeta.foods.loadtest;
+
+import zeta.foods.utils.DatabaseUtil;
+import zeta.foods.utils.TableClaims;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Stress test for table claiming in miniProject_1 against a real Postgres, configured with the
+ * application's own DB_* environment variables.
+ * Every round frees a set of scratch tables, releases all threads at once and has each of them try to
+ * reserve every table. A table must end up with exactly one winner and exactly one active reservation.
+ * e.g. {@code java -cp target/benchmarks.jar zeta.foods.loadtest.TableClaimStressTest --threads=32 --tables=20 --rounds=50}
+ * Exits with status 1 if any table was claimed twice or not at all.
+ */
+public class TableClaimStressTest {
+
+    // Far above anything the restaurant numbers its tables with; removed again when the test ends
+    private static final int FIRST_TABLE = 9001;
+
+    public static void main(String[] args) throws Exception {
+        int threads = option(args, "threads", 32);
+        int tables = option(args, "tables", 20);
+        int rounds = option(args, "rounds", 50);
+        long customerId = anyUserId();
+
+        System.out.printf("Table claims: %d threads racing for %d tables, %d rounds%n", threads, tables, rounds);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int failures = 0;
+        long claims = 0;
+        long started = System.nanoTime();
+        try {
+            createTables(tables);
+            for (int round = 1; round <= rounds; round++) {
+                resetTables(tables);
+                AtomicIntegerArray winners = new AtomicIntegerArray(tables);
+                CyclicBarrier start = new CyclicBarrier(threads);
+
+                List<Future<?>> racers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    racers.add(executor.submit(() -> {
+                        // Each thread walks the tables in its own order so they collide on different rows
+                        List<Integer> order = new ArrayList<>();
+                        for (int i = 0; i < tables; i++) {
+                            order.add(i);
+                        }
+                        Collections.shuffle(order);
+                        start.await();
+                        for (int i : order) {
+                            if (TableClaims.reserve(FIRST_TABLE + i, customerId, null, null)) {
+                                winners.incrementAndGet(i);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> racer : racers) {
+                    racer.get();
+                }
+                claims += (long) threads * tables;
+
+                int[] reservations = activeReservations(tables);
+                for (int i = 0; i < tables; i++) {
+                    if (winners.get(i) != 1 || reservations[i] != 1) {
+                        failures++;
+                        System.out.printf("Round %d, table #%d: %d winners, %d active reservations%n",
+                                round, FIRST_TABLE + i, winners.get(i), reservations[i]);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            dropTables(tables);
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%d claim attempts in %.1f s (%.0f/s), %d tables claimed other than exactly once%n",
+                claims, seconds, claims / seconds, failures);
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static long anyUserId() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id FROM users ORDER BY id LIMIT 1");
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new IllegalStateException("No users to reserve tables for; run the migrations first");
+            }
+            return rs.getLong(1);
+        }
+    }
+
+    private static void createTables(int tables) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO tables (table_number, capacity) SELECT n, 4 FROM generate_series(?, ?) n " +
+                     "ON CONFLICT (table_number) DO NOTHING")) {
+            stmt.setInt(1, FIRST_TABLE);
+            stmt.setInt(2, FIRST_TABLE + tables - 1);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void resetTables(int tables) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            deleteReservations(conn, tables);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE tables SET is_occupied = FALSE, booking_start_time = NULL, booking_end_time = NULL " +
+                    "WHERE table_number BETWEEN ? AND ?")) {
+                stmt.setInt(1, FIRST_TABLE);
+                stmt.setInt(2, FIRST_TABLE + tables - 1);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static int[] activeReservations(int tables) throws SQLException {
+        int[] counts = new int[tables];
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT table_number, COUNT(*) FROM table_reservations " +
+                     "WHERE status = 'active' AND table_number BETWEEN ? AND ? GROUP BY table_number")) {
+            stmt.setInt(1, FIRST_TABLE);
+            stmt.setInt(2, FIRST_TABLE + tables - 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts[rs.getInt(1) - FIRST_TABLE] = rs.getInt(2);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static void dropTables(int tables) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            deleteReservations(conn, tables);
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM tables WHERE table_number BETWEEN ? AND ?")) {
+                stmt.setInt(1, FIRST_TABLE);
+                stmt.setInt(2, FIRST_TABLE + tables - 1);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static void deleteReservations(Connection conn, int tables) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM table_reservations WHERE table_number BETWEEN ? AND ?")) {
+            stmt.setInt(1, FIRST_TABLE);
+            stmt.setInt(2, FIRST_TABLE + tables - 1);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static int option(String[] args, String name, int defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith("--" + name + "=")) {
+                return Integer.parseInt(arg.substring(name.length() + 3));
+            }
+        }
+        return defaultValue;
+    }
+}
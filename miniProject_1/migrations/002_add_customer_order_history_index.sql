@@ -0,0 +1,10 @@
+-- Migration: Index customer order history for keyset paging
+-- Serves "WHERE customer_id = ? AND (order_timestamp, id) < (?, ?) ORDER BY order_timestamp DESC, id DESC LIMIT ?"
+-- in index order, so a page costs the same however long a customer's history is.
+-- The included columns let history list views run as index-only scans without reading the items JSONB.
+CREATE INDEX IF NOT EXISTS idx_orders_customer_history
+    ON orders (customer_id, order_timestamp DESC, id DESC)
+    INCLUDE (order_id, order_status, bill_subtotal, bill_total, table_number);
+
+-- Replaced by idx_orders_customer_history, which starts with customer_id
+DROP INDEX IF EXISTS idx_orders_customer_id;
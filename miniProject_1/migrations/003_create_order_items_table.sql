@@ -0,0 +1,62 @@
+-- Migration: Store order items as rows instead of a JSONB array on orders
+-- Adding an item appends one row here and bumps orders.bill_subtotal, instead of rewriting the whole items array.
+CREATE TABLE IF NOT EXISTS order_items (
+    id BIGSERIAL PRIMARY KEY,
+    order_id INT NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
+    category VARCHAR(100) NOT NULL,
+    item_name VARCHAR(100) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    quantity INT NOT NULL CHECK (quantity > 0),
+    added_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Items are always read per order, in the order they were added
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id, id);
+
+-- Copy items of existing orders out of the JSONB column, keeping their original order
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM order_items) THEN
+        INSERT INTO order_items (order_id, category, item_name, price, quantity, added_at)
+        SELECT o.id,
+               item.value ->> 'category',
+               item.value ->> 'itemName',
+               (item.value ->> 'price')::NUMERIC(10, 2),
+               (item.value ->> 'quantity')::INT,
+               o.order_timestamp
+        FROM orders o
+        CROSS JOIN LATERAL jsonb_array_elements(o.items) WITH ORDINALITY AS item(value, position)
+        ORDER BY o.id, item.position;
+    END IF;
+END $$;
+
+-- New orders no longer write the JSONB column
+ALTER TABLE orders ALTER COLUMN items SET DEFAULT '[]'::JSONB;
+ALTER TABLE orders ALTER COLUMN items DROP NOT NULL;
+
+-- Backward-compatible view for reports and tools that still read orders.items as JSONB.
+-- Orders with no item rows fall back to the legacy column.
+CREATE OR REPLACE VIEW orders_with_items AS
+SELECT o.id,
+       o.order_id,
+       o.customer_id,
+       o.order_timestamp,
+       COALESCE(
+           (SELECT jsonb_agg(jsonb_build_object(
+                        'category', oi.category,
+                        'itemName', oi.item_name,
+                        'price', oi.price,
+                        'quantity', oi.quantity) ORDER BY oi.id)
+            FROM order_items oi
+            WHERE oi.order_id = o.id),
+           o.items,
+           '[]'::JSONB) AS items,
+       o.bill_subtotal,
+       o.cgst_sgst,
+       o.service_charge,
+       o.bill_total,
+       o.payment_status,
+       o.order_status,
+       o.table_number,
+       o.special_instructions
+FROM orders o;
@@ -0,0 +1,8 @@
+-- Migration: Bill totals are computed by the application's billing engine
+-- The trigger applied different charges from the printed bill and ran on every order update.
+DROP TRIGGER IF EXISTS calculate_order_totals ON orders;
+DROP FUNCTION IF EXISTS calculate_taxes_and_total();
+
+-- New orders start with no items, so every total starts at zero until the application writes it
+ALTER TABLE orders ALTER COLUMN bill_subtotal SET DEFAULT 0;
+ALTER TABLE orders ALTER COLUMN bill_total SET DEFAULT 0;
@@ -0,0 +1,20 @@
+-- Migration: Track when each table row last changed
+-- The application keeps the floor in memory and refreshes it with "WHERE updated_at > <last seen>",
+-- so a refresh only reads the tables that changed since the previous one.
+-- clock_timestamp() rather than NOW(), so rows changed later in a long transaction still sort after earlier ones.
+ALTER TABLE tables ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp();
+
+CREATE OR REPLACE FUNCTION touch_tables_updated_at()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tables_updated_at ON tables;
+CREATE TRIGGER tables_updated_at
+    BEFORE INSERT OR UPDATE ON tables
+    FOR EACH ROW EXECUTE FUNCTION touch_tables_updated_at();
+
+CREATE INDEX IF NOT EXISTS idx_tables_updated_at ON tables (updated_at);
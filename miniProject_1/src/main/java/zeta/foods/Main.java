@@ -1,7 +1,9 @@
 package zeta.foods;
 
+import zeta.foods.model.Dish;
 import zeta.foods.model.Order;
 import zeta.foods.model.User;
+import zeta.foods.monitoring.FlightRecording;
 import zeta.foods.service.AdminService;
 import zeta.foods.service.AuthService;
 import zeta.foods.service.CustomerService;
@@ -10,15 +12,19 @@ import zeta.foods.service.impl.AdminServiceImpl;
 import zeta.foods.service.impl.CustomerServiceImpl;
 import zeta.foods.service.impl.PostgresAuthServiceImpl;
 import zeta.foods.service.impl.WaiterServiceImpl;
+import zeta.foods.server.SessionConsole;
+import zeta.foods.server.TerminalServer;
 import zeta.foods.simulation.AuthSimulation;
 import zeta.foods.utils.DatabaseUtil;
-import zeta.foods.utils.menu;
+import zeta.foods.utils.MenuCatalog;
+import zeta.foods.utils.OrderEventLog;
+import zeta.foods.utils.OrderRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.List;
 import java.util.Scanner;
-import java.util.TreeMap;
 
 public class Main {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
@@ -47,6 +53,7 @@ public class Main {
         logger.info(BANNER);
 
         logger.info("Starting Restaurant Management System...");
+        FlightRecording.startIfEnabled();
 
         try {
             // Print database connection info
@@ -60,10 +67,23 @@ public class Main {
                 simulationMode = true;
             }
 
+            // Check for terminal server mode: one JVM serving many waiter terminals over TCP
+            boolean serverMode = Boolean.parseBoolean(System.getenv().getOrDefault("SERVER_MODE", "false"));
+            if (args.length > 0 && "server".equalsIgnoreCase(args[0])) {
+                serverMode = true;
+            }
+
             // Test database connection
-            DatabaseUtil.getConnection();
+            DatabaseUtil.getConnection().close();
             logger.info("Database connection successful");
 
+            // Bring back the orders that were open when the application last stopped
+            OrderEventLog orderLog = OrderEventLog.getInstance();
+            for (Order order : orderLog.getRecoveredState().getOpenOrders()) {
+                OrderRegistry.getInstance().register(order);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(orderLog::close, "order-log-close"));
+
             // Initialize services
             authService = new PostgresAuthServiceImpl();
             customerService = new CustomerServiceImpl();
@@ -71,9 +91,11 @@ public class Main {
             waiterService = new WaiterServiceImpl();
             logger.info("Services initialized");
 
-            // Run simulation or interactive mode
+            // Run simulation, terminal server or interactive mode
             if (simulationMode) {
                 runSimulation();
+            } else if (serverMode) {
+                startTerminalServer();
             } else {
                 startLoginProcess();
             }
@@ -94,7 +116,35 @@ public class Main {
         logger.info("Simulation completed. Exiting application.");
     }
 
+    /**
+     * Serve terminal sessions over TCP until the JVM is stopped. All sessions share the service
+     * instances above, so inventory, kitchen and order caches exist once per JVM.
+     */
+    private static void startTerminalServer() throws IOException {
+        int port = Integer.parseInt(System.getenv().getOrDefault("TERMINAL_PORT", "7070"));
+        int maxSessions = Integer.parseInt(System.getenv().getOrDefault("TERMINAL_MAX_SESSIONS", "64"));
+
+        TerminalServer server = new TerminalServer(port, maxSessions, Main::runTerminalSession);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            DatabaseUtil.closeConnection();
+        }));
+        server.start();
+    }
+
     private static void startLoginProcess() {
+        try {
+            runTerminalSession();
+        } finally {
+            // Close database connection when app exits
+            DatabaseUtil.closeConnection();
+        }
+    }
+
+    /**
+     * Run one terminal from login to logout on System.in / System.out
+     */
+    private static void runTerminalSession() {
         logger.info("=== Restaurant Management System Login ===");
         logger.info("Type 'exit' to quit the application");
 
@@ -103,7 +153,7 @@ public class Main {
             PostgresAuthServiceImpl authServiceImpl = (PostgresAuthServiceImpl) authService;
             User user = authServiceImpl.consoleLogin();
 
-            if (user == null) {
+            if (user == null && !SessionConsole.isSessionThread()) {
                 // Check if simulation was requested through the console login
                 if ("simulate".equalsIgnoreCase(System.getenv().getOrDefault("LAST_COMMAND", ""))) {
                     runSimulation();
@@ -160,7 +210,8 @@ public class Main {
                                 System.out.println("Manage Users - Feature will be implemented in future updates.");
                                 break;
                             case "2":
-                                System.out.println("View System Reports - Feature will be implemented in future updates.");
+                                System.out.println("\n=== Order Cache ===");
+                                System.out.println(adminService.fetchOrderCacheReport());
                                 break;
                             case "3":
                                 fetchCurrentInventory();
@@ -187,9 +238,6 @@ public class Main {
             scanner.close();
         } catch (Exception e) {
             logger.error("Error during login process: {}", e.getMessage(), e);
-        } finally {
-            // Close database connection when app exits
-            DatabaseUtil.closeConnection();
         }
     }
 
@@ -211,11 +259,11 @@ public class Main {
         while (addingItems) {
             // Display menu categories
             System.out.println("\nMenu Categories:");
-            TreeMap<String, Map<String, String>> menuItems = menu.menuItems;
-            String[] categories = menuItems.keySet().toArray(new String[0]);
+            MenuCatalog catalog = MenuCatalog.getInstance();
+            List<String> categories = catalog.getCategories();
 
-            for (int i = 0; i < categories.length; i++) {
-                System.out.printf("%d. %s\n", i + 1, categories[i]);
+            for (int i = 0; i < categories.size(); i++) {
+                System.out.printf("%d. %s\n", i + 1, categories.get(i));
             }
 
             System.out.print("\nSelect category (0 to finish order): ");
@@ -228,19 +276,18 @@ public class Main {
 
             try {
                 int categoryIndex = Integer.parseInt(categoryInput) - 1;
-                if (categoryIndex < 0 || categoryIndex >= categories.length) {
+                if (categoryIndex < 0 || categoryIndex >= categories.size()) {
                     System.out.println("Invalid category selection.");
                     continue;
                 }
 
-                String selectedCategory = categories[categoryIndex];
-                Map<String, String> items = menu.getCategoryItems(selectedCategory);
+                String selectedCategory = categories.get(categoryIndex);
+                List<Dish> dishes = catalog.getDishes(categoryIndex);
 
                 // Display items in the selected category
                 System.out.println("\n--- " + selectedCategory + " ---");
-                String[] itemNames = items.keySet().toArray(new String[0]);
-                for (int i = 0; i < itemNames.length; i++) {
-                    System.out.printf("%d. %s - %s\n", i + 1, itemNames[i], items.get(itemNames[i]));
+                for (int i = 0; i < dishes.size(); i++) {
+                    System.out.printf("%d. %s - %s\n", i + 1, dishes.get(i).getName(), dishes.get(i).getPriceLabel());
                 }
 
                 System.out.print("\nSelect item (0 to go back): ");
@@ -251,12 +298,13 @@ public class Main {
                 }
 
                 int itemIndex = Integer.parseInt(itemInput) - 1;
-                if (itemIndex < 0 || itemIndex >= itemNames.length) {
+                if (itemIndex < 0 || itemIndex >= dishes.size()) {
                     System.out.println("Invalid item selection.");
                     continue;
                 }
 
-                String selectedItem = itemNames[itemIndex];
+                Dish selectedDish = dishes.get(itemIndex);
+                String selectedItem = selectedDish.getName();
 
                 System.out.print("Enter quantity: ");
                 int quantity = Integer.parseInt(scanner.nextLine().trim());
@@ -267,7 +315,7 @@ public class Main {
                 }
 
                 // Add item to order
-                boolean success = customerServiceImpl.addItemToOrder(order.getOrderId(), selectedCategory, selectedItem, quantity);
+                boolean success = customerServiceImpl.addItemToOrder(order.getOrderId(), selectedDish, quantity);
                 if (success) {
                     System.out.println(quantity + " x " + selectedItem + " added to your order.");
                 } else {
@@ -0,0 +1,49 @@
+package zeta.foods.model;
+
+/**
+ * Totals for one order as worked out by the billing engine. All amounts are in paise.
+ * Charges are listed in the order the engine's rules are configured.
+ */
+public class Bill {
+    private final long subtotalPaise;
+    private final String[] chargeLabels;
+    private final long[] chargePaise;
+    private final long serviceChargePaise;
+    private final long taxPaise;
+
+    public Bill(long subtotalPaise, String[] chargeLabels, long[] chargePaise, long serviceChargePaise, long taxPaise) {
+        this.subtotalPaise = subtotalPaise;
+        this.chargeLabels = chargeLabels;
+        this.chargePaise = chargePaise;
+        this.serviceChargePaise = serviceChargePaise;
+        this.taxPaise = taxPaise;
+    }
+
+    public long getSubtotalPaise() {
+        return subtotalPaise;
+    }
+
+    public int getChargeCount() {
+        return chargePaise.length;
+    }
+
+    public String getChargeLabel(int index) {
+        return chargeLabels[index];
+    }
+
+    public long getChargePaise(int index) {
+        return chargePaise[index];
+    }
+
+    public long getServiceChargePaise() {
+        return serviceChargePaise;
+    }
+
+    public long getTaxPaise() {
+        return taxPaise;
+    }
+
+    public long getTotalPaise() {
+        return subtotalPaise + serviceChargePaise + taxPaise;
+    }
+}
@@ -0,0 +1,57 @@
+package zeta.foods.model;
+
+import java.util.Map;
+
+/**
+ * One dish on the compiled menu catalog. Dishes are created once at startup and never change.
+ */
+public class Dish {
+    private final int id;
+    private final String name;
+    private final int categoryId;
+    private final String category;
+    private final long pricePaise;
+    private final String priceLabel;
+    private final Map<String, Integer> ingredients;
+
+    public Dish(int id, String name, int categoryId, String category, long pricePaise, String priceLabel,
+                Map<String, Integer> ingredients) {
+        this.id = id;
+        this.name = name;
+        this.categoryId = categoryId;
+        this.category = category;
+        this.pricePaise = pricePaise;
+        this.priceLabel = priceLabel;
+        this.ingredients = ingredients;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public long getPricePaise() {
+        return pricePaise;
+    }
+
+    // Price as shown on the menu, e.g. "Rs.249"
+    public String getPriceLabel() {
+        return priceLabel;
+    }
+
+    // Ingredient quantities for one portion, or an empty map if the dish has no recipe
+    public Map<String, Integer> getIngredients() {
+        return ingredients;
+    }
+}
@@ -1,5 +1,7 @@
 package zeta.foods.model;
 
+import zeta.foods.utils.Money;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,7 +15,8 @@ public class Order {
     private OrderStatus status;
     private LocalDateTime orderTime;
     private LocalDateTime deliveryTime;
-    private double totalAmount;
+    // Kept up to date as items are added, so billing never walks the item list
+    private long subtotalPaise;
     private String specialInstructions;
     private int tableNumber;
 
@@ -54,11 +57,12 @@ public class Order {
 
     public void setItems(List<OrderItem> items) {
         this.items = items;
+        calculateTotal();
     }
 
     public void addItem(OrderItem item) {
         this.items.add(item);
-        calculateTotal();
+        this.subtotalPaise += item.getSubtotalPaise();
     }
 
     public OrderStatus getStatus() {
@@ -86,13 +90,19 @@ public class Order {
     }
 
     public double getTotalAmount() {
-        return totalAmount;
+        return Money.toRupees(subtotalPaise);
+    }
+
+    public long getSubtotalPaise() {
+        return subtotalPaise;
     }
 
     public void calculateTotal() {
-        this.totalAmount = items.stream()
-                .mapToDouble(item -> item.getPrice() * item.getQuantity())
-                .sum();
+        long subtotal = 0;
+        for (OrderItem item : items) {
+            subtotal += item.getSubtotalPaise();
+        }
+        this.subtotalPaise = subtotal;
     }
 
     public String getSpecialInstructions() {
@@ -0,0 +1,31 @@
+package zeta.foods.model;
+
+import java.util.List;
+
+/**
+ * A page of a customer's order history, most recent first
+ */
+public class OrderHistoryPage {
+    private final List<OrderSummary> orders;
+    private final boolean hasMore;
+
+    public OrderHistoryPage(List<OrderSummary> orders, boolean hasMore) {
+        this.orders = orders;
+        this.hasMore = hasMore;
+    }
+
+    public List<OrderSummary> getOrders() {
+        return orders;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * The position to continue from for the next page, or null if this is the last page
+     */
+    public OrderSummary getNextCursor() {
+        return hasMore && !orders.isEmpty() ? orders.get(orders.size() - 1) : null;
+    }
+}
@@ -1,16 +1,25 @@
 package zeta.foods.model;
 
+import zeta.foods.utils.Money;
+
 public class OrderItem {
     private String category;
     private String itemName;
     private int quantity;
-    private double price;
+    private long pricePaise;
 
     public OrderItem(String category, String itemName, int quantity, double price) {
         this.category = category;
         this.itemName = itemName;
         this.quantity = quantity;
-        this.price = price;
+        this.pricePaise = Money.toPaise(price);
+    }
+
+    // A factory rather than a long overload, so an int price passed to the constructor still means rupees
+    public static OrderItem ofPaise(String category, String itemName, int quantity, long pricePaise) {
+        OrderItem item = new OrderItem(category, itemName, quantity, 0.0);
+        item.pricePaise = pricePaise;
+        return item;
     }
 
     public String getCategory() {
@@ -38,14 +47,22 @@ public class OrderItem {
     }
 
     public double getPrice() {
-        return price;
+        return Money.toRupees(pricePaise);
     }
 
     public void setPrice(double price) {
-        this.price = price;
+        this.pricePaise = Money.toPaise(price);
+    }
+
+    public long getPricePaise() {
+        return pricePaise;
     }
 
     public double getSubtotal() {
-        return price * quantity;
+        return Money.toRupees(getSubtotalPaise());
+    }
+
+    public long getSubtotalPaise() {
+        return pricePaise * quantity;
     }
 }
@@ -0,0 +1,59 @@
+package zeta.foods.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of a customer's order history: the order row without its items.
+ * Items are loaded separately, only for an order the customer opens.
+ */
+public class OrderSummary {
+    private long rowId;
+    private String orderId;
+    private LocalDateTime orderTime;
+    private OrderStatus status;
+    private double subtotal;
+    private double total;
+    private int tableNumber;
+
+    public OrderSummary(long rowId, String orderId, LocalDateTime orderTime, OrderStatus status,
+                        double subtotal, double total, int tableNumber) {
+        this.rowId = rowId;
+        this.orderId = orderId;
+        this.orderTime = orderTime;
+        this.status = status;
+        this.subtotal = subtotal;
+        this.total = total;
+        this.tableNumber = tableNumber;
+    }
+
+    /**
+     * Database row id; breaks ties between orders placed at the same timestamp when paging
+     */
+    public long getRowId() {
+        return rowId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public LocalDateTime getOrderTime() {
+        return orderTime;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public int getTableNumber() {
+        return tableNumber;
+    }
+}
@@ -0,0 +1,92 @@
+package zeta.foods.monitoring;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Continuous flight recording kept in a rolling window, dumped to a file when an order, inventory,
+ * kitchen or database operation runs slower than JFR_SLOW_MS.
+ * - Enabled with JFR_CONTINUOUS=true. Uses the JDK's default settings, which are meant for always-on use.
+ * - A dump holds the last JFR_MAX_AGE_MINUTES of the recording, so it shows what led up to the slow operation.
+ * - At most one dump is written per JFR_DUMP_COOLDOWN_SECONDS, so a burst of slow operations writes one file.
+ */
+public class FlightRecording {
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecording.class);
+
+    private static final String[] WATCHED_EVENTS = {
+            "zeta.foods.Order", "zeta.foods.Inventory", "zeta.foods.InventoryFile",
+            "zeta.foods.Kitchen", "zeta.foods.JdbcStatement"};
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static RecordingStream stream;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Start the continuous recording if JFR_CONTINUOUS is set. Runs until the JVM exits.
+     */
+    public static synchronized void startIfEnabled() {
+        if (stream != null || !Boolean.parseBoolean(System.getenv().getOrDefault("JFR_CONTINUOUS", "false"))) {
+            return;
+        }
+
+        Duration maxAge = Duration.ofMinutes(Long.parseLong(System.getenv().getOrDefault("JFR_MAX_AGE_MINUTES", "10")));
+        Duration slow = Duration.ofMillis(Long.parseLong(System.getenv().getOrDefault("JFR_SLOW_MS", "1000")));
+        Duration cooldown = Duration.ofSeconds(Long.parseLong(System.getenv().getOrDefault("JFR_DUMP_COOLDOWN_SECONDS", "60")));
+        Path dumpDirectory = Paths.get(System.getenv().getOrDefault("JFR_DUMP_DIR", "data/jfr"));
+
+        try {
+            Files.createDirectories(dumpDirectory);
+            RecordingStream recording = new RecordingStream(Configuration.getConfiguration("default"));
+            recording.setMaxAge(maxAge);
+
+            // Called on the stream's own thread, about a second after the event, so dumps never hold up a terminal
+            Instant[] lastDump = {Instant.MIN};
+            for (String eventName : WATCHED_EVENTS) {
+                recording.onEvent(eventName, event -> {
+                    if (event.getDuration().compareTo(slow) < 0 || Instant.now().isBefore(lastDump[0].plus(cooldown))) {
+                        return;
+                    }
+                    lastDump[0] = Instant.now();
+                    dump(recording, dumpDirectory, event);
+                });
+            }
+
+            // startAsync() would use a non-daemon thread and keep the JVM alive after the last session
+            Thread thread = new Thread(recording::start, "flight-recording");
+            thread.setDaemon(true);
+            thread.start();
+            stream = recording;
+            logger.info("Continuous flight recording started: keeping {} min, dumping to {} on operations over {} ms",
+                    maxAge.toMinutes(), dumpDirectory.toAbsolutePath(), slow.toMillis());
+        } catch (IOException | ParseException | RuntimeException e) {
+            logger.error("Could not start the continuous flight recording: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void dump(RecordingStream recording, Path dumpDirectory, RecordedEvent event) {
+        String name = event.getEventType().getName().substring("zeta.foods.".length());
+        Path file = dumpDirectory.resolve("slow-" + name + "-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        try {
+            recording.dump(file);
+            logger.warn("{} took {} ms; flight recording dumped to {}", name, event.getDuration().toMillis(), file);
+        } catch (IOException e) {
+            logger.error("Could not dump flight recording to {}: {}", file, e.getMessage(), e);
+        }
+    }
+}
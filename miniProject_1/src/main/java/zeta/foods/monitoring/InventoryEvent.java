@@ -0,0 +1,34 @@
+package zeta.foods.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for checking or using ingredients for order items
+ */
+@Name("zeta.foods.Inventory")
+@Label("Inventory Operation")
+@Category({"Restaurant", "Inventory"})
+@Description("Ingredients checked or used for order items")
+public class InventoryEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Order Items")
+    public int items;
+
+    @Label("Ingredients")
+    @Description("Distinct ingredients the items need")
+    public int ingredients;
+
+    @Label("Succeeded")
+    public boolean success;
+
+    public InventoryEvent(String operation, int items) {
+        this.operation = operation;
+        this.items = items;
+    }
+}
@@ -0,0 +1,31 @@
+package zeta.foods.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for reading or writing an inventory file
+ */
+@Name("zeta.foods.InventoryFile")
+@Label("Inventory File I/O")
+@Category({"Restaurant", "Inventory"})
+public class InventoryFileEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Lines")
+    public int lines;
+
+    @Label("Succeeded")
+    public boolean success;
+
+    public InventoryFileEvent(String path, String operation) {
+        this.path = path;
+        this.operation = operation;
+    }
+}
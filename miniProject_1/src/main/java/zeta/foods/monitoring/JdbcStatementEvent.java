@@ -0,0 +1,43 @@
+package zeta.foods.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for one statement executed on a pooled connection
+ */
+@Name("zeta.foods.JdbcStatement")
+@Label("JDBC Statement")
+@Category({"Restaurant", "Database"})
+public class JdbcStatementEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(JdbcStatementEvent.class);
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Rows")
+    @Description("Rows changed, summed over a batch; -1 for queries, whose rows are read after the event")
+    public long rows = -1;
+
+    @Label("Succeeded")
+    public boolean success;
+
+    public JdbcStatementEvent(String sql, String method) {
+        this.sql = sql;
+        this.method = method;
+    }
+
+    /**
+     * @return true if a recording is collecting these events, so statements are worth wrapping
+     */
+    public static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+}
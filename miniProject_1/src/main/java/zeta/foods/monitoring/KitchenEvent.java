@@ -0,0 +1,28 @@
+package zeta.foods.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for cooking one kitchen item
+ */
+@Name("zeta.foods.Kitchen")
+@Label("Cook Item")
+@Category({"Restaurant", "Kitchen"})
+public class KitchenEvent extends Event {
+    @Label("Table")
+    public String tableNumber;
+
+    @Label("Item")
+    public String item;
+
+    @Label("Cooked")
+    public boolean success;
+
+    public KitchenEvent(String tableNumber, String item) {
+        this.tableNumber = tableNumber;
+        this.item = item;
+    }
+}
@@ -0,0 +1,34 @@
+package zeta.foods.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for placing an order, adding to it or billing it
+ */
+@Name("zeta.foods.Order")
+@Label("Order Operation")
+@Category({"Restaurant", "Orders"})
+@Description("An order being placed, added to or billed, including its database writes")
+public class OrderEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Order ID")
+    public String orderId;
+
+    @Label("Items")
+    @Description("Line items involved: the quantity added, or the number of lines billed")
+    public int items;
+
+    @Label("Succeeded")
+    public boolean success;
+
+    public OrderEvent(String operation, String orderId) {
+        this.operation = operation;
+        this.orderId = orderId;
+    }
+}
@@ -0,0 +1,323 @@
+package zeta.foods.server;
+
+import java.io.Console;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Per-thread System.in and System.out, so the interactive console code can serve many terminals
+ * from one JVM without being rewritten. After install(), a session thread binds its socket
+ * streams and every {@code System.out.println} or {@code new Scanner(System.in)} on that thread
+ * talks to its own terminal. Threads without a binding keep using the real console.
+ * Each session prints through its own PrintStream, so a terminal that stops reading only blocks
+ * its own session, never the others or console logging.
+ */
+public final class SessionConsole {
+
+    private static final ThreadLocal<InputStream> sessionIn = new ThreadLocal<>();
+    private static final ThreadLocal<PrintStream> sessionOut = new ThreadLocal<>();
+    private static boolean installed;
+
+    private SessionConsole() {
+    }
+
+    /**
+     * Replace System.in and System.out with streams that route to the calling thread's session
+     */
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        InputStream consoleIn = System.in;
+        PrintStream consoleOut = System.out;
+        System.setIn(new RoutingInputStream(consoleIn));
+        System.setOut(new RoutingPrintStream(consoleOut));
+        installed = true;
+    }
+
+    public static void bind(InputStream in, OutputStream out) {
+        sessionIn.set(in);
+        sessionOut.set(new PrintStream(new TerminalOutputStream(out), true));
+    }
+
+    public static void unbind() {
+        sessionIn.remove();
+        sessionOut.remove();
+    }
+
+    public static boolean isSessionThread() {
+        return sessionIn.get() != null;
+    }
+
+    /**
+     * The JVM console, or null on a session thread where it would belong to someone else's terminal
+     */
+    public static Console console() {
+        return isSessionThread() ? null : System.console();
+    }
+
+    private static final class RoutingInputStream extends InputStream {
+        private final InputStream console;
+
+        RoutingInputStream(InputStream console) {
+            this.console = console;
+        }
+
+        private InputStream target() {
+            InputStream in = sessionIn.get();
+            return in != null ? in : console;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return target().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return target().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return target().available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // A session closing its Scanner ends that session's input, never the server's console
+            if (isSessionThread()) {
+                target().close();
+            }
+        }
+    }
+
+    /**
+     * Hands each call whole to the calling thread's PrintStream. A shared PrintStream would hold its lock
+     * while writing to one session's socket; this one never takes it.
+     */
+    private static final class RoutingPrintStream extends PrintStream {
+        private final PrintStream console;
+
+        RoutingPrintStream(PrintStream console) {
+            super(console, true);
+            this.console = console;
+        }
+
+        private PrintStream target() {
+            PrintStream out = sessionOut.get();
+            return out != null ? out : console;
+        }
+
+        @Override
+        public void write(int b) {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void write(byte[] b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void flush() {
+            target().flush();
+        }
+
+        @Override
+        public void close() {
+            // Neither the server's console nor a session's socket is closed through System.out
+            flush();
+        }
+
+        @Override
+        public boolean checkError() {
+            return target().checkError();
+        }
+
+        @Override
+        public void print(boolean b) {
+            target().print(b);
+        }
+
+        @Override
+        public void print(char c) {
+            target().print(c);
+        }
+
+        @Override
+        public void print(int i) {
+            target().print(i);
+        }
+
+        @Override
+        public void print(long l) {
+            target().print(l);
+        }
+
+        @Override
+        public void print(float f) {
+            target().print(f);
+        }
+
+        @Override
+        public void print(double d) {
+            target().print(d);
+        }
+
+        @Override
+        public void print(char[] s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(String s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(Object obj) {
+            target().print(obj);
+        }
+
+        @Override
+        public void println() {
+            target().println();
+        }
+
+        @Override
+        public void println(boolean x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(int x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(long x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(float x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(double x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char[] x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(String x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(Object x) {
+            target().println(x);
+        }
+
+        @Override
+        public PrintStream printf(String format, Object... args) {
+            target().printf(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream printf(Locale l, String format, Object... args) {
+            target().printf(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(String format, Object... args) {
+            target().format(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(Locale l, String format, Object... args) {
+            target().format(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq) {
+            target().append(csq);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq, int start, int end) {
+            target().append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(char c) {
+            target().append(c);
+            return this;
+        }
+    }
+
+    // Telnet clients expect CRLF line endings; the console code prints bare LF
+    private static final class TerminalOutputStream extends OutputStream {
+        private final OutputStream socket;
+        private int previous;
+
+        TerminalOutputStream(OutputStream socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '\n' && previous != '\r') {
+                socket.write('\r');
+            }
+            socket.write(b);
+            previous = b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int start = off;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n' && (i > off ? b[i - 1] : previous) != '\r') {
+                    socket.write(b, start, i - start);
+                    socket.write('\r');
+                    start = i;
+                }
+            }
+            socket.write(b, start, off + len - start);
+            if (len > 0) {
+                previous = b[off + len - 1];
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            socket.flush();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package zeta.foods.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts terminal sessions over TCP (plain line protocol, so telnet or nc work as clients) and
+ * runs each one on its own thread against the services shared by the whole JVM.
+ * Every session thread has System.in/System.out bound to its socket through {@link SessionConsole},
+ * so the console screens, and any log lines written while serving them, appear on that terminal.
+ */
+public class TerminalServer {
+    private static final Logger logger = LoggerFactory.getLogger(TerminalServer.class);
+
+    private final int port;
+    private final int maxSessions;
+    private final Runnable session;
+    private final Semaphore sessionSlots;
+    private final ExecutorService sessionThreads;
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private volatile ServerSocket serverSocket;
+
+    /**
+     * @param port        TCP port to listen on
+     * @param maxSessions Number of terminals served at once; further connections are turned away
+     * @param session     One login-to-logout terminal session, run on the session's thread
+     */
+    public TerminalServer(int port, int maxSessions, Runnable session) {
+        this.port = port;
+        this.maxSessions = maxSessions;
+        this.session = session;
+        this.sessionSlots = new Semaphore(maxSessions);
+        this.sessionThreads = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "terminal-session-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Listen for terminals until stop() is called
+     */
+    public void start() throws IOException {
+        SessionConsole.install();
+        serverSocket = new ServerSocket(port);
+        logger.info("Terminal server listening on port {} for up to {} sessions", port, maxSessions);
+
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                // stop() closed the socket
+                break;
+            }
+
+            if (!sessionSlots.tryAcquire()) {
+                logger.warn("Turning away terminal from {}: all {} sessions are in use", socket.getRemoteSocketAddress(), maxSessions);
+                reject(socket);
+                continue;
+            }
+
+            int sessionId = sessionIds.incrementAndGet();
+            logger.info("Terminal session {} connected from {}", sessionId, socket.getRemoteSocketAddress());
+            sessionThreads.execute(() -> serve(sessionId, socket));
+        }
+    }
+
+    private void serve(int sessionId, Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            SessionConsole.bind(socket.getInputStream(), socket.getOutputStream());
+            session.run();
+        } catch (Exception e) {
+            // Most often the terminal hung up while the session was waiting for input
+            SessionConsole.unbind();
+            logger.info("Terminal session {} ended: {}", sessionId, e.getMessage());
+        } finally {
+            SessionConsole.unbind();
+            sessionSlots.release();
+            logger.info("Terminal session {} disconnected", sessionId);
+        }
+    }
+
+    private void reject(Socket socket) {
+        try (socket; OutputStream out = socket.getOutputStream()) {
+            out.write("All terminals are busy. Please try again shortly.\r\n".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.debug("Could not notify rejected terminal: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stop accepting terminals and give open sessions a moment to finish
+     */
+    public void stop() {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            logger.error("Error closing terminal server socket", e);
+        }
+        sessionThreads.shutdown();
+        try {
+            sessionThreads.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
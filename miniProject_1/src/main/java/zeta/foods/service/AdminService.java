@@ -16,4 +16,10 @@ public interface AdminService {
      * @return true if restoration was successful, false otherwise
      */
     boolean restoreCurrentInventory();
+
+    /**
+     * Fetch a report on the in-memory order cache
+     * @return Orders held per status, lookups, evictions and estimated memory use
+     */
+    String fetchOrderCacheReport();
 }
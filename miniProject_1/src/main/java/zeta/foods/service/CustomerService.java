@@ -1,6 +1,8 @@
 package zeta.foods.service;
 
 import zeta.foods.model.Order;
+import zeta.foods.model.OrderHistoryPage;
+import zeta.foods.model.OrderSummary;
 import zeta.foods.model.Table;
 import zeta.foods.model.User;
 
@@ -43,6 +45,16 @@ public interface CustomerService {
      */
     List<Order> getPreviousOrders(Long customerId, int limit);
 
+    /**
+     * Get one page of a customer's order history without the items of each order
+     *
+     * @param customerId The customer's ID
+     * @param after      Last order of the previous page, or null for the first page
+     * @param pageSize   Maximum number of orders on the page
+     * @return The page, most recent first
+     */
+    OrderHistoryPage getOrderHistory(Long customerId, OrderSummary after, int pageSize);
+
     /**
      * Format a single order for display
      *
@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import zeta.foods.service.AdminService;
 import zeta.foods.utils.CurrentInventory;
+import zeta.foods.utils.OrderRegistry;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -60,4 +61,14 @@ public class AdminServiceImpl implements AdminService {
             return false;
         }
     }
+
+    /**
+     * Fetch a report on the in-memory order cache
+     * @return Orders held per status, lookups, evictions and estimated memory use
+     */
+    @Override
+    public String fetchOrderCacheReport() {
+        logger.info("Fetching order cache statistics");
+        return OrderRegistry.getInstance().getStats().toString();
+    }
 }
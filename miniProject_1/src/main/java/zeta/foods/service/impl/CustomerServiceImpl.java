@@ -2,25 +2,33 @@ package zeta.foods.service.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import zeta.foods.model.Bill;
+import zeta.foods.model.Dish;
 import zeta.foods.model.Order;
+import zeta.foods.model.OrderHistoryPage;
 import zeta.foods.model.OrderItem;
 import zeta.foods.model.OrderStatus;
+import zeta.foods.model.OrderSummary;
 import zeta.foods.model.User;
 import zeta.foods.model.Recipe;
 import zeta.foods.model.Table;
+import zeta.foods.monitoring.OrderEvent;
 import zeta.foods.service.CustomerService;
+import zeta.foods.utils.BillingEngine;
 import zeta.foods.utils.CurrentInventory;
 import zeta.foods.utils.DatabaseUtil;
-import zeta.foods.utils.menu;
+import zeta.foods.utils.FloorState;
+import zeta.foods.utils.MenuCatalog;
+import zeta.foods.utils.Money;
+import zeta.foods.utils.OrderEventLog;
+import zeta.foods.utils.OrderRegistry;
+import zeta.foods.utils.TableClaims;
 import zeta.foods.utils.recipes;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
-import org.json.JSONArray;
-import org.json.JSONObject;
 
 /**
  * Implementation of CustomerService for handling customer orders
@@ -28,8 +36,12 @@ import org.json.JSONObject;
 public class CustomerServiceImpl implements CustomerService {
     private static final Logger logger = LoggerFactory.getLogger(CustomerServiceImpl.class);
 
-    private static final Map<String, Order> orders = new HashMap<>();
-    private static final Map<Long, List<Order>> customerOrders = new HashMap<>();
+    // Shared by every terminal session in server mode
+    private static final OrderRegistry orderRegistry = OrderRegistry.getInstance();
+    private static final OrderEventLog orderLog = OrderEventLog.getInstance();
+
+    // Item columns selected when orders are read joined to order_items (aliased "oi")
+    private static final String ORDER_ITEM_COLUMNS = "oi.category, oi.item_name, oi.price, oi.quantity ";
     
     // Fixed number of tables in the restaurant
     private static final int TOTAL_TABLES = 12;
@@ -46,6 +58,8 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public Order placeOrder(User user) {
+        OrderEvent event = new OrderEvent("placeOrder", null);
+        event.begin();
         Order order = new Order();
 
         // Handle case where user ID might be null (for temporary users created by waiters)
@@ -64,7 +78,7 @@ public class CustomerServiceImpl implements CustomerService {
             // Use transaction to ensure consistency
             conn.setAutoCommit(false);
 
-            String sql = "INSERT INTO orders (order_id, customer_id, items, bill_subtotal, order_status) VALUES (?, ?, ?::jsonb, ?, ?)";
+            String sql = "INSERT INTO orders (order_id, customer_id, bill_subtotal, order_status) VALUES (?, ?, ?, ?)";
 
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, order.getOrderId());
@@ -76,9 +90,8 @@ public class CustomerServiceImpl implements CustomerService {
                     stmt.setLong(2, 0L);
                 }
 
-                stmt.setString(3, "[]"); // Empty JSON array for items initially
-                stmt.setDouble(4, 0.0); // Initial subtotal is 0
-                stmt.setString(5, order.getStatus().toString());
+                stmt.setDouble(3, 0.0); // Initial subtotal is 0
+                stmt.setString(4, order.getStatus().toString());
 
                 int rowsAffected = stmt.executeUpdate();
 
@@ -107,16 +120,15 @@ public class CustomerServiceImpl implements CustomerService {
             logger.error("Database error while saving order {}: {}", order.getOrderId(), e.getMessage(), e);
         }
 
+        event.orderId = order.getOrderId();
+        event.success = dbSaveSuccessful;
+        event.commit();
+
         // Only store the order in memory if database save was successful
         if (dbSaveSuccessful) {
             // Store order in memory cache
-            if (user.getId() != null) {
-                if (!customerOrders.containsKey(user.getId())) {
-                    customerOrders.put(user.getId(), new ArrayList<>());
-                }
-                customerOrders.get(user.getId()).add(order);
-            }
-            orders.put(order.getOrderId(), order);
+            orderRegistry.register(order);
+            orderLog.orderPlaced(order);
 
             logger.info("Created new order with ID: {} for customer: {}", order.getOrderId(), user.getUsername());
             return order;
@@ -128,51 +140,36 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public List<Order> getCustomerOrders(Long customerId) {
-        // Try to get orders from memory first
-        List<Order> cachedOrders = customerOrders.getOrDefault(customerId, new ArrayList<>());
-
-        // If no cached orders, try to load from database
-        if (cachedOrders.isEmpty()) {
-            return loadOrdersFromDatabase(customerId);
+        // Serve from memory only when the whole history is there; evicted orders live in the database
+        if (orderRegistry.isCustomerLoaded(customerId)) {
+            List<Order> cachedOrders = orderRegistry.findByCustomer(customerId);
+            cachedOrders.sort(Comparator.comparing(Order::getOrderTime).reversed());
+            return cachedOrders;
         }
 
-        return cachedOrders;
+        return loadOrdersFromDatabase(customerId);
     }
 
     private List<Order> loadOrdersFromDatabase(Long customerId) {
         List<Order> result = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection()) {
-            String sql = "SELECT * FROM orders WHERE customer_id = ? ORDER BY order_timestamp DESC";
-
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, customerId);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        Order order = new Order();
-                        String orderId = rs.getString("order_id");
-                        order.setOrderId(orderId);
-                        order.setCustomerId(customerId);
-                        order.setStatus(OrderStatus.valueOf(rs.getString("order_status")));
-                        order.setOrderTime(rs.getTimestamp("order_timestamp").toLocalDateTime());
-
-                        // Parse items from JSON
-                        String itemsJson = rs.getString("items");
-                        parseOrderItems(order, itemsJson);
+        String sql = "SELECT o.order_id, o.customer_id, o.order_timestamp, o.order_status, " + ORDER_ITEM_COLUMNS +
+                "FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id " +
+                "WHERE o.customer_id = ? ORDER BY o.order_timestamp DESC, o.id DESC, oi.id";
 
-                        result.add(order);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, customerId);
 
-                        // Add to cache
-                        orders.put(orderId, order);
-                    }
+            try (ResultSet rs = stmt.executeQuery()) {
+                // Add to cache, keeping the live copy if a session already holds this order
+                for (Order order : readOrdersWithItems(rs)) {
+                    result.add(orderRegistry.register(order));
                 }
             }
 
             // Update the cache
-            if (!result.isEmpty()) {
-                customerOrders.put(customerId, result);
-            }
+            orderRegistry.markCustomerLoaded(customerId);
 
         } catch (SQLException e) {
             logger.error("Database error while loading orders: {}", e.getMessage(), e);
@@ -181,52 +178,61 @@ public class CustomerServiceImpl implements CustomerService {
         return result;
     }
 
-    private void parseOrderItems(Order order, String itemsJson) {
-        try {
-            JSONArray itemsArray = new JSONArray(itemsJson);
-            for (int i = 0; i < itemsArray.length(); i++) {
-                JSONObject itemObj = itemsArray.getJSONObject(i);
-                String category = itemObj.getString("category");
-                String itemName = itemObj.getString("itemName");
-                double price = itemObj.getDouble("price");
-                int quantity = itemObj.getInt("quantity");
-
-                OrderItem item = new OrderItem(category, itemName, quantity, price);
-                order.addItem(item);
+    /**
+     * Build orders from the rows of an orders/order_items join, one row per item.
+     * Rows must be grouped by order and sorted by item id within each order.
+     *
+     * @param rs Result set with order columns and the ORDER_ITEM_COLUMNS of the joined item
+     * @return Orders in the order they appear in the result set
+     * @throws SQLException if a column cannot be read
+     */
+    private List<Order> readOrdersWithItems(ResultSet rs) throws SQLException {
+        Map<String, Order> orders = new LinkedHashMap<>();
+        while (rs.next()) {
+            String orderId = rs.getString("order_id");
+            Order order = orders.get(orderId);
+            if (order == null) {
+                order = new Order();
+                order.setOrderId(orderId);
+                order.setCustomerId(rs.getLong("customer_id"));
+                order.setStatus(OrderStatus.valueOf(rs.getString("order_status")));
+                order.setOrderTime(rs.getTimestamp("order_timestamp").toLocalDateTime());
+                orders.put(orderId, order);
+            }
+
+            // An order without items still comes back once from the left join, with null item columns
+            String itemName = rs.getString("item_name");
+            if (itemName != null) {
+                order.addItem(OrderItem.ofPaise(
+                        rs.getString("category"),
+                        itemName,
+                        rs.getInt("quantity"),
+                        Money.fromNumeric(rs.getBigDecimal("price"))));
             }
-        } catch (Exception e) {
-            logger.error("Error parsing order items JSON: {}", e.getMessage(), e);
         }
+        return new ArrayList<>(orders.values());
     }
 
     @Override
     public Order getOrderStatus(String orderId) {
         // Try to get from cache first
-        Order order = orders.get(orderId);
+        Order order = orderRegistry.get(orderId);
 
         // If not in cache, try to load from database
         if (order == null) {
-            try (Connection conn = DatabaseUtil.getConnection()) {
-                String sql = "SELECT * FROM orders WHERE order_id = ?";
+            String sql = "SELECT o.order_id, o.customer_id, o.order_timestamp, o.order_status, " + ORDER_ITEM_COLUMNS +
+                    "FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id " +
+                    "WHERE o.order_id = ? ORDER BY oi.id";
 
-                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    stmt.setString(1, orderId);
-
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        if (rs.next()) {
-                            order = new Order();
-                            order.setOrderId(orderId);
-                            order.setCustomerId(rs.getLong("customer_id"));
-                            order.setStatus(OrderStatus.valueOf(rs.getString("order_status")));
-                            order.setOrderTime(rs.getTimestamp("order_timestamp").toLocalDateTime());
-
-                            // Parse items from JSON
-                            String itemsJson = rs.getString("items");
-                            parseOrderItems(order, itemsJson);
-
-                            // Add to cache
-                            orders.put(orderId, order);
-                        }
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, orderId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<Order> orders = readOrdersWithItems(rs);
+                    if (!orders.isEmpty()) {
+                        // Add to cache
+                        order = orderRegistry.register(orders.get(0));
                     }
                 }
             } catch (SQLException e) {
@@ -247,93 +253,163 @@ public class CustomerServiceImpl implements CustomerService {
      * @return true if successful, false otherwise
      */
     public boolean addItemToOrder(String orderId, String category, String itemName, int quantity) {
-        Order order = orders.get(orderId);
-        if (order == null) {
-            logger.warn("Order not found: {}", orderId);
-            return false;
-        }
-
-        // Get price from menu
-        String priceStr = menu.getItemPrice(category, itemName);
-        if (priceStr == null) {
+        Dish dish = MenuCatalog.getInstance().findDish(category, itemName);
+        if (dish == null) {
             logger.warn("Item not found in menu: {} in category {}", itemName, category);
             return false;
         }
+        return addItemToOrder(orderId, dish, quantity);
+    }
+
+    /**
+     * Add a dish picked from the menu catalog to an existing order
+     *
+     * @param orderId  The order ID
+     * @param dish     Dish from the menu catalog
+     * @param quantity Quantity
+     * @return true if successful, false otherwise
+     */
+    public boolean addItemToOrder(String orderId, Dish dish, int quantity) {
+        OrderEvent event = new OrderEvent("addItem", orderId);
+        event.items = quantity;
+        event.begin();
+        try {
+            if (orderRegistry.get(orderId) == null) {
+                logger.warn("Order not found: {}", orderId);
+                return false;
+            }
 
-        // Parse price (remove "Rs." prefix)
-        double price = menu.getPriceValue(priceStr);
+            String category = dish.getCategory();
+            String itemName = dish.getName();
+            long pricePaise = dish.getPricePaise();
+
+            // Take the ingredients first: the check and the deduction happen under the inventory lock, so two
+            // orders cannot both pass the check for the last portion
+            List<OrderItem> itemsToPrepare = Collections.singletonList(
+                    OrderItem.ofPaise(category, itemName, quantity, pricePaise));
+            if (!CurrentInventory.useIngredientsForOrder(itemsToPrepare)) {
+                logger.warn("Cannot add {} to order: insufficient ingredients", itemName);
+                logger.info("Sorry, we don't have enough ingredients to prepare " + itemName + " at this time.");
+                return false;
+            }
 
-        // Check if we have the necessary ingredients for this item
-        OrderItem tempItem = new OrderItem(category, itemName, quantity, price);
-        List<OrderItem> itemsToCheck = new ArrayList<>();
-        itemsToCheck.add(tempItem);
+            // Append the item under the order's lock, so the in-memory item list matches the order of rows in the database
+            Boolean saved = orderRegistry.update(orderId, order -> {
+                OrderItem item = OrderItem.ofPaise(category, itemName, quantity, pricePaise);
+                if (!appendOrderItems(order, Collections.singletonList(item))) {
+                    return false;
+                }
+                order.addItem(item);
+                orderLog.itemAdded(orderId, item);
+                return true;
+            });
+            if (!Boolean.TRUE.equals(saved)) {
+                // The item was not added, so its ingredients go back
+                CurrentInventory.returnIngredientsForOrder(itemsToPrepare);
+                return false;
+            }
 
-        // Check ingredient availability before adding to order
-        if (!CurrentInventory.checkIngredientsAvailability(itemsToCheck)) {
-            logger.warn("Cannot add {} to order: insufficient ingredients", itemName);
-            logger.info("Sorry, we don't have enough ingredients to prepare " + itemName + " at this time.");
-            return false;
+            logger.info("Added item to order {}: {} x{} (Rs.{})",
+                    orderId, itemName, quantity, Money.format(pricePaise));
+            event.success = true;
+            return true;
+        } finally {
+            event.commit();
         }
+    }
 
-        // Add item to order
-        OrderItem item = new OrderItem(category, itemName, quantity, price);
-        order.addItem(item);
+    /**
+     * Append items to an order in the database: one order_items row per item, sent as a single batch,
+     * and the order's stored totals moved to the new subtotal, in one transaction.
+     * Must be called under the order's registry lock, so the order's in-memory subtotal is the one in the database.
+     *
+     * @param order The order, without the new items yet
+     * @param items Items to append
+     * @return true if the items were saved, false otherwise
+     */
+    private boolean appendOrderItems(Order order, List<OrderItem> items) {
+        String orderId = order.getOrderId();
+        String insertSql = "INSERT INTO order_items (order_id, category, item_name, price, quantity) " +
+                "SELECT id, ?, ?, ?, ? FROM orders WHERE order_id = ?";
+        String totalsSql = "UPDATE orders SET bill_subtotal = ?, service_charge = ?, cgst_sgst = ?, bill_total = ? " +
+                "WHERE order_id = ?";
 
-        // Update the order in the database
         try (Connection conn = DatabaseUtil.getConnection()) {
-            // First, get all existing items for this order
-            String itemsJson = createItemsJson(order);
-            logger.debug("Order subtotal: {}", order.getTotalAmount());
-
-            // Check if order exists in database
-            try (PreparedStatement checkStmt = conn.prepareStatement("SELECT COUNT(*) FROM orders WHERE order_id = ?")) {
-                checkStmt.setString(1, orderId);
-                try (ResultSet rs = checkStmt.executeQuery()) {
-                    if (rs.next() && rs.getInt(1) == 0) {
+            conn.setAutoCommit(false);
+
+            long subtotalPaise = order.getSubtotalPaise();
+            try (PreparedStatement insertStmt = conn.prepareStatement(insertSql);
+                 PreparedStatement totalsStmt = conn.prepareStatement(totalsSql)) {
+                for (OrderItem item : items) {
+                    insertStmt.setString(1, item.getCategory());
+                    insertStmt.setString(2, item.getItemName());
+                    insertStmt.setBigDecimal(3, Money.toNumeric(item.getPricePaise()));
+                    insertStmt.setInt(4, item.getQuantity());
+                    insertStmt.setString(5, orderId);
+                    insertStmt.addBatch();
+                    subtotalPaise += item.getSubtotalPaise();
+                }
+
+                for (int rowsInserted : insertStmt.executeBatch()) {
+                    // The insert selects the order row, so a missing order inserts nothing
+                    if (rowsInserted == 0) {
+                        conn.rollback();
                         logger.error("Order {} does not exist in database", orderId);
                         return false;
                     }
                 }
-            }
-
-            String sql = "UPDATE orders SET items = ?::jsonb, bill_subtotal = ? WHERE order_id = ?";
-
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, itemsJson);
-                stmt.setDouble(2, order.getTotalAmount());
-                stmt.setString(3, orderId);
 
-                int rowsUpdated = stmt.executeUpdate();
-                if (rowsUpdated == 0) {
-                    logger.error("Failed to update order {} in database (No rows affected)", orderId);
-                    return false;
-                }
+                Bill bill = BillingEngine.getInstance().bill(subtotalPaise);
+                setBillTotals(totalsStmt, bill);
+                totalsStmt.setString(5, orderId);
+                totalsStmt.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
-            logger.error("Database error while updating order {}: {}", orderId, e.getMessage(), e);
+            logger.error("Database error while adding items to order {}: {}", orderId, e.getMessage(), e);
             return false;
         }
-
-        // Deduct ingredients from current inventory
-        CurrentInventory.useIngredientsForOrder(itemsToCheck);
-        logger.info("Added item to order {}: {} x{} ({})",
-                orderId, itemName, quantity, priceStr);
         return true;
     }
 
-    private String createItemsJson(Order order) {
-        JSONArray itemsArray = new JSONArray();
+    /**
+     * Bind bill_subtotal, service_charge, cgst_sgst and bill_total, in that order, as parameters 1 to 4
+     *
+     * @param stmt Statement to bind
+     * @param bill Bill to store
+     * @throws SQLException if a parameter cannot be set
+     */
+    private static void setBillTotals(PreparedStatement stmt, Bill bill) throws SQLException {
+        stmt.setBigDecimal(1, Money.toNumeric(bill.getSubtotalPaise()));
+        stmt.setBigDecimal(2, Money.toNumeric(bill.getServiceChargePaise()));
+        stmt.setBigDecimal(3, Money.toNumeric(bill.getTaxPaise()));
+        stmt.setBigDecimal(4, Money.toNumeric(bill.getTotalPaise()));
+    }
 
-        for (OrderItem item : order.getItems()) {
-            JSONObject itemObj = new JSONObject();
-            itemObj.put("category", item.getCategory());
-            itemObj.put("itemName", item.getItemName());
-            itemObj.put("price", item.getPrice());
-            itemObj.put("quantity", item.getQuantity());
-            itemsArray.put(itemObj);
-        }
+    /**
+     * Link an order to the table it is being served at
+     *
+     * @param orderId     Order ID
+     * @param tableNumber Table number
+     */
+    public void assignOrderToTable(String orderId, int tableNumber) {
+        orderRegistry.update(orderId, order -> {
+            order.setTableNumber(tableNumber);
+            orderLog.tableAssigned(orderId, tableNumber);
+            return order;
+        });
+    }
 
-        return itemsArray.toString();
+    /**
+     * Get the statistics of the in-memory order registry
+     *
+     * @return Registry size, hit rate and estimated memory use
+     */
+    public OrderRegistry.Stats getOrderRegistryStats() {
+        return orderRegistry.getStats();
     }
 
     /**
@@ -344,11 +420,13 @@ public class CustomerServiceImpl implements CustomerService {
      * @return true if successful, false otherwise
      */
     public boolean updateOrderStatus(String orderId, OrderStatus status) {
-        Order order = orders.get(orderId);
-        if (order == null) {
+        if (orderRegistry.update(orderId, order -> {
+            order.setStatus(status);
+            orderLog.statusChanged(orderId, status);
+            return order;
+        }) == null) {
             return false;
         }
-        order.setStatus(status);
 
         // Update status in database
         try (Connection conn = DatabaseUtil.getConnection()) {
@@ -375,26 +453,87 @@ public class CustomerServiceImpl implements CustomerService {
      * @return List of the customer's orders in descending date order
      */
     public List<Order> getPreviousOrders(Long customerId, int limit) {
-        // Check if we have any orders in memory first
-        List<Order> customerOrderList = customerOrders.getOrDefault(customerId, new ArrayList<>());
+        List<Order> result = new ArrayList<>();
+
+        // Sort and limit the orders in SQL, then join only their items
+        String sql = "SELECT o.order_id, o.customer_id, o.order_timestamp, o.order_status, " + ORDER_ITEM_COLUMNS +
+                "FROM (SELECT id, order_id, customer_id, order_timestamp, order_status FROM orders " +
+                "      WHERE customer_id = ? ORDER BY order_timestamp DESC, id DESC LIMIT ?) o " +
+                "LEFT JOIN order_items oi ON oi.order_id = o.id " +
+                "ORDER BY o.order_timestamp DESC, o.id DESC, oi.id";
 
-        // If no orders in memory, try to load from database
-        if (customerOrderList.isEmpty()) {
-            logger.info("No orders found in memory for customer ID: {}, loading from database...", customerId);
-            customerOrderList = loadOrdersFromDatabase(customerId);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, customerId);
+            stmt.setInt(2, limit > 0 ? limit : 1); // Apply limit, with default of 1 if invalid limit
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                // Keep the live copy if a session already holds this order
+                for (Order order : readOrdersWithItems(rs)) {
+                    result.add(orderRegistry.register(order));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while loading previous orders: {}", e.getMessage(), e);
         }
 
-        // If still empty after trying to load from DB, return empty list
-        if (customerOrderList.isEmpty()) {
+        if (result.isEmpty()) {
             logger.info("No orders found in database for customer ID: {}", customerId);
-            return new ArrayList<>();
         }
+        return result;
+    }
 
-        // Sort orders by order time, most recent first
-        return customerOrderList.stream()
-                .sorted(Comparator.comparing(Order::getOrderTime).reversed())
-                .limit(limit > 0 ? limit : 1) // Apply limit, with default of 1 if invalid limit
-                .collect(Collectors.toList());
+    /**
+     * Get one page of a customer's order history without the items of each order.
+     * Pages are found by position (keyset) rather than OFFSET, so every page is read straight
+     * from idx_orders_customer_history without touching the items column.
+     *
+     * @param customerId The customer's ID
+     * @param after      Last order of the previous page, or null for the first page
+     * @param pageSize   Maximum number of orders on the page
+     * @return The page, most recent first
+     */
+    @Override
+    public OrderHistoryPage getOrderHistory(Long customerId, OrderSummary after, int pageSize) {
+        List<OrderSummary> summaries = new ArrayList<>();
+
+        String sql = "SELECT id, order_id, order_timestamp, order_status, bill_subtotal, bill_total, table_number " +
+                "FROM orders WHERE customer_id = ? " +
+                (after != null ? "AND (order_timestamp, id) < (?, ?) " : "") +
+                "ORDER BY order_timestamp DESC, id DESC LIMIT ?";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int parameter = 1;
+            stmt.setLong(parameter++, customerId);
+            if (after != null) {
+                stmt.setTimestamp(parameter++, Timestamp.valueOf(after.getOrderTime()));
+                stmt.setLong(parameter++, after.getRowId());
+            }
+            // One extra row tells us whether there is another page
+            stmt.setInt(parameter, pageSize + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(new OrderSummary(
+                            rs.getLong("id"),
+                            rs.getString("order_id"),
+                            rs.getTimestamp("order_timestamp").toLocalDateTime(),
+                            OrderStatus.valueOf(rs.getString("order_status")),
+                            rs.getDouble("bill_subtotal"),
+                            rs.getDouble("bill_total"),
+                            rs.getInt("table_number")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while loading order history: {}", e.getMessage(), e);
+        }
+
+        boolean hasMore = summaries.size() > pageSize;
+        if (hasMore) {
+            summaries.remove(pageSize);
+        }
+        return new OrderHistoryPage(summaries, hasMore);
     }
 
     /**
@@ -429,16 +568,15 @@ public class CustomerServiceImpl implements CustomerService {
         }
 
         summary.append("---------------------------------\n");
-        summary.append(String.format("Subtotal: Rs.%.2f\n", order.getTotalAmount()));
 
-        // Calculate additional charges
-        double serviceCharge = order.getTotalAmount() * 0.02;
-        double taxCharge = order.getTotalAmount() > 150 ? 25.0 : 0.0;
-        double grandTotal = order.getTotalAmount() + serviceCharge + taxCharge;
-
-        summary.append(String.format("Service Charge (2%%): Rs.%.2f\n", serviceCharge));
-        summary.append(String.format("CGST & SGST: Rs.%.2f\n", taxCharge));
-        summary.append(String.format("Grand Total: Rs.%.2f\n", grandTotal));
+        // Same charges as the final bill
+        Bill bill = BillingEngine.getInstance().bill(order.getSubtotalPaise());
+        Money.append(summary.append("Subtotal: Rs."), bill.getSubtotalPaise()).append("\n");
+        for (int i = 0; i < bill.getChargeCount(); i++) {
+            summary.append(bill.getChargeLabel(i)).append(": Rs.");
+            Money.append(summary, bill.getChargePaise(i)).append("\n");
+        }
+        Money.append(summary.append("Grand Total: Rs."), bill.getTotalPaise()).append("\n");
         summary.append("=================================\n");
 
         return summary.toString();
@@ -482,49 +620,87 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     /**
-     * View order status for a customer with option to specify number of orders to display
+     * Format a page of order history for display
+     *
+     * @param page        The page to format
+     * @param firstNumber Number shown against the first order on the page
+     * @return Formatted list of order summaries as string
+     */
+    public String formatOrderHistoryPage(OrderHistoryPage page, int firstNumber) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+        StringBuilder result = new StringBuilder();
+        result.append("\n=================================\n");
+        result.append("YOUR ORDER HISTORY\n");
+        result.append("=================================\n");
+
+        int count = firstNumber;
+        for (OrderSummary order : page.getOrders()) {
+            result.append(String.format("%d. Order #%s - %s\n",
+                    count++,
+                    order.getOrderId(),
+                    order.getOrderTime().format(formatter)));
+
+            result.append(String.format("   Status: %s, Total: Rs.%.2f\n",
+                    order.getStatus(),
+                    order.getTotal()));
+        }
+
+        result.append("=================================\n");
+        return result.toString();
+    }
+
+    /**
+     * View order history for a customer a page at a time, opening any order to see its items
      *
      * @param user The user viewing their order history
      */
     public void viewOrderStatus(User user) {
+        final int pageSize = 5;
         Scanner scanner = new Scanner(System.in);
         System.out.println("\n=== Your Order History ===");
 
-        // Ask user how many orders they want to view
-        System.out.print("How many recent orders would you like to view? (default: 1): ");
-        String input = scanner.nextLine().trim();
+        OrderHistoryPage page = getOrderHistory(user.getId(), null, pageSize);
+        if (page.getOrders().isEmpty()) {
+            System.out.println("You don't have any orders yet.");
+            return;
+        }
 
-        // Parse input, default to 1 if empty or invalid
-        int limit = 1;
-        if (!input.isEmpty()) {
-            try {
-                limit = Integer.parseInt(input);
-                if (limit <= 0) {
-                    limit = 1;
-                    System.out.println("Invalid number. Showing the most recent order.");
-                }
-            } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Showing the most recent order.");
+        int firstNumber = 1;
+        while (true) {
+            System.out.println(formatOrderHistoryPage(page, firstNumber));
+            System.out.print(page.hasMore()
+                    ? "Enter an order number for details, N for older orders, or 0 to go back: "
+                    : "Enter an order number for details, or 0 to go back: ");
+            String input = scanner.nextLine().trim();
+
+            if (input.isEmpty() || "0".equals(input)) {
+                return;
             }
-        }
 
-        // Get previous orders for the customer
-        List<Order> previousOrders = getPreviousOrders(user.getId(), limit);
+            if ("n".equalsIgnoreCase(input)) {
+                if (!page.hasMore()) {
+                    System.out.println("There are no older orders.");
+                    continue;
+                }
+                firstNumber += page.getOrders().size();
+                page = getOrderHistory(user.getId(), page.getNextCursor(), pageSize);
+                continue;
+            }
 
-        if (previousOrders.isEmpty()) {
-            System.out.println("You don't have any orders yet.");
-            return;
-        }
+            try {
+                int index = Integer.parseInt(input) - firstNumber;
+                if (index < 0 || index >= page.getOrders().size()) {
+                    System.out.println("Please choose an order from this page.");
+                    continue;
+                }
 
-        // Display each order
-        System.out.printf("Showing your %d most recent order(s):\n\n", previousOrders.size());
-        for (int i = 0; i < previousOrders.size(); i++) {
-            if (i > 0) {
-                System.out.println("\n" + "-".repeat(40) + "\n");
+                // Items are loaded only for the order being opened
+                Order order = getOrderStatus(page.getOrders().get(index).getOrderId());
+                System.out.println(formatOrderSummary(order));
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please try again.");
             }
-            Order order = previousOrders.get(i);
-            String formattedOrder = formatOrderSummary(order);
-            System.out.println(formattedOrder);
         }
     }
 
@@ -537,13 +713,13 @@ public class CustomerServiceImpl implements CustomerService {
         System.out.println("          RESTAURANT MENU - PAGE 1      ");
         System.out.println("========================================");
 
-        TreeMap<String, Map<String, String>> menuItems = menu.menuItems;
-        String[] categories = menuItems.keySet().toArray(new String[0]);
+        MenuCatalog catalog = MenuCatalog.getInstance();
+        List<String> categories = catalog.getCategories();
 
         // First page: first half of categories
-        int midpoint = categories.length / 2;
+        int midpoint = categories.size() / 2;
         for (int i = 0; i < midpoint; i++) {
-            displayMenuCategory(categories[i], menuItems.get(categories[i]));
+            displayMenuCategory(categories.get(i), catalog.getDishes(i));
         }
 
         System.out.println("\nPress Enter to see the next page...");
@@ -554,8 +730,8 @@ public class CustomerServiceImpl implements CustomerService {
         System.out.println("          RESTAURANT MENU - PAGE 2      ");
         System.out.println("========================================");
 
-        for (int i = midpoint; i < categories.length; i++) {
-            displayMenuCategory(categories[i], menuItems.get(categories[i]));
+        for (int i = midpoint; i < categories.size(); i++) {
+            displayMenuCategory(categories.get(i), catalog.getDishes(i));
         }
 
         System.out.println("\nPress Enter to return to main menu...");
@@ -565,12 +741,12 @@ public class CustomerServiceImpl implements CustomerService {
     /**
      * Display a single menu category
      * @param categoryName Name of the category
-     * @param items Map of items and their prices
+     * @param dishes Dishes in the category
      */
-    private void displayMenuCategory(String categoryName, Map<String, String> items) {
+    private void displayMenuCategory(String categoryName, List<Dish> dishes) {
         System.out.println("\n--- " + categoryName + " ---");
-        for (Map.Entry<String, String> item : items.entrySet()) {
-            System.out.printf("%-30s %10s\n", item.getKey(), item.getValue());
+        for (Dish dish : dishes) {
+            System.out.printf("%-30s %10s\n", dish.getName(), dish.getPriceLabel());
         }
     }
 
@@ -581,80 +757,119 @@ public class CustomerServiceImpl implements CustomerService {
      * @return Formatted bill as String
      */
     public String generateBill(String orderId) {
-        Order order = orders.get(orderId);
-        if (order == null) {
-            return "Order not found";
-        }
+        OrderEvent event = new OrderEvent("generateBill", orderId);
+        event.begin();
+        try {
+            Order order = orderRegistry.get(orderId);
+            if (order == null) {
+                return "Order not found";
+            }
 
-        // Calculate additional charges
-        double subtotal = order.getTotalAmount();
-        double serviceCharge = subtotal * 0.02;
-        double gst = subtotal * 0.05;
-        double finalAmount = subtotal + serviceCharge + gst;
+            event.items = order.getItems().size();
 
-        // Update order status and payment info in database
-        try (Connection conn = DatabaseUtil.getConnection()) {
-            String sql = "UPDATE orders SET " +
-                    "bill_subtotal = ?, " +
-                    "service_charge = ?, " +
-                    "cgst_sgst = ?, " +
-                    "bill_total = ?, " +
-                    "payment_status = ?, " +
-                    "order_status = ? " +
-                    "WHERE order_id = ?";
+            // The subtotal is kept as items are added, so this does not walk the items
+            Bill bill = BillingEngine.getInstance().bill(order.getSubtotalPaise());
 
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setDouble(1, subtotal);
-                stmt.setDouble(2, serviceCharge);
-                stmt.setDouble(3, gst);
-                stmt.setDouble(4, finalAmount);
-                stmt.setString(5, "COMPLETED");
-                stmt.setString(6, "COMPLETED");
-                stmt.setString(7, orderId);
+            // Update order status and payment info in database
+            try (Connection conn = DatabaseUtil.getConnection()) {
+                String sql = "UPDATE orders SET " +
+                        "bill_subtotal = ?, " +
+                        "service_charge = ?, " +
+                        "cgst_sgst = ?, " +
+                        "bill_total = ?, " +
+                        "payment_status = ?, " +
+                        "order_status = ? " +
+                        "WHERE order_id = ?";
 
-                int rowsUpdated = stmt.executeUpdate();
-                if (rowsUpdated == 0) {
-                    logger.error("Failed to update bill information in database for order {}", orderId);
-                } else {
-                    logger.info("Bill information saved to database for order {}", orderId);
-                    // Update status in memory too
-                    order.setStatus(OrderStatus.COMPLETED);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    setBillTotals(stmt, bill);
+                    stmt.setString(5, "COMPLETED");
+                    stmt.setString(6, "COMPLETED");
+                    stmt.setString(7, orderId);
+
+                    int rowsUpdated = stmt.executeUpdate();
+                    if (rowsUpdated == 0) {
+                        logger.error("Failed to update bill information in database for order {}", orderId);
+                    } else {
+                        logger.info("Bill information saved to database for order {}", orderId);
+                        event.success = true;
+                        // Update status in memory too
+                        orderRegistry.update(orderId, completed -> {
+                            completed.setStatus(OrderStatus.COMPLETED);
+                            orderLog.statusChanged(orderId, OrderStatus.COMPLETED);
+                            return completed;
+                        });
+                    }
                 }
+            } catch (SQLException e) {
+                logger.error("Database error while generating bill: {}", e.getMessage(), e);
             }
-        } catch (SQLException e) {
-            logger.error("Database error while generating bill: {}", e.getMessage(), e);
+
+            return formatBill(order, bill);
+        } finally {
+            event.commit();
         }
+    }
 
+    /**
+     * Format the printable bill for an order
+     * @param order The order being billed
+     * @param bill Totals for the order
+     * @return Bill text
+     */
+    public static String formatBill(Order order, Bill bill) {
         // Build bill content
-        StringBuilder bill = new StringBuilder();
-        bill.append("\n==========================================\n");
-        bill.append("             RESTAURANT BILL              \n");
-        bill.append("==========================================\n");
-        bill.append("Order ID: ").append(order.getOrderId()).append("\n");
-        bill.append("Customer: ").append(order.getCustomerName()).append("\n");
-        bill.append("Date: ").append(order.getOrderTime().toLocalDate()).append("\n");
-        bill.append("Time: ").append(order.getOrderTime().toLocalTime()).append("\n");
-        bill.append("------------------------------------------\n");
-        bill.append(String.format("%-25s %-8s %-10s %-10s\n", "Item", "Qty", "Price", "Subtotal"));
-        bill.append("------------------------------------------\n");
-
+        StringBuilder out = new StringBuilder(512 + 64 * order.getItems().size());
+        out.append("\n==========================================\n");
+        out.append("             RESTAURANT BILL              \n");
+        out.append("==========================================\n");
+        out.append("Order ID: ").append(order.getOrderId()).append("\n");
+        out.append("Customer: ").append(order.getCustomerName()).append("\n");
+        out.append("Date: ").append(order.getOrderTime().toLocalDate()).append("\n");
+        out.append("Time: ").append(order.getOrderTime().toLocalTime()).append("\n");
+        out.append("------------------------------------------\n");
+        out.append(String.format("%-25s %-8s %-10s %-10s\n", "Item", "Qty", "Price", "Subtotal"));
+        out.append("------------------------------------------\n");
+
+        // Columns are padded by hand rather than with String.format, which parses its pattern on every line
         for (OrderItem item : order.getItems()) {
-            bill.append(String.format("%-25s %-8d Rs.%-8.2f Rs.%.2f\n",
-                    item.getItemName(), item.getQuantity(), item.getPrice(), item.getSubtotal()));
+            int column = out.length();
+            padColumn(out.append(item.getItemName()), column, 26);
+            column = out.length();
+            padColumn(out.append(item.getQuantity()), column, 9);
+            column = out.length();
+            padColumn(Money.append(out.append("Rs."), item.getPricePaise()), column, 12);
+            Money.append(out.append("Rs."), item.getSubtotalPaise()).append("\n");
+        }
+
+        out.append("------------------------------------------\n");
+        appendBillLine(out, "Total Amount", bill.getSubtotalPaise());
+        for (int i = 0; i < bill.getChargeCount(); i++) {
+            appendBillLine(out, bill.getChargeLabel(i), bill.getChargePaise(i));
         }
 
-        bill.append("------------------------------------------\n");
-        bill.append(String.format("%-25s %19s Rs.%.2f\n", "Total Amount", "", subtotal));
-        bill.append(String.format("%-25s %19s Rs.%.2f\n", "GST (5%)", "", gst));
-        bill.append(String.format("%-25s %19s Rs.%.2f\n", "Service Charge (2%)", "", serviceCharge));
+        out.append("------------------------------------------\n");
+        appendBillLine(out, "Grand Total", bill.getTotalPaise());
+        out.append("==========================================\n");
+        out.append("          Thank You! Visit Again!         \n");
+        out.append("==========================================\n");
 
-        bill.append("------------------------------------------\n");
-        bill.append(String.format("%-25s %19s Rs.%.2f\n", "Grand Total", "", finalAmount));
-        bill.append("==========================================\n");
-        bill.append("          Thank You! Visit Again!         \n");
-        bill.append("==========================================\n");
+        return out.toString();
+    }
+
+    // A total line: label column, then an empty quantity/price gap, then the amount
+    private static void appendBillLine(StringBuilder out, String label, long paise) {
+        int column = out.length();
+        padColumn(out.append(label), column, 26);
+        Money.append(out.append("                    Rs."), paise).append("\n");
+    }
 
-        return bill.toString();
+    // Left-justify the text written since start in a column of the given width, always leaving at least one space
+    private static void padColumn(StringBuilder out, int start, int width) {
+        while (out.length() < start + width - 1) {
+            out.append(' ');
+        }
+        out.append(' ');
     }
 
     /**
@@ -733,21 +948,9 @@ public class CustomerServiceImpl implements CustomerService {
     private List<zeta.foods.model.Table> getAvailableTables() {
         List<zeta.foods.model.Table> availableTables = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(
-                     "SELECT * FROM tables WHERE is_occupied = FALSE ORDER BY table_number")) {
-
-            while (rs.next()) {
-                zeta.foods.model.Table table = new zeta.foods.model.Table();
-                table.setTableNumber(rs.getInt("table_number"));
-                table.setOccupied(false);
-                table.setServed(false);
-
-                availableTables.add(table);
-            }
-
-            logger.info("Retrieved {} available tables from database", availableTables.size());
+        try {
+            availableTables = FloorState.getInstance().getFreeTables(1);
+            logger.info("Retrieved {} available tables", availableTables.size());
 
         } catch (SQLException e) {
             logger.error("Error retrieving available tables: {}", e.getMessage(), e);
@@ -765,49 +968,15 @@ public class CustomerServiceImpl implements CustomerService {
     private boolean reserveTable(int tableNumber, Long customerId) {
         logger.info("Reserving table #{} for customer ID: {}", tableNumber, customerId);
 
-        try (Connection conn = DatabaseUtil.getConnection()) {
-            // Start transaction
-            conn.setAutoCommit(false);
-
-            // First check if the table is still available
-            try (PreparedStatement checkStmt = conn.prepareStatement(
-                    "SELECT * FROM tables WHERE table_number = ? AND is_occupied = FALSE")) {
-
-                checkStmt.setInt(1, tableNumber);
-                ResultSet rs = checkStmt.executeQuery();
-
-                if (!rs.next()) {
-                    logger.warn("Table #{} is no longer available", tableNumber);
-                    conn.rollback();
-                    return false;
-                }
-
-                int tableId = rs.getInt("id");
-
-                // Update table status to occupied
-                try (PreparedStatement updateStmt = conn.prepareStatement(
-                        "UPDATE tables SET is_occupied = TRUE, booking_start_time = NOW() WHERE id = ?")) {
-
-                    updateStmt.setInt(1, tableId);
-                    updateStmt.executeUpdate();
-                }
-
-                // Create reservation record
-                try (PreparedStatement reserveStmt = conn.prepareStatement(
-                        "INSERT INTO table_reservations (table_id, customer_id, reservation_time, status) " +
-                                "VALUES (?, ?, NOW(), 'active')")) {
-
-                    reserveStmt.setInt(1, tableId);
-                    reserveStmt.setLong(2, customerId);
-                    reserveStmt.executeUpdate();
-                }
-
-                // Commit transaction
-                conn.commit();
-                logger.info("Table #{} successfully reserved for customer ID: {}", tableNumber, customerId);
-                return true;
+        try {
+            // One statement: another terminal claiming the same table either wins before it or finds it taken
+            if (!TableClaims.reserve(tableNumber, customerId, null, null)) {
+                logger.warn("Table #{} is no longer available", tableNumber);
+                return false;
             }
-
+            orderLog.tableOccupied(tableNumber, customerId, null);
+            logger.info("Table #{} successfully reserved for customer ID: {}", tableNumber, customerId);
+            return true;
         } catch (SQLException e) {
             logger.error("Error reserving table: {}", e.getMessage(), e);
             return false;
@@ -819,7 +988,8 @@ public class CustomerServiceImpl implements CustomerService {
         // Get all bookings that overlap with the requested time
         List<Table> availableTables = new ArrayList<>();
         
-        try (Connection conn = DatabaseUtil.getConnection()) {
+        // The table list is shared and reloaded in place, so sessions take turns reading it
+        synchronized (restaurantTables) {
             // First load all tables with their current booking status
             loadTablesFromDatabase();
             
@@ -840,8 +1010,6 @@ public class CustomerServiceImpl implements CustomerService {
                     availableTables.add(table);
                 }
             }
-        } catch (SQLException e) {
-            logger.error("Database error while checking table availability: {}", e.getMessage(), e);
         }
         
         return availableTables;
@@ -904,55 +1072,15 @@ public class CustomerServiceImpl implements CustomerService {
         logger.info("Customer {} attempting to book a table {} from {} to {}",
                 user.getUsername(), tableNumber, startTime, endTime);
 
-        try (Connection connection = DatabaseUtil.getConnection()) {
-            // First check if the table exists
-            PreparedStatement checkTableStmt = connection.prepareStatement(
-                    "SELECT id FROM tables WHERE table_number = ?");
-            checkTableStmt.setInt(1, tableNumber);
-            ResultSet tableResult = checkTableStmt.executeQuery();
-
-            if (!tableResult.next()) {
-                logger.warn("Table {} does not exist", tableNumber);
-                return false;
-            }
-
-            int tableId = tableResult.getInt("id");
-
-            // Check if the table is already occupied
-            PreparedStatement checkOccupiedStmt = connection.prepareStatement(
-                    "SELECT is_occupied FROM tables WHERE id = ?");
-            checkOccupiedStmt.setInt(1, tableId);
-            ResultSet occupiedResult = checkOccupiedStmt.executeQuery();
-
-            if (occupiedResult.next() && occupiedResult.getBoolean("is_occupied")) {
-                logger.warn("Table {} is already occupied", tableNumber);
-                return false;
-            }
-            
-            // Set table as occupied and update booking_start_time
-            PreparedStatement updateTableStmt = connection.prepareStatement(
-                    "UPDATE tables SET is_occupied = TRUE, booking_start_time = ? WHERE id = ?");
-            updateTableStmt.setTimestamp(1, Timestamp.valueOf(startTime));
-            updateTableStmt.setInt(2, tableId);
-            updateTableStmt.executeUpdate();
-
-            // Insert reservation record
-            PreparedStatement reservationStmt = connection.prepareStatement(
-                    "INSERT INTO table_reservations (table_id, customer_id, reservation_time, status) VALUES (?, ?, ?, 'active')");
-            reservationStmt.setInt(1, tableId);
-            reservationStmt.setLong(2, user.getId());
-            reservationStmt.setTimestamp(3, Timestamp.valueOf(startTime));
-            int rowsAffected = reservationStmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                logger.info("Table {} successfully booked for user {} from {} to {}",
-                        tableNumber, user.getUsername(), startTime, endTime);
-                return true;
-            } else {
-                logger.warn("Failed to book table {} for user {}", tableNumber, user.getUsername());
+        try {
+            if (!TableClaims.reserve(tableNumber, user.getId(), startTime, endTime)) {
+                logger.warn("Table {} does not exist or is already occupied", tableNumber);
                 return false;
             }
-            
+            orderLog.tableOccupied(tableNumber, user.getId(), null);
+            logger.info("Table {} successfully booked for user {} from {} to {}",
+                    tableNumber, user.getUsername(), startTime, endTime);
+            return true;
         } catch (SQLException e) {
             logger.error("Error booking table: {}", e.getMessage(), e);
             return false;
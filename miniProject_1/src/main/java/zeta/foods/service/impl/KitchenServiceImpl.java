@@ -1,8 +1,10 @@
 package zeta.foods.service.impl;
 
 import zeta.foods.model.OrderStatus;
+import zeta.foods.monitoring.KitchenEvent;
 import zeta.foods.service.KitchenService;
 import zeta.foods.utils.InventoryManager;
+import zeta.foods.utils.OrderEventLog;
 import zeta.foods.utils.recipes;
 
 import java.util.*;
@@ -11,7 +13,17 @@ import java.util.concurrent.ConcurrentHashMap;
 public class KitchenServiceImpl implements KitchenService {
 
     // LiveOrders structure: <Table Number, <Item Name, Status>>
+    // Shared between sessions, so each table's map is looked up once per call: a table can be
+    // completed and removed by another session between a containsKey and a get
     private final Map<String, Map<String, OrderStatus>> liveOrders = new ConcurrentHashMap<>();
+    private final OrderEventLog orderLog = OrderEventLog.getInstance();
+
+    public KitchenServiceImpl() {
+        // Pick up where the kitchen was when the application last stopped
+        for (Map.Entry<String, Map<String, OrderStatus>> table : orderLog.getRecoveredState().getKitchen().entrySet()) {
+            liveOrders.put(table.getKey(), new ConcurrentHashMap<>(table.getValue()));
+        }
+    }
 
     @Override
     public boolean placeOrder(String tableNumber, Map<String, Integer> items) {
@@ -20,7 +32,8 @@ public class KitchenServiceImpl implements KitchenService {
                 return false;
             }
 
-            Map<String, OrderStatus> tableOrders = liveOrders.getOrDefault(tableNumber, new HashMap<>());
+            Map<String, OrderStatus> tableOrders = liveOrders.computeIfAbsent(tableNumber, table -> new ConcurrentHashMap<>());
+            List<String> received = new ArrayList<>();
 
             // Add each item to the order with quantity
             for (Map.Entry<String, Integer> entry : items.entrySet()) {
@@ -30,14 +43,18 @@ public class KitchenServiceImpl implements KitchenService {
                 // If there are multiple quantities, we add them with a suffix
                 if (quantity > 1) {
                     for (int i = 1; i <= quantity; i++) {
-                        tableOrders.put(itemName + " #" + i, OrderStatus.RECEIVED);
+                        received.add(itemName + " #" + i);
                     }
                 } else {
-                    tableOrders.put(itemName, OrderStatus.RECEIVED);
+                    received.add(itemName);
                 }
             }
 
-            liveOrders.put(tableNumber, tableOrders);
+            for (String item : received) {
+                tableOrders.put(item, OrderStatus.RECEIVED);
+            }
+            orderLog.kitchenItemsReceived(tableNumber, received);
+
             return true;
         } catch (Exception e) {
             System.err.println("Error placing order: " + e.getMessage());
@@ -48,23 +65,24 @@ public class KitchenServiceImpl implements KitchenService {
     @Override
     public boolean updateOrderStatus(String tableNumber, String item, OrderStatus status) {
         try {
-            if (!liveOrders.containsKey(tableNumber)) {
+            Map<String, OrderStatus> tableOrders = liveOrders.get(tableNumber);
+            if (tableOrders == null) {
                 return false;
             }
 
-            Map<String, OrderStatus> tableOrders = liveOrders.get(tableNumber);
             if (!tableOrders.containsKey(item)) {
                 return false;
             }
 
             tableOrders.put(item, status);
+            orderLog.kitchenItemStatus(tableNumber, item, status);
 
             // If all items are served or cancelled, we can remove the order
             boolean allCompleted = tableOrders.values().stream()
                 .allMatch(s -> s == OrderStatus.SERVED || s == OrderStatus.CANCELLED);
 
-            if (allCompleted) {
-                liveOrders.remove(tableNumber);
+            if (allCompleted && liveOrders.remove(tableNumber, tableOrders)) {
+                orderLog.kitchenTableCleared(tableNumber);
             }
 
             return true;
@@ -87,16 +105,18 @@ public class KitchenServiceImpl implements KitchenService {
     @Override
     public boolean cancelOrder(String tableNumber) {
         try {
-            if (!liveOrders.containsKey(tableNumber)) {
+            Map<String, OrderStatus> tableOrders = liveOrders.get(tableNumber);
+            if (tableOrders == null) {
                 return false;
             }
 
-            Map<String, OrderStatus> tableOrders = liveOrders.get(tableNumber);
             for (String item : tableOrders.keySet()) {
                 tableOrders.put(item, OrderStatus.CANCELLED);
             }
 
-            liveOrders.remove(tableNumber);
+            if (liveOrders.remove(tableNumber, tableOrders)) {
+                orderLog.kitchenTableCleared(tableNumber);
+            }
             return true;
         } catch (Exception e) {
             System.err.println("Error cancelling order: " + e.getMessage());
@@ -106,13 +126,15 @@ public class KitchenServiceImpl implements KitchenService {
 
     @Override
     public String cookFoodItem(String tableNumber, String itemName) {
+        KitchenEvent event = new KitchenEvent(tableNumber, itemName);
+        event.begin();
         try {
             // Check if table and order exist
-            if (!liveOrders.containsKey(tableNumber)) {
+            Map<String, OrderStatus> tableOrders = liveOrders.get(tableNumber);
+            if (tableOrders == null) {
                 return "Table " + tableNumber + " has no active orders";
             }
 
-            Map<String, OrderStatus> tableOrders = liveOrders.get(tableNumber);
             if (!tableOrders.containsKey(itemName)) {
                 return "Item " + itemName + " is not in the order for table " + tableNumber;
             }
@@ -135,16 +157,24 @@ public class KitchenServiceImpl implements KitchenService {
             // Update the order status to IN_PREPARATION
             tableOrders.put(itemName, OrderStatus.IN_PREPARATION);
 
-            // Use the ingredients from inventory
-            InventoryManager.useIngredients(recipeIngredients);
+            // Use the ingredients from inventory; another station may have used them since the check
+            if (!InventoryManager.useIngredients(recipeIngredients)) {
+                tableOrders.put(itemName, OrderStatus.RECEIVED);
+                List<String> missingIngredients = InventoryManager.getMissingIngredients(recipeIngredients);
+                return "Cannot cook " + baseItemName + ". Missing ingredients: " + String.join(", ", missingIngredients);
+            }
 
-            // Update order status to READY
+            // Update order status to READY; only this outcome is logged, IN_PREPARATION never outlives the call
             tableOrders.put(itemName, OrderStatus.READY);
+            orderLog.kitchenItemStatus(tableNumber, itemName, OrderStatus.READY);
 
+            event.success = true;
             return baseItemName + " has been successfully prepared for table " + tableNumber;
         } catch (Exception e) {
             System.err.println("Error cooking item: " + e.getMessage());
             return "Error occurred while cooking " + itemName + ": " + e.getMessage();
+        } finally {
+            event.commit();
         }
     }
 
@@ -152,12 +182,12 @@ public class KitchenServiceImpl implements KitchenService {
     public Map<String, String> cookAllItemsForTable(String tableNumber) {
         Map<String, String> results = new HashMap<>();
 
-        if (!liveOrders.containsKey(tableNumber)) {
+        Map<String, OrderStatus> tableOrders = liveOrders.get(tableNumber);
+        if (tableOrders == null) {
             results.put("Error", "Table " + tableNumber + " has no active orders");
             return results;
         }
 
-        Map<String, OrderStatus> tableOrders = liveOrders.get(tableNumber);
         for (String item : tableOrders.keySet()) {
             if (tableOrders.get(item) == OrderStatus.RECEIVED) {
                 String result = cookFoodItem(tableNumber, item);
@@ -3,9 +3,11 @@ package zeta.foods.service.impl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import zeta.foods.model.User;
+import zeta.foods.server.SessionConsole;
 import zeta.foods.service.AuthService;
 import zeta.foods.utils.DatabaseUtil;
 
+import java.io.Console;
 import java.sql.*;
 import java.util.Scanner;
 
@@ -136,12 +138,14 @@ public class PostgresAuthServiceImpl implements AuthService {
                         String email = null;
                         String password = null;
 
-                        // Try to use console if available (better for password input)
-                        if (System.console() != null) {
+                        // Try to use console if available (better for password input);
+                        // terminal sessions served over TCP never have one
+                        Console console = SessionConsole.console();
+                        if (console != null) {
                             System.out.print("\nEnter email: ");
-                            email = System.console().readLine();
+                            email = console.readLine();
                             System.out.print("Enter password: ");
-                            password = new String(System.console().readLine());
+                            password = new String(console.readLine());
                         } else {
                             // Fall back to Scanner with flush to ensure prompt is visible
                             System.out.print("\nEnter email: ");
@@ -311,7 +315,7 @@ public class PostgresAuthServiceImpl implements AuthService {
         switch (role.toLowerCase()) {
             case "admin":
 //                System.out.println("1. Manage Users");
-//                System.out.println("2. View System Reports");
+                System.out.println("2. View System Reports");
                 System.out.println("3. Fetch Current Inventory");
                 System.out.println("4. Restore Current Inventory");
 //                System.out.println("5. Manage Menu Items");
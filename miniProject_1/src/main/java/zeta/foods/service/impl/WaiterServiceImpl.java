@@ -2,12 +2,17 @@ package zeta.foods.service.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import zeta.foods.model.Dish;
 import zeta.foods.model.Order;
 import zeta.foods.model.Table;
 import zeta.foods.model.User;
 import zeta.foods.service.WaiterService;
 import zeta.foods.utils.DatabaseUtil;
-import zeta.foods.utils.menu;
+import zeta.foods.utils.FloorState;
+import zeta.foods.utils.DishSearchIndex;
+import zeta.foods.utils.MenuCatalog;
+import zeta.foods.utils.OrderEventLog;
+import zeta.foods.utils.TableClaims;
 
 import java.sql.*;
 import java.util.*;
@@ -19,6 +24,9 @@ public class WaiterServiceImpl implements WaiterService {
     private static final Logger logger = LoggerFactory.getLogger(WaiterServiceImpl.class);
     private final CustomerServiceImpl customerService = new CustomerServiceImpl();
 
+    // Dishes listed for a menu search, enough to pick from without scrolling
+    private static final int SEARCH_RESULTS = 9;
+
     /**
      * Take a new order for a customer
      * @param scanner Scanner for user input
@@ -67,13 +75,14 @@ public class WaiterServiceImpl implements WaiterService {
         while (addingItems) {
             // Display menu categories
             System.out.println("\nMenu Categories:");
-            TreeMap<String, Map<String, String>> menuItems = menu.menuItems;
-            String[] categories = menuItems.keySet().toArray(new String[0]);
+            MenuCatalog catalog = MenuCatalog.getInstance();
+            List<String> categories = catalog.getCategories();
 
-            for (int i = 0; i < categories.length; i++) {
-                System.out.printf("%d. %s\n", i + 1, categories[i]);
+            for (int i = 0; i < categories.size(); i++) {
+                System.out.printf("%d. %s\n", i + 1, categories.get(i));
             }
 
+            System.out.println("Or type part of a dish name to search, e.g. \"pan tik\", or \"with <ingredient>\".");
             System.out.print("\nSelect category (0 to finish order): ");
             String categoryInput = scanner.nextLine().trim();
 
@@ -83,20 +92,29 @@ public class WaiterServiceImpl implements WaiterService {
             }
 
             try {
-                int categoryIndex = Integer.parseInt(categoryInput) - 1;
-                if (categoryIndex < 0 || categoryIndex >= categories.length) {
-                    System.out.println("Invalid category selection.");
-                    continue;
+                String heading;
+                List<Dish> dishes;
+                if (categoryInput.isEmpty() || Character.isDigit(categoryInput.charAt(0))) {
+                    int categoryIndex = Integer.parseInt(categoryInput) - 1;
+                    if (categoryIndex < 0 || categoryIndex >= categories.size()) {
+                        System.out.println("Invalid category selection.");
+                        continue;
+                    }
+                    heading = categories.get(categoryIndex);
+                    dishes = catalog.getDishes(categoryIndex);
+                } else {
+                    heading = "Search: " + categoryInput;
+                    dishes = searchDishes(categoryInput);
+                    if (dishes.isEmpty()) {
+                        System.out.println("No dishes match \"" + categoryInput + "\".");
+                        continue;
+                    }
                 }
 
-                String selectedCategory = categories[categoryIndex];
-                Map<String, String> items = menu.getCategoryItems(selectedCategory);
-
-                // Display items in the selected category
-                System.out.println("\n--- " + selectedCategory + " ---");
-                String[] itemNames = items.keySet().toArray(new String[0]);
-                for (int i = 0; i < itemNames.length; i++) {
-                    System.out.printf("%d. %s - %s\n", i + 1, itemNames[i], items.get(itemNames[i]));
+                // Display items in the selected category or search results
+                System.out.println("\n--- " + heading + " ---");
+                for (int i = 0; i < dishes.size(); i++) {
+                    System.out.printf("%d. %s - %s\n", i + 1, dishes.get(i).getName(), dishes.get(i).getPriceLabel());
                 }
 
                 System.out.print("\nSelect item (0 to go back): ");
@@ -107,12 +125,13 @@ public class WaiterServiceImpl implements WaiterService {
                 }
 
                 int itemIndex = Integer.parseInt(itemInput) - 1;
-                if (itemIndex < 0 || itemIndex >= itemNames.length) {
+                if (itemIndex < 0 || itemIndex >= dishes.size()) {
                     System.out.println("Invalid item selection.");
                     continue;
                 }
 
-                String selectedItem = itemNames[itemIndex];
+                Dish selectedDish = dishes.get(itemIndex);
+                String selectedItem = selectedDish.getName();
 
                 System.out.print("Enter quantity: ");
                 int quantity = Integer.parseInt(scanner.nextLine().trim());
@@ -123,7 +142,7 @@ public class WaiterServiceImpl implements WaiterService {
                 }
 
                 // Add item to order
-                boolean success = customerService.addItemToOrder(order.getOrderId(), selectedCategory, selectedItem, quantity);
+                boolean success = customerService.addItemToOrder(order.getOrderId(), selectedDish, quantity);
                 if (success) {
                     System.out.println(quantity + " x " + selectedItem + " added to the order.");
                 } else {
@@ -154,6 +173,20 @@ public class WaiterServiceImpl implements WaiterService {
         return order;
     }
 
+    /**
+     * Search the menu for the dish-picking prompt: "with <ingredient>" lists dishes made with that
+     * ingredient, anything else is matched against dish names
+     * @param query Text the waiter typed
+     * @return Matching dishes, best first
+     */
+    private List<Dish> searchDishes(String query) {
+        DishSearchIndex index = DishSearchIndex.getInstance();
+        if (query.toLowerCase().startsWith("with ")) {
+            return index.findByIngredient(query.substring(5), SEARCH_RESULTS);
+        }
+        return index.search(query, SEARCH_RESULTS);
+    }
+
     /**
      * Find a customer in the database by name
      * @param customerName The name to search for
@@ -198,32 +231,9 @@ public class WaiterServiceImpl implements WaiterService {
         logger.info("Retrieving all tables");
         List<Table> tables = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(
-                     "SELECT * FROM tables ORDER BY table_number")) {
-
-            while (rs.next()) {
-                Table table = new Table();
-                table.setTableNumber(rs.getInt("table_number"));
-                table.setOccupied(rs.getBoolean("is_occupied"));
-                table.setServed(rs.getBoolean("is_served"));
-
-                // Convert SQL timestamp to LocalDateTime if not null
-                Timestamp startTime = rs.getTimestamp("booking_start_time");
-                if (startTime != null) {
-                    table.setBookingStartTime(startTime.toLocalDateTime());
-                }
-
-                Timestamp endTime = rs.getTimestamp("booking_end_time");
-                if (endTime != null) {
-                    table.setBookingEndTime(endTime.toLocalDateTime());
-                }
-
-                tables.add(table);
-            }
-
-            logger.info("Retrieved {} tables from database", tables.size());
+        try {
+            tables = FloorState.getInstance().getTables();
+            logger.info("Retrieved {} tables (floor version {})", tables.size(), FloorState.getInstance().getVersion());
 
         } catch (SQLException e) {
             logger.error("Error retrieving tables: {}", e.getMessage(), e);
@@ -249,16 +259,46 @@ public class WaiterServiceImpl implements WaiterService {
     private void assignOrderToTable(Order order, Scanner scanner) {
         System.out.println("\nAssign order to a table:");
 
+        // Another waiter may seat a party at the chosen table first; then show the free tables again
+        while (true) {
+            int tableNumber = chooseAvailableTable(scanner);
+            if (tableNumber == 0) {
+                System.out.println("Order #" + order.getOrderId() + " was not assigned to a table.");
+                return;
+            }
+            try {
+                if (occupyTable(tableNumber, order.getOrderId())) {
+                    System.out.println("Order #" + order.getOrderId() + " has been assigned to Table #" + tableNumber);
+                    return;
+                }
+            } catch (SQLException e) {
+                // Not a lost race, so choosing another table would fail the same way
+                logger.error("Error occupying table #{} for order {}: {}", tableNumber, order.getOrderId(), e.getMessage(), e);
+                System.out.println("Order #" + order.getOrderId() + " could not be assigned to a table. Please try again later.");
+                return;
+            }
+            System.out.println("Table #" + tableNumber + " was just taken. Please choose another table.");
+        }
+    }
+
+    /**
+     * Show the free tables and ask for one
+     * @param scanner Scanner for user input
+     * @return The chosen table number, or 0 if the waiter cancelled
+     */
+    private int chooseAvailableTable(Scanner scanner) {
         // Display available tables
         List<Table> tables = getAllTables();
         List<Table> availableTables = new ArrayList<>();
+        try {
+            availableTables = FloorState.getInstance().getFreeTables(1);
+        } catch (SQLException e) {
+            logger.error("Error retrieving available tables: {}", e.getMessage(), e);
+        }
 
         System.out.println("\nAvailable Tables:");
-        for (Table table : tables) {
-            if (!table.isOccupied()) {
-                availableTables.add(table);
-                System.out.println(table.toString());
-            }
+        for (Table table : availableTables) {
+            System.out.println(table.toString());
         }
 
         if (availableTables.isEmpty()) {
@@ -270,35 +310,26 @@ public class WaiterServiceImpl implements WaiterService {
             System.out.println(newTable.toString());
         }
 
-        int tableNumber;
         while (true) {
-            System.out.print("Enter table number: ");
+            System.out.print("Enter table number (0 to cancel): ");
             try {
-                tableNumber = Integer.parseInt(scanner.nextLine().trim());
+                int tableNumber = Integer.parseInt(scanner.nextLine().trim());
+                if (tableNumber == 0) {
+                    return 0;
+                }
 
                 // Check if the table exists and is available
-                boolean tableValid = false;
                 for (Table table : availableTables) {
                     if (table.getTableNumber() == tableNumber) {
-                        tableValid = true;
-                        break;
+                        return tableNumber;
                     }
                 }
-
-                if (tableValid) {
-                    break;
-                } else {
-                    System.out.println("Invalid or occupied table number. Please select an available table.");
-                }
+                System.out.println("Invalid or occupied table number. Please select an available table.");
 
             } catch (NumberFormatException e) {
                 System.out.println("Please enter a valid table number.");
             }
         }
-
-        // Occupy the table and link to the order
-        occupyTable(tableNumber, order.getOrderId());
-        System.out.println("Order #" + order.getOrderId() + " has been assigned to Table #" + tableNumber);
     }
 
     /**
@@ -319,6 +350,7 @@ public class WaiterServiceImpl implements WaiterService {
             stmt.setBoolean(2, false);
             stmt.setBoolean(3, false);
             stmt.executeUpdate();
+            FloorState.getInstance().markStale();
 
         } catch (SQLException e) {
             logger.error("Error creating table: {}", e.getMessage(), e);
@@ -331,45 +363,22 @@ public class WaiterServiceImpl implements WaiterService {
      * Occupy a table and associate it with an order
      * @param tableNumber The table number to occupy
      * @param orderId The order ID to associate with the table
+     * @return true if the table was claimed for the order, false if it was taken meanwhile
+     * @throws SQLException if the order is not in the database or the claim fails
      */
-    private void occupyTable(int tableNumber, String orderId) {
+    private boolean occupyTable(int tableNumber, String orderId) throws SQLException {
         logger.info("Occupying table #{} for order ID: {}", tableNumber, orderId);
 
-        try (Connection conn = DatabaseUtil.getConnection()) {
-            // First update the table status
-            try (PreparedStatement stmt = conn.prepareStatement(
-                    "UPDATE tables SET is_occupied = true, is_served = false, booking_start_time = NOW() " +
-                            "WHERE table_number = ?")) {
-
-                stmt.setInt(1, tableNumber);
-                stmt.executeUpdate();
-            }
-
-            // Then get the table ID
-            int tableId;
-            try (PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT id FROM tables WHERE table_number = ?")) {
-
-                stmt.setInt(1, tableNumber);
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    tableId = rs.getInt("id");
-
-                    // Associate table with order
-                    try (PreparedStatement linkStmt = conn.prepareStatement(
-                            "INSERT INTO order_tables (order_id, table_id) VALUES (?, ?)")) {
-
-                        linkStmt.setString(1, orderId);  // Changed from setLong to setString
-                        linkStmt.setInt(2, tableId);
-                        linkStmt.executeUpdate();
-                    }
-                }
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error occupying table: {}", e.getMessage(), e);
+        // One statement, so two waiters cannot seat different parties at the same table
+        if (!TableClaims.seatOrder(tableNumber, orderId)) {
+            logger.warn("Table #{} was taken before order {} could be seated", tableNumber, orderId);
+            return false;
         }
+
+        // Keep the in-memory table index in step; the order carries the customer
+        customerService.assignOrderToTable(orderId, tableNumber);
+        OrderEventLog.getInstance().tableOccupied(tableNumber, 0L, orderId);
+        return true;
     }
 
     /**
@@ -381,32 +390,9 @@ public class WaiterServiceImpl implements WaiterService {
         logger.info("Retrieving unserved tables");
         List<Table> unservedTables = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(
-                     "SELECT * FROM tables WHERE is_occupied = TRUE AND is_served = FALSE ORDER BY table_number")) {
-
-            while (rs.next()) {
-                Table table = new Table();
-                table.setTableNumber(rs.getInt("table_number"));
-                table.setOccupied(rs.getBoolean("is_occupied"));
-                table.setServed(rs.getBoolean("is_served"));
-
-                // Convert SQL timestamp to LocalDateTime if not null
-                Timestamp startTime = rs.getTimestamp("booking_start_time");
-                if (startTime != null) {
-                    table.setBookingStartTime(startTime.toLocalDateTime());
-                }
-
-                Timestamp endTime = rs.getTimestamp("booking_end_time");
-                if (endTime != null) {
-                    table.setBookingEndTime(endTime.toLocalDateTime());
-                }
-
-                unservedTables.add(table);
-            }
-
-            logger.info("Retrieved {} unserved tables from database", unservedTables.size());
+        try {
+            unservedTables = FloorState.getInstance().getUnservedTables();
+            logger.info("Retrieved {} unserved tables", unservedTables.size());
 
         } catch (SQLException e) {
             logger.error("Error retrieving unserved tables: {}", e.getMessage(), e);
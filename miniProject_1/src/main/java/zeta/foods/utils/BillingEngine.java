@@ -0,0 +1,102 @@
+package zeta.foods.utils;
+
+import zeta.foods.model.Bill;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The single place where bill totals are worked out, for printed bills, order summaries and the
+ * totals stored on the orders table.
+ * - All arithmetic is on long paise. Percentage charges are held in basis points and rounded half up to the paisa.
+ * - Charges come from BILL_CHARGES, a ';' separated list of kind|label|amount rules, where kind is
+ *   "service" or "tax" (the service_charge and cgst_sgst columns) and amount is either a percentage
+ *   such as "5%" or a flat amount over a threshold such as "25>150" (Rs.25 when the subtotal is over Rs.150).
+ */
+public class BillingEngine {
+
+    private static final String DEFAULT_CHARGES = "tax|GST (5%)|5%;service|Service Charge (2%)|2%";
+
+    private static final BillingEngine INSTANCE =
+            new BillingEngine(System.getenv().getOrDefault("BILL_CHARGES", DEFAULT_CHARGES));
+
+    private enum Kind { SERVICE, TAX }
+
+    private final Kind[] kinds;
+    private final String[] labels;
+    private final long[] basisPoints;
+    private final long[] flatPaise;
+    private final long[] thresholdPaise;
+
+    BillingEngine(String charges) {
+        List<String> rules = new ArrayList<>();
+        for (String rule : charges.split(";")) {
+            if (!rule.isBlank()) {
+                rules.add(rule.trim());
+            }
+        }
+
+        kinds = new Kind[rules.size()];
+        labels = new String[rules.size()];
+        basisPoints = new long[rules.size()];
+        flatPaise = new long[rules.size()];
+        thresholdPaise = new long[rules.size()];
+
+        for (int i = 0; i < rules.size(); i++) {
+            String[] parts = rules.get(i).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid bill charge rule (expected kind|label|amount): " + rules.get(i));
+            }
+            kinds[i] = Kind.valueOf(parts[0].trim().toUpperCase());
+            labels[i] = parts[1].trim();
+
+            String amount = parts[2].trim();
+            if (amount.endsWith("%")) {
+                try {
+                    basisPoints[i] = new BigDecimal(amount.substring(0, amount.length() - 1)).movePointRight(2).longValueExact();
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("Bill charge percentage finer than 0.01%: " + rules.get(i));
+                }
+            } else {
+                int over = amount.indexOf('>');
+                flatPaise[i] = Money.parse(over < 0 ? amount : amount.substring(0, over));
+                thresholdPaise[i] = over < 0 ? 0 : Money.parse(amount.substring(over + 1));
+            }
+        }
+    }
+
+    public static BillingEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Work out the charges and total for a subtotal
+     *
+     * @param subtotalPaise Sum of the order's item subtotals
+     * @return The bill
+     */
+    public Bill bill(long subtotalPaise) {
+        long[] charges = new long[labels.length];
+        long serviceCharge = 0;
+        long tax = 0;
+
+        for (int i = 0; i < labels.length; i++) {
+            long charge;
+            if (basisPoints[i] != 0) {
+                charge = (subtotalPaise * basisPoints[i] + 5_000) / 10_000;
+            } else {
+                charge = subtotalPaise > thresholdPaise[i] ? flatPaise[i] : 0;
+            }
+            charges[i] = charge;
+
+            if (kinds[i] == Kind.SERVICE) {
+                serviceCharge += charge;
+            } else {
+                tax += charge;
+            }
+        }
+
+        return new Bill(subtotalPaise, labels, charges, serviceCharge, tax);
+    }
+}
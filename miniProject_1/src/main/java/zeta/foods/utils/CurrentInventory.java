@@ -4,6 +4,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import zeta.foods.model.OrderItem;
 import zeta.foods.model.Recipe;
+import zeta.foods.monitoring.InventoryEvent;
+import zeta.foods.monitoring.InventoryFileEvent;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -16,6 +18,7 @@ import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -24,8 +27,10 @@ import java.util.stream.Collectors;
 public class CurrentInventory {
     private static final Logger logger = LoggerFactory.getLogger(CurrentInventory.class);
 
-    // Map for storing current inventory
-    private static Map<String, Integer> currentInventory = new HashMap<>();
+    // Map for storing current inventory; shared by every terminal session in server mode.
+    // Reads go straight to the map, while changes and file writes hold the class lock so a check
+    // and the deduction that follows it cannot interleave with another order.
+    private static Map<String, Integer> currentInventory = new ConcurrentHashMap<>();
 
     // File paths
     private static final String USER_HOME = System.getProperty("user.home");
@@ -62,7 +67,7 @@ public class CurrentInventory {
     /**
      * Initialize the current inventory, validating the date and updating if necessary
      */
-    public static void initializeCurrentInventory() {
+    public static synchronized void initializeCurrentInventory() {
         logger.info("Initializing current inventory...");
 
         // Check if the current inventory file exists and if date is current
@@ -80,6 +85,8 @@ public class CurrentInventory {
      * @return true if the file exists and the date matches today, false otherwise
      */
     private static boolean isCurrentInventoryUpToDate() {
+        InventoryFileEvent event = new InventoryFileEvent(CURRENT_INVENTORY_FILE_PATH, "read");
+        event.begin();
         try {
             File file = new File(CURRENT_INVENTORY_FILE_PATH);
             if (!file.exists()) {
@@ -89,6 +96,8 @@ public class CurrentInventory {
 
             // Read the first line to get the date
             List<String> lines = Files.readAllLines(Paths.get(CURRENT_INVENTORY_FILE_PATH), StandardCharsets.UTF_8);
+            event.lines = lines.size();
+            event.success = true;
             if (lines.isEmpty()) {
                 logger.warn("CurrentInventory.txt is empty.");
                 return false;
@@ -111,6 +120,8 @@ public class CurrentInventory {
         } catch (IOException e) {
             logger.error("Error checking current inventory file: {}", e.getMessage(), e);
             return false;
+        } finally {
+            event.commit();
         }
     }
 
@@ -121,8 +132,12 @@ public class CurrentInventory {
         logger.info("Loading current inventory from file: {}", CURRENT_INVENTORY_FILE_PATH);
         currentInventory.clear();
 
+        InventoryFileEvent event = new InventoryFileEvent(CURRENT_INVENTORY_FILE_PATH, "read");
+        event.begin();
         try {
             List<String> lines = Files.readAllLines(Paths.get(CURRENT_INVENTORY_FILE_PATH), StandardCharsets.UTF_8);
+            event.lines = lines.size();
+            event.success = true;
 
             // Skip first two lines (date and empty line)
             if (lines.size() <= 2) {
@@ -150,6 +165,8 @@ public class CurrentInventory {
 
         } catch (IOException e) {
             logger.error("Error loading current inventory from file: {}", e.getMessage(), e);
+        } finally {
+            event.commit();
         }
     }
 
@@ -162,11 +179,14 @@ public class CurrentInventory {
 
         try {
             // First, load from the main inventory resource file
+            InventoryFileEvent event = new InventoryFileEvent(INVENTORY_RESOURCE_PATH, "read");
+            event.begin();
             try (InputStream is = CurrentInventory.class.getClassLoader().getResourceAsStream(INVENTORY_RESOURCE_PATH);
                  BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
 
                 String line;
                 while ((line = reader.readLine()) != null) {
+                    event.lines++;
                     line = line.trim();
                     if (line.isEmpty()) continue;
 
@@ -181,6 +201,9 @@ public class CurrentInventory {
                         }
                     }
                 }
+                event.success = true;
+            } finally {
+                event.commit();
             }
 
             // Then, save the current inventory with today's date
@@ -196,7 +219,9 @@ public class CurrentInventory {
     /**
      * Save the current inventory to the CurrentInventory.txt file
      */
-    public static void saveCurrentInventory() {
+    public static synchronized void saveCurrentInventory() {
+        InventoryFileEvent event = new InventoryFileEvent(CURRENT_INVENTORY_FILE_PATH, "write");
+        event.begin();
         try (FileWriter writer = new FileWriter(CURRENT_INVENTORY_FILE_PATH);
              BufferedWriter bufferedWriter = new BufferedWriter(writer)) {
 
@@ -219,8 +244,12 @@ public class CurrentInventory {
                         }
                     });
 
+            event.lines = currentInventory.size() + 2;
+            event.success = true;
         } catch (IOException e) {
             logger.error("Error saving current inventory to file: {}", e.getMessage(), e);
+        } finally {
+            event.commit();
         }
     }
 
@@ -240,7 +269,7 @@ public class CurrentInventory {
      * @param ingredient The ingredient name
      * @param newQuantity The new quantity
      */
-    public static void updateQuantity(String ingredient, int newQuantity) {
+    public static synchronized void updateQuantity(String ingredient, int newQuantity) {
         if (newQuantity >= 0) {
             currentInventory.put(ingredient, newQuantity);
             // Save changes to file after each update
@@ -257,47 +286,56 @@ public class CurrentInventory {
      * @return true if there are sufficient ingredients, false otherwise
      */
     public static boolean checkIngredientsAvailability(List<OrderItem> orderItems) {
-        logger.info("Checking ingredient availability for order with {} items", orderItems.size());
+        InventoryEvent event = new InventoryEvent("check", orderItems.size());
+        event.begin();
+        try {
+            logger.info("Checking ingredient availability for order with {} items", orderItems.size());
 
-        // Create a map to track required ingredients and quantities
-        Map<String, Integer> requiredIngredients = new HashMap<>();
+            // Create a map to track required ingredients and quantities
+            Map<String, Integer> requiredIngredients = new HashMap<>();
 
-        // Calculate required ingredients
-        for (OrderItem item : orderItems) {
-            String dishName = item.getItemName();
-            int quantity = item.getQuantity();
+            // Calculate required ingredients
+            for (OrderItem item : orderItems) {
+                String dishName = item.getItemName();
+                int quantity = item.getQuantity();
 
-            // Get recipe for this dish
-            Recipe recipe = recipes.getRecipe(dishName);
-            if (recipe == null) {
-                logger.warn("No recipe found for dish: {}", dishName);
-                return false;
-            }
+                // Get recipe for this dish
+                Recipe recipe = recipes.getRecipe(dishName);
+                if (recipe == null) {
+                    logger.warn("No recipe found for dish: {}", dishName);
+                    return false;
+                }
 
-            // Add up required ingredients
-            for (Map.Entry<String, Integer> entry : recipe.getIngredients().entrySet()) {
-                String ingredient = entry.getKey();
-                int amountNeeded = entry.getValue() * quantity;
+                // Add up required ingredients
+                for (Map.Entry<String, Integer> entry : recipe.getIngredients().entrySet()) {
+                    String ingredient = entry.getKey();
+                    int amountNeeded = entry.getValue() * quantity;
 
-                requiredIngredients.merge(ingredient, amountNeeded, Integer::sum);
+                    requiredIngredients.merge(ingredient, amountNeeded, Integer::sum);
+                }
             }
-        }
 
-        // Check if we have enough of each ingredient
-        for (Map.Entry<String, Integer> entry : requiredIngredients.entrySet()) {
-            String ingredient = entry.getKey();
-            int required = entry.getValue();
-            int available = getQuantity(ingredient);
+            event.ingredients = requiredIngredients.size();
 
-            if (available < required) {
-                logger.warn("Insufficient quantity of {}: required {}, available {}",
-                        ingredient, required, available);
-                return false;
+            // Check if we have enough of each ingredient
+            for (Map.Entry<String, Integer> entry : requiredIngredients.entrySet()) {
+                String ingredient = entry.getKey();
+                int required = entry.getValue();
+                int available = getQuantity(ingredient);
+
+                if (available < required) {
+                    logger.warn("Insufficient quantity of {}: required {}, available {}",
+                            ingredient, required, available);
+                    return false;
+                }
             }
-        }
 
-        logger.info("All ingredients available for the order");
-        return true;
+            logger.info("All ingredients available for the order");
+            event.success = true;
+            return true;
+        } finally {
+            event.commit();
+        }
     }
 
     /**
@@ -306,52 +344,81 @@ public class CurrentInventory {
      * @param orderItems List of order items to prepare
      * @return true if ingredients were successfully used, false otherwise
      */
-    public static boolean useIngredientsForOrder(List<OrderItem> orderItems) {
-        // First check if we have enough ingredients
-        if (!checkIngredientsAvailability(orderItems)) {
-            return false;
-        }
-
-        logger.info("Using ingredients for order with {} items", orderItems.size());
-
-        // Create a map to track required ingredients and quantities
-        Map<String, Integer> requiredIngredients = new HashMap<>();
+    public static synchronized boolean useIngredientsForOrder(List<OrderItem> orderItems) {
+        InventoryEvent event = new InventoryEvent("use", orderItems.size());
+        event.begin();
+        try {
+            // First check if we have enough ingredients
+            if (!checkIngredientsAvailability(orderItems)) {
+                return false;
+            }
 
-        // Calculate required ingredients
-        for (OrderItem item : orderItems) {
-            String dishName = item.getItemName();
-            int quantity = item.getQuantity();
+            logger.info("Using ingredients for order with {} items", orderItems.size());
 
-            // Get recipe for this dish
-            Recipe recipe = recipes.getRecipe(dishName);
-            if (recipe == null) {
-                logger.warn("No recipe found for dish: {}", dishName);
+            Map<String, Integer> requiredIngredients = requiredIngredients(orderItems);
+            if (requiredIngredients == null) {
                 return false;
             }
 
-            // Add up required ingredients
-            for (Map.Entry<String, Integer> entry : recipe.getIngredients().entrySet()) {
+            event.ingredients = requiredIngredients.size();
+
+            // Deduct ingredients from inventory
+            for (Map.Entry<String, Integer> entry : requiredIngredients.entrySet()) {
                 String ingredient = entry.getKey();
-                int amountNeeded = entry.getValue() * quantity;
+                int required = entry.getValue();
+                int available = getQuantity(ingredient);
 
-                requiredIngredients.merge(ingredient, amountNeeded, Integer::sum);
+                currentInventory.put(ingredient, available - required);
             }
-        }
 
-        // Deduct ingredients from inventory
-        for (Map.Entry<String, Integer> entry : requiredIngredients.entrySet()) {
-            String ingredient = entry.getKey();
-            int required = entry.getValue();
-            int available = getQuantity(ingredient);
+            // Save changes to file once for the whole order
+            saveCurrentInventory();
 
-            updateQuantity(ingredient, available - required);
+            logger.info("Ingredients successfully used for the order");
+            event.success = true;
+            return true;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Put back the ingredients taken by useIngredientsForOrder, when the order they were taken for could not be saved
+     *
+     * @param orderItems List of order items the ingredients were used for
+     */
+    public static synchronized void returnIngredientsForOrder(List<OrderItem> orderItems) {
+        Map<String, Integer> requiredIngredients = requiredIngredients(orderItems);
+        if (requiredIngredients == null) {
+            return;
         }
 
-        // Save changes to file
+        logger.info("Returning ingredients for order with {} items", orderItems.size());
+        for (Map.Entry<String, Integer> entry : requiredIngredients.entrySet()) {
+            currentInventory.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
         saveCurrentInventory();
+    }
 
-        logger.info("Ingredients successfully used for the order");
-        return true;
+    /**
+     * Add up the ingredients the order items need
+     *
+     * @param orderItems List of order items
+     * @return Quantity needed per ingredient, or null if a dish has no recipe
+     */
+    private static Map<String, Integer> requiredIngredients(List<OrderItem> orderItems) {
+        Map<String, Integer> requiredIngredients = new HashMap<>();
+        for (OrderItem item : orderItems) {
+            Recipe recipe = recipes.getRecipe(item.getItemName());
+            if (recipe == null) {
+                logger.warn("No recipe found for dish: {}", item.getItemName());
+                return null;
+            }
+            for (Map.Entry<String, Integer> entry : recipe.getIngredients().entrySet()) {
+                requiredIngredients.merge(entry.getKey(), entry.getValue() * item.getQuantity(), Integer::sum);
+            }
+        }
+        return requiredIngredients;
     }
 
     /**
@@ -374,7 +441,7 @@ public class CurrentInventory {
     /**
      * Reset the current inventory to match the main inventory
      */
-    public static void resetCurrentInventory() {
+    public static synchronized void resetCurrentInventory() {
         logger.info("Resetting current inventory to main inventory values");
         refreshCurrentInventoryFromMain();
     }
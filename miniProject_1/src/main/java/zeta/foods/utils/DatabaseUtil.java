@@ -2,10 +2,24 @@ package zeta.foods.utils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import zeta.foods.monitoring.JdbcStatementEvent;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DatabaseUtil {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseUtil.class);
@@ -15,40 +29,196 @@ public class DatabaseUtil {
     private static final String DB_NAME = System.getenv().getOrDefault("DB_NAME", "restaurant_management_new");
     private static final String DB_USER = System.getenv().getOrDefault("DB_USER", "restaurant_user");
     private static final String DB_PASSWORD = System.getenv().getOrDefault("DB_PASSWORD", "restaurant_password");
+    private static final int DB_POOL_SIZE = Integer.parseInt(System.getenv().getOrDefault("DB_POOL_SIZE", "10"));
+    private static final long DB_POOL_WAIT_SECONDS = Long.parseLong(System.getenv().getOrDefault("DB_POOL_WAIT_SECONDS", "10"));
 
     private static final String JDBC_URL = String.format("jdbc:postgresql://%s:%s/%s", DB_HOST, DB_PORT, DB_NAME);
 
-    private static Connection connection = null;
+    // Idle physical connections. Callers keep using try-with-resources: closing the handle they get
+    // returns the connection here instead of closing it, so concurrent terminal sessions each get
+    // their own connection and the JVM keeps at most DB_POOL_SIZE of them open between requests.
+    private static final BlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<>(DB_POOL_SIZE);
 
+    // One permit per connection that may be borrowed at once, so busy sessions queue for a connection
+    // instead of each opening one more until the server refuses them
+    private static final Semaphore borrowPermits = new Semaphore(DB_POOL_SIZE, true);
+
+    /**
+     * Borrow a connection, waiting up to DB_POOL_WAIT_SECONDS when all DB_POOL_SIZE are in use
+     *
+     * @return Connection whose close() hands it back to the pool
+     * @throws SQLException if none became free in time or a new connection could not be opened
+     */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                // Load PostgreSQL JDBC driver
-                Class.forName("org.postgresql.Driver");
+        try {
+            if (!borrowPermits.tryAcquire(DB_POOL_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("Timed out after " + DB_POOL_WAIT_SECONDS + "s waiting for one of "
+                        + DB_POOL_SIZE + " database connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            Connection connection = idleConnections.poll();
+            while (connection != null && connection.isClosed()) {
+                connection = idleConnections.poll();
+            }
+            if (connection == null) {
+                connection = openConnection();
+            }
+            return pooled(connection);
+        } catch (SQLException | RuntimeException e) {
+            borrowPermits.release();
+            throw e;
+        }
+    }
 
+    private static Connection openConnection() throws SQLException {
+        try {
+            // Load PostgreSQL JDBC driver
+            Class.forName("org.postgresql.Driver");
 
-                // Create connection
-                connection = DriverManager.getConnection(
-                    JDBC_URL,
-                    DB_USER,
-                    DB_PASSWORD
-                );
+            // Create connection
+            Connection connection = DriverManager.getConnection(
+                JDBC_URL,
+                DB_USER,
+                DB_PASSWORD
+            );
 
-                logger.info("Database connection established");
-            } catch (ClassNotFoundException e) {
-                logger.error("PostgreSQL JDBC driver not found", e);
-                throw new SQLException("Database driver not found", e);
-            } catch (SQLException e) {
-                logger.error("Failed to connect to database: {}", e.getMessage(), e);
-                throw e;
+            logger.info("Database connection established");
+            return connection;
+        } catch (ClassNotFoundException e) {
+            logger.error("PostgreSQL JDBC driver not found", e);
+            throw new SQLException("Database driver not found", e);
+        } catch (SQLException e) {
+            logger.error("Failed to connect to database: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Wrap a physical connection so close() hands it back to the pool, closing any statements
+     * the caller left open and rolling back an unfinished transaction first
+     */
+    private static Connection pooled(Connection physical) {
+        AtomicBoolean released = new AtomicBoolean();
+        // Statements not closed yet; each one leaves the set when it is closed, so a long loop on one
+        // connection does not keep every statement it made until release
+        Set<Statement> statements = Collections.newSetFromMap(new IdentityHashMap<>());
+        return (Connection) Proxy.newProxyInstance(DatabaseUtil.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (released.compareAndSet(false, true)) {
+                                release(physical, statements);
+                            }
+                            return null;
+                        case "isClosed":
+                            return released.get() || physical.isClosed();
+                        default:
+                            if (released.get()) {
+                                throw new SQLException("Connection has already been closed");
+                            }
+                            Object result;
+                            try {
+                                result = method.invoke(physical, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                            if (result instanceof Statement) {
+                                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                                statements.add((Statement) result);
+                                result = tracked((Statement) result, method.getReturnType(), sql, statements);
+                            }
+                            return result;
+                    }
+                });
+    }
+
+    /**
+     * Wrap a statement so closing it drops it from the connection's open statements, and, while a recording
+     * is collecting them, so each execute call is recorded as a flight recorder event
+     *
+     * @param statement     Statement from the physical connection
+     * @param statementType Statement interface the connection method returned
+     * @param preparedSql   SQL the statement was prepared with, or null for a plain statement
+     * @param open          Open statements of the connection
+     */
+    private static Statement tracked(Statement statement, Class<?> statementType, String preparedSql, Set<Statement> open) {
+        boolean recording = JdbcStatementEvent.isRecording();
+        return (Statement) Proxy.newProxyInstance(DatabaseUtil.class.getClassLoader(), new Class<?>[]{statementType},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        open.remove(statement);
+                    } else if (recording && method.getName().startsWith("execute")) {
+                        return recordExecute(statement, method, args, preparedSql);
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Object recordExecute(Statement statement, Method method, Object[] args, String preparedSql) throws Throwable {
+        String sql = preparedSql != null || args == null || args.length == 0 ? preparedSql : String.valueOf(args[0]);
+        JdbcStatementEvent event = new JdbcStatementEvent(sql, method.getName());
+        event.begin();
+        try {
+            Object result = method.invoke(statement, args);
+            if (result instanceof Integer || result instanceof Long) {
+                event.rows = ((Number) result).longValue();
+            } else if (result instanceof int[]) {
+                event.rows = Arrays.stream((int[]) result).asLongStream().sum();
             }
+            event.success = true;
+            return result;
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            event.commit();
         }
+    }
+
+    private static void release(Connection physical, Set<Statement> statements) {
+        try {
+            reset(physical, statements);
+        } finally {
+            borrowPermits.release();
+        }
+    }
 
-        return connection;
+    private static void reset(Connection physical, Set<Statement> statements) {
+        try {
+            for (Statement statement : statements) {
+                statement.close();
+            }
+            if (physical.isClosed()) {
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (!idleConnections.offer(physical)) {
+                physical.close();
+            }
+        } catch (SQLException e) {
+            logger.warn("Discarding database connection that could not be reset: {}", e.getMessage());
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+                // Already broken
+            }
+        }
     }
 
     public static void closeConnection() {
-        if (connection != null) {
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
             try {
                 connection.close();
                 logger.info("Database connection closed");
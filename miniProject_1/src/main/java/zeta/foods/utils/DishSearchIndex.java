@@ -0,0 +1,354 @@
+package zeta.foods.utils;
+
+import zeta.foods.model.Dish;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Search over the menu catalog for terminals that autocomplete as the waiter types.
+ * - Every word of a dish name goes into a trie whose nodes hold the ids of all dishes under that prefix,
+ *   so "pan tik" is two trie walks and an intersection.
+ * - A query word with no prefix match is retried against every indexed word with a bounded edit distance
+ *   to the closest prefix of that word, so "panner" and "chiken" still find their dishes.
+ * - Ingredients from the recipes are indexed the same way, with each ingredient pointing at the dishes that use it.
+ * Everything is built once from the catalog; lookups only read.
+ */
+public class DishSearchIndex {
+
+    // Query words shorter than this are matched by prefix only; fuzzy matching them finds almost everything
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    private static final DishSearchIndex INSTANCE = new DishSearchIndex(MenuCatalog.getInstance());
+
+    private final MenuCatalog catalog;
+    private final WordIndex dishWords;
+    private final WordIndex ingredientWords;
+    private final String[] ingredients;
+    private final int[][] dishesByIngredient;
+    private final String[] lowerCaseNames;
+    private final String[][] nameWords;
+
+    DishSearchIndex(MenuCatalog catalog) {
+        this.catalog = catalog;
+        this.lowerCaseNames = new String[catalog.size()];
+        this.nameWords = new String[catalog.size()][];
+
+        dishWords = new WordIndex();
+        Map<String, BitSet> ingredientDishes = new TreeMap<>();
+        for (int id = 0; id < catalog.size(); id++) {
+            Dish dish = catalog.getDish(id);
+            lowerCaseNames[id] = normalize(dish.getName());
+            nameWords[id] = words(dish.getName());
+            for (String word : nameWords[id]) {
+                dishWords.add(word, id);
+            }
+            for (String ingredient : dish.getIngredients().keySet()) {
+                ingredientDishes.computeIfAbsent(ingredient, key -> new BitSet()).set(id);
+            }
+        }
+
+        // Ingredient ids are positions in name order
+        ingredients = ingredientDishes.keySet().toArray(new String[0]);
+        dishesByIngredient = new int[ingredients.length][];
+        ingredientWords = new WordIndex();
+        for (int i = 0; i < ingredients.length; i++) {
+            dishesByIngredient[i] = ingredientDishes.get(ingredients[i]).stream().toArray();
+            for (String word : words(ingredients[i])) {
+                ingredientWords.add(word, i);
+            }
+        }
+
+        dishWords.freeze();
+        ingredientWords.freeze();
+    }
+
+    public static DishSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Find dishes whose name matches every word of the query, by prefix or, failing that, with a typo.
+     * Dishes whose name starts with the query come first, then dishes matched without typos, then the rest,
+     * each group in name order.
+     *
+     * @param query Text typed so far, e.g. "pan tik" or "chiken"
+     * @param limit Maximum number of dishes to return
+     * @return Matching dishes, best first
+     */
+    public List<Dish> search(String query, int limit) {
+        String[] terms = words(query);
+        if (terms.length == 0) {
+            return Collections.emptyList();
+        }
+
+        boolean[] fuzzy = new boolean[1];
+        int[] ids = dishWords.matchAll(terms, fuzzy);
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+
+        // Rank 0: name starts with the query, 1: every word matched by prefix, 2: matched with a typo
+        String prefix = normalize(query);
+        int[] rank = new int[catalog.size()];
+        List<Dish> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            if (!lowerCaseNames[id].startsWith(prefix)) {
+                rank[id] = fuzzy[0] && !matchesByPrefix(terms, nameWords[id]) ? 2 : 1;
+            }
+            result.add(catalog.getDish(id));
+        }
+        result.sort(Comparator.comparingInt((Dish dish) -> rank[dish.getId()]).thenComparing(Dish::getName));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * Find dishes made with an ingredient, e.g. "paneer" or "ging garl"
+     *
+     * @param query Ingredient name or the start of its words
+     * @param limit Maximum number of dishes to return
+     * @return Dishes using any matching ingredient, in name order
+     */
+    public List<Dish> findByIngredient(String query, int limit) {
+        String[] terms = words(query);
+        if (terms.length == 0) {
+            return Collections.emptyList();
+        }
+
+        BitSet dishes = new BitSet(catalog.size());
+        for (int ingredient : ingredientWords.matchAll(terms, new boolean[1])) {
+            for (int id : dishesByIngredient[ingredient]) {
+                dishes.set(id);
+            }
+        }
+
+        List<Dish> result = new ArrayList<>(dishes.cardinality());
+        for (int id = dishes.nextSetBit(0); id >= 0; id = dishes.nextSetBit(id + 1)) {
+            result.add(catalog.getDish(id));
+        }
+        result.sort(Comparator.comparing(Dish::getName));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * Find ingredient names matching a query, for completing an ingredient search
+     *
+     * @param query Ingredient name or the start of its words
+     * @return Matching ingredient names in name order
+     */
+    public List<String> findIngredients(String query) {
+        String[] terms = words(query);
+        if (terms.length == 0) {
+            return Collections.emptyList();
+        }
+
+        List<String> result = new ArrayList<>();
+        for (int ingredient : ingredientWords.matchAll(terms, new boolean[1])) {
+            result.add(ingredients[ingredient]);
+        }
+        return result;
+    }
+
+    // True if every term is a prefix of some word
+    private static boolean matchesByPrefix(String[] terms, String[] words) {
+        for (String term : terms) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String[] words(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        return Arrays.stream(normalized.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Trie of words, each word pointing at the ids of the entries (dishes or ingredients) it appears in
+     */
+    private static final class WordIndex {
+        private final Node root = new Node();
+        private final Map<String, BitSet> building = new HashMap<>();
+        private String[] words;
+        private int[][] idsByWord;
+
+        void add(String word, int id) {
+            Node node = root;
+            node.add(id);
+            for (int i = 0; i < word.length(); i++) {
+                node = node.child(word.charAt(i), true);
+                node.add(id);
+            }
+            building.computeIfAbsent(word, key -> new BitSet()).set(id);
+        }
+
+        // Turn the building sets into sorted arrays, the only form lookups read
+        void freeze() {
+            root.freeze();
+            words = building.keySet().toArray(new String[0]);
+            Arrays.sort(words);
+            idsByWord = new int[words.length][];
+            for (int i = 0; i < words.length; i++) {
+                idsByWord[i] = building.get(words[i]).stream().toArray();
+            }
+            building.clear();
+        }
+
+        /**
+         * Ids matching every term, each term by prefix or, if it has no prefix match, by a close word
+         *
+         * @param terms Normalised query words
+         * @param fuzzy Set to true in fuzzy[0] if any term needed a typo-tolerant match
+         * @return Sorted ids
+         */
+        int[] matchAll(String[] terms, boolean[] fuzzy) {
+            int[] result = null;
+            for (String term : terms) {
+                int[] ids = prefix(term);
+                if (ids.length == 0 && term.length() >= MIN_FUZZY_LENGTH) {
+                    ids = closeWords(term);
+                    fuzzy[0] |= ids.length > 0;
+                }
+                result = result == null ? ids : intersect(result, ids);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        private int[] prefix(String term) {
+            Node node = root;
+            for (int i = 0; i < term.length() && node != null; i++) {
+                node = node.child(term.charAt(i), false);
+            }
+            return node == null ? new int[0] : node.ids;
+        }
+
+        // Union of the ids of every word within the allowed edit distance of the term
+        private int[] closeWords(String term) {
+            int maxDistance = term.length() < 8 ? 1 : 2;
+            BitSet ids = new BitSet();
+            int[] previous = new int[term.length() + 1];
+            int[] current = new int[term.length() + 1];
+            for (int i = 0; i < words.length; i++) {
+                // Too short to be within reach of the term even as a whole word
+                if (words[i].length() < term.length() - maxDistance) {
+                    continue;
+                }
+                if (prefixDistance(term, words[i], maxDistance, previous, current) <= maxDistance) {
+                    for (int id : idsByWord[i]) {
+                        ids.set(id);
+                    }
+                }
+            }
+            return ids.stream().toArray();
+        }
+
+        /**
+         * Edit distance between the term and the closest prefix of the word, so a half-typed word with a
+         * typo still matches. Columns run over the term, rows over the word; stops once every cell is over the limit.
+         */
+        private static int prefixDistance(String term, String word, int limit, int[] previous, int[] current) {
+            for (int j = 0; j <= term.length(); j++) {
+                previous[j] = j;
+            }
+            int best = previous[term.length()];
+            for (int i = 1; i <= word.length(); i++) {
+                current[0] = i;
+                int rowMin = current[0];
+                char w = word.charAt(i - 1);
+                for (int j = 1; j <= term.length(); j++) {
+                    int cost = term.charAt(j - 1) == w ? 0 : 1;
+                    current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                    rowMin = Math.min(rowMin, current[j]);
+                }
+                best = Math.min(best, current[term.length()]);
+                if (rowMin > limit) {
+                    break;
+                }
+                int[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+            return best;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] result = new int[Math.min(a.length, b.length)];
+            int count = 0;
+            for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    result[count++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private BitSet building = new BitSet();
+        private int[] ids;
+
+        void add(int id) {
+            building.set(id);
+        }
+
+        Node child(char key, boolean create) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            if (!create) {
+                return null;
+            }
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            children[children.length - 1] = new Node();
+            return children[children.length - 1];
+        }
+
+        void freeze() {
+            ids = building.stream().toArray();
+            building = null;
+            for (Node child : children) {
+                child.freeze();
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package zeta.foods.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import zeta.foods.model.Table;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * In-memory copy of the dining floor, so the waiter and customer menus stop reading every table on every action.
+ * - Tables are held as arrays sorted by table number, with occupied and served flags as bitsets, in an immutable
+ *   snapshot that readers use without locking. Every change to the floor publishes a new snapshot with a higher version.
+ * - A refresh only pulls the rows whose updated_at (kept by a trigger, see migration 005) is past the last one seen.
+ *   It also reads the row count, and reloads everything if the count shows that a table was deleted.
+ * - Refreshes happen on read, at most every FLOOR_REFRESH_MS (default 1000), or on the next read after this
+ *   process changes a table itself.
+ * Floor queries such as "free tables seating at least N" are bit operations on the snapshot.
+ */
+public class FloorState {
+    private static final Logger logger = LoggerFactory.getLogger(FloorState.class);
+
+    private static final long REFRESH_NANOS =
+            Long.parseLong(System.getenv().getOrDefault("FLOOR_REFRESH_MS", "1000")) * 1_000_000L;
+
+    // updated_at is set when a row changes, but another transaction may commit that change only after a refresh has
+    // already read past it. Re-reading a few seconds behind the watermark picks such rows up; applying a row twice is harmless.
+    private static final long WATERMARK_OVERLAP_SECONDS = 5;
+
+    private static final String CHANGES_SQL =
+            "SELECT n.total, t.table_number, t.capacity, t.is_occupied, t.is_served, " +
+            "t.booking_start_time, t.booking_end_time, t.updated_at " +
+            "FROM (SELECT COUNT(*) AS total FROM tables) n " +
+            "LEFT JOIN tables t ON t.updated_at > ? " +
+            "ORDER BY t.table_number";
+
+    private static final FloorState INSTANCE = new FloorState();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile Timestamp watermark = new Timestamp(0);
+    private volatile long refreshedAt;
+    private volatile boolean stale = true;
+
+    private FloorState() {
+    }
+
+    public static FloorState getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Version of the floor held in memory; it goes up every time a refresh finds a change
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Make the next read refresh from the database, for use right after this process has changed a table
+     */
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Get every table, in table number order
+     *
+     * @return Tables with their current status
+     * @throws SQLException if the floor has never been loaded and the database cannot be read
+     */
+    public List<Table> getTables() throws SQLException {
+        Snapshot floor = current();
+        BitSet all = new BitSet(floor.size());
+        all.set(0, floor.size());
+        return floor.tables(all);
+    }
+
+    /**
+     * Get the free tables that seat at least a given number of guests, in table number order
+     *
+     * @param minCapacity Number of guests; 0 or 1 for every free table
+     * @return Free tables large enough for the party
+     * @throws SQLException if the floor has never been loaded and the database cannot be read
+     */
+    public List<Table> getFreeTables(int minCapacity) throws SQLException {
+        Snapshot floor = current();
+        BitSet free = floor.seating(minCapacity);
+        free.andNot(floor.occupied);
+        return floor.tables(free);
+    }
+
+    /**
+     * Get the tables that are occupied but not yet served, in table number order
+     *
+     * @return Unserved tables
+     * @throws SQLException if the floor has never been loaded and the database cannot be read
+     */
+    public List<Table> getUnservedTables() throws SQLException {
+        Snapshot floor = current();
+        BitSet unserved = (BitSet) floor.occupied.clone();
+        unserved.andNot(floor.served);
+        return floor.tables(unserved);
+    }
+
+    private Snapshot current() throws SQLException {
+        if (stale || System.nanoTime() - refreshedAt >= REFRESH_NANOS) {
+            try {
+                refresh();
+            } catch (SQLException e) {
+                // Without a first load there is nothing to fall back on
+                if (refreshedAt == 0) {
+                    throw e;
+                }
+                logger.warn("Could not refresh the floor, showing version {}: {}", snapshot.version, e.getMessage());
+            }
+        }
+        return snapshot;
+    }
+
+    private synchronized void refresh() throws SQLException {
+        // Another thread may have refreshed while this one waited for the lock
+        if (!stale && System.nanoTime() - refreshedAt < REFRESH_NANOS) {
+            return;
+        }
+        // Cleared before reading, so a change made while the query runs marks the floor stale again
+        stale = false;
+
+        Snapshot current = snapshot;
+        List<Row> changes = new ArrayList<>();
+        Timestamp[] newest = {watermark};
+        try {
+            int total = readChanges(new Timestamp(watermark.getTime() - WATERMARK_OVERLAP_SECONDS * 1000), changes, newest);
+            Snapshot next = current.apply(changes);
+            if (next.size() != total) {
+                // A table was deleted; the changed rows cannot show that, so rebuild from every row
+                logger.info("Floor has {} tables in memory but {} in the database, reloading", next.size(), total);
+                changes.clear();
+                newest[0] = new Timestamp(0);
+                readChanges(newest[0], changes, newest);
+                next = Snapshot.EMPTY.withVersion(current.version).apply(changes);
+                if (next.version == current.version) {
+                    next = next.withVersion(current.version + 1);
+                }
+            }
+            if (next != current) {
+                logger.debug("Floor moved to version {} with {} changed tables", next.version, changes.size());
+                snapshot = next;
+            }
+        } catch (SQLException e) {
+            stale = true;
+            throw e;
+        }
+        watermark = newest[0];
+        refreshedAt = System.nanoTime();
+    }
+
+    /**
+     * Read the tables changed after a point in time, in table number order
+     *
+     * @param since   Read rows with updated_at after this
+     * @param changes Receives the changed rows
+     * @param newest  newest[0] is raised to the latest updated_at read
+     * @return Number of tables in the database
+     */
+    private static int readChanges(Timestamp since, List<Row> changes, Timestamp[] newest) throws SQLException {
+        int total = 0;
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(CHANGES_SQL)) {
+            stmt.setTimestamp(1, since);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    total = rs.getInt("total");
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    // The count comes back on its own when no table has changed
+                    if (updatedAt == null) {
+                        continue;
+                    }
+                    changes.add(new Row(rs.getInt("table_number"), rs.getInt("capacity"),
+                            rs.getBoolean("is_occupied"), rs.getBoolean("is_served"),
+                            toLocalDateTime(rs.getTimestamp("booking_start_time")),
+                            toLocalDateTime(rs.getTimestamp("booking_end_time"))));
+                    if (updatedAt.after(newest[0])) {
+                        newest[0] = updatedAt;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * One row of the tables table as read by a refresh
+     */
+    static final class Row {
+        final int tableNumber;
+        final int capacity;
+        final boolean occupied;
+        final boolean served;
+        final LocalDateTime bookingStart;
+        final LocalDateTime bookingEnd;
+
+        Row(int tableNumber, int capacity, boolean occupied, boolean served,
+            LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+            this.tableNumber = tableNumber;
+            this.capacity = capacity;
+            this.occupied = occupied;
+            this.served = served;
+            this.bookingStart = bookingStart;
+            this.bookingEnd = bookingEnd;
+        }
+    }
+
+    /**
+     * The whole floor at one version. Never changed once published; position i in every array is the same table.
+     */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, new int[0], new int[0], new BitSet(), new BitSet(),
+                new LocalDateTime[0], new LocalDateTime[0]);
+
+        final long version;
+        final int[] tableNumbers;
+        final int[] capacities;
+        final BitSet occupied;
+        final BitSet served;
+        final LocalDateTime[] bookingStarts;
+        final LocalDateTime[] bookingEnds;
+        // Capacity -> positions of the tables seating at least that many, one entry per distinct capacity
+        final TreeMap<Integer, BitSet> seatingAtLeast = new TreeMap<>();
+
+        Snapshot(long version, int[] tableNumbers, int[] capacities, BitSet occupied, BitSet served,
+                 LocalDateTime[] bookingStarts, LocalDateTime[] bookingEnds) {
+            this.version = version;
+            this.tableNumbers = tableNumbers;
+            this.capacities = capacities;
+            this.occupied = occupied;
+            this.served = served;
+            this.bookingStarts = bookingStarts;
+            this.bookingEnds = bookingEnds;
+
+            for (int capacity : capacities) {
+                seatingAtLeast.put(capacity, new BitSet(tableNumbers.length));
+            }
+            for (int i = 0; i < capacities.length; i++) {
+                for (BitSet fits : seatingAtLeast.headMap(capacities[i], true).values()) {
+                    fits.set(i);
+                }
+            }
+        }
+
+        int size() {
+            return tableNumbers.length;
+        }
+
+        Snapshot withVersion(long version) {
+            return new Snapshot(version, tableNumbers, capacities, occupied, served, bookingStarts, bookingEnds);
+        }
+
+        // Positions of the tables seating at least minCapacity; a copy the caller may change
+        BitSet seating(int minCapacity) {
+            Map.Entry<Integer, BitSet> fits = seatingAtLeast.ceilingEntry(minCapacity);
+            return fits == null ? new BitSet() : (BitSet) fits.getValue().clone();
+        }
+
+        List<Table> tables(BitSet positions) {
+            List<Table> tables = new ArrayList<>(positions.cardinality());
+            for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                Table table = new Table(tableNumbers[i], occupied.get(i), served.get(i), bookingStarts[i], bookingEnds[i]);
+                table.setCapacity(capacities[i]);
+                tables.add(table);
+            }
+            return tables;
+        }
+
+        /**
+         * Fold changed rows into a new snapshot
+         *
+         * @param changes Changed rows in table number order
+         * @return The new snapshot, or this one if no row differs from what it already holds
+         */
+        Snapshot apply(List<Row> changes) {
+            List<Row> added = new ArrayList<>();
+            boolean changed = false;
+            for (Row row : changes) {
+                int i = Arrays.binarySearch(tableNumbers, row.tableNumber);
+                if (i < 0) {
+                    added.add(row);
+                } else if (!holds(i, row)) {
+                    changed = true;
+                }
+            }
+            if (!changed && added.isEmpty()) {
+                return this;
+            }
+
+            // Merge the new tables in, keeping table number order
+            int size = tableNumbers.length + added.size();
+            int[] numbers = new int[size];
+            int[] seats = new int[size];
+            BitSet occupiedNext = new BitSet(size);
+            BitSet servedNext = new BitSet(size);
+            LocalDateTime[] starts = new LocalDateTime[size];
+            LocalDateTime[] ends = new LocalDateTime[size];
+            int next = 0;
+            int addedNext = 0;
+            for (int i = 0; i < tableNumbers.length || addedNext < added.size(); next++) {
+                if (addedNext < added.size()
+                        && (i == tableNumbers.length || added.get(addedNext).tableNumber < tableNumbers[i])) {
+                    Row row = added.get(addedNext++);
+                    numbers[next] = row.tableNumber;
+                    seats[next] = row.capacity;
+                    occupiedNext.set(next, row.occupied);
+                    servedNext.set(next, row.served);
+                    starts[next] = row.bookingStart;
+                    ends[next] = row.bookingEnd;
+                } else {
+                    numbers[next] = tableNumbers[i];
+                    seats[next] = capacities[i];
+                    occupiedNext.set(next, occupied.get(i));
+                    servedNext.set(next, served.get(i));
+                    starts[next] = bookingStarts[i];
+                    ends[next] = bookingEnds[i];
+                    i++;
+                }
+            }
+
+            // Then overwrite the tables that changed
+            for (Row row : changes) {
+                int i = Arrays.binarySearch(numbers, row.tableNumber);
+                seats[i] = row.capacity;
+                occupiedNext.set(i, row.occupied);
+                servedNext.set(i, row.served);
+                starts[i] = row.bookingStart;
+                ends[i] = row.bookingEnd;
+            }
+            return new Snapshot(version + 1, numbers, seats, occupiedNext, servedNext, starts, ends);
+        }
+
+        private boolean holds(int i, Row row) {
+            return capacities[i] == row.capacity && occupied.get(i) == row.occupied && served.get(i) == row.served
+                    && Objects.equals(bookingStarts[i], row.bookingStart)
+                    && Objects.equals(bookingEnds[i], row.bookingEnd);
+        }
+    }
+}
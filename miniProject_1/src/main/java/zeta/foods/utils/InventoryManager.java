@@ -1,5 +1,7 @@
 package zeta.foods.utils;
 
+import zeta.foods.monitoring.InventoryFileEvent;
+
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
@@ -27,8 +29,12 @@ public class InventoryManager {
 
     // Load default inventory from inventory.txt
     private static void loadDefaultInventory() {
+        InventoryFileEvent event = new InventoryFileEvent(DEFAULT_INVENTORY_PATH, "read");
+        event.begin();
         try {
             List<String> lines = Files.readAllLines(Paths.get(DEFAULT_INVENTORY_PATH));
+            event.lines = lines.size();
+            event.success = true;
 
             for (String line : lines) {
                 if (line.trim().isEmpty() || line.startsWith("//")) {
@@ -46,6 +52,8 @@ public class InventoryManager {
             System.out.println("Default inventory loaded successfully with " + defaultInventory.size() + " items.");
         } catch (IOException e) {
             System.err.println("Error loading default inventory: " + e.getMessage());
+        } finally {
+            event.commit();
         }
     }
 
@@ -59,7 +67,12 @@ public class InventoryManager {
                 return;
             }
 
+            InventoryFileEvent event = new InventoryFileEvent(CURRENT_INVENTORY_PATH, "read");
+            event.begin();
             List<String> lines = Files.readAllLines(currentInventoryPath);
+            event.lines = lines.size();
+            event.success = true;
+            event.commit();
 
             for (String line : lines) {
                 if (line.trim().isEmpty() || line.startsWith("//")) {
@@ -81,15 +94,21 @@ public class InventoryManager {
     }
 
     // Save current inventory to CurrentInventory.txt
-    public static void saveCurrentInventory() {
+    public static synchronized void saveCurrentInventory() {
+        InventoryFileEvent event = new InventoryFileEvent(CURRENT_INVENTORY_PATH, "write");
+        event.begin();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(CURRENT_INVENTORY_PATH))) {
             for (Map.Entry<String, Integer> entry : currentInventory.entrySet()) {
                 writer.write(entry.getKey() + " - " + entry.getValue());
                 writer.newLine();
+                event.lines++;
             }
+            event.success = true;
             System.out.println("Current inventory saved successfully.");
         } catch (IOException e) {
             System.err.println("Error saving current inventory: " + e.getMessage());
+        } finally {
+            event.commit();
         }
     }
 
@@ -111,8 +130,8 @@ public class InventoryManager {
         return true;
     }
 
-    // Update inventory after using ingredients
-    public static boolean useIngredients(Map<String, Integer> ingredients) {
+    // Update inventory after using ingredients; the check and the deduction happen under one lock
+    public static synchronized boolean useIngredients(Map<String, Integer> ingredients) {
         // First check if all ingredients are available
         if (!checkIngredientsAvailability(ingredients)) {
             return false;
@@ -150,7 +169,7 @@ public class InventoryManager {
     }
 
     // Reset current inventory to default values
-    public static void resetInventory() {
+    public static synchronized void resetInventory() {
         currentInventory.clear();
         currentInventory.putAll(defaultInventory);
         saveCurrentInventory();
@@ -163,7 +182,7 @@ public class InventoryManager {
     }
 
     // Restock an item to its default quantity
-    public static void restockItem(String ingredient) {
+    public static synchronized void restockItem(String ingredient) {
         if (defaultInventory.containsKey(ingredient)) {
             currentInventory.put(ingredient, defaultInventory.get(ingredient));
             saveCurrentInventory();
@@ -0,0 +1,135 @@
+package zeta.foods.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import zeta.foods.model.Dish;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The menu compiled once at startup from menu and recipes into immutable dish records.
+ * - Dish ids are positions in one array, grouped by category in menu order and sorted by name within a category.
+ * - Prices are parsed to paise once, and each dish holds its recipe, so taking an order needs no string parsing.
+ * - Dishes are indexed by id, by name and by category, all constant-time lookups.
+ */
+public class MenuCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(MenuCatalog.class);
+
+    private static final MenuCatalog INSTANCE = new MenuCatalog(menu.menuItems, recipes.getAllRecipes());
+
+    private final Dish[] dishes;
+    private final List<String> categories;
+    private final List<List<Dish>> dishesByCategory;
+    private final Map<String, Dish> dishesByName;
+
+    MenuCatalog(TreeMap<String, Map<String, String>> menuItems, Map<String, Map<String, Integer>> recipeDetails) {
+        List<Dish> allDishes = new ArrayList<>();
+        List<String> categoryNames = new ArrayList<>();
+        List<List<Dish>> byCategory = new ArrayList<>();
+        Map<String, Dish> byName = new HashMap<>();
+
+        for (Map.Entry<String, Map<String, String>> category : menuItems.entrySet()) {
+            int categoryId = categoryNames.size();
+            categoryNames.add(category.getKey());
+
+            String[] names = category.getValue().keySet().toArray(new String[0]);
+            Arrays.sort(names);
+
+            List<Dish> categoryDishes = new ArrayList<>(names.length);
+            for (String name : names) {
+                String priceLabel = category.getValue().get(name);
+                Map<String, Integer> ingredients = recipeDetails.get(name);
+                if (ingredients == null) {
+                    logger.warn("No recipe found for menu item: {}", name);
+                }
+
+                Dish dish = new Dish(allDishes.size(), name, categoryId, category.getKey(),
+                        Money.parse(priceLabel), priceLabel,
+                        ingredients == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(ingredients)));
+                allDishes.add(dish);
+                categoryDishes.add(dish);
+
+                if (byName.putIfAbsent(name, dish) != null) {
+                    logger.warn("Menu item {} appears in more than one category; lookups by name find the first", name);
+                }
+            }
+            byCategory.add(Collections.unmodifiableList(categoryDishes));
+        }
+
+        this.dishes = allDishes.toArray(new Dish[0]);
+        this.categories = Collections.unmodifiableList(categoryNames);
+        this.dishesByCategory = Collections.unmodifiableList(byCategory);
+        this.dishesByName = byName;
+    }
+
+    public static MenuCatalog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Category names in menu order; a category's position is its id
+     */
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    /**
+     * @param categoryId Position of the category in getCategories()
+     * @return Dishes in the category, sorted by name
+     */
+    public List<Dish> getDishes(int categoryId) {
+        return dishesByCategory.get(categoryId);
+    }
+
+    /**
+     * @param dishId Dish id
+     * @return The dish, or null if there is no dish with that id
+     */
+    public Dish getDish(int dishId) {
+        return dishId >= 0 && dishId < dishes.length ? dishes[dishId] : null;
+    }
+
+    /**
+     * @param name Dish name as shown on the menu
+     * @return The dish, or null if it is not on the menu
+     */
+    public Dish findDish(String name) {
+        return dishesByName.get(name);
+    }
+
+    /**
+     * @param category Category name
+     * @param name     Dish name
+     * @return The dish, or null if the category has no dish with that name
+     */
+    public Dish findDish(String category, String name) {
+        Dish dish = dishesByName.get(name);
+        if (dish != null && dish.getCategory().equals(category)) {
+            return dish;
+        }
+        // Only reached for unknown dishes or names shared by several categories
+        int categoryId = categories.indexOf(category);
+        if (categoryId < 0) {
+            return null;
+        }
+        for (Dish candidate : dishesByCategory.get(categoryId)) {
+            if (candidate.getName().equals(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Number of dishes on the menu
+     */
+    public int size() {
+        return dishes.length;
+    }
+}
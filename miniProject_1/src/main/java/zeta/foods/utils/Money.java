@@ -0,0 +1,102 @@
+package zeta.foods.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Money amounts are held as whole paise in a long, so adding up a bill never rounds.
+ * Conversions happen only at the edges: menu prices, NUMERIC(10,2) columns and printed bills.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /**
+     * Convert a rupee amount to paise, rounding to the nearest paisa
+     *
+     * @param rupees Amount in rupees
+     * @return Amount in paise
+     */
+    public static long toPaise(double rupees) {
+        return Math.round(rupees * 100);
+    }
+
+    /**
+     * Convert paise to rupees for code that still works in doubles
+     *
+     * @param paise Amount in paise
+     * @return Amount in rupees
+     */
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+
+    /**
+     * Parse a rupee amount such as "Rs.249", "249" or "12.50"
+     *
+     * @param text Amount, with or without the "Rs." prefix
+     * @return Amount in paise
+     * @throws NumberFormatException if the text is not an amount with at most two decimals
+     */
+    public static long parse(String text) {
+        String amount = text.trim();
+        if (amount.startsWith("Rs.")) {
+            amount = amount.substring(3);
+        }
+        try {
+            return new BigDecimal(amount).movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Not a rupee amount: " + text);
+        }
+    }
+
+    /**
+     * Read a NUMERIC(10,2) column value
+     *
+     * @param value Column value, may be null
+     * @return Amount in paise, 0 for null
+     */
+    public static long fromNumeric(BigDecimal value) {
+        return value == null ? 0 : value.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Value to write to a NUMERIC(10,2) column
+     *
+     * @param paise Amount in paise
+     * @return The same amount in rupees, exactly
+     */
+    public static BigDecimal toNumeric(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    /**
+     * Append an amount as rupees with two decimals, e.g. 24950 as "249.50", without building a formatter
+     *
+     * @param out   Where to append
+     * @param paise Amount in paise
+     * @return out
+     */
+    public static StringBuilder append(StringBuilder out, long paise) {
+        if (paise < 0) {
+            out.append('-');
+            paise = -paise;
+        }
+        long fraction = paise % 100;
+        out.append(paise / 100).append('.');
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    /**
+     * Format an amount as rupees with two decimals, e.g. 24950 as "249.50"
+     *
+     * @param paise Amount in paise
+     * @return Formatted amount without a currency prefix
+     */
+    public static String format(long paise) {
+        return append(new StringBuilder(12), paise).toString();
+    }
+}
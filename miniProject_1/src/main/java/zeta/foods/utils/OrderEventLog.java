@@ -0,0 +1,525 @@
+package zeta.foods.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import zeta.foods.model.Order;
+import zeta.foods.model.OrderItem;
+import zeta.foods.model.OrderStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only log of every order, kitchen and table change, kept in memory-mapped segment files.
+ * - Each change is one binary record: [length][crc32][sequence][time][type][fields]. The length is written last,
+ *   so a record torn by a crash reads as the end of the log.
+ * - Segments are named after the sequence number of their first record and are never rewritten.
+ * - Every ORDER_LOG_SNAPSHOT_EVERY records a background thread folds the records since the last snapshot
+ *   into a new one, which also stores where in the log it ends. At startup the latest snapshot is loaded and
+ *   only the records after that point are read.
+ * - Records reach the OS page cache when they are appended, so they survive the JVM being killed; the segment
+ *   is only forced to disk when it fills up or the log is closed.
+ * Table changes are recorded for the audit trail only: the tables table stays the source of truth for them.
+ */
+public class OrderEventLog {
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventLog.class);
+
+    // Record types; values are stored in the log, so never renumber them
+    static final byte ORDER_PLACED = 1;
+    static final byte ITEM_ADDED = 2;
+    static final byte ORDER_STATUS = 3;
+    static final byte ORDER_TABLE = 4;
+    static final byte KITCHEN_ITEMS = 5;
+    static final byte KITCHEN_ITEM_STATUS = 6;
+    static final byte KITCHEN_TABLE_CLEARED = 7;
+    static final byte TABLE_OCCUPIED = 8;
+
+    // [length][crc32] ahead of each record body, and [sequence][time][type] at the start of the body
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int BODY_HEADER_BYTES = 17;
+
+    private static final int SNAPSHOT_MAGIC = 0x5A4F4C53;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOTS_KEPT = 2;
+
+    private static final OrderEventLog INSTANCE = new OrderEventLog(
+            Boolean.parseBoolean(System.getenv().getOrDefault("ORDER_LOG_ENABLED", "true")),
+            Paths.get(System.getenv().getOrDefault("ORDER_LOG_DIR", "data/order-log")),
+            Integer.parseInt(System.getenv().getOrDefault("ORDER_LOG_SEGMENT_MB", "64")) * 1024 * 1024,
+            Integer.parseInt(System.getenv().getOrDefault("ORDER_LOG_SNAPSHOT_EVERY", "10000")));
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int snapshotEvery;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32 crc = new CRC32();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final ExecutorService snapshotter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-log-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by lock
+    private boolean enabled;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    private int sinceSnapshot;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+
+    // State as of startup, for the services to restore from
+    private final OrderLogState recovered;
+    // State as of the last snapshot, carried forward by the snapshot thread alone
+    private OrderLogState snapshotState;
+
+    OrderEventLog(boolean enabled, Path directory, int segmentBytes, int snapshotEvery) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.snapshotEvery = snapshotEvery;
+        OrderLogState state = new OrderLogState();
+        if (enabled) {
+            try {
+                Files.createDirectories(directory);
+                openLastSegment();
+                state = recover();
+                this.enabled = true;
+            } catch (IOException | RuntimeException e) {
+                // Running without the log loses warm restarts, not orders: the database still has them
+                logger.error("Order log in {} could not be opened, continuing without it: {}", directory, e.getMessage(), e);
+            }
+        }
+        this.recovered = state;
+    }
+
+    public static OrderEventLog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Open orders and kitchen state as they were when the application started
+     */
+    public OrderLogState getRecoveredState() {
+        return recovered;
+    }
+
+    public void orderPlaced(Order order) {
+        if (begin(ORDER_PLACED)) {
+            try {
+                putString(order.getOrderId());
+                scratch.putLong(order.getCustomerId() == null ? 0L : order.getCustomerId());
+                putString(order.getCustomerName());
+                append();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public void itemAdded(String orderId, OrderItem item) {
+        if (begin(ITEM_ADDED)) {
+            try {
+                putString(orderId);
+                putString(item.getCategory());
+                putString(item.getItemName());
+                scratch.putLong(item.getPricePaise());
+                scratch.putInt(item.getQuantity());
+                append();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public void statusChanged(String orderId, OrderStatus status) {
+        if (begin(ORDER_STATUS)) {
+            try {
+                putString(orderId);
+                putString(status.name());
+                append();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public void tableAssigned(String orderId, int tableNumber) {
+        if (begin(ORDER_TABLE)) {
+            try {
+                putString(orderId);
+                scratch.putInt(tableNumber);
+                append();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @param tableNumber Kitchen table key
+     * @param items       Item keys as the kitchen tracks them, one per portion ("Naan #1", "Naan #2")
+     */
+    public void kitchenItemsReceived(String tableNumber, Collection<String> items) {
+        if (begin(KITCHEN_ITEMS)) {
+            try {
+                putString(tableNumber);
+                scratch.putInt(items.size());
+                for (String item : items) {
+                    putString(item);
+                }
+                append();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public void kitchenItemStatus(String tableNumber, String item, OrderStatus status) {
+        if (begin(KITCHEN_ITEM_STATUS)) {
+            try {
+                putString(tableNumber);
+                putString(item);
+                putString(status.name());
+                append();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public void kitchenTableCleared(String tableNumber) {
+        if (begin(KITCHEN_TABLE_CLEARED)) {
+            try {
+                putString(tableNumber);
+                append();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @param tableNumber Table number
+     * @param customerId  Customer the table is held for, 0 for walk-ins
+     * @param orderId     Order being served at the table, or null for a booking
+     */
+    public void tableOccupied(int tableNumber, long customerId, String orderId) {
+        if (begin(TABLE_OCCUPIED)) {
+            try {
+                scratch.putInt(tableNumber);
+                scratch.putLong(customerId);
+                putString(orderId == null ? "" : orderId);
+                append();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Takes the lock and starts a record in the scratch buffer; false, without the lock, if the log is off
+    private boolean begin(byte type) {
+        lock.lock();
+        if (!enabled) {
+            lock.unlock();
+            return false;
+        }
+        scratch.clear();
+        scratch.position(RECORD_HEADER_BYTES);
+        scratch.putLong(nextSequence);
+        scratch.putLong(System.currentTimeMillis());
+        scratch.put(type);
+        return true;
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Value too long for the order log: " + bytes.length + " bytes");
+        }
+        // Also leaves room for the fixed-size fields that follow a string; only kitchen item lists get this big
+        int needed = 2 + bytes.length + Long.BYTES + Integer.BYTES;
+        if (scratch.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(scratch.capacity() * 2, scratch.position() + needed));
+            scratch.flip();
+            larger.put(scratch);
+            scratch = larger;
+        }
+        scratch.putShort((short) bytes.length);
+        scratch.put(bytes);
+    }
+
+    // Copies the finished record from scratch to the segment; called with the lock held
+    private void append() {
+        int bodyLength = scratch.position() - RECORD_HEADER_BYTES;
+        int recordLength = RECORD_HEADER_BYTES + bodyLength;
+        crc.reset();
+        crc.update(scratch.array(), RECORD_HEADER_BYTES, bodyLength);
+        scratch.putInt(4, (int) crc.getValue());
+
+        try {
+            if (recordLength > segmentBytes) {
+                logger.error("Dropping order log record of {} bytes: larger than a segment", recordLength);
+                return;
+            }
+            if (segment.remaining() < recordLength) {
+                segment.force();
+                segment = mapSegment(nextSequence);
+            }
+
+            int start = segment.position();
+            segment.position(start + 4);
+            segment.put(scratch.array(), 4, recordLength - 4);
+            // The length goes in last: until it does, readers see the end of the log here
+            segment.putInt(start, bodyLength);
+            nextSequence++;
+        } catch (IOException | BufferOverflowException e) {
+            enabled = false;
+            logger.error("Order log write failed, no further changes will be logged: {}", e.getMessage(), e);
+            return;
+        }
+
+        if (++sinceSnapshot >= snapshotEvery && snapshotRunning.compareAndSet(false, true)) {
+            sinceSnapshot = 0;
+            snapshotter.execute(this::snapshot);
+        }
+    }
+
+    /**
+     * Force the current segment to disk and stop logging, for shutdown
+     */
+    public void close() {
+        lock.lock();
+        try {
+            if (enabled) {
+                segment.force();
+                enabled = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        snapshotter.shutdown();
+    }
+
+    // ---- Segments ----
+
+    private MappedByteBuffer mapSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("orders-%020d.log", firstSequence));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, channel.size()));
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>();
+            files.filter(path -> path.getFileName().toString().matches("orders-\\d{20}\\.log")).forEach(segments::add);
+            Collections.sort(segments);
+            return segments;
+        }
+    }
+
+    private static long firstSequence(Path segmentPath) {
+        String name = segmentPath.getFileName().toString();
+        return Long.parseLong(name.substring("orders-".length(), name.length() - ".log".length()));
+    }
+
+    // Position the writer after the last whole record of the newest segment
+    private void openLastSegment() throws IOException {
+        List<Path> segments = listSegments();
+        long firstSequence = segments.isEmpty() ? 0 : firstSequence(segments.get(segments.size() - 1));
+        segment = mapSegment(firstSequence);
+
+        long sequence = firstSequence;
+        while (nextRecord(segment, sequence) != null) {
+            sequence++;
+        }
+        nextSequence = sequence;
+    }
+
+    /**
+     * Read the record at the buffer's position if it is whole and carries the expected sequence number
+     *
+     * @return The record body positioned after the sequence number, or null at the end of the segment
+     */
+    private static ByteBuffer nextRecord(ByteBuffer buffer, long expectedSequence) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_HEADER_BYTES) {
+            return null;
+        }
+        int bodyLength = buffer.getInt(start);
+        if (bodyLength < BODY_HEADER_BYTES || bodyLength > buffer.remaining() - RECORD_HEADER_BYTES) {
+            return null;
+        }
+
+        ByteBuffer body = buffer.slice(start + RECORD_HEADER_BYTES, bodyLength);
+        CRC32 check = new CRC32();
+        check.update(body.duplicate());
+        if ((int) check.getValue() != buffer.getInt(start + 4) || body.getLong() != expectedSequence) {
+            return null;
+        }
+        buffer.position(start + RECORD_HEADER_BYTES + bodyLength);
+        return body;
+    }
+
+    /**
+     * Apply the records after the state's position in the log, stopping before upTo
+     */
+    private void replay(OrderLogState state, long upTo) throws IOException {
+        long sequence = state.getLastSequence() + 1;
+        for (Path path : listSegments()) {
+            long first = firstSequence(path);
+            if (first < state.getSegment()) {
+                continue;
+            }
+            if (first != state.getSegment()) {
+                if (first != sequence) {
+                    logger.warn("Order log segment {} does not follow record {}, replay stops there", path.getFileName(), sequence - 1);
+                    return;
+                }
+                state.moveTo(first, 0);
+            }
+
+            ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            buffer.position(state.getOffset());
+            ByteBuffer body;
+            while (sequence < upTo && (body = nextRecord(buffer, sequence)) != null) {
+                long time = body.getLong();
+                byte type = body.get();
+                state.apply(sequence, time, type, body);
+                state.moveTo(first, buffer.position());
+                sequence++;
+            }
+            if (sequence >= upTo) {
+                return;
+            }
+        }
+    }
+
+    private OrderLogState recover() throws IOException {
+        long started = System.nanoTime();
+        OrderLogState state = loadLatestSnapshot();
+        long snapshotSequence = state.getLastSequence();
+        replay(state, nextSequence);
+        logger.info("Restored {} open orders and {} kitchen tables from the order log in {} ms " +
+                        "(snapshot at record {}, {} records replayed)",
+                state.getOpenOrders().size(), state.getKitchen().size(), (System.nanoTime() - started) / 1_000_000,
+                snapshotSequence, state.getLastSequence() - snapshotSequence);
+        return state;
+    }
+
+    // ---- Snapshots ----
+
+    private void snapshot() {
+        try {
+            long upTo;
+            lock.lock();
+            try {
+                upTo = nextSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            if (snapshotState == null) {
+                snapshotState = loadLatestSnapshot();
+            }
+            replay(snapshotState, upTo);
+            writeSnapshot(snapshotState);
+        } catch (IOException | RuntimeException e) {
+            // Start again from the files next time
+            snapshotState = null;
+            logger.error("Order log snapshot failed: {}", e.getMessage(), e);
+        } finally {
+            snapshotRunning.set(false);
+        }
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> snapshots = new ArrayList<>();
+            files.filter(path -> path.getFileName().toString().matches("snapshot-\\d{20}\\.bin")).forEach(snapshots::add);
+            snapshots.sort(Collections.reverseOrder());
+            return snapshots;
+        }
+    }
+
+    // Newest snapshot that reads back whole, or an empty state if there is none
+    private OrderLogState loadLatestSnapshot() throws IOException {
+        for (Path path : listSnapshots()) {
+            try (InputStream file = Files.newInputStream(path)) {
+                CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file), new CRC32());
+                DataInputStream in = new DataInputStream(checked);
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                    throw new IOException("not an order log snapshot");
+                }
+                OrderLogState state = OrderLogState.readFrom(in);
+                long expected = checked.getChecksum().getValue();
+                if (in.readLong() != expected) {
+                    throw new IOException("checksum mismatch");
+                }
+                return state;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Skipping unreadable order log snapshot {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+        return new OrderLogState();
+    }
+
+    private void writeSnapshot(OrderLogState state) throws IOException {
+        String name = String.format("snapshot-%020d.bin", state.getLastSequence());
+        Path temporary = directory.resolve(name + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temporary)) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            state.writeTo(out);
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+        }
+        // Readers only ever see whole snapshots
+        Files.move(temporary, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+
+        List<Path> snapshots = listSnapshots();
+        for (int i = SNAPSHOTS_KEPT; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        logger.debug("Wrote order log snapshot at record {}", state.getLastSequence());
+    }
+
+    static String getString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort() & 0xFFFF];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
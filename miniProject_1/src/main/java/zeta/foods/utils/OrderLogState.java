@@ -0,0 +1,200 @@
+package zeta.foods.utils;
+
+import zeta.foods.model.Order;
+import zeta.foods.model.OrderItem;
+import zeta.foods.model.OrderStatus;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Open orders and kitchen state folded from the order log, as stored in a snapshot.
+ * - Orders leave the state when they are completed or cancelled; the database has them from then on.
+ * - Records for an order the log never saw placed (placed before the log existed) are skipped.
+ */
+public class OrderLogState {
+    private final Map<String, Order> openOrders = new LinkedHashMap<>();
+    // Same shape as the kitchen's live orders: <Table Number, <Item Name, Status>>
+    private final Map<String, Map<String, OrderStatus>> kitchen = new LinkedHashMap<>();
+    private long lastSequence = -1;
+    // Where the next record is read from: the segment's first sequence number and a byte offset into it
+    private long segment;
+    private int offset;
+
+    public Collection<Order> getOpenOrders() {
+        return openOrders.values();
+    }
+
+    public Map<String, Map<String, OrderStatus>> getKitchen() {
+        return kitchen;
+    }
+
+    /**
+     * @return Sequence number of the last record folded in, -1 if none
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    long getSegment() {
+        return segment;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    void moveTo(long segment, int offset) {
+        this.segment = segment;
+        this.offset = offset;
+    }
+
+    /**
+     * Fold one record into the state
+     *
+     * @param sequence Record sequence number
+     * @param time     When the record was written, in epoch milliseconds
+     * @param type     Record type
+     * @param body     Record fields, positioned after the type
+     */
+    void apply(long sequence, long time, byte type, ByteBuffer body) {
+        lastSequence = sequence;
+        switch (type) {
+            case OrderEventLog.ORDER_PLACED: {
+                Order order = new Order();
+                order.setOrderId(OrderEventLog.getString(body));
+                order.setCustomerId(body.getLong());
+                order.setCustomerName(OrderEventLog.getString(body));
+                order.setOrderTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()));
+                openOrders.put(order.getOrderId(), order);
+                break;
+            }
+            case OrderEventLog.ITEM_ADDED: {
+                Order order = openOrders.get(OrderEventLog.getString(body));
+                String category = OrderEventLog.getString(body);
+                String itemName = OrderEventLog.getString(body);
+                long pricePaise = body.getLong();
+                int quantity = body.getInt();
+                if (order != null) {
+                    order.addItem(OrderItem.ofPaise(category, itemName, quantity, pricePaise));
+                }
+                break;
+            }
+            case OrderEventLog.ORDER_STATUS: {
+                String orderId = OrderEventLog.getString(body);
+                OrderStatus status = OrderStatus.valueOf(OrderEventLog.getString(body));
+                if (status == OrderStatus.COMPLETED || status == OrderStatus.CANCELLED) {
+                    openOrders.remove(orderId);
+                } else if (openOrders.containsKey(orderId)) {
+                    openOrders.get(orderId).setStatus(status);
+                }
+                break;
+            }
+            case OrderEventLog.ORDER_TABLE: {
+                Order order = openOrders.get(OrderEventLog.getString(body));
+                int tableNumber = body.getInt();
+                if (order != null) {
+                    order.setTableNumber(tableNumber);
+                }
+                break;
+            }
+            case OrderEventLog.KITCHEN_ITEMS: {
+                Map<String, OrderStatus> tableOrders = kitchen.computeIfAbsent(OrderEventLog.getString(body),
+                        table -> new LinkedHashMap<>());
+                for (int count = body.getInt(); count > 0; count--) {
+                    tableOrders.put(OrderEventLog.getString(body), OrderStatus.RECEIVED);
+                }
+                break;
+            }
+            case OrderEventLog.KITCHEN_ITEM_STATUS: {
+                Map<String, OrderStatus> tableOrders = kitchen.get(OrderEventLog.getString(body));
+                String item = OrderEventLog.getString(body);
+                OrderStatus status = OrderStatus.valueOf(OrderEventLog.getString(body));
+                if (tableOrders != null) {
+                    tableOrders.put(item, status);
+                }
+                break;
+            }
+            case OrderEventLog.KITCHEN_TABLE_CLEARED:
+                kitchen.remove(OrderEventLog.getString(body));
+                break;
+            default:
+                // Audit-only records such as TABLE_OCCUPIED, and types added by later versions
+                break;
+        }
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(lastSequence);
+        out.writeLong(segment);
+        out.writeInt(offset);
+
+        out.writeInt(openOrders.size());
+        for (Order order : openOrders.values()) {
+            out.writeUTF(order.getOrderId());
+            out.writeLong(order.getCustomerId() == null ? 0L : order.getCustomerId());
+            out.writeUTF(order.getCustomerName() == null ? "" : order.getCustomerName());
+            out.writeUTF(order.getStatus().name());
+            out.writeLong(order.getOrderTime().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(order.getTableNumber());
+            out.writeInt(order.getItems().size());
+            for (OrderItem item : order.getItems()) {
+                out.writeUTF(item.getCategory());
+                out.writeUTF(item.getItemName());
+                out.writeLong(item.getPricePaise());
+                out.writeInt(item.getQuantity());
+            }
+        }
+
+        out.writeInt(kitchen.size());
+        for (Map.Entry<String, Map<String, OrderStatus>> table : kitchen.entrySet()) {
+            out.writeUTF(table.getKey());
+            out.writeInt(table.getValue().size());
+            for (Map.Entry<String, OrderStatus> item : table.getValue().entrySet()) {
+                out.writeUTF(item.getKey());
+                out.writeUTF(item.getValue().name());
+            }
+        }
+    }
+
+    static OrderLogState readFrom(DataInputStream in) throws IOException {
+        OrderLogState state = new OrderLogState();
+        state.lastSequence = in.readLong();
+        state.segment = in.readLong();
+        state.offset = in.readInt();
+
+        for (int orders = in.readInt(); orders > 0; orders--) {
+            Order order = new Order();
+            order.setOrderId(in.readUTF());
+            order.setCustomerId(in.readLong());
+            order.setCustomerName(in.readUTF());
+            order.setStatus(OrderStatus.valueOf(in.readUTF()));
+            order.setOrderTime(LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC));
+            order.setTableNumber(in.readInt());
+            for (int items = in.readInt(); items > 0; items--) {
+                String category = in.readUTF();
+                String itemName = in.readUTF();
+                long pricePaise = in.readLong();
+                order.addItem(OrderItem.ofPaise(category, itemName, in.readInt(), pricePaise));
+            }
+            state.openOrders.put(order.getOrderId(), order);
+        }
+
+        for (int tables = in.readInt(); tables > 0; tables--) {
+            Map<String, OrderStatus> tableOrders = state.kitchen.computeIfAbsent(in.readUTF(), table -> new LinkedHashMap<>());
+            for (int items = in.readInt(); items > 0; items--) {
+                tableOrders.put(in.readUTF(), OrderStatus.valueOf(in.readUTF()));
+            }
+        }
+        return state;
+    }
+}
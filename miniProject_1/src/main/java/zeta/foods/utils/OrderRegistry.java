@@ -0,0 +1,393 @@
+package zeta.foods.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import zeta.foods.model.Order;
+import zeta.foods.model.OrderStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-memory registry of orders shared by every session in the JVM.
+ * - Lookups never lock. Changes to an order run under one of a fixed set of locks picked by
+ *   order id, so sessions working on different orders do not wait for each other.
+ * - Secondary indexes by customer, table and status are updated under the same lock as the change.
+ * - COMPLETED and CANCELLED orders are evicted once they are older than the retention window or the
+ *   registry is over capacity. They remain in the orders table and are reloaded from there on demand.
+ */
+public class OrderRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(OrderRegistry.class);
+
+    private static final int STRIPES = 64;
+    private static final int CAPACITY = Integer.parseInt(System.getenv().getOrDefault("ORDER_CACHE_CAPACITY", "5000"));
+    private static final Duration RETENTION = Duration.ofMinutes(
+            Long.parseLong(System.getenv().getOrDefault("ORDER_CACHE_RETENTION_MINUTES", "120")));
+
+    // Rough heap cost used for the memory report: an order with its strings, and one line item
+    private static final int ESTIMATED_ORDER_BYTES = 320;
+    private static final int ESTIMATED_ITEM_BYTES = 160;
+
+    private static final OrderRegistry INSTANCE = new OrderRegistry(CAPACITY, RETENTION);
+
+    private final int capacity;
+    private final Duration retention;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final Map<String, Entry> orders = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> byCustomer = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> byTable = new ConcurrentHashMap<>();
+    private final Map<OrderStatus, Set<String>> byStatus = new EnumMap<>(OrderStatus.class);
+    // Customers whose full history is in memory, so it can be served without going to the database
+    private final Set<Long> loadedCustomers = ConcurrentHashMap.newKeySet();
+    // Finished orders in the order they finished, oldest first
+    private final Queue<String> finished = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Index state as of the last change, so a change knows which index entries to move
+    private static final class Entry {
+        final Order order;
+        OrderStatus indexedStatus;
+        int indexedTable;
+        LocalDateTime finishedAt;
+
+        Entry(Order order) {
+            this.order = order;
+        }
+    }
+
+    OrderRegistry(int capacity, Duration retention) {
+        this.capacity = capacity;
+        this.retention = retention;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    public static OrderRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    private ReentrantLock lockFor(String orderId) {
+        int hash = orderId.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Look up an order
+     * @param orderId The order ID
+     * @return The order, or null if it is not in memory
+     */
+    public Order get(String orderId) {
+        Entry entry = orders.get(orderId);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.order;
+    }
+
+    /**
+     * Add an order to the registry
+     * @param order The order to add
+     * @return The order now held for that ID; an order already in memory wins over a reloaded copy
+     */
+    public Order register(Order order) {
+        Order registered;
+        ReentrantLock lock = lockFor(order.getOrderId());
+        lock.lock();
+        try {
+            Entry existing = orders.get(order.getOrderId());
+            if (existing != null) {
+                registered = existing.order;
+            } else {
+                Entry entry = new Entry(order);
+                orders.put(order.getOrderId(), entry);
+                if (order.getCustomerId() != null) {
+                    byCustomer.computeIfAbsent(order.getCustomerId(), id -> ConcurrentHashMap.newKeySet()).add(order.getOrderId());
+                }
+                reindex(entry);
+                registered = order;
+            }
+        } finally {
+            lock.unlock();
+        }
+        evictIfNeeded();
+        return registered;
+    }
+
+    /**
+     * Change an order under its lock and update the indexes from the result
+     * @param orderId The order ID
+     * @param change Work to do on the order; may read and write it freely
+     * @return What the change returned, or null if the order is not in memory
+     */
+    public <R> R update(String orderId, Function<Order, R> change) {
+        R result;
+        ReentrantLock lock = lockFor(orderId);
+        lock.lock();
+        try {
+            Entry entry = orders.get(orderId);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                result = change.apply(entry.order);
+            } finally {
+                reindex(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        evictIfNeeded();
+        return result;
+    }
+
+    // Called with the order's lock held
+    private void reindex(Entry entry) {
+        Order order = entry.order;
+        String orderId = order.getOrderId();
+
+        if (entry.indexedStatus != order.getStatus()) {
+            if (entry.indexedStatus != null) {
+                byStatus.get(entry.indexedStatus).remove(orderId);
+            }
+            if (order.getStatus() != null) {
+                byStatus.get(order.getStatus()).add(orderId);
+            }
+            entry.indexedStatus = order.getStatus();
+
+            if (isFinished(order.getStatus())) {
+                entry.finishedAt = LocalDateTime.now();
+                finished.add(orderId);
+            } else {
+                entry.finishedAt = null;
+            }
+        }
+
+        if (entry.indexedTable != order.getTableNumber()) {
+            removeFromIndex(byTable, entry.indexedTable, orderId);
+            if (order.getTableNumber() > 0) {
+                byTable.computeIfAbsent(order.getTableNumber(), table -> ConcurrentHashMap.newKeySet()).add(orderId);
+            }
+            entry.indexedTable = order.getTableNumber();
+        }
+    }
+
+    private static boolean isFinished(OrderStatus status) {
+        return status == OrderStatus.COMPLETED || status == OrderStatus.CANCELLED;
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<String>> index, K key, String orderId) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(orderId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    public List<Order> findByCustomer(Long customerId) {
+        return resolve(byCustomer.getOrDefault(customerId, Collections.emptySet()));
+    }
+
+    public List<Order> findByTable(int tableNumber) {
+        return resolve(byTable.getOrDefault(tableNumber, Collections.emptySet()));
+    }
+
+    public List<Order> findByStatus(OrderStatus status) {
+        return resolve(byStatus.get(status));
+    }
+
+    private List<Order> resolve(Set<String> orderIds) {
+        List<Order> result = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            Entry entry = orders.get(orderId);
+            if (entry != null) {
+                result.add(entry.order);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Record that every order of a customer has been loaded from the database
+     */
+    public void markCustomerLoaded(Long customerId) {
+        loadedCustomers.add(customerId);
+    }
+
+    /**
+     * @return true if the customer's whole order history is in memory
+     */
+    public boolean isCustomerLoaded(Long customerId) {
+        return loadedCustomers.contains(customerId);
+    }
+
+    /**
+     * Evict finished orders past the retention window, and more of the oldest finished orders while
+     * the registry is over capacity. Orders that are still open are never evicted.
+     */
+    public void evictIfNeeded() {
+        // One session sweeps at a time; the others carry on
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDateTime expiry = LocalDateTime.now().minus(retention);
+            int evicted = 0;
+            String orderId;
+            while ((orderId = finished.peek()) != null) {
+                Entry entry = orders.get(orderId);
+                boolean overCapacity = orders.size() > capacity;
+                if (entry != null && entry.finishedAt != null && !overCapacity && entry.finishedAt.isAfter(expiry)) {
+                    break;
+                }
+                finished.poll();
+                if (entry != null && evict(orderId)) {
+                    evicted++;
+                }
+            }
+            if (evicted > 0) {
+                logger.debug("Evicted {} finished orders from memory, {} remain", evicted, orders.size());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean evict(String orderId) {
+        ReentrantLock lock = lockFor(orderId);
+        lock.lock();
+        try {
+            Entry entry = orders.get(orderId);
+            // Reopened since it was queued, or queued twice
+            if (entry == null || !isFinished(entry.order.getStatus())) {
+                return false;
+            }
+            orders.remove(orderId);
+            byStatus.get(entry.indexedStatus).remove(orderId);
+            removeFromIndex(byTable, entry.indexedTable, orderId);
+            Long customerId = entry.order.getCustomerId();
+            if (customerId != null) {
+                removeFromIndex(byCustomer, customerId, orderId);
+                // The cached history is now partial
+                loadedCustomers.remove(customerId);
+            }
+            evictions.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return A snapshot of the registry's size, hit rate and estimated memory use
+     */
+    public Stats getStats() {
+        Map<OrderStatus, Integer> perStatus = new EnumMap<>(OrderStatus.class);
+        for (Map.Entry<OrderStatus, Set<String>> entry : byStatus.entrySet()) {
+            perStatus.put(entry.getKey(), entry.getValue().size());
+        }
+        long items = 0;
+        for (Entry entry : orders.values()) {
+            items += entry.order.getItems().size();
+        }
+        return new Stats(orders.size(), items, perStatus, byCustomer.size(), byTable.size(),
+                hits.sum(), misses.sum(), evictions.sum(), capacity, retention);
+    }
+
+    /**
+     * Point-in-time registry statistics
+     */
+    public static class Stats {
+        private final int orders;
+        private final long items;
+        private final Map<OrderStatus, Integer> ordersByStatus;
+        private final int customers;
+        private final int tables;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int capacity;
+        private final Duration retention;
+
+        Stats(int orders, long items, Map<OrderStatus, Integer> ordersByStatus, int customers, int tables,
+              long hits, long misses, long evictions, int capacity, Duration retention) {
+            this.orders = orders;
+            this.items = items;
+            this.ordersByStatus = ordersByStatus;
+            this.customers = customers;
+            this.tables = tables;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.capacity = capacity;
+            this.retention = retention;
+        }
+
+        public int getOrders() {
+            return orders;
+        }
+
+        public long getItems() {
+            return items;
+        }
+
+        public Map<OrderStatus, Integer> getOrdersByStatus() {
+            return ordersByStatus;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getEstimatedBytes() {
+            return orders * (long) ESTIMATED_ORDER_BYTES + items * ESTIMATED_ITEM_BYTES;
+        }
+
+        @Override
+        public String toString() {
+            long lookups = hits + misses;
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("Orders in memory: %d of %d (finished orders kept %d min)%n",
+                    orders, capacity, retention.toMinutes()));
+            ordersByStatus.forEach((status, count) -> {
+                if (count > 0) {
+                    report.append(String.format("  %-15s %d%n", status, count));
+                }
+            });
+            report.append(String.format("Line items: %d, customers: %d, tables: %d%n", items, customers, tables));
+            report.append(String.format("Lookups: %d (%.1f%% hit), evicted: %d%n",
+                    lookups, lookups == 0 ? 0.0 : hits * 100.0 / lookups, evictions));
+            report.append(String.format("Estimated memory: %.1f KB", getEstimatedBytes() / 1024.0));
+            return report.toString();
+        }
+    }
+}
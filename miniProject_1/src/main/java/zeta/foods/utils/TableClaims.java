@@ -0,0 +1,109 @@
+package zeta.foods.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * Claims a free table in a single statement. The UPDATE only matches a table that is still free, and the row
+ * it returns feeds the INSERT of the reservation or order link in the same data-modifying CTE.
+ * When two terminals claim one table at once, the second UPDATE waits for the first one's row lock, then
+ * re-checks is_occupied, finds the table taken and claims nothing, so exactly one of them gets it.
+ */
+public class TableClaims {
+
+    private static final String RESERVE_SQL =
+            "WITH claimed AS (" +
+            "  UPDATE tables SET is_occupied = TRUE, booking_start_time = COALESCE(?, NOW()), booking_end_time = ? " +
+            "  WHERE table_number = ? AND is_occupied = FALSE " +
+            "  RETURNING id, table_number, booking_start_time) " +
+            "INSERT INTO table_reservations (table_id, customer_id, reservation_time, status, table_number, start_time, end_time) " +
+            "SELECT id, ?, booking_start_time, 'active', table_number, booking_start_time, ? FROM claimed";
+
+    // The order must exist too, or the table would be claimed with nothing to link it to
+    private static final String SEAT_ORDER_SQL =
+            "WITH claimed AS (" +
+            "  UPDATE tables SET is_occupied = TRUE, is_served = FALSE, booking_start_time = NOW() " +
+            "  WHERE table_number = ? AND is_occupied = FALSE " +
+            "  AND EXISTS (SELECT 1 FROM orders WHERE order_id = ?) " +
+            "  RETURNING id) " +
+            "INSERT INTO order_tables (order_id, table_id) " +
+            "SELECT o.id, claimed.id FROM claimed JOIN orders o ON o.order_id = ?";
+
+    private static final String ORDER_EXISTS_SQL = "SELECT 1 FROM orders WHERE order_id = ?";
+
+    private TableClaims() {
+    }
+
+    /**
+     * Occupy a free table and record the reservation for a customer
+     *
+     * @param tableNumber Table number
+     * @param customerId  Customer the table is reserved for
+     * @param start       When the booking starts, or null for now
+     * @param end         When the booking ends, or null if open-ended
+     * @return true if this call claimed the table, false if it is taken or does not exist
+     * @throws SQLException if the statement fails
+     */
+    public static boolean reserve(int tableNumber, long customerId, LocalDateTime start, LocalDateTime end) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RESERVE_SQL)) {
+            setTimestamp(stmt, 1, start);
+            setTimestamp(stmt, 2, end);
+            stmt.setInt(3, tableNumber);
+            stmt.setLong(4, customerId);
+            setTimestamp(stmt, 5, end);
+            return claimed(stmt.executeUpdate());
+        }
+    }
+
+    /**
+     * Occupy a free table and link it to the order being served there
+     *
+     * @param tableNumber Table number
+     * @param orderId     Order ID, as in orders.order_id
+     * @return true if this call claimed the table, false if it is taken or does not exist
+     * @throws SQLException if the order does not exist or the statement fails
+     */
+    public static boolean seatOrder(int tableNumber, String orderId) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SEAT_ORDER_SQL)) {
+            stmt.setInt(1, tableNumber);
+            stmt.setString(2, orderId);
+            stmt.setString(3, orderId);
+            if (claimed(stmt.executeUpdate())) {
+                return true;
+            }
+
+            // Nothing claimed: a missing order is an error, not a table someone else got to first
+            try (PreparedStatement check = conn.prepareStatement(ORDER_EXISTS_SQL)) {
+                check.setString(1, orderId);
+                try (ResultSet rs = check.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Order " + orderId + " is not in the database");
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static boolean claimed(int rows) {
+        if (rows == 1) {
+            FloorState.getInstance().markStale();
+        }
+        return rows == 1;
+    }
+
+    private static void setTimestamp(PreparedStatement stmt, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, Types.TIMESTAMP);
+        } else {
+            stmt.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+}
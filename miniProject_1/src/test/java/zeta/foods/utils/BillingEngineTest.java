@@ -0,0 +1,94 @@
+package zeta.foods.utils;
+
+import org.junit.jupiter.api.Test;
+import zeta.foods.model.Bill;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BillingEngineTest {
+
+    private final BillingEngine defaults = new BillingEngine("tax|GST (5%)|5%;service|Service Charge (2%)|2%");
+
+    @Test
+    void defaultCharges_AddFivePercentTaxAndTwoPercentService() {
+        Bill bill = defaults.bill(24_900);
+
+        assertEquals(2, bill.getChargeCount());
+        assertEquals("GST (5%)", bill.getChargeLabel(0));
+        assertEquals(1_245, bill.getChargePaise(0));
+        assertEquals("Service Charge (2%)", bill.getChargeLabel(1));
+        assertEquals(498, bill.getChargePaise(1));
+        assertEquals(1_245, bill.getTaxPaise());
+        assertEquals(498, bill.getServiceChargePaise());
+        assertEquals(26_643, bill.getTotalPaise());
+    }
+
+    @Test
+    void defaultCharges_RoundEachChargeToThePaisa() {
+        // Rs.1234.56: GST Rs.61.728, service Rs.24.6912
+        Bill bill = defaults.bill(123_456);
+
+        assertEquals(6_173, bill.getTaxPaise());
+        assertEquals(2_469, bill.getServiceChargePaise());
+        assertEquals(132_098, bill.getTotalPaise());
+    }
+
+    @Test
+    void percentageCharges_RoundHalfAPaisaUp() {
+        // 5% of 10 paise and 2% of 25 paise are both exactly half a paisa
+        assertEquals(1, defaults.bill(10).getTaxPaise());
+        assertEquals(1, defaults.bill(25).getServiceChargePaise());
+        assertEquals(2, defaults.bill(75).getServiceChargePaise());
+        // Just under half a paisa
+        assertEquals(0, defaults.bill(9).getTaxPaise());
+        assertEquals(0, defaults.bill(24).getServiceChargePaise());
+    }
+
+    @Test
+    void emptyOrder_HasNoCharges() {
+        Bill bill = defaults.bill(0);
+
+        assertEquals(0, bill.getTaxPaise());
+        assertEquals(0, bill.getServiceChargePaise());
+        assertEquals(0, bill.getTotalPaise());
+    }
+
+    @Test
+    void flatCharge_AppliesOnlyOverItsThreshold() {
+        BillingEngine engine = new BillingEngine("service|Packing|25>150");
+
+        assertEquals(0, engine.bill(15_000).getServiceChargePaise());
+        assertEquals(2_500, engine.bill(15_001).getServiceChargePaise());
+        assertEquals(17_501, engine.bill(15_001).getTotalPaise());
+    }
+
+    @Test
+    void flatChargeWithoutThreshold_AppliesToAnyNonEmptyOrder() {
+        BillingEngine engine = new BillingEngine("service|Cover|Rs.10.50");
+
+        assertEquals(0, engine.bill(0).getServiceChargePaise());
+        assertEquals(1_050, engine.bill(1).getServiceChargePaise());
+    }
+
+    @Test
+    void chargesOfTheSameKind_AddUp() {
+        BillingEngine engine = new BillingEngine(" tax|CGST|2.5% ; tax|SGST|2.5% ;; service|Packing|25>150 ");
+        Bill bill = engine.bill(20_000);
+
+        assertEquals(3, bill.getChargeCount());
+        assertEquals(1_000, bill.getTaxPaise());
+        assertEquals(2_500, bill.getServiceChargePaise());
+        assertEquals(23_500, bill.getTotalPaise());
+    }
+
+    @Test
+    void badRules_AreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BillingEngine("tax|GST"));
+        assertThrows(IllegalArgumentException.class, () -> new BillingEngine("tax|GST|5%|extra"));
+        assertThrows(IllegalArgumentException.class, () -> new BillingEngine("discount|Happy hour|5%"));
+        assertThrows(IllegalArgumentException.class, () -> new BillingEngine("tax|GST|five%"));
+        assertThrows(IllegalArgumentException.class, () -> new BillingEngine("tax|GST|5.125%"));
+        assertThrows(IllegalArgumentException.class, () -> new BillingEngine("service|Packing|25>abc"));
+        assertThrows(IllegalArgumentException.class, () -> new BillingEngine("service|Packing|0.001"));
+    }
+}
@@ -0,0 +1,117 @@
+package zeta.foods.utils;
+
+import org.junit.jupiter.api.Test;
+import zeta.foods.model.Table;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloorStateTest {
+
+    private static final LocalDateTime SEVEN_PM = LocalDateTime.of(2024, 5, 10, 19, 0);
+
+    @Test
+    void apply_AddsNewTablesInTableNumberOrder() {
+        FloorState.Snapshot floor = FloorState.Snapshot.EMPTY.apply(List.of(row(2, 4), row(5, 2)));
+
+        FloorState.Snapshot next = floor.apply(List.of(row(1, 6), row(3, 2), row(9, 8)));
+
+        assertEquals(2, next.version);
+        assertEquals(List.of(1, 2, 3, 5, 9), tableNumbers(next, all(next)));
+        assertEquals(List.of(6, 4, 2, 2, 8),
+                next.tables(all(next)).stream().map(Table::getCapacity).collect(Collectors.toList()));
+    }
+
+    @Test
+    void apply_OverwritesChangedTablesAndKeepsTheRest() {
+        FloorState.Snapshot floor = FloorState.Snapshot.EMPTY.apply(List.of(row(1, 4), row(2, 4), row(3, 2)));
+
+        FloorState.Snapshot next = floor.apply(List.of(
+                new FloorState.Row(2, 4, true, false, SEVEN_PM, SEVEN_PM.plusHours(2)),
+                new FloorState.Row(3, 6, false, false, null, null)));
+
+        assertEquals(floor.version + 1, next.version);
+        List<Table> tables = next.tables(all(next));
+        assertFalse(tables.get(0).isOccupied());
+        assertTrue(tables.get(1).isOccupied());
+        assertEquals(SEVEN_PM, tables.get(1).getBookingStartTime());
+        assertEquals(SEVEN_PM.plusHours(2), tables.get(1).getBookingEndTime());
+        assertEquals(6, tables.get(2).getCapacity());
+        // The old snapshot is never changed
+        assertFalse(floor.occupied.get(1));
+        assertEquals(2, floor.capacities[2]);
+    }
+
+    @Test
+    void apply_ReturnsTheSameSnapshotWhenNothingDiffers() {
+        FloorState.Snapshot floor = FloorState.Snapshot.EMPTY.apply(List.of(
+                row(1, 4), new FloorState.Row(2, 2, true, true, SEVEN_PM, SEVEN_PM.plusHours(1))));
+
+        // What a refresh reads back when it re-reads rows behind the watermark
+        FloorState.Snapshot next = floor.apply(List.of(
+                row(1, 4), new FloorState.Row(2, 2, true, true, SEVEN_PM, SEVEN_PM.plusHours(1))));
+
+        assertSame(floor, next);
+        assertSame(floor, floor.apply(List.of()));
+    }
+
+    @Test
+    void apply_NeverDropsATable_SoADeleteShowsAsASizeMismatch() {
+        FloorState.Snapshot floor = FloorState.Snapshot.EMPTY.apply(List.of(row(1, 4), row(2, 4), row(3, 2)));
+
+        // Table 2 was deleted and table 3 changed; only table 3 comes back as a changed row
+        FloorState.Snapshot next = floor.apply(List.of(row(3, 8)));
+        int tablesInDatabase = 2;
+
+        assertEquals(3, next.size());
+        assertNotEquals(tablesInDatabase, next.size());
+
+        // The reload then rebuilds from every row at a higher version
+        FloorState.Snapshot reloaded = FloorState.Snapshot.EMPTY.withVersion(next.version)
+                .apply(List.of(row(1, 4), row(3, 8)));
+        assertEquals(List.of(1, 3), tableNumbers(reloaded, all(reloaded)));
+        assertEquals(next.version + 1, reloaded.version);
+    }
+
+    @Test
+    void seating_FindsTheTablesSeatingAtLeastTheParty() {
+        FloorState.Snapshot floor = FloorState.Snapshot.EMPTY.apply(List.of(
+                row(1, 2), row(2, 4), row(3, 6), row(4, 4), row(5, 8)));
+
+        assertEquals(List.of(1, 2, 3, 4, 5), tableNumbers(floor, floor.seating(0)));
+        assertEquals(List.of(1, 2, 3, 4, 5), tableNumbers(floor, floor.seating(2)));
+        // Between two capacities rounds up to the next one held
+        assertEquals(List.of(2, 3, 4, 5), tableNumbers(floor, floor.seating(3)));
+        assertEquals(List.of(2, 3, 4, 5), tableNumbers(floor, floor.seating(4)));
+        assertEquals(List.of(3, 5), tableNumbers(floor, floor.seating(5)));
+        assertEquals(List.of(5), tableNumbers(floor, floor.seating(8)));
+        assertEquals(List.of(), tableNumbers(floor, floor.seating(9)));
+    }
+
+    @Test
+    void seating_ReturnsACopyTheCallerMayChange() {
+        FloorState.Snapshot floor = FloorState.Snapshot.EMPTY.apply(List.of(row(1, 2), row(2, 4)));
+
+        floor.seating(2).clear();
+
+        assertEquals(List.of(1, 2), tableNumbers(floor, floor.seating(2)));
+    }
+
+    private static FloorState.Row row(int tableNumber, int capacity) {
+        return new FloorState.Row(tableNumber, capacity, false, false, null, null);
+    }
+
+    private static BitSet all(FloorState.Snapshot floor) {
+        BitSet all = new BitSet(floor.size());
+        all.set(0, floor.size());
+        return all;
+    }
+
+    private static List<Integer> tableNumbers(FloorState.Snapshot floor, BitSet positions) {
+        return floor.tables(positions).stream().map(Table::getTableNumber).collect(Collectors.toList());
+    }
+}
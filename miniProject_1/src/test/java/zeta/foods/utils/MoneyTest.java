@@ -0,0 +1,58 @@
+package zeta.foods.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void parse_AcceptsAmountsWithOrWithoutThePrefix() {
+        assertEquals(24_900, Money.parse("Rs.249"));
+        assertEquals(24_900, Money.parse("249"));
+        assertEquals(1_250, Money.parse("12.50"));
+        assertEquals(1_250, Money.parse(" Rs.12.5 "));
+        assertEquals(5, Money.parse("0.05"));
+        assertEquals(-500, Money.parse("-5"));
+    }
+
+    @Test
+    void parse_RejectsTextThatIsNotAnAmountInPaise() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("12.345"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("Rs."));
+        assertThrows(NumberFormatException.class, () -> Money.parse("twelve"));
+    }
+
+    @Test
+    void append_WritesRupeesWithTwoDecimals() {
+        assertEquals("249.50", Money.append(new StringBuilder(), 24_950).toString());
+        assertEquals("0.05", Money.append(new StringBuilder(), 5).toString());
+        assertEquals("0.00", Money.append(new StringBuilder(), 0).toString());
+        assertEquals("1.00", Money.append(new StringBuilder(), 100).toString());
+        assertEquals("-0.05", Money.append(new StringBuilder(), -5).toString());
+        assertEquals("-12.30", Money.append(new StringBuilder(), -1_230).toString());
+    }
+
+    @Test
+    void append_AddsToWhatIsAlreadyInTheBuilder() {
+        StringBuilder out = new StringBuilder("Rs.");
+
+        assertSame(out, Money.append(out, 24_950));
+        assertEquals("Rs.249.50", out.toString());
+    }
+
+    @Test
+    void format_MatchesAppend() {
+        assertEquals("249.50", Money.format(24_950));
+        assertEquals("-0.05", Money.format(-5));
+    }
+
+    @Test
+    void numericColumns_RoundTripExactly() {
+        assertEquals(new BigDecimal("249.50"), Money.toNumeric(24_950));
+        assertEquals(24_950, Money.fromNumeric(new BigDecimal("249.50")));
+        assertEquals(0, Money.fromNumeric(null));
+    }
+}
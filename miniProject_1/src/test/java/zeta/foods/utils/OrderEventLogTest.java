@@ -0,0 +1,215 @@
+package zeta.foods.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import zeta.foods.model.Order;
+import zeta.foods.model.OrderItem;
+import zeta.foods.model.OrderStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventLogTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+    // Five orderPlaced records of 43 bytes fit, a sixth does not
+    private static final int SMALL_SEGMENT_BYTES = 240;
+
+    @TempDir
+    Path directory;
+
+    private final List<OrderEventLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(OrderEventLog::close);
+    }
+
+    @Test
+    void reopenedLog_ReplaysOpenOrdersAndKitchenState() {
+        OrderEventLog log = open(SEGMENT_BYTES, 1_000);
+        log.orderPlaced(order("O1", 7, "Asha"));
+        log.itemAdded("O1", OrderItem.ofPaise("Breads", "Naan", 2, 4_000));
+        log.tableAssigned("O1", 4);
+        log.statusChanged("O1", OrderStatus.IN_PREPARATION);
+        log.kitchenItemsReceived("4", List.of("Naan #1", "Naan #2"));
+        log.kitchenItemStatus("4", "Naan #1", OrderStatus.READY);
+        log.orderPlaced(order("O2", 8, "Ravi"));
+        log.statusChanged("O2", OrderStatus.COMPLETED);
+        log.tableOccupied(4, 7, "O1");
+        log.close();
+
+        OrderLogState state = open(SEGMENT_BYTES, 1_000).getRecoveredState();
+
+        assertEquals(8, state.getLastSequence());
+        assertEquals(List.of("O1"), orderIds(state));
+        Order order = state.getOpenOrders().iterator().next();
+        assertEquals(7L, order.getCustomerId());
+        assertEquals("Asha", order.getCustomerName());
+        assertEquals(4, order.getTableNumber());
+        assertEquals(OrderStatus.IN_PREPARATION, order.getStatus());
+        assertEquals(1, order.getItems().size());
+        assertEquals("Naan", order.getItems().get(0).getItemName());
+        assertEquals(2, order.getItems().get(0).getQuantity());
+        assertEquals(8_000, order.getSubtotalPaise());
+        assertEquals(Map.of("4", Map.of("Naan #1", OrderStatus.READY, "Naan #2", OrderStatus.RECEIVED)),
+                state.getKitchen());
+    }
+
+    @Test
+    void reopenedLog_ContinuesTheSequence() {
+        OrderEventLog log = open(SEGMENT_BYTES, 1_000);
+        log.orderPlaced(order("O1", 7, "Asha"));
+        log.close();
+
+        log = open(SEGMENT_BYTES, 1_000);
+        log.orderPlaced(order("O2", 8, "Ravi"));
+        log.close();
+
+        OrderLogState state = open(SEGMENT_BYTES, 1_000).getRecoveredState();
+        assertEquals(1, state.getLastSequence());
+        assertEquals(List.of("O1", "O2"), orderIds(state));
+    }
+
+    @Test
+    void tornLastRecord_ReadsAsTheEndOfTheLog() throws IOException {
+        OrderEventLog log = open(SEGMENT_BYTES, 1_000);
+        log.orderPlaced(order("O1", 7, "Asha"));
+        log.orderPlaced(order("O2", 8, "Ravi"));
+        log.orderPlaced(order("O3", 9, "Meena"));
+        log.close();
+
+        // A crash part way through the last record: its length is there, the end of its body is not
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        List<Integer> starts = recordStarts(bytes);
+        int last = starts.get(2);
+        int end = last + 8 + ByteBuffer.wrap(bytes).getInt(last);
+        for (int i = end - 6; i < end; i++) {
+            bytes[i] = 0;
+        }
+        Files.write(segment, bytes);
+
+        log = open(SEGMENT_BYTES, 1_000);
+        assertEquals(1, log.getRecoveredState().getLastSequence());
+        assertEquals(List.of("O1", "O2"), orderIds(log.getRecoveredState()));
+
+        // The next record takes the torn one's place
+        log.orderPlaced(order("O4", 10, "Kiran"));
+        log.close();
+        OrderLogState state = open(SEGMENT_BYTES, 1_000).getRecoveredState();
+        assertEquals(2, state.getLastSequence());
+        assertEquals(List.of("O1", "O2", "O4"), orderIds(state));
+    }
+
+    @Test
+    void fullSegment_RollsOverIntoOneNamedAfterItsFirstRecord() throws IOException {
+        OrderEventLog log = open(SMALL_SEGMENT_BYTES, 1_000);
+        for (int i = 1; i <= 7; i++) {
+            log.orderPlaced(order("O" + i, i, "Asha"));
+        }
+        log.close();
+
+        assertEquals(List.of("orders-00000000000000000000.log", "orders-00000000000000000005.log"),
+                segments().stream().map(path -> path.getFileName().toString()).collect(Collectors.toList()));
+
+        OrderLogState state = open(SMALL_SEGMENT_BYTES, 1_000).getRecoveredState();
+        assertEquals(6, state.getLastSequence());
+        assertEquals(List.of("O1", "O2", "O3", "O4", "O5", "O6", "O7"), orderIds(state));
+    }
+
+    @Test
+    void recovery_LoadsTheSnapshotAndReplaysOnlyTheTail() throws Exception {
+        OrderEventLog log = open(SMALL_SEGMENT_BYTES, 5);
+        for (int i = 1; i <= 5; i++) {
+            log.orderPlaced(order("O" + i, i, "Asha"));
+        }
+        Path snapshot = directory.resolve("snapshot-00000000000000000004.bin");
+        awaitFile(snapshot);
+
+        // The tail goes into the second segment
+        log.itemAdded("O1", OrderItem.ofPaise("Breads", "Naan", 1, 4_000));
+        log.statusChanged("O2", OrderStatus.COMPLETED);
+        log.close();
+
+        // Only the snapshot still knows about the first five records
+        Files.delete(segments().get(0));
+
+        OrderLogState state = open(SMALL_SEGMENT_BYTES, 5).getRecoveredState();
+        assertEquals(6, state.getLastSequence());
+        assertEquals(List.of("O1", "O3", "O4", "O5"), orderIds(state));
+        assertEquals(4_000, state.getOpenOrders().iterator().next().getSubtotalPaise());
+    }
+
+    @Test
+    void unreadableSnapshot_FallsBackToTheFullLog() throws Exception {
+        OrderEventLog log = open(SEGMENT_BYTES, 2);
+        log.orderPlaced(order("O1", 7, "Asha"));
+        log.orderPlaced(order("O2", 8, "Ravi"));
+        Path snapshot = directory.resolve("snapshot-00000000000000000001.bin");
+        awaitFile(snapshot);
+        log.close();
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(snapshot, bytes);
+
+        OrderLogState state = open(SEGMENT_BYTES, 2).getRecoveredState();
+        assertEquals(1, state.getLastSequence());
+        assertEquals(List.of("O1", "O2"), orderIds(state));
+    }
+
+    private OrderEventLog open(int segmentBytes, int snapshotEvery) {
+        OrderEventLog log = new OrderEventLog(true, directory, segmentBytes, snapshotEvery);
+        opened.add(log);
+        return log;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // Offsets of the whole records in a segment, read by their length prefix
+    private static List<Integer> recordStarts(byte[] segment) {
+        ByteBuffer buffer = ByteBuffer.wrap(segment);
+        List<Integer> starts = new ArrayList<>();
+        for (int position = 0; position + 8 <= segment.length && buffer.getInt(position) > 0;
+             position += 8 + buffer.getInt(position)) {
+            starts.add(position);
+        }
+        return starts;
+    }
+
+    // Snapshots are written by a background thread
+    private static void awaitFile(Path file) throws InterruptedException {
+        for (int attempt = 0; attempt < 200 && !Files.exists(file); attempt++) {
+            Thread.sleep(25);
+        }
+        assertTrue(Files.exists(file), file + " was not written");
+    }
+
+    private static Order order(String orderId, long customerId, String customerName) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId(customerId);
+        order.setCustomerName(customerName);
+        return order;
+    }
+
+    private static List<String> orderIds(OrderLogState state) {
+        return state.getOpenOrders().stream().map(Order::getOrderId).collect(Collectors.toList());
+    }
+}
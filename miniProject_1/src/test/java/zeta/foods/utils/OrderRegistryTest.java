@@ -0,0 +1,135 @@
+package zeta.foods.utils;
+
+import org.junit.jupiter.api.Test;
+import zeta.foods.model.Order;
+import zeta.foods.model.OrderStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRegistryTest {
+
+    private static final Duration LONG_RETENTION = Duration.ofHours(2);
+
+    @Test
+    void register_KeepsTheOrderAlreadyInMemoryOverAReloadedCopy() {
+        OrderRegistry registry = new OrderRegistry(100, LONG_RETENTION);
+        Order live = order("O1", 7L, OrderStatus.IN_PREPARATION, 4);
+        registry.register(live);
+
+        Order reloaded = order("O1", 7L, OrderStatus.PENDING, 0);
+        Order registered = registry.register(reloaded);
+
+        assertSame(live, registered);
+        assertSame(live, registry.get("O1"));
+        assertEquals(List.of("O1"), orderIds(registry.findByStatus(OrderStatus.IN_PREPARATION)));
+        assertEquals(List.of(), registry.findByStatus(OrderStatus.PENDING));
+        assertEquals(1, registry.getStats().getOrders());
+    }
+
+    @Test
+    void update_MovesTheOrderBetweenStatusAndTableIndexes() {
+        OrderRegistry registry = new OrderRegistry(100, LONG_RETENTION);
+        registry.register(order("O1", 7L, OrderStatus.PENDING, 0));
+
+        registry.update("O1", order -> {
+            order.setStatus(OrderStatus.IN_PREPARATION);
+            order.setTableNumber(4);
+            return null;
+        });
+
+        assertEquals(List.of(), registry.findByStatus(OrderStatus.PENDING));
+        assertEquals(List.of("O1"), orderIds(registry.findByStatus(OrderStatus.IN_PREPARATION)));
+        assertEquals(List.of("O1"), orderIds(registry.findByTable(4)));
+
+        registry.update("O1", order -> {
+            order.setTableNumber(6);
+            return null;
+        });
+
+        assertEquals(List.of(), registry.findByTable(4));
+        assertEquals(List.of("O1"), orderIds(registry.findByTable(6)));
+        assertEquals(List.of("O1"), orderIds(registry.findByCustomer(7L)));
+    }
+
+    @Test
+    void update_ReturnsNullForAnOrderNotInMemory() {
+        OrderRegistry registry = new OrderRegistry(100, LONG_RETENTION);
+
+        assertNull(registry.update("missing", order -> "changed"));
+        assertNull(registry.get("missing"));
+        assertEquals(1, registry.getStats().getMisses());
+    }
+
+    @Test
+    void finishedOrders_AreEvictedOncePastRetention() {
+        OrderRegistry registry = new OrderRegistry(100, Duration.ZERO);
+        registry.register(order("O1", 7L, OrderStatus.IN_PREPARATION, 4));
+        registry.register(order("O2", 7L, OrderStatus.SERVED, 5));
+
+        registry.update("O1", order -> {
+            order.setStatus(OrderStatus.COMPLETED);
+            return null;
+        });
+
+        assertNull(registry.get("O1"));
+        assertEquals(List.of(), registry.findByStatus(OrderStatus.COMPLETED));
+        assertEquals(List.of(), registry.findByTable(4));
+        assertEquals(List.of("O2"), orderIds(registry.findByCustomer(7L)));
+        assertEquals(1, registry.getStats().getEvictions());
+    }
+
+    @Test
+    void overCapacity_EvictsTheOldestFinishedOrdersButNeverOpenOnes() {
+        OrderRegistry registry = new OrderRegistry(2, LONG_RETENTION);
+        registry.register(order("O1", 7L, OrderStatus.COMPLETED, 1));
+        registry.register(order("O2", 8L, OrderStatus.CANCELLED, 2));
+        registry.register(order("O3", 9L, OrderStatus.IN_PREPARATION, 3));
+
+        assertNull(registry.get("O1"));
+        assertNotNull(registry.get("O2"));
+        assertNotNull(registry.get("O3"));
+
+        registry.register(order("O4", 9L, OrderStatus.PENDING, 4));
+        registry.register(order("O5", 9L, OrderStatus.PENDING, 5));
+
+        // Only open orders are left, so the registry stays over capacity rather than drop one
+        assertNull(registry.get("O2"));
+        assertEquals(3, registry.getStats().getOrders());
+        assertEquals(2, registry.getStats().getEvictions());
+    }
+
+    @Test
+    void eviction_ClearsTheCustomerLoadedFlag() {
+        OrderRegistry registry = new OrderRegistry(100, Duration.ZERO);
+        registry.register(order("O1", 7L, OrderStatus.SERVED, 4));
+        registry.register(order("O2", 8L, OrderStatus.SERVED, 5));
+        registry.markCustomerLoaded(7L);
+        registry.markCustomerLoaded(8L);
+
+        registry.update("O1", order -> {
+            order.setStatus(OrderStatus.COMPLETED);
+            return null;
+        });
+
+        // Customer 7's history in memory is now partial; customer 8 lost nothing
+        assertFalse(registry.isCustomerLoaded(7L));
+        assertTrue(registry.isCustomerLoaded(8L));
+    }
+
+    private static Order order(String orderId, Long customerId, OrderStatus status, int tableNumber) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId(customerId);
+        order.setStatus(status);
+        order.setTableNumber(tableNumber);
+        return order;
+    }
+
+    private static List<String> orderIds(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,24 @@
+package org.restaurant.cache;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Plain in-process caches. Entries never expire; they are evicted by CacheInvalidationBus when a
+     * write commits on this node or on any other node.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+                CacheNames.MENU, CacheNames.MENU_ITEMS, CacheNames.TABLES, CacheNames.USER_PRINCIPALS);
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,218 @@
+package org.restaurant.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Evicts cache entries on every node once the write that made them stale has committed.
+ * - Invalidations raised inside a transaction are collected and applied only after it commits; a rollback drops them.
+ * - After commit they are evicted locally and, when restaurant.cluster-cache.enabled is set, sent to the other nodes
+ *   as one Postgres NOTIFY on the cluster channel. CacheInvalidationListener applies them there.
+ * - A message is "nodeId|cache:key,cache:key". Key "*" clears a whole cache; a message of "nodeId|*" clears everything.
+ * - Components that keep their own state derived from a cache can follow its evictions with addEvictionListener.
+ */
+@Component
+public class CacheInvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String EVERYTHING = "*";
+
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more; bigger batches are sent as whole-cache clears
+    private static final int MAX_PAYLOAD_BYTES = 7000;
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final CacheManager cacheManager;
+    private final DataSource dataSource;
+    private final boolean clusterEnabled;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, List<Consumer<String>>> evictionListeners = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(CacheManager cacheManager,
+                                DataSource dataSource,
+                                @Value("${restaurant.cluster-cache.enabled:false}") boolean clusterEnabled,
+                                @Value("${restaurant.cluster-cache.channel:restaurant_cache}") String channel) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cluster cache channel name: " + channel);
+        }
+        this.cacheManager = cacheManager;
+        this.dataSource = dataSource;
+        this.clusterEnabled = clusterEnabled;
+        this.channel = channel;
+    }
+
+    /**
+     * Evict one entry once the current transaction commits, or now if there is none
+     */
+    public void invalidate(String cacheName, String key) {
+        String entry = cacheName + ":" + URLEncoder.encode(key, StandardCharsets.UTF_8);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(List.of(entry));
+            return;
+        }
+
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entries.add(entry);
+    }
+
+    /**
+     * Clear a whole cache once the current transaction commits, or now if there is none
+     */
+    public void invalidateAll(String cacheName) {
+        invalidate(cacheName, EVERYTHING);
+    }
+
+    /**
+     * Be told of every key evicted from a cache on this node, local or from another node, after the eviction.
+     * The key is "*" when the whole cache is cleared.
+     */
+    public void addEvictionListener(String cacheName, Consumer<String> listener) {
+        evictionListeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Apply a message from another node. Messages this node sent are skipped; they were applied before sending.
+     *
+     * @param payload Notification payload
+     */
+    public void receive(String payload) {
+        int separator = payload.indexOf('|');
+        if (separator < 0) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", payload);
+            return;
+        }
+        if (payload.startsWith(nodeId) && separator == nodeId.length()) {
+            return;
+        }
+
+        String body = payload.substring(separator + 1);
+        if (EVERYTHING.equals(body)) {
+            clearAll();
+        } else {
+            evictLocally(List.of(body.split(",")));
+        }
+    }
+
+    /**
+     * Drop every cached entry, for when invalidations may have been missed
+     */
+    public void clearAll() {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+                evicted(cacheName, EVERYTHING);
+            }
+        }
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private void publish(Collection<String> entries) {
+        evictLocally(entries);
+        if (clusterEnabled) {
+            notifyCluster(encode(entries));
+        }
+    }
+
+    String encode(Collection<String> entries) {
+        String payload = nodeId + "|" + String.join(",", entries);
+        if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+            return payload;
+        }
+
+        // Too many keys: clear each cache touched instead
+        Set<String> caches = new LinkedHashSet<>();
+        for (String entry : entries) {
+            caches.add(entry.substring(0, entry.indexOf(':')) + ":" + EVERYTHING);
+        }
+        return nodeId + "|" + String.join(",", caches);
+    }
+
+    private void evictLocally(Collection<String> entries) {
+        for (String entry : entries) {
+            int separator = entry.indexOf(':');
+            Cache cache = separator < 0 ? null : cacheManager.getCache(entry.substring(0, separator));
+            if (cache == null) {
+                logger.warn("Ignoring invalidation for unknown cache entry: {}", entry);
+                continue;
+            }
+
+            String key = URLDecoder.decode(entry.substring(separator + 1), StandardCharsets.UTF_8);
+            if (EVERYTHING.equals(key)) {
+                cache.clear();
+            } else {
+                cache.evict(key);
+            }
+            evicted(cache.getName(), key);
+        }
+    }
+
+    private void evicted(String cacheName, String key) {
+        for (Consumer<String> listener : evictionListeners.getOrDefault(cacheName, List.of())) {
+            try {
+                listener.accept(key);
+            } catch (RuntimeException e) {
+                logger.error("Cache eviction listener failed for {}:{}", cacheName, key, e);
+            }
+        }
+    }
+
+    // Sent on its own autocommit connection: the transaction that caused it has already committed
+    private void notifyCluster(String payload) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            // Other nodes keep stale entries until their next resync; there is no retry queue to fall back on
+            logger.error("Failed to publish cache invalidation {}: {}", payload, e.getMessage(), e);
+        }
+    }
+
+    // Invalidations collected during one transaction
+    private class Pending implements TransactionSynchronization {
+        private final Set<String> entries = new LinkedHashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+            if (status == STATUS_COMMITTED && !entries.isEmpty()) {
+                publish(entries);
+            }
+        }
+    }
+}
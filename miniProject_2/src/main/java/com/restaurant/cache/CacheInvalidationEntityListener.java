@@ -0,0 +1,57 @@
+package org.restaurant.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.restaurant.entities.MenuItem;
+import org.restaurant.entities.RestaurantTable;
+import org.restaurant.entities.User;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Raises cache invalidations for cached entities whenever Hibernate writes them, so every write path through
+ * the entity manager (services, bookings, orders) is covered without each one remembering to evict.
+ * JDBC batches and bulk JPQL updates (menu imports, bulk order and booking transitions) bypass it and raise
+ * their own invalidations.
+ * Created by Hibernate through Spring, which injects the bus.
+ */
+public class CacheInvalidationEntityListener {
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @PostPersist
+    public void afterInsert(Object entity) {
+        // A user that did not exist cannot be cached, since failed lookups are not
+        if (!(entity instanceof User)) {
+            invalidate(entity);
+        }
+    }
+
+    @PostUpdate
+    public void afterUpdate(Object entity) {
+        if (entity instanceof User) {
+            // The username, which is the cache key, may have been the thing that changed
+            invalidationBus.invalidateAll(CacheNames.USER_PRINCIPALS);
+        } else {
+            invalidate(entity);
+        }
+    }
+
+    @PostRemove
+    public void afterDelete(Object entity) {
+        invalidate(entity);
+    }
+
+    private void invalidate(Object entity) {
+        if (entity instanceof MenuItem menuItem) {
+            invalidationBus.invalidate(CacheNames.MENU_ITEMS, String.valueOf(menuItem.getItemId()));
+            invalidationBus.invalidateAll(CacheNames.MENU);
+        } else if (entity instanceof RestaurantTable table) {
+            invalidationBus.invalidate(CacheNames.TABLES, String.valueOf(table.getTableId()));
+            invalidationBus.invalidate(CacheNames.TABLES, CacheNames.ALL);
+        } else if (entity instanceof User user) {
+            invalidationBus.invalidate(CacheNames.USER_PRINCIPALS, user.getUsername());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.restaurant.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Receives cache invalidations from the other nodes on a dedicated Postgres connection opened outside the pool.
+ * Whenever the connection is (re)established the local caches are cleared, since anything sent while this node
+ * was not listening is lost.
+ */
+@Component
+@ConditionalOnProperty(name = "restaurant.cluster-cache.enabled", havingValue = "true")
+public class CacheInvalidationListener implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${restaurant.cluster-cache.channel:restaurant_cache}")
+    private String channel;
+
+    @Value("${restaurant.cluster-cache.poll-timeout-ms:5000}")
+    private int pollTimeoutMs;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listenerThread;
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listenerThread.interrupt();
+        closeQuietly(connection);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Listen before the web server starts taking requests
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void listen() {
+        long reconnectDelayMs = 1_000;
+        while (running) {
+            try {
+                connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                invalidationBus.clearAll();
+                logger.info("Listening for cache invalidations on channel {}", channel);
+                reconnectDelayMs = 1_000;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null || notifications.length == 0) {
+                        // A quiet channel and a half-open socket look the same; a round trip tells them apart
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    // One bad notification must not cost the connection and with it every cached entry
+                    for (PGNotification notification : notifications) {
+                        try {
+                            invalidationBus.receive(notification.getParameter());
+                        } catch (RuntimeException e) {
+                            logger.error("Failed to apply cache invalidation {}", notification.getParameter(), e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}",
+                        reconnectDelayMs, e.getMessage());
+                sleep(reconnectDelayMs);
+                reconnectDelayMs = Math.min(reconnectDelayMs * 2, MAX_RECONNECT_DELAY_MS);
+            } catch (RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                // Back off here too, or a persistent failure would reconnect and clear the caches in a tight loop
+                logger.error("Cache invalidation listener failed, reconnecting in {} ms", reconnectDelayMs, e);
+                sleep(reconnectDelayMs);
+                reconnectDelayMs = Math.min(reconnectDelayMs * 2, MAX_RECONNECT_DELAY_MS);
+            } finally {
+                closeQuietly(connection);
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing cache invalidation connection: {}", e.getMessage());
+        }
+    }
+}
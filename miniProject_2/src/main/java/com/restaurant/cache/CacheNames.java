@@ -0,0 +1,25 @@
+package org.restaurant.cache;
+
+/**
+ * Names and keys of the in-process caches. Keys are strings so an invalidation message can name them.
+ */
+public final class CacheNames {
+
+    /** Whole-menu reads, keys ALL and CATEGORIES */
+    public static final String MENU = "menu";
+
+    /** Menu items by id */
+    public static final String MENU_ITEMS = "menuItems";
+
+    /** Tables by id, plus ALL for the full list */
+    public static final String TABLES = "tables";
+
+    /** Users by username, as loaded for every authenticated request */
+    public static final String USER_PRINCIPALS = "userPrincipals";
+
+    public static final String ALL = "all";
+    public static final String CATEGORIES = "categories";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,83 @@
+package org.restaurant.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods that fail on a stale version, after a short random backoff.
+ * - Ordered outside the transaction interceptor, so each attempt is a transaction of its own and sees the
+ *   winner's committed state.
+ * - A method called from inside another transaction is not retried: that transaction is already marked for
+ *   rollback, and only its owner can start over.
+ * - Conflicts are counted in restaurant.optimistic_lock.conflicts by operation and outcome: "retried" for each
+ *   attempt that is run again, "rejected" when the last attempt fails and the caller gets a 409.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class OptimisticRetryAspect {
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryAspect.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticRetryAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= retryOnConflict.maxAttempts()) {
+                    conflicts(operation, "rejected").increment();
+                    logger.warn("{} still conflicting after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw e;
+                }
+                conflicts(operation, "retried").increment();
+                logger.debug("{} lost an optimistic lock race, attempt {}", operation, attempt);
+                if (!backOff(retryOnConflict, attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Full jitter: a random wait up to the doubled bound, so waiters that collided once do not collide again
+    private static boolean backOff(RetryOnConflict retryOnConflict, int attempt) {
+        long bound = Math.min(retryOnConflict.maxBackoffMs(), retryOnConflict.backoffMs() << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Counter conflicts(String operation, String outcome) {
+        return Counter.builder("restaurant.optimistic_lock.conflicts")
+                .description("Updates that lost an optimistic lock race")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package org.restaurant.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a service method again, in a new transaction, when it loses an optimistic-lock race.
+ * Only for methods that re-read what they change and re-check their preconditions, so running one again
+ * against the newer state either applies the same change or fails with the usual business error.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * Attempts in all, including the first
+     */
+    int maxAttempts() default 3;
+
+    /**
+     * Upper bound of the random wait before the first retry; it doubles for each retry after that
+     */
+    long backoffMs() default 10;
+
+    /**
+     * Upper bound of any single wait
+     */
+    long maxBackoffMs() default 100;
+}
@@ -1,6 +1,5 @@
 package org.restaurant.config;
 
-import org.restaurant.entities.MenuItem;
 import org.restaurant.entities.RestaurantTable;
 import org.restaurant.entities.User;
 import org.restaurant.enums.TableStatus;
@@ -8,6 +7,8 @@ import org.restaurant.enums.UserRole;
 import org.restaurant.repository.MenuItemRepository;
 import org.restaurant.repository.RestaurantTableRepository;
 import org.restaurant.repository.UserRepository;
+import org.restaurant.service.MenuImportExportService;
+import org.restaurant.service.MenuImportExportService.MenuItemRow;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
@@ -17,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -32,6 +34,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private MenuImportExportService menuImportExportService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -101,100 +106,104 @@ public class DataInitializer implements CommandLineRunner {
         long menuItemCount = menuItemRepository.count();
         if (menuItemCount == 0) {
             // Create comprehensive Indian menu items by category (prices in USD)
+            List<MenuItemRow> menuItems = new ArrayList<>();
 
             // Veg Starters
-            createMenuItem("Paneer Tikka", "Veg Starters", new BigDecimal("6.99"));
-            createMenuItem("Veg Spring Rolls", "Veg Starters", new BigDecimal("5.99"));
-            createMenuItem("Gobi Manchurian", "Veg Starters", new BigDecimal("5.49"));
-            createMenuItem("Hara Bhara Kebab", "Veg Starters", new BigDecimal("6.49"));
-            createMenuItem("Aloo Tikki", "Veg Starters", new BigDecimal("4.99"));
-            createMenuItem("Crispy Corn", "Veg Starters", new BigDecimal("5.49"));
-            createMenuItem("Veg Seekh Kebab", "Veg Starters", new BigDecimal("6.49"));
-            createMenuItem("Samosa Chaat", "Veg Starters", new BigDecimal("4.49"));
+            menuItems.add(new MenuItemRow("Paneer Tikka", "Veg Starters", new BigDecimal("6.99")));
+            menuItems.add(new MenuItemRow("Veg Spring Rolls", "Veg Starters", new BigDecimal("5.99")));
+            menuItems.add(new MenuItemRow("Gobi Manchurian", "Veg Starters", new BigDecimal("5.49")));
+            menuItems.add(new MenuItemRow("Hara Bhara Kebab", "Veg Starters", new BigDecimal("6.49")));
+            menuItems.add(new MenuItemRow("Aloo Tikki", "Veg Starters", new BigDecimal("4.99")));
+            menuItems.add(new MenuItemRow("Crispy Corn", "Veg Starters", new BigDecimal("5.49")));
+            menuItems.add(new MenuItemRow("Veg Seekh Kebab", "Veg Starters", new BigDecimal("6.49")));
+            menuItems.add(new MenuItemRow("Samosa Chaat", "Veg Starters", new BigDecimal("4.49")));
 
             // Non-Veg Starters
-            createMenuItem("Chicken Tikka", "Non-Veg Starters", new BigDecimal("7.99"));
-            createMenuItem("Fish Amritsari", "Non-Veg Starters", new BigDecimal("8.99"));
-            createMenuItem("Mutton Seekh Kebab", "Non-Veg Starters", new BigDecimal("9.49"));
-            createMenuItem("Chicken 65", "Non-Veg Starters", new BigDecimal("7.49"));
-            createMenuItem("Tandoori Prawns", "Non-Veg Starters", new BigDecimal("10.00"));
-            createMenuItem("Chilli Chicken", "Non-Veg Starters", new BigDecimal("7.99"));
-            createMenuItem("Drums of Heaven", "Non-Veg Starters", new BigDecimal("8.49"));
-            createMenuItem("Tandoori Wings", "Non-Veg Starters", new BigDecimal("7.49"));
+            menuItems.add(new MenuItemRow("Chicken Tikka", "Non-Veg Starters", new BigDecimal("7.99")));
+            menuItems.add(new MenuItemRow("Fish Amritsari", "Non-Veg Starters", new BigDecimal("8.99")));
+            menuItems.add(new MenuItemRow("Mutton Seekh Kebab", "Non-Veg Starters", new BigDecimal("9.49")));
+            menuItems.add(new MenuItemRow("Chicken 65", "Non-Veg Starters", new BigDecimal("7.49")));
+            menuItems.add(new MenuItemRow("Tandoori Prawns", "Non-Veg Starters", new BigDecimal("10.00")));
+            menuItems.add(new MenuItemRow("Chilli Chicken", "Non-Veg Starters", new BigDecimal("7.99")));
+            menuItems.add(new MenuItemRow("Drums of Heaven", "Non-Veg Starters", new BigDecimal("8.49")));
+            menuItems.add(new MenuItemRow("Tandoori Wings", "Non-Veg Starters", new BigDecimal("7.49")));
 
             // Indian Breads
-            createMenuItem("Naan", "Indian Breads", new BigDecimal("2.99"));
-            createMenuItem("Butter Naan", "Indian Breads", new BigDecimal("3.49"));
-            createMenuItem("Garlic Naan", "Indian Breads", new BigDecimal("3.99"));
-            createMenuItem("Roti", "Indian Breads", new BigDecimal("1.99"));
-            createMenuItem("Butter Roti", "Indian Breads", new BigDecimal("2.49"));
-            createMenuItem("Paratha", "Indian Breads", new BigDecimal("2.99"));
-            createMenuItem("Kulcha", "Indian Breads", new BigDecimal("3.49"));
-            createMenuItem("Cheese Naan", "Indian Breads", new BigDecimal("4.49"));
+            menuItems.add(new MenuItemRow("Naan", "Indian Breads", new BigDecimal("2.99")));
+            menuItems.add(new MenuItemRow("Butter Naan", "Indian Breads", new BigDecimal("3.49")));
+            menuItems.add(new MenuItemRow("Garlic Naan", "Indian Breads", new BigDecimal("3.99")));
+            menuItems.add(new MenuItemRow("Roti", "Indian Breads", new BigDecimal("1.99")));
+            menuItems.add(new MenuItemRow("Butter Roti", "Indian Breads", new BigDecimal("2.49")));
+            menuItems.add(new MenuItemRow("Paratha", "Indian Breads", new BigDecimal("2.99")));
+            menuItems.add(new MenuItemRow("Kulcha", "Indian Breads", new BigDecimal("3.49")));
+            menuItems.add(new MenuItemRow("Cheese Naan", "Indian Breads", new BigDecimal("4.49")));
 
             // Veg Gravies
-            createMenuItem("Paneer Butter Masala", "Veg Gravies", new BigDecimal("6.99"));
-            createMenuItem("Malai Kofta", "Veg Gravies", new BigDecimal("7.49"));
-            createMenuItem("Palak Paneer", "Veg Gravies", new BigDecimal("6.49"));
-            createMenuItem("Dal Makhani", "Veg Gravies", new BigDecimal("5.99"));
-            createMenuItem("Kadai Paneer", "Veg Gravies", new BigDecimal("6.99"));
-            createMenuItem("Chana Masala", "Veg Gravies", new BigDecimal("5.49"));
-            createMenuItem("Veg Kolhapuri", "Veg Gravies", new BigDecimal("6.49"));
-            createMenuItem("Aloo Gobi", "Veg Gravies", new BigDecimal("4.99"));
+            menuItems.add(new MenuItemRow("Paneer Butter Masala", "Veg Gravies", new BigDecimal("6.99")));
+            menuItems.add(new MenuItemRow("Malai Kofta", "Veg Gravies", new BigDecimal("7.49")));
+            menuItems.add(new MenuItemRow("Palak Paneer", "Veg Gravies", new BigDecimal("6.49")));
+            menuItems.add(new MenuItemRow("Dal Makhani", "Veg Gravies", new BigDecimal("5.99")));
+            menuItems.add(new MenuItemRow("Kadai Paneer", "Veg Gravies", new BigDecimal("6.99")));
+            menuItems.add(new MenuItemRow("Chana Masala", "Veg Gravies", new BigDecimal("5.49")));
+            menuItems.add(new MenuItemRow("Veg Kolhapuri", "Veg Gravies", new BigDecimal("6.49")));
+            menuItems.add(new MenuItemRow("Aloo Gobi", "Veg Gravies", new BigDecimal("4.99")));
 
             // Non-Veg Gravies
-            createMenuItem("Butter Chicken", "Non-Veg Gravies", new BigDecimal("8.99"));
-            createMenuItem("Chicken Curry", "Non-Veg Gravies", new BigDecimal("7.99"));
-            createMenuItem("Mutton Rogan Josh", "Non-Veg Gravies", new BigDecimal("9.99"));
-            createMenuItem("Chicken Tikka Masala", "Non-Veg Gravies", new BigDecimal("8.49"));
-            createMenuItem("Fish Curry", "Non-Veg Gravies", new BigDecimal("8.99"));
-            createMenuItem("Prawn Masala", "Non-Veg Gravies", new BigDecimal("10.00"));
-            createMenuItem("Chicken Korma", "Non-Veg Gravies", new BigDecimal("8.99"));
-            createMenuItem("Lamb Vindaloo", "Non-Veg Gravies", new BigDecimal("9.49"));
+            menuItems.add(new MenuItemRow("Butter Chicken", "Non-Veg Gravies", new BigDecimal("8.99")));
+            menuItems.add(new MenuItemRow("Chicken Curry", "Non-Veg Gravies", new BigDecimal("7.99")));
+            menuItems.add(new MenuItemRow("Mutton Rogan Josh", "Non-Veg Gravies", new BigDecimal("9.99")));
+            menuItems.add(new MenuItemRow("Chicken Tikka Masala", "Non-Veg Gravies", new BigDecimal("8.49")));
+            menuItems.add(new MenuItemRow("Fish Curry", "Non-Veg Gravies", new BigDecimal("8.99")));
+            menuItems.add(new MenuItemRow("Prawn Masala", "Non-Veg Gravies", new BigDecimal("10.00")));
+            menuItems.add(new MenuItemRow("Chicken Korma", "Non-Veg Gravies", new BigDecimal("8.99")));
+            menuItems.add(new MenuItemRow("Lamb Vindaloo", "Non-Veg Gravies", new BigDecimal("9.49")));
 
             // Biryanis
-            createMenuItem("Chicken Biryani", "Biryanis", new BigDecimal("7.99"));
-            createMenuItem("Mutton Biryani", "Biryanis", new BigDecimal("9.49"));
-            createMenuItem("Veg Biryani", "Biryanis", new BigDecimal("6.99"));
-            createMenuItem("Prawn Biryani", "Biryanis", new BigDecimal("9.99"));
-            createMenuItem("Egg Biryani", "Biryanis", new BigDecimal("7.49"));
-            createMenuItem("Hyderabadi Biryani", "Biryanis", new BigDecimal("8.99"));
-            createMenuItem("Lucknowi Biryani", "Biryanis", new BigDecimal("9.49"));
-            createMenuItem("Jackfruit Biryani", "Biryanis", new BigDecimal("7.49"));
+            menuItems.add(new MenuItemRow("Chicken Biryani", "Biryanis", new BigDecimal("7.99")));
+            menuItems.add(new MenuItemRow("Mutton Biryani", "Biryanis", new BigDecimal("9.49")));
+            menuItems.add(new MenuItemRow("Veg Biryani", "Biryanis", new BigDecimal("6.99")));
+            menuItems.add(new MenuItemRow("Prawn Biryani", "Biryanis", new BigDecimal("9.99")));
+            menuItems.add(new MenuItemRow("Egg Biryani", "Biryanis", new BigDecimal("7.49")));
+            menuItems.add(new MenuItemRow("Hyderabadi Biryani", "Biryanis", new BigDecimal("8.99")));
+            menuItems.add(new MenuItemRow("Lucknowi Biryani", "Biryanis", new BigDecimal("9.49")));
+            menuItems.add(new MenuItemRow("Jackfruit Biryani", "Biryanis", new BigDecimal("7.49")));
 
             // Fried Rice & Noodles
-            createMenuItem("Veg Fried Rice", "Fried Rice & Noodles", new BigDecimal("5.49"));
-            createMenuItem("Chicken Fried Rice", "Fried Rice & Noodles", new BigDecimal("6.99"));
-            createMenuItem("Schezwan Fried Rice", "Fried Rice & Noodles", new BigDecimal("5.99"));
-            createMenuItem("Hakka Noodles", "Fried Rice & Noodles", new BigDecimal("5.49"));
-            createMenuItem("Singapore Noodles", "Fried Rice & Noodles", new BigDecimal("5.99"));
-            createMenuItem("Chilli Garlic Noodles", "Fried Rice & Noodles", new BigDecimal("5.49"));
-            createMenuItem("Triple Schezwan Rice", "Fried Rice & Noodles", new BigDecimal("7.49"));
-            createMenuItem("Paneer Fried Rice", "Fried Rice & Noodles", new BigDecimal("6.49"));
+            menuItems.add(new MenuItemRow("Veg Fried Rice", "Fried Rice & Noodles", new BigDecimal("5.49")));
+            menuItems.add(new MenuItemRow("Chicken Fried Rice", "Fried Rice & Noodles", new BigDecimal("6.99")));
+            menuItems.add(new MenuItemRow("Schezwan Fried Rice", "Fried Rice & Noodles", new BigDecimal("5.99")));
+            menuItems.add(new MenuItemRow("Hakka Noodles", "Fried Rice & Noodles", new BigDecimal("5.49")));
+            menuItems.add(new MenuItemRow("Singapore Noodles", "Fried Rice & Noodles", new BigDecimal("5.99")));
+            menuItems.add(new MenuItemRow("Chilli Garlic Noodles", "Fried Rice & Noodles", new BigDecimal("5.49")));
+            menuItems.add(new MenuItemRow("Triple Schezwan Rice", "Fried Rice & Noodles", new BigDecimal("7.49")));
+            menuItems.add(new MenuItemRow("Paneer Fried Rice", "Fried Rice & Noodles", new BigDecimal("6.49")));
 
             // Desserts
-            createMenuItem("Gulab Jamun", "Desserts", new BigDecimal("3.99"));
-            createMenuItem("Rasmalai", "Desserts", new BigDecimal("4.49"));
-            createMenuItem("Kulfi", "Desserts", new BigDecimal("3.49"));
-            createMenuItem("Ice Cream", "Desserts", new BigDecimal("2.99"));
-            createMenuItem("Gajar Ka Halwa", "Desserts", new BigDecimal("4.49"));
-            createMenuItem("Jalebi", "Desserts", new BigDecimal("3.49"));
-            createMenuItem("Kheer", "Desserts", new BigDecimal("3.99"));
-            createMenuItem("Ras Gulla", "Desserts", new BigDecimal("3.99"));
+            menuItems.add(new MenuItemRow("Gulab Jamun", "Desserts", new BigDecimal("3.99")));
+            menuItems.add(new MenuItemRow("Rasmalai", "Desserts", new BigDecimal("4.49")));
+            menuItems.add(new MenuItemRow("Kulfi", "Desserts", new BigDecimal("3.49")));
+            menuItems.add(new MenuItemRow("Ice Cream", "Desserts", new BigDecimal("2.99")));
+            menuItems.add(new MenuItemRow("Gajar Ka Halwa", "Desserts", new BigDecimal("4.49")));
+            menuItems.add(new MenuItemRow("Jalebi", "Desserts", new BigDecimal("3.49")));
+            menuItems.add(new MenuItemRow("Kheer", "Desserts", new BigDecimal("3.99")));
+            menuItems.add(new MenuItemRow("Ras Gulla", "Desserts", new BigDecimal("3.99")));
 
             // Beverages
-            createMenuItem("Coca Cola", "Beverages", new BigDecimal("2.99"));
-            createMenuItem("Pepsi", "Beverages", new BigDecimal("2.99"));
-            createMenuItem("Sprite", "Beverages", new BigDecimal("2.99"));
-            createMenuItem("Fanta", "Beverages", new BigDecimal("2.99"));
-            createMenuItem("Water Bottle", "Beverages", new BigDecimal("1.00"));
-            createMenuItem("Sparkling Water", "Beverages", new BigDecimal("2.49"));
-            createMenuItem("Fresh Lime Soda", "Beverages", new BigDecimal("3.49"));
-            createMenuItem("Mango Lassi", "Beverages", new BigDecimal("4.99"));
-            createMenuItem("Sweet Lassi", "Beverages", new BigDecimal("4.49"));
-            createMenuItem("Masala Chai", "Beverages", new BigDecimal("2.99"));
-            createMenuItem("Filter Coffee", "Beverages", new BigDecimal("2.99"));
-            createMenuItem("Fresh Orange Juice", "Beverages", new BigDecimal("4.99"));
+            menuItems.add(new MenuItemRow("Coca Cola", "Beverages", new BigDecimal("2.99")));
+            menuItems.add(new MenuItemRow("Pepsi", "Beverages", new BigDecimal("2.99")));
+            menuItems.add(new MenuItemRow("Sprite", "Beverages", new BigDecimal("2.99")));
+            menuItems.add(new MenuItemRow("Fanta", "Beverages", new BigDecimal("2.99")));
+            menuItems.add(new MenuItemRow("Water Bottle", "Beverages", new BigDecimal("1.00")));
+            menuItems.add(new MenuItemRow("Sparkling Water", "Beverages", new BigDecimal("2.49")));
+            menuItems.add(new MenuItemRow("Fresh Lime Soda", "Beverages", new BigDecimal("3.49")));
+            menuItems.add(new MenuItemRow("Mango Lassi", "Beverages", new BigDecimal("4.99")));
+            menuItems.add(new MenuItemRow("Sweet Lassi", "Beverages", new BigDecimal("4.49")));
+            menuItems.add(new MenuItemRow("Masala Chai", "Beverages", new BigDecimal("2.99")));
+            menuItems.add(new MenuItemRow("Filter Coffee", "Beverages", new BigDecimal("2.99")));
+            menuItems.add(new MenuItemRow("Fresh Orange Juice", "Beverages", new BigDecimal("4.99")));
+
+            // Insert the whole menu in JDBC batches rather than one save per item
+            menuImportExportService.importMenuItems(menuItems.iterator(), false);
 
             System.out.println("Created comprehensive Indian menu items with beverages across multiple categories.");
         } else {
@@ -202,13 +211,6 @@ public class DataInitializer implements CommandLineRunner {
         }
     }
 
-    private void createMenuItem(String name, String category, BigDecimal price) {
-        MenuItem item = new MenuItem();
-        item.setMenuItemName(name);
-        item.setCategory(category);
-        item.setPrice(price);
-        menuItemRepository.save(item);
-    }
 
     private void createDefaultUserIfNotExists(UserRole role, String username, String password, String email, String fullName) {
         if (!userRepository.existsByRole(role)) {
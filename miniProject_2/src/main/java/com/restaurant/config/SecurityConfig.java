@@ -2,13 +2,21 @@ package org.restaurant.config;
 
 import org.restaurant.security.JwtAuthenticationEntryPoint;
 import org.restaurant.security.JwtAuthenticationFilter;
+import org.restaurant.security.TimedAuthorizationManager;
 import org.restaurant.service.CustomUserDetailsService;
+import org.springframework.aop.Advisor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -26,7 +34,7 @@ import java.util.Arrays;
 
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity(prePostEnabled = true)
+@EnableMethodSecurity(prePostEnabled = false)
 public class SecurityConfig {
 
     @Autowired
@@ -40,6 +48,19 @@ public class SecurityConfig {
         return new JwtAuthenticationFilter();
     }
 
+    // @PreAuthorize support registered by hand so SpEL evaluation time shows up in Server-Timing
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAuthorizationMethodInterceptor(ApplicationContext context) {
+        // Expressions such as @authenticationService.getCurrentUserId() need the context as bean resolver
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(context);
+        PreAuthorizeAuthorizationManager authorizationManager = new PreAuthorizeAuthorizationManager();
+        authorizationManager.setExpressionHandler(expressionHandler);
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(
+                new TimedAuthorizationManager<>(authorizationManager));
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -101,6 +122,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/tables/**").hasAnyRole("ADMIN", "MANAGER")
                         .requestMatchers(HttpMethod.DELETE, "/tables/**").hasRole("ADMIN")
 
+                        // Walk-in waitlist - front of house
+                        .requestMatchers("/waitlist", "/waitlist/**").hasAnyRole("ADMIN", "MANAGER", "WAITER")
+
                         // All other requests require authentication
                         .anyRequest().authenticated()
                 );
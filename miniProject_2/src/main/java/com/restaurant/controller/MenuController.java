@@ -3,18 +3,26 @@ package org.restaurant.controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.restaurant.entities.MenuItem;
+import org.restaurant.dto.response.MenuImportResponse;
 import org.restaurant.dto.response.SuccessResponse;
+import org.restaurant.exceptions.InvalidRequestException;
+import org.restaurant.service.MenuImportExportService;
 import org.restaurant.service.MenuItemService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -25,9 +33,14 @@ public class MenuController {
 
     private static final Logger logger = LoggerFactory.getLogger(MenuController.class);
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private MenuItemService menuItemService;
 
+    @Autowired
+    private MenuImportExportService menuImportExportService;
+
     /**
      * Create a new menu item
      * POST /menu
@@ -210,6 +223,51 @@ public class MenuController {
         return ResponseEntity.ok(exists);
     }
 
+    /**
+     * Bulk import menu items from a CSV or JSON file
+     * POST /menu/import?upsert={upsert}
+     * Required: ADMIN or MANAGER role
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<MenuImportResponse> importMenuItems(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                              @RequestParam(defaultValue = "false") boolean upsert,
+                                                              InputStream body) throws IOException {
+        MenuImportExportService.Format format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? MenuImportExportService.Format.CSV : MenuImportExportService.Format.JSON;
+        logger.info("Importing menu items from {} (upsert: {})", format, upsert);
+        MenuImportResponse response = menuImportExportService.importMenuItems(body, format, upsert);
+        logger.info("Menu import finished: {} received, {} inserted, {} updated, {} skipped, {} rejected",
+                response.getReceived(), response.getInserted(), response.getUpdated(),
+                response.getSkipped(), response.getRejected());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Export the whole menu as CSV or JSON
+     * GET /menu/export?format={csv|json}
+     * Required: ADMIN or MANAGER role
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<StreamingResponseBody> exportMenuItems(@RequestParam(defaultValue = "csv") String format) {
+        MenuImportExportService.Format exportFormat = parseFormat(format);
+        logger.info("Exporting menu items as {}", exportFormat);
+        StreamingResponseBody body = output -> menuImportExportService.exportMenuItems(output, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat == MenuImportExportService.Format.CSV ? TEXT_CSV : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=menu." + exportFormat.name().toLowerCase())
+                .body(body);
+    }
+
+    private MenuImportExportService.Format parseFormat(String format) {
+        try {
+            return MenuImportExportService.Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported export format: " + format);
+        }
+    }
+
     // Request DTOs as inner classes
 
     public static class CreateMenuItemRequest {
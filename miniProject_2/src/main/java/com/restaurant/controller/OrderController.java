@@ -2,8 +2,11 @@ package org.restaurant.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.restaurant.dto.request.BulkOrderStatusRequest;
 import org.restaurant.dto.request.CreateOrderRequest;
 import org.restaurant.dto.request.UpdateOrderStatusRequest;
+import org.restaurant.dto.response.BillResponse;
+import org.restaurant.dto.response.BulkOrderStatusResponse;
 import org.restaurant.dto.response.OrderResponse;
 import org.restaurant.dto.response.SuccessResponse;
 import org.restaurant.enums.OrderStatus;
@@ -71,6 +74,20 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    /**
+     * Get itemised bill for an order
+     * GET /orders/{id}/bill
+     * Required: ADMIN, MANAGER, or WAITER role
+     */
+    @GetMapping("/{id}/bill")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAITER')")
+    public ResponseEntity<BillResponse> getBill(@PathVariable Long id) {
+        logger.info("Fetching bill for order ID: {}", id);
+        BillResponse bill = orderService.getBill(id);
+        logger.info("Bill for order ID: {} has {} lines, subtotal {}", id, bill.getLines().size(), bill.getSubtotal());
+        return ResponseEntity.ok(bill);
+    }
+
     /**
      * Update order status
      * PUT /orders/{id}
@@ -199,6 +216,34 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    /**
+     * Move several orders to kitchen
+     * PUT /orders/bulk/kitchen
+     * Required: ADMIN, MANAGER, or WAITER role
+     */
+    @PutMapping("/bulk/kitchen")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAITER')")
+    public ResponseEntity<BulkOrderStatusResponse> bulkMoveOrdersToKitchen(@Valid @RequestBody BulkOrderStatusRequest request) {
+        logger.info("Moving {} orders to kitchen", request.getOrderIds().size());
+        BulkOrderStatusResponse response = orderService.bulkMoveToKitchen(request.getOrderIds());
+        logger.info("Moved {} orders to kitchen, {} rejected", response.getUpdatedCount(), response.getFailedCount());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Mark several orders as served
+     * PUT /orders/bulk/served
+     * Required: ADMIN, MANAGER, WAITER, or CHEF role
+     */
+    @PutMapping("/bulk/served")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAITER', 'CHEF')")
+    public ResponseEntity<BulkOrderStatusResponse> bulkMarkOrdersAsServed(@Valid @RequestBody BulkOrderStatusRequest request) {
+        logger.info("Marking {} orders as served", request.getOrderIds().size());
+        BulkOrderStatusResponse response = orderService.bulkMarkAsServed(request.getOrderIds());
+        logger.info("Marked {} orders as served, {} rejected", response.getUpdatedCount(), response.getFailedCount());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Cancel order
      * DELETE /orders/{id}
@@ -239,6 +239,20 @@ public class RestaurantTableController {
         return ResponseEntity.ok(table);
     }
 
+    /**
+     * Find the table, or adjoining tables to push together, for a party
+     * GET /tables/best-seating/{partySize}
+     * Required: ADMIN, MANAGER, or WAITER role
+     */
+    @GetMapping("/best-seating/{partySize}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAITER')")
+    public ResponseEntity<List<RestaurantTable>> findBestSeating(@PathVariable Integer partySize) {
+        logger.info("Finding best seating for party of: {}", partySize);
+        List<RestaurantTable> tables = tableService.findBestSeating(partySize);
+        logger.info("Best seating found: {} table(s)", tables.size());
+        return ResponseEntity.ok(tables);
+    }
+
     /**
      * Mark table as occupied
      * PUT /tables/{id}/occupy
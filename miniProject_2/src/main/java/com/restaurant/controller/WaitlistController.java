@@ -0,0 +1,95 @@
+package org.restaurant.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.restaurant.dto.request.JoinWaitlistRequest;
+import org.restaurant.dto.response.SuccessResponse;
+import org.restaurant.dto.response.WaitlistEntryResponse;
+import org.restaurant.entities.RestaurantTable;
+import org.restaurant.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/waitlist")
+@CrossOrigin(origins = "*")
+public class WaitlistController {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistController.class);
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    /**
+     * Add a walk-in party to the waitlist
+     * POST /waitlist
+     * Required: ADMIN, MANAGER, or WAITER role
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAITER')")
+    public ResponseEntity<WaitlistEntryResponse> joinWaitlist(@Valid @RequestBody JoinWaitlistRequest request) {
+        logger.info("Adding party of {} to the waitlist", request.getPartySize());
+        WaitlistEntryResponse entry = waitlistService.joinWaitlist(request);
+        logger.info("Party added to the waitlist with ID: {}", entry.getId());
+        return new ResponseEntity<>(entry, HttpStatus.CREATED);
+    }
+
+    /**
+     * Get the waitlist with estimated seating times
+     * GET /waitlist
+     * Required: ADMIN, MANAGER, or WAITER role
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAITER')")
+    public ResponseEntity<List<WaitlistEntryResponse>> getWaitlist() {
+        List<WaitlistEntryResponse> entries = waitlistService.getWaitlist();
+        logger.debug("Retrieved {} waitlist entries", entries.size());
+        return ResponseEntity.ok(entries);
+    }
+
+    /**
+     * Seat a party at the table it was offered
+     * POST /waitlist/{id}/seat
+     * Required: ADMIN, MANAGER, or WAITER role
+     */
+    @PostMapping("/{id}/seat")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAITER')")
+    public ResponseEntity<RestaurantTable> seatParty(@PathVariable Long id) {
+        logger.info("Seating waitlist party: {}", id);
+        RestaurantTable table = waitlistService.seatParty(id);
+        logger.info("Waitlist party {} seated at table {}", id, table.getTableId());
+        return ResponseEntity.ok(table);
+    }
+
+    /**
+     * Decline the table a party was offered
+     * POST /waitlist/{id}/decline
+     * Required: ADMIN, MANAGER, or WAITER role
+     */
+    @PostMapping("/{id}/decline")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAITER')")
+    public ResponseEntity<SuccessResponse> declineOffer(@PathVariable Long id) {
+        logger.info("Waitlist party {} declining its table", id);
+        waitlistService.declineOffer(id);
+        return ResponseEntity.ok(new SuccessResponse("Offer declined; the party keeps its place"));
+    }
+
+    /**
+     * Remove a party from the waitlist
+     * DELETE /waitlist/{id}
+     * Required: ADMIN, MANAGER, or WAITER role
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'WAITER')")
+    public ResponseEntity<SuccessResponse> leaveWaitlist(@PathVariable Long id) {
+        logger.info("Removing party {} from the waitlist", id);
+        waitlistService.leaveWaitlist(id);
+        return ResponseEntity.ok(new SuccessResponse("Party removed from the waitlist"));
+    }
+}
@@ -0,0 +1,112 @@
+package org.restaurant.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to read replicas when restaurant.datasource.replicas.urls lists any.
+ * Without it the application keeps Spring Boot's single DataSource.
+ * - The primary is built from spring.datasource.*; each replica gets its own pool with the same credentials unless
+ *   restaurant.datasource.replicas.username/password are set.
+ * - Pools are named "primary", "replica-1", "replica-2", ... in the hikaricp.* metrics.
+ * - Reads may trail writes by up to max-lag-ms, so a read-only transaction can miss a write that has just committed.
+ */
+@Configuration
+@ConditionalOnProperty(name = "restaurant.datasource.replicas.urls")
+public class ReadReplicaConfig {
+
+    @Value("${restaurant.datasource.replicas.urls}")
+    private String[] replicaUrls;
+
+    @Value("${restaurant.datasource.replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${restaurant.datasource.replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${restaurant.datasource.replicas.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${restaurant.datasource.replicas.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${restaurant.datasource.replicas.health-check-interval-ms:5000}")
+    private long healthCheckIntervalMs;
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRouter replicaRouter(DataSourceProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        MicrometerMetricsTrackerFactory poolMetrics = new MicrometerMetricsTrackerFactory(registry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName(ReplicaRouter.PRIMARY);
+        primary.setMetricsTrackerFactory(poolMetrics);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setUsername(replicaUsername);
+            config.setPassword(replicaPassword);
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setMaximumPoolSize(replicaPoolSize);
+            config.setReadOnly(true);
+            // Connect on first use, so a replica that is down does not stop the application from starting
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(poolMetrics);
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+
+        ReplicaRouter router = new ReplicaRouter(primary, replicas, Duration.ofMillis(maxLagMs), registry);
+        router.startHealthChecks(Duration.ofMillis(healthCheckIntervalMs));
+        return router;
+    }
+
+    /**
+     * The application's only DataSource. The lazy proxy defers opening the physical connection to the first
+     * statement, by which time the transaction manager has marked the transaction read-only or not.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(new ReadWriteRoutingDataSource(replicaRouter));
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    /**
+     * Hibernate normally keeps a session's connection until the session closes, which with open-in-view is the end
+     * of the request; a write after a read-only transaction would then run on the replica's connection. Releasing it
+     * after each transaction makes every transaction route afresh.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+}
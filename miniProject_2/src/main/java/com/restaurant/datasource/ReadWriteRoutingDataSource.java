@@ -0,0 +1,25 @@
+package org.restaurant.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Opens each connection on the DataSource the router picks. Wrapped in a LazyConnectionDataSourceProxy, so the
+ * choice is made at the first statement, once the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaRouter router;
+
+    public ReadWriteRoutingDataSource(ReplicaRouter router) {
+        this.router = router;
+        setTargetDataSources(router.getTargets());
+        setDefaultTargetDataSource(router.getPrimary());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return router.route();
+    }
+}
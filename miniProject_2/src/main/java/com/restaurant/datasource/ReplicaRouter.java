@@ -0,0 +1,266 @@
+package org.restaurant.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the DataSource for each new connection: read-only transactions go to the replicas in turn, everything
+ * else goes to the primary.
+ * - A background check measures every replica's replication lag. A replica that cannot be reached, or that is
+ *   more than maxLag behind the primary, is skipped until a later check finds it caught up.
+ * - When no replica is usable, read-only transactions fall back to the primary.
+ * - Every routing decision is counted in restaurant.datasource.routed, tagged with the target and the reason.
+ */
+public class ReplicaRouter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    public static final String PRIMARY = "primary";
+
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    // A replica that has replayed everything up to the primary's position is current, however long ago that was;
+    // otherwise its lag is the age of the last transaction it replayed
+    private static final String POSTGRES_LAG_SQL =
+            "SELECT pg_is_in_recovery(), " +
+            "pg_wal_lsn_diff(CAST(? AS pg_lsn), pg_last_wal_replay_lsn()), " +
+            "EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp())";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final double maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter writes;
+    private final Counter fallbacks;
+    private ScheduledExecutorService healthChecks;
+
+    /**
+     * @param primary       DataSource taking the writes
+     * @param replicas      Replica DataSources by name, in the order reads rotate through them
+     * @param maxLag        How far behind the primary a replica may be and still take reads
+     * @param meterRegistry Registry for the routing counters and replica gauges
+     */
+    public ReplicaRouter(DataSource primary, Map<String, DataSource> replicas, Duration maxLag, MeterRegistry meterRegistry) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.writes = routed(meterRegistry, PRIMARY, "write");
+        this.fallbacks = routed(meterRegistry, PRIMARY, "fallback");
+
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            Replica replica = new Replica(entry.getKey(), entry.getValue(), routed(meterRegistry, entry.getKey(), "read"));
+            Gauge.builder("restaurant.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Seconds the replica is behind the primary at the last check")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("restaurant.datasource.replica.usable", replica, r -> r.usable ? 1 : 0)
+                    .description("Whether the replica is taking read-only transactions")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            this.replicas.add(replica);
+        }
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("restaurant.datasource.routed")
+                .description("Connections handed out, by DataSource and routing reason")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return Every DataSource by name, primary first, for the routing DataSource's target map
+     */
+    public Map<Object, Object> getTargets() {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.name, replica.dataSource);
+        }
+        return targets;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Choose the DataSource for a connection being opened now
+     *
+     * @return Name of the DataSource, as in {@link #getTargets()}
+     */
+    public String route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+
+        // The turn only moves on when a replica serves the read, so falling back to the primary skips nobody
+        int cursor = nextReplica.get();
+        int start = Math.floorMod(cursor, replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.usable) {
+                // A concurrent read may have moved it already; the spread is then only slightly uneven
+                nextReplica.compareAndSet(cursor, cursor + i + 1);
+                replica.reads.increment();
+                return replica.name;
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Check the replicas now and then every interval on a background thread
+     */
+    public synchronized void startHealthChecks(Duration interval) {
+        if (healthChecks != null) {
+            return;
+        }
+        healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Measure every replica's lag once and update which of them take reads
+     */
+    void checkReplicas() {
+        String primaryPosition = primaryWalPosition();
+        for (Replica replica : replicas) {
+            double lag;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                lag = replicationLag(connection, primaryPosition);
+            } catch (SQLException | RuntimeException e) {
+                logger.debug("Replica {} check failed: {}", replica.name, e.getMessage());
+                lag = Double.POSITIVE_INFINITY;
+            }
+            replica.update(lag, maxLagSeconds);
+        }
+    }
+
+    /**
+     * Seconds the replica behind this connection is behind the primary; 0 for a database that is not a
+     * Postgres standby, which can only be checked for being reachable
+     *
+     * @param connection      Connection to the replica
+     * @param primaryPosition The primary's current WAL position, or null if it is unknown
+     */
+    double replicationLag(Connection connection, String primaryPosition) throws SQLException {
+        if (!isPostgres(connection)) {
+            return connection.isValid(CHECK_TIMEOUT_SECONDS) ? 0 : Double.POSITIVE_INFINITY;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(POSTGRES_LAG_SQL)) {
+            statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+            statement.setString(1, primaryPosition);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                if (!resultSet.getBoolean(1)) {
+                    return 0;
+                }
+                double bytesBehind = resultSet.getDouble(2);
+                if (!resultSet.wasNull() && bytesBehind <= 0) {
+                    return 0;
+                }
+                double seconds = resultSet.getDouble(3);
+                return resultSet.wasNull() ? Double.POSITIVE_INFINITY : Math.max(seconds, 0);
+            }
+        }
+    }
+
+    private String primaryWalPosition() {
+        try (Connection connection = primary.getConnection()) {
+            if (!isPostgres(connection)) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT CAST(pg_current_wal_lsn() AS text)")) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            logger.debug("Could not read the primary's WAL position: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    /**
+     * Stop the health checks and close every pool
+     */
+    @Override
+    public synchronized void close() {
+        if (healthChecks != null) {
+            healthChecks.shutdownNow();
+        }
+        for (Object dataSource : getTargets().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Could not close DataSource: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        final Counter reads;
+        // Usable until the first check says otherwise, so reads are spread from startup
+        volatile boolean usable = true;
+        volatile double lagSeconds;
+
+        Replica(String name, DataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+
+        void update(double lag, double maxLagSeconds) {
+            boolean nowUsable = lag <= maxLagSeconds;
+            if (nowUsable != usable) {
+                if (nowUsable) {
+                    logger.info("Replica {} is back, {} s behind; sending it reads again", name, lag);
+                } else if (Double.isInfinite(lag)) {
+                    logger.warn("Replica {} is unreachable; reads go to the other replicas or the primary", name);
+                } else {
+                    logger.warn("Replica {} is {} s behind, over the {} s limit; skipping it", name, lag, maxLagSeconds);
+                }
+            }
+            lagSeconds = lag;
+            usable = nowUsable;
+        }
+    }
+}
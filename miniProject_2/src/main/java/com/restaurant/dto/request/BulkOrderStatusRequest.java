@@ -0,0 +1,29 @@
+package org.restaurant.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkOrderStatusRequest {
+
+    @NotEmpty(message = "Order IDs cannot be empty")
+    @Size(max = 500, message = "At most 500 orders can be updated at once")
+    private List<Long> orderIds;
+
+    // Constructors
+    public BulkOrderStatusRequest() {}
+
+    public BulkOrderStatusRequest(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    // Getters and Setters
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+}
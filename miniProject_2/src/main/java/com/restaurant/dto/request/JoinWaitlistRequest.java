@@ -0,0 +1,51 @@
+package org.restaurant.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class JoinWaitlistRequest {
+
+    @NotBlank(message = "Customer name is required")
+    private String customerName;
+
+    @NotNull(message = "Party size is required")
+    @Min(value = 1, message = "Party size must be at least 1")
+    private Integer partySize;
+
+    // Seated ahead of the rest of the band, e.g. for accessibility needs
+    private boolean priority;
+
+    // Constructors
+    public JoinWaitlistRequest() {}
+
+    public JoinWaitlistRequest(String customerName, Integer partySize) {
+        this.customerName = customerName;
+        this.partySize = partySize;
+    }
+
+    // Getters and Setters
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public Integer getPartySize() {
+        return partySize;
+    }
+
+    public void setPartySize(Integer partySize) {
+        this.partySize = partySize;
+    }
+
+    public boolean isPriority() {
+        return priority;
+    }
+
+    public void setPriority(boolean priority) {
+        this.priority = priority;
+    }
+}
@@ -0,0 +1,131 @@
+package org.restaurant.dto.response;
+
+import org.restaurant.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Itemised bill for an order. All amounts are in paise, as captured when the order was placed.
+ */
+public class BillResponse {
+
+    private Long orderId;
+    private Integer tableNumber;
+    private OrderStatus status;
+    private LocalDateTime createdAt;
+    private List<BillLine> lines;
+    private Long subtotal;
+
+    // Constructors
+    public BillResponse() {}
+
+    public BillResponse(Long orderId, Integer tableNumber, OrderStatus status, LocalDateTime createdAt,
+                        List<BillLine> lines, Long subtotal) {
+        this.orderId = orderId;
+        this.tableNumber = tableNumber;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.lines = lines;
+        this.subtotal = subtotal;
+    }
+
+    // Getters and Setters
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Integer getTableNumber() {
+        return tableNumber;
+    }
+
+    public void setTableNumber(Integer tableNumber) {
+        this.tableNumber = tableNumber;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public List<BillLine> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<BillLine> lines) {
+        this.lines = lines;
+    }
+
+    public Long getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(Long subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public static class BillLine {
+        private String itemName;
+        private Integer quantity;
+        private Long unitPrice;
+        private Long lineTotal;
+
+        // Constructors
+        public BillLine() {}
+
+        public BillLine(String itemName, Integer quantity, Long unitPrice, Long lineTotal) {
+            this.itemName = itemName;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.lineTotal = lineTotal;
+        }
+
+        // Getters and Setters
+        public String getItemName() {
+            return itemName;
+        }
+
+        public void setItemName(String itemName) {
+            this.itemName = itemName;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public Long getUnitPrice() {
+            return unitPrice;
+        }
+
+        public void setUnitPrice(Long unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+
+        public Long getLineTotal() {
+            return lineTotal;
+        }
+
+        public void setLineTotal(Long lineTotal) {
+            this.lineTotal = lineTotal;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package org.restaurant.dto.response;
+
+import org.restaurant.enums.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk order status transition, reported per order ID.
+ */
+public class BulkOrderStatusResponse {
+
+    private OrderStatus targetStatus;
+    private int updatedCount;
+    private int failedCount;
+    private List<OrderOutcome> results;
+
+    // Constructors
+    public BulkOrderStatusResponse() {}
+
+    public BulkOrderStatusResponse(OrderStatus targetStatus, List<OrderOutcome> results) {
+        this.targetStatus = targetStatus;
+        this.results = results;
+        this.updatedCount = (int) results.stream().filter(OrderOutcome::isUpdated).count();
+        this.failedCount = results.size() - updatedCount;
+    }
+
+    // Getters and Setters
+    public OrderStatus getTargetStatus() {
+        return targetStatus;
+    }
+
+    public void setTargetStatus(OrderStatus targetStatus) {
+        this.targetStatus = targetStatus;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public void setUpdatedCount(int updatedCount) {
+        this.updatedCount = updatedCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public List<OrderOutcome> getResults() {
+        return results;
+    }
+
+    public void setResults(List<OrderOutcome> results) {
+        this.results = results;
+    }
+
+    public static class OrderOutcome {
+        private Long orderId;
+        private boolean updated;
+        private String message;
+
+        // Constructors
+        public OrderOutcome() {}
+
+        public OrderOutcome(Long orderId, boolean updated, String message) {
+            this.orderId = orderId;
+            this.updated = updated;
+            this.message = message;
+        }
+
+        // Getters and Setters
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(Long orderId) {
+            this.orderId = orderId;
+        }
+
+        public boolean isUpdated() {
+            return updated;
+        }
+
+        public void setUpdated(boolean updated) {
+            this.updated = updated;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.restaurant.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a bulk menu import. Only the first few row errors are kept so the
+ * response stays small no matter how large the uploaded file is.
+ */
+public class MenuImportResponse {
+
+    private static final int MAX_REPORTED_ERRORS = 50;
+
+    private int received;
+    private int inserted;
+    private int updated;
+    private int skipped;
+    private int rejected;
+    private List<String> errors = new ArrayList<>();
+
+    // Constructors
+    public MenuImportResponse() {}
+
+    // Helper methods
+    public void recordReceived() {
+        received++;
+    }
+
+    public void recordInserted(int count) {
+        inserted += count;
+    }
+
+    public void recordUpdated(int count) {
+        updated += count;
+    }
+
+    public void recordSkipped() {
+        skipped++;
+    }
+
+    public void recordRejected(String error) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    // Getters and Setters
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
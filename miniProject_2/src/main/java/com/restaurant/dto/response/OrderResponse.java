@@ -12,6 +12,7 @@ public class OrderResponse {
     private LocalDateTime createdAt;
     private String waiterName;
     private Long tableId;
+    private Long subtotal;
 
     // Constructors
     public OrderResponse() {}
@@ -83,4 +84,12 @@ public class OrderResponse {
     public void setTableId(Long tableId) {
         this.tableId = tableId;
     }
+
+    public Long getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(Long subtotal) {
+        this.subtotal = subtotal;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package org.restaurant.dto.response;
+
+import java.time.LocalDateTime;
+
+public class WaitlistEntryResponse {
+
+    private Long id;
+    private String customerName;
+    private Integer partySize;
+    private String band;
+    private boolean priority;
+    private Integer position;
+    private LocalDateTime joinedAt;
+    private LocalDateTime estimatedSeatingAt;
+    private Long estimatedWaitMinutes;
+    private Long offeredTableId;
+    private LocalDateTime offerExpiresAt;
+
+    // Constructors
+    public WaitlistEntryResponse() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public Integer getPartySize() {
+        return partySize;
+    }
+
+    public void setPartySize(Integer partySize) {
+        this.partySize = partySize;
+    }
+
+    public String getBand() {
+        return band;
+    }
+
+    public void setBand(String band) {
+        this.band = band;
+    }
+
+    public boolean isPriority() {
+        return priority;
+    }
+
+    public void setPriority(boolean priority) {
+        this.priority = priority;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+
+    public void setJoinedAt(LocalDateTime joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+
+    public LocalDateTime getEstimatedSeatingAt() {
+        return estimatedSeatingAt;
+    }
+
+    public void setEstimatedSeatingAt(LocalDateTime estimatedSeatingAt) {
+        this.estimatedSeatingAt = estimatedSeatingAt;
+    }
+
+    public Long getEstimatedWaitMinutes() {
+        return estimatedWaitMinutes;
+    }
+
+    public void setEstimatedWaitMinutes(Long estimatedWaitMinutes) {
+        this.estimatedWaitMinutes = estimatedWaitMinutes;
+    }
+
+    public Long getOfferedTableId() {
+        return offeredTableId;
+    }
+
+    public void setOfferedTableId(Long offeredTableId) {
+        this.offeredTableId = offeredTableId;
+    }
+
+    public LocalDateTime getOfferExpiresAt() {
+        return offerExpiresAt;
+    }
+
+    public void setOfferExpiresAt(LocalDateTime offerExpiresAt) {
+        this.offerExpiresAt = offerExpiresAt;
+    }
+}
@@ -2,6 +2,7 @@ package org.restaurant.entities;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.restaurant.cache.CacheInvalidationEntityListener;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "menuitems")
+@EntityListeners(CacheInvalidationEntityListener.class)
 public class MenuItem {
 
     @Id
@@ -3,6 +3,7 @@ package org.restaurant.entities;
 import org.restaurant.enums.OrderStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -26,10 +27,27 @@ public class Order {
     @Column(name = "status", nullable = false)
     private OrderStatus status = OrderStatus.PLACED;
 
+    // Sum of line totals in paise, kept in step with orderItems
+    @Column(name = "subtotal", nullable = false)
+    private Long subtotal = 0L;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // When the order entered each lifecycle stage
+    @Column(name = "kitchen_at")
+    private LocalDateTime kitchenAt;
+
+    @Column(name = "served_at")
+    private LocalDateTime servedAt;
+
+    // Bumped on every update; an update based on an older read fails instead of overwriting
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "table_id", referencedColumnName = "table_id")
@@ -55,10 +73,13 @@ public class Order {
     public void addOrderItem(OrderItem orderItem) {
         orderItems.add(orderItem);
         orderItem.setOrder(this);
+        subtotal += orderItem.getLineTotal();
     }
 
     public void removeOrderItem(OrderItem orderItem) {
-        orderItems.remove(orderItem);
+        if (orderItems.remove(orderItem)) {
+            subtotal -= orderItem.getLineTotal();
+        }
         orderItem.setOrder(null);
     }
 
@@ -84,9 +105,24 @@ public class Order {
     }
 
     public void setStatus(OrderStatus status) {
+        if (status != this.status) {
+            if (status == OrderStatus.IN_KITCHEN) {
+                kitchenAt = LocalDateTime.now();
+            } else if (status == OrderStatus.SERVED) {
+                servedAt = LocalDateTime.now();
+            }
+        }
         this.status = status;
     }
 
+    public Long getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(Long subtotal) {
+        this.subtotal = subtotal;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -95,6 +131,30 @@ public class Order {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getKitchenAt() {
+        return kitchenAt;
+    }
+
+    public void setKitchenAt(LocalDateTime kitchenAt) {
+        this.kitchenAt = kitchenAt;
+    }
+
+    public LocalDateTime getServedAt() {
+        return servedAt;
+    }
+
+    public void setServedAt(LocalDateTime servedAt) {
+        this.servedAt = servedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public RestaurantTable getRestaurantTable() {
         return restaurantTable;
     }
@@ -122,7 +182,7 @@ public class Order {
     // Convenience method to get items as string list (for API response)
     public List<String> getItems() {
         return orderItems.stream()
-                .map(item -> item.getMenuItem().getMenuItemName() + " (x" + item.getQuantity() + ")")
+                .map(item -> item.getItemName() + " (x" + item.getQuantity() + ")")
                 .toList();
     }
 
@@ -132,6 +192,7 @@ public class Order {
                 "orderId=" + orderId +
                 ", tableNumber=" + tableNumber +
                 ", status=" + status +
+                ", subtotal=" + subtotal +
                 ", createdAt=" + createdAt +
                 ", orderItemsCount=" + (orderItems != null ? orderItems.size() : 0) +
                 '}';
@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 @Entity
 @Table(name = "orderitems")
 public class OrderItem {
@@ -18,6 +21,19 @@ public class OrderItem {
     @Column(name = "quantity", nullable = false)
     private Integer quantity;
 
+    // Snapshot of the menu item at the time of ordering (amounts in paise)
+    @Column(name = "item_name", nullable = false, length = 100)
+    private String itemName;
+
+    @Column(name = "category", length = 50)
+    private String category;
+
+    @Column(name = "unit_price", nullable = false)
+    private Long unitPrice = 0L;
+
+    @Column(name = "line_total", nullable = false)
+    private Long lineTotal = 0L;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", referencedColumnName = "order_id", nullable = false)
@@ -34,6 +50,19 @@ public class OrderItem {
         this.quantity = quantity;
         this.order = order;
         this.menuItem = menuItem;
+        captureMenuItemSnapshot();
+    }
+
+    // Helper methods
+    public void captureMenuItemSnapshot() {
+        this.itemName = menuItem.getMenuItemName();
+        this.category = menuItem.getCategory();
+        this.unitPrice = toPaise(menuItem.getPrice());
+        this.lineTotal = unitPrice * quantity;
+    }
+
+    private static long toPaise(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
     }
 
     // Getters and Setters
@@ -53,6 +82,38 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Long getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(Long unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public Long getLineTotal() {
+        return lineTotal;
+    }
+
+    public void setLineTotal(Long lineTotal) {
+        this.lineTotal = lineTotal;
+    }
+
     public Order getOrder() {
         return order;
     }
@@ -74,7 +135,9 @@ public class OrderItem {
         return "OrderItem{" +
                 "orderItemId=" + orderItemId +
                 ", quantity=" + quantity +
-                ", menuItemName='" + (menuItem != null ? menuItem.getMenuItemName() : null) + '\'' +
+                ", itemName='" + itemName + '\'' +
+                ", unitPrice=" + unitPrice +
+                ", lineTotal=" + lineTotal +
                 '}';
     }
 }
\ No newline at end of file
@@ -1,13 +1,16 @@
 package org.restaurant.entities;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.restaurant.cache.CacheInvalidationEntityListener;
 import org.restaurant.enums.TableStatus;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
 @Table(name = "tables")
+@EntityListeners(CacheInvalidationEntityListener.class)
 public class RestaurantTable {
 
     @Id
@@ -25,6 +28,12 @@ public class RestaurantTable {
     @Column(name = "status", nullable = false)
     private TableStatus status = TableStatus.AVAILABLE;
 
+    // Optimistic lock, so two waiters seating the same table cannot both succeed
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructors
     public RestaurantTable() {}
 
@@ -58,6 +67,14 @@ public class RestaurantTable {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "RestaurantTable{" +
@@ -1,5 +1,6 @@
 package org.restaurant.entities;
 
+import org.restaurant.cache.CacheInvalidationEntityListener;
 import org.restaurant.enums.UserRole;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -16,6 +17,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(CacheInvalidationEntityListener.class)
 public class User implements UserDetails {
 
     @Id
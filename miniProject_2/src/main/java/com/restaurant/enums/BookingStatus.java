@@ -3,5 +3,6 @@ package org.restaurant.enums;
 public enum BookingStatus {
     RESERVED,
     CANCELLED,
-    COMPLETED
+    COMPLETED,
+    NO_SHOW
 }
\ No newline at end of file
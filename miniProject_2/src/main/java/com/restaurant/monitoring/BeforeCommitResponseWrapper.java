@@ -0,0 +1,70 @@
+package org.restaurant.monitoring;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Runs a callback once, just before the response body starts or the response is otherwise
+ * committed, so filters can add headers that describe the work done so far.
+ */
+class BeforeCommitResponseWrapper extends HttpServletResponseWrapper {
+
+    private final Runnable beforeCommit;
+    private boolean done;
+
+    BeforeCommitResponseWrapper(HttpServletResponse response, Runnable beforeCommit) {
+        super(response);
+        this.beforeCommit = beforeCommit;
+    }
+
+    /**
+     * Run the callback now unless it already ran or the response is committed
+     */
+    void beforeCommit() {
+        if (done || isCommitted()) {
+            return;
+        }
+        done = true;
+        beforeCommit.run();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        beforeCommit();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        beforeCommit();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        beforeCommit();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        beforeCommit();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        beforeCommit();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        beforeCommit();
+        super.sendRedirect(location);
+    }
+}
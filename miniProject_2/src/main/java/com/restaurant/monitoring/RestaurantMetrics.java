@@ -0,0 +1,121 @@
+package org.restaurant.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.restaurant.enums.OrderStatus;
+import org.restaurant.enums.TableStatus;
+import org.restaurant.repository.OrderRepository;
+import org.restaurant.repository.RestaurantTableRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Business metrics for the order and booking flows.
+ * Timers and counters are Micrometer meters, which record through atomics and striped adders,
+ * so recording never takes a lock on the request path. Gauges are evaluated at scrape time.
+ */
+@Component
+public class RestaurantMetrics {
+
+    public static final String STAGE_PLACED_TO_KITCHEN = "placed_to_kitchen";
+    public static final String STAGE_KITCHEN_TO_SERVED = "kitchen_to_served";
+    public static final String STAGE_PLACED_TO_SERVED = "placed_to_served";
+
+    private static final String NO_WAITER = "none";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+
+    @PostConstruct
+    void registerGauges() {
+        for (OrderStatus status : new OrderStatus[]{OrderStatus.PLACED, OrderStatus.IN_KITCHEN}) {
+            Gauge.builder("restaurant.kitchen.queue", orderRepository, repository -> repository.countByStatus(status))
+                    .description("Orders waiting on the kitchen")
+                    .tag("status", status.name())
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+        for (TableStatus status : TableStatus.values()) {
+            Gauge.builder("restaurant.tables", tableRepository, repository -> repository.countByStatus(status))
+                    .description("Tables by current status")
+                    .tag("status", status.name())
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Record the time an order spent in a lifecycle stage, once per waiter and once per menu category on the order
+     */
+    public void recordStage(String stage, LocalDateTime from, LocalDateTime to, Long waiterId, Collection<String> categories) {
+        if (from == null || to == null) {
+            return;
+        }
+        Duration duration = Duration.between(from, to);
+        if (duration.isNegative()) {
+            return;
+        }
+
+        stageTimer("restaurant.order.stage.waiter", stage, "waiter", waiterId != null ? waiterId.toString() : NO_WAITER)
+                .record(duration);
+        for (String category : categories) {
+            stageTimer("restaurant.order.stage.category", stage, "category", category).record(duration);
+        }
+    }
+
+    /**
+     * Count an order request or status change that was turned down
+     */
+    public void orderRejected(String reason) {
+        Counter.builder("restaurant.orders.rejected")
+                .description("Order requests and status changes that were rejected")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Count a booking that could not be placed because of an existing booking or a lack of tables
+     */
+    public void bookingConflict(String reason) {
+        Counter.builder("restaurant.bookings.conflicts")
+                .description("Booking requests rejected for lack of a free table")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Count bookings moved on by the booking scheduler, by transition
+     */
+    public void bookingTransitions(String transition, int count) {
+        Counter.builder("restaurant.bookings.transitions")
+                .description("Bookings activated, released as no-shows or completed by the scheduler")
+                .tag("transition", transition)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    private Timer stageTimer(String name, String stage, String dimension, String value) {
+        return Timer.builder(name)
+                .description("Time orders spend in each lifecycle stage")
+                .tags("stage", stage, dimension, value)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofSeconds(10))
+                .maximumExpectedValue(Duration.ofHours(3))
+                .register(meterRegistry);
+    }
+}
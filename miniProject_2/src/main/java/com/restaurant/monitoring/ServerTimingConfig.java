@@ -0,0 +1,20 @@
+package org.restaurant.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+@ConditionalOnProperty(name = "restaurant.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig {
+
+    /**
+     * Replaces Spring Boot's default Jackson converter with one that times serialization
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonHttpMessageConverter(objectMapper);
+    }
+}
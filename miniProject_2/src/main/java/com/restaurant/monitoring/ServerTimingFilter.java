@@ -0,0 +1,72 @@
+package org.restaurant.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Times each request by phase and reports the breakdown in a standard {@code Server-Timing} header.
+ * Requests slower than the configured threshold are kept in the {@link SlowRequestLog}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Value("${restaurant.server-timing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${restaurant.server-timing.slow-request-threshold-ms:500}")
+    private long slowRequestThresholdMillis;
+
+    @Autowired
+    private ObjectProvider<SlowRequestLog> slowRequestLog;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ServerTimings timings = ServerTimings.start();
+        BeforeCommitResponseWrapper wrapper = new BeforeCommitResponseWrapper(response,
+                () -> response.setHeader(SERVER_TIMING_HEADER, timings.toHeaderValue()));
+        try {
+            filterChain.doFilter(request, wrapper);
+            wrapper.beforeCommit();
+        } finally {
+            ServerTimings.clear();
+            recordIfSlow(request, response, timings);
+        }
+    }
+
+    private void recordIfSlow(HttpServletRequest request, HttpServletResponse response, ServerTimings timings) {
+        double totalMillis = timings.getElapsedNanos() / 1_000_000.0;
+        SlowRequestLog log = slowRequestLog.getIfAvailable();
+        if (log == null || totalMillis < slowRequestThresholdMillis) {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        log.record(new SlowRequestLog.SlowRequest(Instant.now(), request.getMethod(),
+                pattern != null ? pattern.toString() : request.getRequestURI(),
+                response.getStatus(), totalMillis, timings.getPhaseMillis()));
+    }
+}
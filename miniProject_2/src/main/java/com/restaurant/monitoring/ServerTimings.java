@@ -0,0 +1,123 @@
+package org.restaurant.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-request phase timings for the request running on the current thread, reported in the
+ * {@code Server-Timing} header. Phases can nest (DB time is also service time), so they are
+ * not expected to add up to the total.
+ */
+public final class ServerTimings {
+
+    public enum Phase {
+        AUTH("auth", "JWT authentication"),
+        AUTHZ("authz", "Method security"),
+        SERVICE("service", "Service layer"),
+        DB("db", "JDBC"),
+        SERIALIZATION("serialization", "JSON serialization");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<ServerTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private int serviceDepth;
+
+    private ServerTimings() {}
+
+    /**
+     * Start timing the request on the current thread
+     * @return Fresh timings for this thread
+     */
+    public static ServerTimings start() {
+        ServerTimings timings = new ServerTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * @return Timings for the current thread, or null when nothing is being timed
+     */
+    public static ServerTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop timing on the current thread
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Add the time since {@code startNanos} to a phase of the current request, if one is being timed
+     */
+    public static void record(Phase phase, long startNanos) {
+        ServerTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        }
+    }
+
+    // Service calls nest (one service calling another); only the outermost call is timed
+    boolean enterService() {
+        return serviceDepth++ == 0;
+    }
+
+    void exitService() {
+        serviceDepth--;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return Milliseconds spent per phase, skipping phases the request never entered
+     */
+    public Map<String, Double> getPhaseMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                millis.put(phase.metricName, nanos / 1_000_000.0);
+            }
+        }
+        return millis;
+    }
+
+    /**
+     * Render the timings as a Server-Timing header value, e.g. {@code total;dur=12.4, db;dur=3.1;desc="JDBC"}
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder(128);
+        header.append("total;dur=").append(format(getElapsedNanos()));
+        for (Phase phase : Phase.values()) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                header.append(", ").append(phase.metricName)
+                        .append(";dur=").append(format(nanos))
+                        .append(";desc=\"").append(phase.description).append('"');
+            }
+        }
+        return header.toString();
+    }
+
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,36 @@
+package org.restaurant.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the outermost service call of a request, including its transaction commit
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceTimingAspect {
+
+    @Around("within(org.restaurant.service.impl..*)")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServerTimings timings = ServerTimings.current();
+        if (timings == null) {
+            return joinPoint.proceed();
+        }
+
+        boolean outermost = timings.enterService();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timings.exitService();
+            if (outermost) {
+                ServerTimings.record(ServerTimings.Phase.SERVICE, start);
+            }
+        }
+    }
+}
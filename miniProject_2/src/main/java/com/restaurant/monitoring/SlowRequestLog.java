@@ -0,0 +1,90 @@
+package org.restaurant.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring buffer of the most recent slow requests. Writers claim a slot with a single
+ * atomic increment and overwrite the oldest entry, so recording never blocks.
+ */
+@Component
+public class SlowRequestLog {
+
+    private final AtomicReferenceArray<SlowRequest> slots;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public SlowRequestLog(@Value("${restaurant.server-timing.slow-request-capacity:100}") int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void record(SlowRequest request) {
+        int slot = (int) (cursor.getAndIncrement() % slots.length());
+        slots.set(slot, request);
+    }
+
+    /**
+     * @return Recorded slow requests, newest first
+     */
+    public List<SlowRequest> snapshot() {
+        List<SlowRequest> requests = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SlowRequest request = slots.get(i);
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        requests.sort(Comparator.comparing(SlowRequest::getTimestamp).reversed());
+        return requests;
+    }
+
+    public static class SlowRequest {
+        private final Instant timestamp;
+        private final String method;
+        private final String uri;
+        private final int status;
+        private final double totalMillis;
+        private final Map<String, Double> phaseMillis;
+
+        public SlowRequest(Instant timestamp, String method, String uri, int status,
+                           double totalMillis, Map<String, Double> phaseMillis) {
+            this.timestamp = timestamp;
+            this.method = method;
+            this.uri = uri;
+            this.status = status;
+            this.totalMillis = totalMillis;
+            this.phaseMillis = phaseMillis;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public double getTotalMillis() {
+            return totalMillis;
+        }
+
+        public Map<String, Double> getPhaseMillis() {
+            return phaseMillis;
+        }
+    }
+}
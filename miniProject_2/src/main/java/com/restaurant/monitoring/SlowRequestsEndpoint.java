@@ -0,0 +1,25 @@
+package org.restaurant.monitoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator view of the slow request ring buffer
+ * GET /actuator/slowrequests
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    @Autowired
+    private SlowRequestLog slowRequestLog;
+
+    @ReadOperation
+    public List<SlowRequestLog.SlowRequest> slowRequests() {
+        return slowRequestLog.snapshot();
+    }
+}
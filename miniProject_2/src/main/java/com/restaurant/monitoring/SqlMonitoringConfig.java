@@ -0,0 +1,26 @@
+package org.restaurant.monitoring;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "restaurant.sql-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMonitoringConfig {
+
+    /**
+     * Wrap every DataSource so statements can be counted per request
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? StatementCountingProxy.wrap(dataSource) : bean;
+            }
+        };
+    }
+}
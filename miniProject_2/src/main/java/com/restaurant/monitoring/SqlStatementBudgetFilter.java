@@ -0,0 +1,110 @@
+package org.restaurant.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the JDBC statements and rows each request issues, reports them in response headers
+ * and metrics, and logs statement shapes repeated often enough to look like an N+1 loop.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    public static final String ROW_COUNT_HEADER = "X-SQL-Row-Count";
+    public static final String REPEATED_STATEMENTS_HEADER = "X-SQL-Repeated-Statements";
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    @Value("${restaurant.sql-monitor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${restaurant.sql-monitor.statement-budget:20}")
+    private int statementBudget;
+
+    @Value("${restaurant.sql-monitor.repeat-threshold:3}")
+    private int repeatThreshold;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        SqlStatementStats stats = SqlStatementStats.start();
+        // Headers must go out before the body starts, so they reflect statements issued up to that point
+        BeforeCommitResponseWrapper wrapper = new BeforeCommitResponseWrapper(response, () -> {
+            response.setHeader(STATEMENT_COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+            response.setHeader(ROW_COUNT_HEADER, String.valueOf(stats.getRowCount()));
+            response.setHeader(REPEATED_STATEMENTS_HEADER, String.valueOf(stats.getRepeatedStatements(repeatThreshold).size()));
+        });
+        try {
+            filterChain.doFilter(request, wrapper);
+            wrapper.beforeCommit();
+        } finally {
+            SqlStatementStats.clear();
+            report(request, response, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        Map<String, Integer> repeated = stats.getRepeatedStatements(repeatThreshold);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            DistributionSummary.builder("restaurant.http.sql.statements")
+                    .description("JDBC statements issued per HTTP request")
+                    .tags("method", method, "uri", uri, "status", String.valueOf(response.getStatus()))
+                    .register(registry)
+                    .record(stats.getStatementCount());
+            DistributionSummary.builder("restaurant.http.sql.rows")
+                    .description("JDBC rows fetched per HTTP request")
+                    .tags("method", method, "uri", uri)
+                    .register(registry)
+                    .record(stats.getRowCount());
+            if (!repeated.isEmpty()) {
+                Counter.builder("restaurant.http.sql.repeated")
+                        .description("HTTP requests that repeated a statement shape at least the configured threshold")
+                        .tags("method", method, "uri", uri)
+                        .register(registry)
+                        .increment();
+            }
+        }
+
+        if (stats.getStatementCount() > statementBudget) {
+            logger.warn("{} {} issued {} SQL statements, over the budget of {}",
+                    method, uri, stats.getStatementCount(), statementBudget);
+        }
+        repeated.forEach((shape, count) ->
+                logger.warn("Possible N+1 in {} {}: statement executed {} times: {}", method, uri, count, shape));
+    }
+}
@@ -0,0 +1,92 @@
+package org.restaurant.monitoring;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC statement and row counts for the request running on the current thread.
+ * Statements issued outside a request (startup, background jobs) are not tracked.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statementCount;
+    private long rowCount;
+    private final Map<String, Integer> statementShapes = new HashMap<>();
+
+    private SqlStatementStats() {}
+
+    /**
+     * Start tracking statements on the current thread
+     * @return Fresh statistics for this thread
+     */
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return Statistics for the current thread, or null when nothing is being tracked
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop tracking statements on the current thread
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql) {
+        statementCount++;
+        if (sql != null) {
+            statementShapes.merge(shapeOf(sql), 1, Integer::sum);
+        }
+    }
+
+    void recordRow() {
+        rowCount++;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Statement shapes executed at least {@code threshold} times, which usually means an N+1 loop
+     * @param threshold Minimum number of executions
+     * @return Shape to execution count
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statementShapes.forEach((shape, count) -> {
+            if (count >= threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+
+    // Statements differing only in literals or IN-list length share a shape
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+}
@@ -0,0 +1,81 @@
+package org.restaurant.monitoring;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * JDK proxy around DataSource, Connection, Statement and ResultSet that reports every executed
+ * statement and every fetched row to the {@link SqlStatementStats} of the current thread, and the
+ * time spent executing and fetching to its {@link ServerTimings}.
+ * This sees Hibernate and JdbcTemplate traffic alike, since both go through the same pool.
+ */
+final class StatementCountingProxy implements InvocationHandler {
+
+    private final Object target;
+    private final String sql;
+
+    private StatementCountingProxy(Object target, String sql) {
+        this.target = target;
+        this.sql = sql;
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, null);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        boolean timed = (target instanceof Statement && name.startsWith("execute"))
+                || (target instanceof ResultSet && "next".equals(name));
+        long start = timed ? System.nanoTime() : 0L;
+
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (timed) {
+                ServerTimings.record(ServerTimings.Phase.DB, start);
+            }
+        }
+
+        if (target instanceof DataSource && result instanceof Connection connection) {
+            return proxy(Connection.class, connection, null);
+        }
+        if (target instanceof Connection && result instanceof Statement statement
+                && Statement.class.isAssignableFrom(method.getReturnType())) {
+            String statementSql = name.startsWith("prepare") && args != null && args.length > 0 ? (String) args[0] : null;
+            return proxy(method.getReturnType(), statement, statementSql);
+        }
+        if (target instanceof Statement) {
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats != null && name.startsWith("execute")) {
+                stats.recordStatement(args != null && args.length > 0 && args[0] instanceof String s ? s : sql);
+            }
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, resultSet, null);
+            }
+        }
+        if (target instanceof ResultSet && "next".equals(name) && Boolean.TRUE.equals(result)) {
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats != null) {
+                stats.recordRow();
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, Object target, String sql) {
+        return (T) Proxy.newProxyInstance(StatementCountingProxy.class.getClassLoader(),
+                new Class<?>[]{type}, new StatementCountingProxy(target, sql));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,6 +16,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     // Find all order items for a specific order
     List<OrderItem> findByOrder_OrderId(Long orderId);
 
+    // Distinct (order ID, category) pairs for a set of orders
+    @Query("SELECT DISTINCT oi.order.orderId, oi.category FROM OrderItem oi " +
+           "WHERE oi.order.orderId IN :orderIds AND oi.category IS NOT NULL")
+    List<Object[]> findCategoriesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
     // Find all order items for a specific menu item
     List<OrderItem> findByMenuItem_ItemId(Long menuItemId);
 
@@ -29,9 +35,9 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     Long getTotalQuantityByMenuItem(@Param("menuItemId") Long menuItemId);
 
     // Get most popular menu items (by total quantity ordered)
-    @Query("SELECT oi.menuItem.itemId, oi.menuItem.menuItemName, SUM(oi.quantity) as totalQuantity " +
+    @Query("SELECT oi.menuItem.itemId, MAX(oi.itemName), SUM(oi.quantity) as totalQuantity " +
             "FROM OrderItem oi " +
-            "GROUP BY oi.menuItem.itemId, oi.menuItem.menuItemName " +
+            "GROUP BY oi.menuItem.itemId " +
             "ORDER BY totalQuantity DESC")
     List<Object[]> findMostPopularMenuItems();
 
@@ -49,11 +55,10 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     @Query("SELECT oi FROM OrderItem oi WHERE oi.menuItem.category = :category")
     List<OrderItem> findByMenuItemCategory(@Param("category") String category);
 
-    // Get revenue by menu item (quantity * price)
-    @Query("SELECT oi.menuItem.itemId, oi.menuItem.menuItemName, " +
-            "SUM(oi.quantity * oi.menuItem.price) as totalRevenue " +
+    // Get revenue by menu item in paise, from the price captured when each item was ordered
+    @Query("SELECT oi.menuItem.itemId, MAX(oi.itemName), SUM(oi.lineTotal) as totalRevenue " +
             "FROM OrderItem oi " +
-            "GROUP BY oi.menuItem.itemId, oi.menuItem.menuItemName " +
+            "GROUP BY oi.menuItem.itemId " +
             "ORDER BY totalRevenue DESC")
     List<Object[]> getRevenueByMenuItem();
 
@@ -1,13 +1,17 @@
 package org.restaurant.repository;
 
+import jakarta.persistence.LockModeType;
 import org.restaurant.entities.Order;
 import org.restaurant.enums.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -26,4 +30,48 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT o FROM Order o WHERE o.status IN :statuses ORDER BY o.createdAt ASC")
     List<Order> findByStatusInOrderByCreatedAtAsc(@Param("statuses") List<OrderStatus> statuses);
+
+    // Get total revenue in paise for orders placed between dates
+    @Query("SELECT COALESCE(SUM(o.subtotal), 0) FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
+    Long getRevenueBetweenDates(@Param("startDate") LocalDateTime startDate,
+                                @Param("endDate") LocalDateTime endDate);
+
+    long countByStatus(OrderStatus status);
+
+    // Load only what is needed to validate and time a bulk status transition:
+    // order ID, status, table ID, created/kitchen timestamps and waiter ID
+    @Query("SELECT o.orderId, o.status, t.tableId, o.createdAt, o.kitchenAt, w.userId FROM Order o " +
+           "LEFT JOIN o.restaurantTable t LEFT JOIN o.waiter w WHERE o.orderId IN :orderIds")
+    List<Object[]> findTransitionStateByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // Set-based status transitions stamping the stage time; rows no longer in the expected status are left untouched
+    @Modifying
+    @Query("UPDATE Order o SET o.status = org.restaurant.enums.OrderStatus.IN_KITCHEN, o.kitchenAt = :changedAt, " +
+           "o.version = o.version + 1 " +
+           "WHERE o.orderId IN :orderIds AND o.status = org.restaurant.enums.OrderStatus.PLACED")
+    int moveOrdersToKitchen(@Param("orderIds") Collection<Long> orderIds,
+                            @Param("changedAt") LocalDateTime changedAt);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = org.restaurant.enums.OrderStatus.SERVED, o.servedAt = :changedAt, " +
+           "o.version = o.version + 1 " +
+           "WHERE o.orderId IN :orderIds AND o.status = org.restaurant.enums.OrderStatus.IN_KITCHEN")
+    int markOrdersServed(@Param("orderIds") Collection<Long> orderIds,
+                         @Param("changedAt") LocalDateTime changedAt);
+
+    // Locks the orders that are still in a status until the transaction ends (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.orderId FROM Order o WHERE o.orderId IN :orderIds AND o.status = :status")
+    List<Long> lockOrderIdsByStatus(@Param("orderIds") Collection<Long> orderIds,
+                                    @Param("status") OrderStatus status);
+
+    // Seat-to-served times of orders served after a moment: [orderId, tableId, createdAt, servedAt]
+    @Query("SELECT o.orderId, t.tableId, o.createdAt, o.servedAt FROM Order o JOIN o.restaurantTable t " +
+           "WHERE o.status = org.restaurant.enums.OrderStatus.SERVED AND o.servedAt > :since ORDER BY o.servedAt ASC")
+    List<Object[]> findServiceTimesSince(@Param("since") LocalDateTime since);
+
+    // When the party at each occupied table sat down, taken as its earliest unserved order: [tableId, createdAt]
+    @Query("SELECT t.tableId, MIN(o.createdAt) FROM Order o JOIN o.restaurantTable t " +
+           "WHERE o.status <> org.restaurant.enums.OrderStatus.SERVED GROUP BY t.tableId")
+    List<Object[]> findOpenOrderStartsByTable();
 }
\ No newline at end of file
@@ -1,12 +1,16 @@
 package org.restaurant.repository;
 
 import org.restaurant.entities.RestaurantTable;
+import org.restaurant.enums.BookingStatus;
 import org.restaurant.enums.TableStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,4 +55,29 @@ public interface RestaurantTableRepository extends JpaRepository<RestaurantTable
     List<RestaurantTable> findByCapacityRangeAndStatus(@Param("minCapacity") Integer minCapacity,
                                                        @Param("maxCapacity") Integer maxCapacity,
                                                        @Param("status") TableStatus status);
+
+    // Update the status of several tables in one statement
+    @Modifying
+    @Query("UPDATE RestaurantTable t SET t.status = :status, t.version = t.version + 1 WHERE t.tableId IN :tableIds")
+    int updateStatusForTables(@Param("tableIds") Collection<Long> tableIds, @Param("status") TableStatus status);
+
+    // Move those of several tables still in one status to another in one statement
+    @Modifying
+    @Query("UPDATE RestaurantTable t SET t.status = :to, t.version = t.version + 1 WHERE t.tableId IN :tableIds AND t.status = :from")
+    int updateStatusForTablesIn(@Param("tableIds") Collection<Long> tableIds,
+                                @Param("from") TableStatus from,
+                                @Param("to") TableStatus to);
+
+    // Free reserved tables, except those held for another booking due between activeFrom and activeUntil
+    @Modifying
+    @Query("UPDATE RestaurantTable t SET t.status = :available, t.version = t.version + 1 " +
+            "WHERE t.tableId IN :tableIds AND t.status = :reserved " +
+            "AND NOT EXISTS (SELECT tb FROM TableBooking tb WHERE tb.restaurantTable = t AND tb.status = :booked " +
+            "AND tb.bookingTime BETWEEN :activeFrom AND :activeUntil)")
+    int releaseReservedTables(@Param("tableIds") Collection<Long> tableIds,
+                              @Param("reserved") TableStatus reserved,
+                              @Param("available") TableStatus available,
+                              @Param("booked") BookingStatus booked,
+                              @Param("activeFrom") LocalDateTime activeFrom,
+                              @Param("activeUntil") LocalDateTime activeUntil);
 }
\ No newline at end of file
@@ -2,12 +2,15 @@ package org.restaurant.repository;
 
 import org.restaurant.entities.TableBooking;
 import org.restaurant.enums.BookingStatus;
+import org.restaurant.enums.TableStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -27,4 +30,30 @@ public interface TableBookingRepository extends JpaRepository<TableBooking, Long
                                                @Param("startTime") LocalDateTime startTime,
                                                @Param("endTime") LocalDateTime endTime,
                                                @Param("status") BookingStatus status);
+
+    // Booking id and time of each booking in a status with an id above afterId, without loading the entities
+    @Query("SELECT tb.bookingId, tb.bookingTime FROM TableBooking tb WHERE tb.status = :status AND tb.bookingId > :afterId")
+    List<Object[]> findScheduleByStatus(@Param("status") BookingStatus status, @Param("afterId") Long afterId);
+
+    // Booking id, time, status, table id and table status of each booking
+    @Query("SELECT tb.bookingId, tb.bookingTime, tb.status, t.tableId, t.status FROM TableBooking tb LEFT JOIN tb.restaurantTable t " +
+            "WHERE tb.bookingId IN :bookingIds")
+    List<Object[]> findLifecycleStates(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Move several bookings from one status to another in one statement
+    @Modifying
+    @Query("UPDATE TableBooking tb SET tb.status = :to, tb.version = tb.version + 1 WHERE tb.bookingId IN :bookingIds AND tb.status = :from")
+    int updateStatusForBookings(@Param("bookingIds") Collection<Long> bookingIds,
+                                @Param("from") BookingStatus from,
+                                @Param("to") BookingStatus to);
+
+    // Mark bookings whose party was never seated as no-shows; a booking without a table cannot have been seated
+    @Modifying
+    @Query("UPDATE TableBooking tb SET tb.status = :noShow, tb.version = tb.version + 1 " +
+            "WHERE tb.bookingId IN :bookingIds AND tb.status = :reserved " +
+            "AND NOT EXISTS (SELECT t FROM RestaurantTable t WHERE t = tb.restaurantTable AND t.status = :seated)")
+    int markNoShows(@Param("bookingIds") Collection<Long> bookingIds,
+                    @Param("reserved") BookingStatus reserved,
+                    @Param("noShow") BookingStatus noShow,
+                    @Param("seated") TableStatus seated);
 }
\ No newline at end of file
@@ -0,0 +1,319 @@
+package org.restaurant.scheduling;
+
+import org.restaurant.enums.BookingStatus;
+import org.restaurant.enums.TableStatus;
+import org.restaurant.monitoring.RestaurantMetrics;
+import org.restaurant.repository.TableBookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves reserved bookings through their lifecycle as the time comes:
+ * - lead time before the booking, its table is reserved if it is free;
+ * - the grace period after it, a party that has not been seated is a no-show and the table is freed;
+ * - the booking duration after it, a seated party's booking is completed.
+ * Each booking has one timer at a time, for its next step, on a hashed timing wheel, so keeping hundreds of
+ * thousands of bookings costs one small object each and a tick only walks one bucket. Timers due on the same tick
+ * are applied as one set-based update per step, chunked by restaurant.bookings.scheduler.batch-size.
+ * The wheel is rebuilt from the reserved bookings at startup. Bookings made on other instances are picked up by
+ * polling for new ids, and edits made there by a periodic full resync. A timer only says when to look: the
+ * booking's current time and status are re-read when it fires, and every update re-checks them, so a stale timer or
+ * a second instance doing the same never changes anything twice.
+ */
+@Component
+public class BookingScheduler implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(BookingScheduler.class);
+
+    enum Step {
+        ACTIVATE, NO_SHOW, COMPLETE
+    }
+
+    private final TableBookingRepository bookingRepository;
+    private final BookingTransitions transitions;
+    private final RestaurantMetrics restaurantMetrics;
+    private final Duration lead;
+    private final Duration grace;
+    private final Duration duration;
+    private final long tickMillis;
+    private final long pollMillis;
+    private final long resyncMillis;
+    private final int batchSize;
+
+    // Guarded by this
+    private final HashedTimingWheel<Timer> wheel;
+    private final Map<Long, HashedTimingWheel.Timeout<Timer>> timers = new HashMap<>();
+    private long highestSeenId;
+
+    private volatile boolean running;
+    private ScheduledExecutorService executor;
+
+    public BookingScheduler(TableBookingRepository bookingRepository,
+                            BookingTransitions transitions,
+                            RestaurantMetrics restaurantMetrics,
+                            @Value("${restaurant.bookings.scheduler.lead-minutes:15}") long leadMinutes,
+                            @Value("${restaurant.bookings.scheduler.grace-minutes:15}") long graceMinutes,
+                            @Value("${restaurant.bookings.scheduler.duration-minutes:120}") long durationMinutes,
+                            @Value("${restaurant.bookings.scheduler.tick-ms:1000}") long tickMillis,
+                            @Value("${restaurant.bookings.scheduler.wheel-size:4096}") int wheelSize,
+                            @Value("${restaurant.bookings.scheduler.poll-ms:60000}") long pollMillis,
+                            @Value("${restaurant.bookings.scheduler.resync-ms:3600000}") long resyncMillis,
+                            @Value("${restaurant.bookings.scheduler.batch-size:500}") int batchSize) {
+        if (graceMinutes >= durationMinutes) {
+            throw new IllegalArgumentException("Booking grace period must be shorter than the booking duration");
+        }
+        this.bookingRepository = bookingRepository;
+        this.transitions = transitions;
+        this.restaurantMetrics = restaurantMetrics;
+        this.lead = Duration.ofMinutes(leadMinutes);
+        this.grace = Duration.ofMinutes(graceMinutes);
+        this.duration = Duration.ofMinutes(durationMinutes);
+        this.tickMillis = tickMillis;
+        this.pollMillis = pollMillis;
+        this.resyncMillis = resyncMillis;
+        this.batchSize = batchSize;
+        this.wheel = new HashedTimingWheel<>(Duration.ofMillis(tickMillis), wheelSize, System.currentTimeMillis());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // One thread, so ticks start once the rebuild is done and never overlap a sync
+        executor.execute(() -> guarded("rebuild", () -> sync(0L)));
+        executor.scheduleWithFixedDelay(() -> guarded("tick", () -> tick(System.currentTimeMillis())),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(() -> guarded("poll", () -> sync(highestSeenId())),
+                pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(() -> guarded("resync", () -> sync(0L)),
+                resyncMillis, resyncMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Schedule a new or rescheduled booking once the current transaction commits
+     */
+    public void bookingScheduled(Long bookingId, LocalDateTime bookingTime) {
+        afterCommit(() -> {
+            synchronized (this) {
+                cancel(bookingId);
+                schedule(bookingId, bookingTime, firstStep(bookingTime, LocalDateTime.now()));
+                highestSeenId = Math.max(highestSeenId, bookingId);
+            }
+        });
+    }
+
+    /**
+     * Forget a cancelled, completed or deleted booking once the current transaction commits
+     */
+    public void bookingEnded(Long bookingId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                cancel(bookingId);
+            }
+        });
+    }
+
+    synchronized int pendingBookings() {
+        return timers.size();
+    }
+
+    /**
+     * Schedule the reserved bookings above an id that this instance has no timer for, and move those whose time
+     * has changed; 0 reads them all
+     */
+    void sync(Long afterId) {
+        List<Object[]> rows = bookingRepository.findScheduleByStatus(BookingStatus.RESERVED, afterId);
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            for (Object[] row : rows) {
+                Long bookingId = (Long) row[0];
+                LocalDateTime bookingTime = (LocalDateTime) row[1];
+                HashedTimingWheel.Timeout<Timer> existing = timers.get(bookingId);
+                if (existing == null) {
+                    schedule(bookingId, bookingTime, firstStep(bookingTime, now));
+                } else if (!existing.getTask().bookingTime.equals(bookingTime)) {
+                    existing.cancel();
+                    schedule(bookingId, bookingTime, firstStep(bookingTime, now));
+                }
+                highestSeenId = Math.max(highestSeenId, bookingId);
+            }
+        }
+        if (afterId == 0L) {
+            logger.info("Booking scheduler holds {} reserved bookings", pendingBookings());
+        }
+    }
+
+    /**
+     * Turn the wheel up to now and apply what fell due, step by step in lifecycle order
+     */
+    void tick(long nowMillis) {
+        Map<Step, List<Long>> due = new EnumMap<>(Step.class);
+        synchronized (this) {
+            for (Timer timer : wheel.advance(nowMillis)) {
+                timers.remove(timer.bookingId);
+                due.computeIfAbsent(timer.step, step -> new ArrayList<>()).add(timer.bookingId);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), ZoneId.systemDefault());
+        for (Map.Entry<Step, List<Long>> entry : due.entrySet()) {
+            List<Long> bookingIds = entry.getValue();
+            for (int from = 0; from < bookingIds.size(); from += batchSize) {
+                apply(entry.getKey(), bookingIds.subList(from, Math.min(from + batchSize, bookingIds.size())), now);
+            }
+        }
+    }
+
+    // A batch that fails loses its timers; the next resync schedules the bookings again
+    private void apply(Step step, List<Long> bookingIds, LocalDateTime now) {
+        Map<Long, LocalDateTime> dueBookings = new HashMap<>();
+        Set<Long> seated = new HashSet<>();
+        Set<Long> tableIds = new LinkedHashSet<>();
+
+        for (Object[] row : bookingRepository.findLifecycleStates(bookingIds)) {
+            Long bookingId = (Long) row[0];
+            LocalDateTime bookingTime = (LocalDateTime) row[1];
+            if (row[2] != BookingStatus.RESERVED) {
+                continue;
+            }
+            if (deadline(step, bookingTime).isAfter(now)) {
+                // Moved later since the timer was set
+                rescheduleIfIdle(bookingId, bookingTime, step);
+                continue;
+            }
+            dueBookings.put(bookingId, bookingTime);
+            if (row[3] != null) {
+                tableIds.add((Long) row[3]);
+            }
+            if (row[4] == TableStatus.OCCUPIED) {
+                seated.add(bookingId);
+            }
+        }
+        if (dueBookings.isEmpty()) {
+            return;
+        }
+
+        switch (step) {
+            case ACTIVATE -> {
+                restaurantMetrics.bookingTransitions("activated", transitions.reserveTables(tableIds));
+                dueBookings.forEach((bookingId, bookingTime) -> rescheduleIfIdle(bookingId, bookingTime, Step.NO_SHOW));
+            }
+            case NO_SHOW -> {
+                int noShows = transitions.releaseNoShows(dueBookings.keySet(), tableIds, now.minus(grace), now.plus(lead));
+                restaurantMetrics.bookingTransitions("no_show", noShows);
+                for (Long bookingId : seated) {
+                    rescheduleIfIdle(bookingId, dueBookings.get(bookingId), Step.COMPLETE);
+                }
+            }
+            case COMPLETE -> restaurantMetrics.bookingTransitions("completed",
+                    transitions.completeBookings(dueBookings.keySet()));
+        }
+    }
+
+    // A booking changed on this instance while its batch was applied already has a newer timer
+    private synchronized void rescheduleIfIdle(Long bookingId, LocalDateTime bookingTime, Step step) {
+        if (!timers.containsKey(bookingId)) {
+            schedule(bookingId, bookingTime, step);
+        }
+    }
+
+    private void schedule(Long bookingId, LocalDateTime bookingTime, Step step) {
+        long deadline = deadline(step, bookingTime).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        timers.put(bookingId, wheel.schedule(new Timer(bookingId, bookingTime, step), deadline));
+    }
+
+    private void cancel(Long bookingId) {
+        HashedTimingWheel.Timeout<Timer> timeout = timers.remove(bookingId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private synchronized long highestSeenId() {
+        return highestSeenId;
+    }
+
+    // Bookings first seen after their grace period are checked for a no-show straight away
+    private Step firstStep(LocalDateTime bookingTime, LocalDateTime now) {
+        return now.isBefore(deadline(Step.NO_SHOW, bookingTime)) ? Step.ACTIVATE : Step.NO_SHOW;
+    }
+
+    private LocalDateTime deadline(Step step, LocalDateTime bookingTime) {
+        return switch (step) {
+            case ACTIVATE -> bookingTime.minus(lead);
+            case NO_SHOW -> bookingTime.plus(grace);
+            case COMPLETE -> bookingTime.plus(duration);
+        };
+    }
+
+    private void guarded(String task, Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            logger.error("Booking scheduler {} failed", task, e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // The next step due for one booking
+    private static final class Timer {
+        private final Long bookingId;
+        private final LocalDateTime bookingTime;
+        private final Step step;
+
+        private Timer(Long bookingId, LocalDateTime bookingTime, Step step) {
+            this.bookingId = bookingId;
+            this.bookingTime = bookingTime;
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.restaurant.scheduling;
+
+import org.restaurant.cache.CacheInvalidationBus;
+import org.restaurant.cache.CacheNames;
+import org.restaurant.enums.BookingStatus;
+import org.restaurant.enums.TableStatus;
+import org.restaurant.repository.RestaurantTableRepository;
+import org.restaurant.repository.TableBookingRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Set-based booking and table updates for a batch of bookings that fell due together.
+ * Each update re-checks the state it changes, so a batch applied twice, or by two instances, changes nothing
+ * the second time, and a booking changed since it was scheduled is left alone.
+ * Bulk updates bypass the entity listeners, so the table cache is invalidated here.
+ */
+@Component
+@Transactional
+public class BookingTransitions {
+
+    private final TableBookingRepository bookingRepository;
+    private final RestaurantTableRepository tableRepository;
+    private final CacheInvalidationBus invalidationBus;
+
+    public BookingTransitions(TableBookingRepository bookingRepository,
+                              RestaurantTableRepository tableRepository,
+                              CacheInvalidationBus invalidationBus) {
+        this.bookingRepository = bookingRepository;
+        this.tableRepository = tableRepository;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * Hold the booked tables that are still free
+     * @return Tables reserved
+     */
+    public int reserveTables(Collection<Long> tableIds) {
+        if (tableIds.isEmpty()) {
+            return 0;
+        }
+        int reserved = tableRepository.updateStatusForTablesIn(tableIds, TableStatus.AVAILABLE, TableStatus.RESERVED);
+        tablesChanged(tableIds, reserved);
+        return reserved;
+    }
+
+    /**
+     * Mark the bookings whose party has not been seated as no-shows and free their tables, unless another booking
+     * due between activeFrom and activeUntil holds the table
+     * @return Bookings marked as no-shows
+     */
+    public int releaseNoShows(Collection<Long> bookingIds, Collection<Long> tableIds,
+                              LocalDateTime activeFrom, LocalDateTime activeUntil) {
+        int noShows = bookingRepository.markNoShows(bookingIds, BookingStatus.RESERVED, BookingStatus.NO_SHOW,
+                TableStatus.OCCUPIED);
+        if (noShows > 0 && !tableIds.isEmpty()) {
+            int released = tableRepository.releaseReservedTables(tableIds, TableStatus.RESERVED, TableStatus.AVAILABLE,
+                    BookingStatus.RESERVED, activeFrom, activeUntil);
+            tablesChanged(tableIds, released);
+        }
+        return noShows;
+    }
+
+    /**
+     * Complete bookings that are past their duration. Their tables are left as they are, since a party still at
+     * the table is freed when the waiter marks the table available.
+     * @return Bookings completed
+     */
+    public int completeBookings(Collection<Long> bookingIds) {
+        return bookingRepository.updateStatusForBookings(bookingIds, BookingStatus.RESERVED, BookingStatus.COMPLETED);
+    }
+
+    private void tablesChanged(Collection<Long> tableIds, int changed) {
+        if (changed == 0) {
+            return;
+        }
+        for (Long tableId : tableIds) {
+            invalidationBus.invalidate(CacheNames.TABLES, tableId.toString());
+        }
+        invalidationBus.invalidate(CacheNames.TABLES, CacheNames.ALL);
+    }
+}
@@ -0,0 +1,151 @@
+package org.restaurant.scheduling;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timers hashed into a fixed ring of buckets by their deadline tick, as in Varghese and Lauck's scheme 6.
+ * - Scheduling and cancelling are O(1), whatever the number of pending timers or how far ahead they are.
+ * - Each tick only walks one bucket. A timer more than one turn of the wheel away stays in its bucket and is passed
+ *   over until the turn its deadline falls in.
+ * - Timers sharing a tick fire together, so the tick is also the batching window.
+ * Not thread-safe; callers hold their own lock.
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final Bucket<T>[] buckets;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tick       Resolution; timers fire up to one tick late
+     * @param wheelSize  Buckets, rounded up to a power of two
+     * @param startMillis Time the wheel starts turning from
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(Duration tick, int wheelSize, long startMillis) {
+        if (tick.toMillis() < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("Timing wheel needs a tick of at least 1 ms and at least one bucket");
+        }
+        this.tickMillis = tick.toMillis();
+        int buckets = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.buckets = new Bucket[Math.max(buckets, 1)];
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new Bucket<>();
+        }
+        this.mask = this.buckets.length - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Fire the task at the first tick at or after the deadline; a deadline already passed fires on the next advance
+     */
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(this, task, deadlineTick);
+        buckets[(int) (deadlineTick & mask)].add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Turn the wheel up to now and collect the tasks that are due, earliest tick first
+     */
+    public List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> due = new ArrayList<>();
+        if (targetTick <= currentTick) {
+            return due;
+        }
+
+        // After a long pause one full turn visits every bucket; later turns would only find the same timers again
+        long firstTick = Math.max(currentTick + 1, targetTick - mask);
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            Bucket<T> bucket = buckets[(int) (tick & mask)];
+            for (Timeout<T> timeout = bucket.head; timeout != null; ) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadlineTick <= targetTick) {
+                    bucket.remove(timeout);
+                    size--;
+                    due.add(timeout.task);
+                }
+                timeout = next;
+            }
+        }
+        currentTick = targetTick;
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * Handle of a scheduled task
+     */
+    public static final class Timeout<T> {
+        private final HashedTimingWheel<T> wheel;
+        private final T task;
+        private final long deadlineTick;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+        private Bucket<T> bucket;
+
+        private Timeout(HashedTimingWheel<T> wheel, T task, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        /**
+         * Stop the task from firing; false if it already fired or was cancelled
+         */
+        public boolean cancel() {
+            if (bucket == null) {
+                return false;
+            }
+            bucket.remove(this);
+            wheel.size--;
+            return true;
+        }
+    }
+
+    // Doubly linked so a cancelled timer is unlinked in O(1)
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+
+        private void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
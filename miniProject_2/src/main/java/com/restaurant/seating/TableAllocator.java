@@ -0,0 +1,275 @@
+package org.restaurant.seating;
+
+import org.restaurant.cache.CacheInvalidationBus;
+import org.restaurant.cache.CacheNames;
+import org.restaurant.entities.RestaurantTable;
+import org.restaurant.enums.TableStatus;
+import org.restaurant.repository.RestaurantTableRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Picks the free table, or run of adjoining free tables, that seats a party with the fewest empty seats.
+ * - Free tables are kept in buckets by capacity, and free runs of adjoining tables in buckets by their combined
+ *   seats, so the best fit is a ceiling lookup in each: O(log n).
+ * - restaurant.tables.combinable-groups lists rows of tables that can be pushed together, e.g. "1+2+3,7+8". Any two or
+ *   more neighbours in a row form a run, so 1+2, 2+3 and 1+2+3 above. A run is offered only when it wastes fewer
+ *   seats than the best single table.
+ * - The buckets follow the tables cache: every table invalidation, after commit and from any node, marks that table
+ *   for reloading, and a whole-cache clear rebuilds from scratch. Reloads are applied on the next lookup.
+ * - The buckets can still trail a commit by a moment, so the chosen tables are re-read and checked before they are
+ *   returned. Nothing is held: the caller still claims them, and one claim of several may lose to a concurrent one.
+ */
+@Component
+public class TableAllocator {
+    private static final Logger logger = LoggerFactory.getLogger(TableAllocator.class);
+
+    // Lookups that found their choice stale and had to correct the buckets and pick again
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final RestaurantTableRepository tableRepository;
+    private final List<Run> runs = new ArrayList<>();
+    private final Map<Long, List<Run>> runsByTable = new HashMap<>();
+
+    // Guarded by this
+    private final Map<Long, Integer> capacities = new HashMap<>();
+    private final Set<Long> freeTables = new HashSet<>();
+    private final TreeMap<Integer, TreeSet<Long>> freeTablesBySeats = new TreeMap<>();
+    private final TreeMap<Integer, TreeSet<Run>> freeRunsBySeats = new TreeMap<>();
+    private final Set<Long> pendingReloads = new HashSet<>();
+    private boolean rebuildPending = true;
+
+    public TableAllocator(RestaurantTableRepository tableRepository,
+                          CacheInvalidationBus invalidationBus,
+                          @Value("${restaurant.tables.combinable-groups:}") String[] combinableGroups) {
+        this.tableRepository = tableRepository;
+        for (String group : combinableGroups) {
+            addRuns(parseGroup(group));
+        }
+        invalidationBus.addEvictionListener(CacheNames.TABLES, this::tableEvicted);
+    }
+
+    /**
+     * The smallest free table that seats the party, for bookings and anything else tied to one table
+     */
+    public Optional<RestaurantTable> findTable(int partySize) {
+        return find(partySize, false).map(tables -> tables.get(0));
+    }
+
+    /**
+     * The free table, or run of adjoining free tables, that seats the party with the fewest empty seats.
+     * A single table wins a tie. Tables of a run are returned in their configured order.
+     */
+    public Optional<List<RestaurantTable>> findSeating(int partySize) {
+        return find(partySize, true);
+    }
+
+    /**
+     * Reload a table on the next lookup
+     */
+    public synchronized void tableChanged(Long tableId) {
+        pendingReloads.add(tableId);
+    }
+
+    /**
+     * Reload every table on the next lookup
+     */
+    public synchronized void reset() {
+        rebuildPending = true;
+        pendingReloads.clear();
+    }
+
+    private void tableEvicted(String key) {
+        if (CacheNames.ALL.equals(key)) {
+            // Raised alongside the table's own key
+            return;
+        }
+        try {
+            tableChanged(Long.valueOf(key));
+        } catch (NumberFormatException e) {
+            // "*": the whole cache was cleared
+            reset();
+        }
+    }
+
+    private Optional<List<RestaurantTable>> find(int partySize, boolean allowRuns) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            List<Long> tableIds = choose(partySize, allowRuns);
+            if (tableIds == null) {
+                return Optional.empty();
+            }
+
+            List<RestaurantTable> tables = new ArrayList<>(tableRepository.findAllById(tableIds));
+            if (confirm(tableIds, tables)) {
+                tables.sort((a, b) -> Integer.compare(tableIds.indexOf(a.getTableId()), tableIds.indexOf(b.getTableId())));
+                return Optional.of(tables);
+            }
+            logger.debug("Table choice {} for a party of {} was stale, choosing again", tableIds, partySize);
+        }
+        return Optional.empty();
+    }
+
+    private synchronized List<Long> choose(int partySize, boolean allowRuns) {
+        applyPendingChanges();
+
+        Map.Entry<Integer, TreeSet<Long>> table = freeTablesBySeats.ceilingEntry(partySize);
+        Map.Entry<Integer, TreeSet<Run>> run = allowRuns ? freeRunsBySeats.ceilingEntry(partySize) : null;
+        if (run != null && (table == null || run.getKey() < table.getKey())) {
+            return run.getValue().first().tableIds;
+        }
+        return table == null ? null : List.of(table.getValue().first());
+    }
+
+    // Brings the buckets up to date with what was read; true when every table is still there and free
+    private synchronized boolean confirm(List<Long> tableIds, List<RestaurantTable> tables) {
+        Set<Long> missing = new HashSet<>(tableIds);
+        boolean free = true;
+        for (RestaurantTable table : tables) {
+            missing.remove(table.getTableId());
+            put(table);
+            free &= table.getStatus() == TableStatus.AVAILABLE;
+        }
+        for (Long tableId : missing) {
+            remove(tableId);
+        }
+        return free && missing.isEmpty();
+    }
+
+    private void applyPendingChanges() {
+        if (rebuildPending) {
+            List<RestaurantTable> tables = tableRepository.findAll();
+            rebuildPending = false;
+            pendingReloads.clear();
+            for (Long tableId : new ArrayList<>(capacities.keySet())) {
+                remove(tableId);
+            }
+            for (RestaurantTable table : tables) {
+                put(table);
+            }
+            logger.debug("Rebuilt table allocator with {} tables", tables.size());
+        } else if (!pendingReloads.isEmpty()) {
+            List<Long> tableIds = new ArrayList<>(pendingReloads);
+            pendingReloads.clear();
+            confirm(tableIds, tableRepository.findAllById(tableIds));
+        }
+    }
+
+    private void put(RestaurantTable table) {
+        Long tableId = table.getTableId();
+        boolean free = table.getStatus() == TableStatus.AVAILABLE;
+        Integer capacity = table.getCapacity();
+        if (capacity.equals(capacities.get(tableId)) && free == freeTables.contains(tableId)) {
+            return;
+        }
+
+        List<Run> affected = runsByTable.getOrDefault(tableId, List.of());
+        affected.forEach(this::unlistRun);
+        if (freeTables.remove(tableId)) {
+            unlist(freeTablesBySeats, capacities.get(tableId), tableId);
+        }
+        capacities.put(tableId, capacity);
+        if (free) {
+            freeTables.add(tableId);
+            freeTablesBySeats.computeIfAbsent(capacity, seats -> new TreeSet<>()).add(tableId);
+        }
+        affected.forEach(this::listRun);
+    }
+
+    private void remove(Long tableId) {
+        if (!capacities.containsKey(tableId)) {
+            return;
+        }
+        List<Run> affected = runsByTable.getOrDefault(tableId, List.of());
+        affected.forEach(this::unlistRun);
+        if (freeTables.remove(tableId)) {
+            unlist(freeTablesBySeats, capacities.get(tableId), tableId);
+        }
+        capacities.remove(tableId);
+    }
+
+    // A run is listed under its seats while all of its tables are free
+    private void listRun(Run run) {
+        int seats = 0;
+        for (Long tableId : run.tableIds) {
+            if (!freeTables.contains(tableId)) {
+                return;
+            }
+            seats += capacities.get(tableId);
+        }
+        run.listedSeats = seats;
+        freeRunsBySeats.computeIfAbsent(seats, key -> new TreeSet<>()).add(run);
+    }
+
+    private void unlistRun(Run run) {
+        if (run.listedSeats > 0) {
+            unlist(freeRunsBySeats, run.listedSeats, run);
+            run.listedSeats = 0;
+        }
+    }
+
+    private static <T> void unlist(TreeMap<Integer, TreeSet<T>> buckets, Integer seats, T value) {
+        TreeSet<T> bucket = buckets.get(seats);
+        if (bucket != null && bucket.remove(value) && bucket.isEmpty()) {
+            buckets.remove(seats);
+        }
+    }
+
+    private void addRuns(List<Long> row) {
+        for (int length = 2; length <= row.size(); length++) {
+            for (int start = 0; start + length <= row.size(); start++) {
+                // Shorter runs are created first, so within a bucket the run with fewer tables to move sorts first
+                Run run = new Run(runs.size(), List.copyOf(row.subList(start, start + length)));
+                runs.add(run);
+                for (Long tableId : run.tableIds) {
+                    runsByTable.computeIfAbsent(tableId, key -> new ArrayList<>()).add(run);
+                }
+            }
+        }
+    }
+
+    static List<Long> parseGroup(String group) {
+        List<Long> row = new ArrayList<>();
+        for (String tableId : group.split("\\+")) {
+            if (!tableId.isBlank()) {
+                Long id = Long.valueOf(tableId.trim());
+                if (row.contains(id)) {
+                    throw new IllegalArgumentException("Table " + id + " appears twice in combinable group " + group);
+                }
+                row.add(id);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Adjoining tables from one configured row
+     */
+    private static final class Run implements Comparable<Run> {
+        private final int order;
+        private final List<Long> tableIds;
+        // Seats it is listed under in freeRunsBySeats, or 0 while not listed
+        private int listedSeats;
+
+        private Run(int order, List<Long> tableIds) {
+            this.order = order;
+            this.tableIds = tableIds;
+        }
+
+        @Override
+        public int compareTo(Run other) {
+            return Integer.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.restaurant.seating;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rolling seat-to-served times per table, for predicting when an occupied table turns over.
+ * - Each table keeps its last few times in a ring with a running sum, so recording one and reading the mean are O(1).
+ * - A table without history yet falls back to the mean over all tables, and to the configured default before any.
+ * - Also remembers when the party at each occupied table sat down.
+ */
+public class TurnoverStats {
+
+    private final int window;
+    private final Duration defaultTurnover;
+
+    // Guarded by this
+    private final Map<Long, Ring> rings = new HashMap<>();
+    private final Map<Long, LocalDateTime> seatedAt = new HashMap<>();
+    private long totalSeconds;
+    private long totalSamples;
+
+    public TurnoverStats(int window, Duration defaultTurnover) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Turnover window must be at least 1");
+        }
+        this.window = window;
+        this.defaultTurnover = defaultTurnover;
+    }
+
+    /**
+     * Add one party's stay at a table, from its first order to being served
+     */
+    public synchronized void record(Long tableId, LocalDateTime seated, LocalDateTime served) {
+        long seconds = Duration.between(seated, served).getSeconds();
+        if (seconds < 0) {
+            return;
+        }
+        Ring ring = rings.computeIfAbsent(tableId, id -> new Ring(window));
+        if (ring.count == window) {
+            totalSeconds -= ring.seconds[ring.next];
+            totalSamples--;
+        }
+        ring.add(seconds);
+        totalSeconds += seconds;
+        totalSamples++;
+    }
+
+    /**
+     * Mean of the table's recent turnovers
+     */
+    public synchronized Duration expectedTurnover(Long tableId) {
+        Ring ring = rings.get(tableId);
+        if (ring != null && ring.count > 0) {
+            return Duration.ofSeconds(ring.sum / ring.count);
+        }
+        return totalSamples > 0 ? Duration.ofSeconds(totalSeconds / totalSamples) : defaultTurnover;
+    }
+
+    /**
+     * Replace every seating time, e.g. with the earliest open order of each table
+     */
+    public synchronized void replaceSeatedAt(Map<Long, LocalDateTime> openTables) {
+        seatedAt.clear();
+        seatedAt.putAll(openTables);
+    }
+
+    /**
+     * When the table's current party sat down, or null if not known
+     */
+    public synchronized LocalDateTime seatedAt(Long tableId) {
+        return seatedAt.get(tableId);
+    }
+
+    private static final class Ring {
+        private final long[] seconds;
+        private int next;
+        private int count;
+        private long sum;
+
+        private Ring(int window) {
+            this.seconds = new long[window];
+        }
+
+        private void add(long value) {
+            if (count == seconds.length) {
+                sum -= seconds[next];
+            } else {
+                count++;
+            }
+            seconds[next] = value;
+            sum += value;
+            next = (next + 1) % seconds.length;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package org.restaurant.seating;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Walk-in parties waiting for a table, kept in memory.
+ * - Parties are queued by size band, e.g. limits 2,4,6 give bands 1-2, 3-4, 5-6 and 7+. Within a band, priority
+ *   parties go first, then everyone else in arrival order. Joining, leaving and taking the head are O(log n).
+ * - A freed table is offered to the head of the largest band that fits it, so big parties are not starved by small
+ *   ones taking every table. An offered party leaves its queue until it is seated, declines or lets the offer lapse;
+ *   the last two put it back where it was.
+ * - Seating times are estimated per band by handing the band's parties, in order, to the tables that can seat the
+ *   whole band as each is expected to come free, a table coming round again after its usual turnover.
+ */
+public class Waitlist {
+
+    private static final Comparator<Party> QUEUE_ORDER = Comparator
+            .comparing((Party party) -> !party.priority)
+            .thenComparingLong(party -> party.id);
+
+    private final int[] bandLimits;
+    private final List<TreeSet<Party>> bands = new ArrayList<>();
+
+    // Guarded by this
+    private final Map<Long, Party> parties = new HashMap<>();
+    private final Map<Long, Party> offersByTable = new HashMap<>();
+    private long nextId = 1;
+
+    /**
+     * @param bandLimits Largest party size of each band, ascending; a last band takes everyone larger
+     */
+    public Waitlist(int[] bandLimits) {
+        for (int i = 0; i < bandLimits.length; i++) {
+            if (bandLimits[i] < 1 || (i > 0 && bandLimits[i] <= bandLimits[i - 1])) {
+                throw new IllegalArgumentException("Waitlist band limits must be positive and ascending");
+            }
+        }
+        this.bandLimits = bandLimits.clone();
+        for (int i = 0; i <= bandLimits.length; i++) {
+            bands.add(new TreeSet<>(QUEUE_ORDER));
+        }
+    }
+
+    public synchronized Entry join(String customerName, int partySize, boolean priority, LocalDateTime now) {
+        if (partySize < 1) {
+            throw new IllegalArgumentException("Party size must be at least 1");
+        }
+        Party party = new Party(nextId++, customerName, partySize, priority, now, bandOf(partySize));
+        parties.put(party.id, party);
+        bands.get(party.band).add(party);
+        return party.entry(null);
+    }
+
+    /**
+     * Take a party off the list, or null if it is not on it
+     */
+    public synchronized Entry leave(long partyId) {
+        Party party = parties.remove(partyId);
+        if (party == null) {
+            return null;
+        }
+        if (party.offeredTableId != null) {
+            offersByTable.remove(party.offeredTableId);
+        } else {
+            bands.get(party.band).remove(party);
+        }
+        return party.entry(null);
+    }
+
+    /**
+     * Offer a free table to the party it suits best, unless it is already on offer.
+     *
+     * @return The party it was offered to, or null if nobody waiting fits it
+     */
+    public synchronized Entry offer(Long tableId, int capacity, LocalDateTime expiresAt) {
+        if (offersByTable.containsKey(tableId)) {
+            return null;
+        }
+        Party party = bestFit(capacity);
+        if (party == null) {
+            return null;
+        }
+        bands.get(party.band).remove(party);
+        party.offeredTableId = tableId;
+        party.offeredCapacity = capacity;
+        party.offerExpiresAt = expiresAt;
+        offersByTable.put(tableId, party);
+        return party.entry(null);
+    }
+
+    /**
+     * Seat a party at the table it was offered: it leaves the list.
+     *
+     * @return The party, with the table it takes; null if it is not on the list
+     * @throws IllegalStateException if it has no offer
+     */
+    public synchronized Entry accept(long partyId) {
+        Party party = parties.get(partyId);
+        if (party == null) {
+            return null;
+        }
+        if (party.offeredTableId == null) {
+            throw new IllegalStateException("No table has been offered to this party yet");
+        }
+        parties.remove(partyId);
+        offersByTable.remove(party.offeredTableId);
+        return party.entry(null);
+    }
+
+    /**
+     * Put an accepted party back where it was, e.g. when its table was taken before it sat down
+     */
+    public synchronized void requeue(Entry entry) {
+        Party party = new Party(entry.getId(), entry.getCustomerName(), entry.getPartySize(), entry.isPriority(),
+                entry.getJoinedAt(), entry.getBand());
+        parties.put(party.id, party);
+        bands.get(party.band).add(party);
+    }
+
+    /**
+     * The party turns its table down and goes back to its place; the table goes to the next party that fits.
+     *
+     * @return The party the table was offered to next, or null if none
+     * @throws IllegalStateException if it has no offer
+     */
+    public synchronized Entry decline(long partyId, LocalDateTime expiresAt) {
+        Party party = parties.get(partyId);
+        if (party == null || party.offeredTableId == null) {
+            throw new IllegalStateException("No table has been offered to this party");
+        }
+        return release(party, expiresAt);
+    }
+
+    /**
+     * Handle offers that lapsed before now as if they were declined
+     *
+     * @return The parties their tables were offered to next
+     */
+    public synchronized List<Entry> expireOffers(LocalDateTime now, LocalDateTime expiresAt) {
+        List<Entry> next = new ArrayList<>();
+        for (Party party : new ArrayList<>(offersByTable.values())) {
+            if (party.offerExpiresAt.isBefore(now)) {
+                Entry offered = release(party, expiresAt);
+                if (offered != null) {
+                    next.add(offered);
+                }
+            }
+        }
+        return next;
+    }
+
+    public synchronized boolean isEmpty() {
+        return parties.isEmpty();
+    }
+
+    public synchronized boolean isOffered(Long tableId) {
+        return offersByTable.containsKey(tableId);
+    }
+
+    /**
+     * Everyone on the list, by band and then queue position, with estimated seating times. Parties holding an offer
+     * are listed first with the current time.
+     *
+     * @param tables Every table, with when it is expected to be free and its usual turnover
+     */
+    public synchronized List<Entry> estimate(LocalDateTime now, List<TableForecast> tables) {
+        List<Entry> board = new ArrayList<>(parties.size());
+        for (Party party : offersByTable.values()) {
+            board.add(party.entry(now));
+        }
+        board.sort(Comparator.comparing(Entry::getBand).thenComparing(Entry::getId));
+
+        for (int band = 0; band < bands.size(); band++) {
+            TreeSet<Party> queue = bands.get(band);
+            if (queue.isEmpty()) {
+                continue;
+            }
+
+            // A table for the band's largest party; for the open-ended last band, its smallest
+            int seatsNeeded = band < bandLimits.length ? bandLimits[band] : smallestOf(band);
+            PriorityQueue<Slot> slots = new PriorityQueue<>(Comparator.comparing((Slot slot) -> slot.freeAt));
+            for (TableForecast table : tables) {
+                if (table.capacity >= seatsNeeded) {
+                    LocalDateTime freeAt = table.freeAt.isBefore(now) ? now : table.freeAt;
+                    if (offersByTable.containsKey(table.tableId)) {
+                        // Comes round again once the party it is offered to has eaten
+                        freeAt = freeAt.plus(table.turnover);
+                    }
+                    slots.add(new Slot(freeAt, table.turnover));
+                }
+            }
+
+            for (Party party : queue) {
+                Slot slot = slots.poll();
+                if (slot == null) {
+                    // Nothing seats this band
+                    board.add(party.entry(null));
+                    continue;
+                }
+                board.add(party.entry(slot.freeAt));
+                slots.add(new Slot(slot.freeAt.plus(slot.turnover), slot.turnover));
+            }
+        }
+        return board;
+    }
+
+    private Party bestFit(int capacity) {
+        for (int band = Math.min(bandOf(capacity), bands.size() - 1); band >= 0; band--) {
+            for (Party party : bands.get(band)) {
+                // Every party of a band below the table's own fits; only the table's band needs a look past the head
+                if (party.partySize <= capacity) {
+                    return party;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Entry release(Party party, LocalDateTime expiresAt) {
+        Long tableId = party.offeredTableId;
+        int capacity = party.offeredCapacity;
+        offersByTable.remove(tableId);
+        party.offeredTableId = null;
+        party.offerExpiresAt = null;
+
+        // Offer on before re-queuing, so the table does not go straight back to the same party
+        Entry next = offer(tableId, capacity, expiresAt);
+        bands.get(party.band).add(party);
+        return next;
+    }
+
+    /**
+     * The band's party sizes for display, e.g. "3-4" or "7+"
+     */
+    public String bandLabel(int band) {
+        int smallest = smallestOf(band);
+        if (band == bandLimits.length) {
+            return smallest + "+";
+        }
+        return smallest == bandLimits[band] ? String.valueOf(smallest) : smallest + "-" + bandLimits[band];
+    }
+
+    // Smallest party size in a band; one past the largest of the band before it
+    private int smallestOf(int band) {
+        return band == 0 ? 1 : bandLimits[band - 1] + 1;
+    }
+
+    private int bandOf(int partySize) {
+        int band = 0;
+        while (band < bandLimits.length && partySize > bandLimits[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    /**
+     * A table as the estimate sees it
+     */
+    public static final class TableForecast {
+        private final Long tableId;
+        private final int capacity;
+        private final LocalDateTime freeAt;
+        private final Duration turnover;
+
+        public TableForecast(Long tableId, int capacity, LocalDateTime freeAt, Duration turnover) {
+            this.tableId = tableId;
+            this.capacity = capacity;
+            this.freeAt = freeAt;
+            this.turnover = turnover;
+        }
+    }
+
+    private static final class Slot {
+        private final LocalDateTime freeAt;
+        private final Duration turnover;
+
+        private Slot(LocalDateTime freeAt, Duration turnover) {
+            this.freeAt = freeAt;
+            this.turnover = turnover;
+        }
+    }
+
+    private static final class Party {
+        private final long id;
+        private final String customerName;
+        private final int partySize;
+        private final boolean priority;
+        private final LocalDateTime joinedAt;
+        private final int band;
+        private Long offeredTableId;
+        private int offeredCapacity;
+        private LocalDateTime offerExpiresAt;
+
+        private Party(long id, String customerName, int partySize, boolean priority, LocalDateTime joinedAt, int band) {
+            this.id = id;
+            this.customerName = customerName;
+            this.partySize = partySize;
+            this.priority = priority;
+            this.joinedAt = joinedAt;
+            this.band = band;
+        }
+
+        private Entry entry(LocalDateTime estimatedSeatingAt) {
+            return new Entry(id, customerName, partySize, priority, joinedAt, band, offeredTableId, offerExpiresAt,
+                    estimatedSeatingAt);
+        }
+    }
+
+    /**
+     * A party as it stood when it was read
+     */
+    public static final class Entry {
+        private final long id;
+        private final String customerName;
+        private final int partySize;
+        private final boolean priority;
+        private final LocalDateTime joinedAt;
+        private final int band;
+        private final Long offeredTableId;
+        private final LocalDateTime offerExpiresAt;
+        private final LocalDateTime estimatedSeatingAt;
+
+        private Entry(long id, String customerName, int partySize, boolean priority, LocalDateTime joinedAt, int band,
+                      Long offeredTableId, LocalDateTime offerExpiresAt, LocalDateTime estimatedSeatingAt) {
+            this.id = id;
+            this.customerName = customerName;
+            this.partySize = partySize;
+            this.priority = priority;
+            this.joinedAt = joinedAt;
+            this.band = band;
+            this.offeredTableId = offeredTableId;
+            this.offerExpiresAt = offerExpiresAt;
+            this.estimatedSeatingAt = estimatedSeatingAt;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getCustomerName() {
+            return customerName;
+        }
+
+        public int getPartySize() {
+            return partySize;
+        }
+
+        public boolean isPriority() {
+            return priority;
+        }
+
+        public LocalDateTime getJoinedAt() {
+            return joinedAt;
+        }
+
+        public int getBand() {
+            return band;
+        }
+
+        public Long getOfferedTableId() {
+            return offeredTableId;
+        }
+
+        public LocalDateTime getOfferExpiresAt() {
+            return offerExpiresAt;
+        }
+
+        /**
+         * Null when no table seats the party's band
+         */
+        public LocalDateTime getEstimatedSeatingAt() {
+            return estimatedSeatingAt;
+        }
+    }
+}
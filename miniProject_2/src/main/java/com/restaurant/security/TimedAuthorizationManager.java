@@ -0,0 +1,30 @@
+package org.restaurant.security;
+
+import org.restaurant.monitoring.ServerTimings;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * Delegating authorization manager that adds its decision time to the request's Server-Timing
+ */
+public class TimedAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    private final AuthorizationManager<T> delegate;
+
+    public TimedAuthorizationManager(AuthorizationManager<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+        long start = System.nanoTime();
+        try {
+            return delegate.check(authentication, object);
+        } finally {
+            ServerTimings.record(ServerTimings.Phase.AUTHZ, start);
+        }
+    }
+}
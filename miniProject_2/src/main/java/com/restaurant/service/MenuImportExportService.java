@@ -0,0 +1,73 @@
+package org.restaurant.service;
+
+import org.restaurant.dto.response.MenuImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Iterator;
+
+/**
+ * Service interface for bulk menu import and export
+ */
+public interface MenuImportExportService {
+
+    /**
+     * Supported file formats
+     */
+    enum Format {
+        CSV,
+        JSON
+    }
+
+    /**
+     * Import menu items from a CSV or JSON stream without loading the whole file into memory
+     * @param input Uploaded file contents
+     * @param format File format
+     * @param upsert Update price and category of items that already exist instead of skipping them
+     * @return Import summary
+     */
+    MenuImportResponse importMenuItems(InputStream input, Format format, boolean upsert) throws IOException;
+
+    /**
+     * Import menu items from already parsed rows
+     * @param rows Rows to import
+     * @param upsert Update price and category of items that already exist instead of skipping them
+     * @return Import summary
+     */
+    MenuImportResponse importMenuItems(Iterator<MenuItemRow> rows, boolean upsert);
+
+    /**
+     * Stream the whole menu out as CSV or JSON
+     * @param output Destination stream
+     * @param format File format
+     */
+    void exportMenuItems(OutputStream output, Format format) throws IOException;
+
+    /**
+     * A single menu item in an import or export file
+     */
+    class MenuItemRow {
+        private final String name;
+        private final String category;
+        private final BigDecimal price;
+        private final String source;
+
+        public MenuItemRow(String name, String category, BigDecimal price, String source) {
+            this.name = name;
+            this.category = category;
+            this.price = price;
+            this.source = source;
+        }
+
+        public MenuItemRow(String name, String category, BigDecimal price) {
+            this(name, category, price, name);
+        }
+
+        public String getName() { return name; }
+        public String getCategory() { return category; }
+        public BigDecimal getPrice() { return price; }
+        public String getSource() { return source; }
+    }
+}
@@ -2,6 +2,8 @@ package org.restaurant.service;
 
 import org.restaurant.dto.request.CreateOrderRequest;
 import org.restaurant.dto.request.UpdateOrderStatusRequest;
+import org.restaurant.dto.response.BillResponse;
+import org.restaurant.dto.response.BulkOrderStatusResponse;
 import org.restaurant.dto.response.OrderResponse;
 import org.restaurant.enums.OrderStatus;
 
@@ -33,6 +35,13 @@ public interface OrderService {
      */
     OrderResponse getOrderById(Long orderId);
 
+    /**
+     * Get the itemised bill for an order
+     * @param orderId Order ID
+     * @return Bill response with amounts in paise
+     */
+    BillResponse getBill(Long orderId);
+
     /**
      * Update order status
      * @param orderId Order ID
@@ -95,6 +104,20 @@ public interface OrderService {
      */
     OrderResponse markAsServed(Long orderId);
 
+    /**
+     * Move several placed orders to kitchen at once
+     * @param orderIds Order IDs
+     * @return Per-order outcome of the transition
+     */
+    BulkOrderStatusResponse bulkMoveToKitchen(List<Long> orderIds);
+
+    /**
+     * Mark several kitchen orders as served at once
+     * @param orderIds Order IDs
+     * @return Per-order outcome of the transition
+     */
+    BulkOrderStatusResponse bulkMarkAsServed(List<Long> orderIds);
+
     /**
      * Cancel order
      * @param orderId Order ID
@@ -126,6 +126,13 @@ public interface RestaurantTableService {
      */
     RestaurantTable findBestAvailableTable(Integer requiredCapacity);
 
+    /**
+     * Find the table, or adjoining tables to push together, for a party
+     * @param partySize Number of guests
+     * @return One table, or several in their configured order
+     */
+    List<RestaurantTable> findBestSeating(Integer partySize);
+
     /**
      * Get table statistics
      * @return Table statistics
@@ -0,0 +1,45 @@
+package org.restaurant.service;
+
+import org.restaurant.dto.request.JoinWaitlistRequest;
+import org.restaurant.dto.response.WaitlistEntryResponse;
+import org.restaurant.entities.RestaurantTable;
+
+import java.util.List;
+
+/**
+ * Service interface for the walk-in waitlist
+ */
+public interface WaitlistService {
+
+    /**
+     * Add a walk-in party to the waitlist
+     * @param request Party details
+     * @return The party's entry, with its estimated seating time
+     */
+    WaitlistEntryResponse joinWaitlist(JoinWaitlistRequest request);
+
+    /**
+     * Get everyone waiting, by size band and queue position, with estimated seating times
+     * @return List of waitlist entries
+     */
+    List<WaitlistEntryResponse> getWaitlist();
+
+    /**
+     * Take a party off the waitlist
+     * @param partyId Waitlist entry ID
+     */
+    void leaveWaitlist(Long partyId);
+
+    /**
+     * Seat a party at the table it was offered
+     * @param partyId Waitlist entry ID
+     * @return The table, now occupied
+     */
+    RestaurantTable seatParty(Long partyId);
+
+    /**
+     * Turn down the table a party was offered; it keeps its place and the table goes to the next party
+     * @param partyId Waitlist entry ID
+     */
+    void declineOffer(Long partyId);
+}
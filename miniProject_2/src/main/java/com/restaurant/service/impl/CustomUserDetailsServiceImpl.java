@@ -1,5 +1,6 @@
 package org.restaurant.service.impl;
 
+import org.restaurant.cache.CacheNames;
 import org.restaurant.entities.User;
 import org.restaurant.enums.UserRole;
 import org.restaurant.service.CustomUserDetailsService;
@@ -8,6 +9,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.restaurant.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 
 @Service
 public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
@@ -16,6 +18,7 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
     private UserRepository userRepository;
 
     @Override
+    @Cacheable(cacheNames = CacheNames.USER_PRINCIPALS, key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
@@ -0,0 +1,405 @@
+package org.restaurant.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.restaurant.cache.CacheInvalidationBus;
+import org.restaurant.cache.CacheNames;
+import org.restaurant.dto.response.MenuImportResponse;
+import org.restaurant.exceptions.InvalidRequestException;
+import org.restaurant.service.MenuImportExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+@Transactional
+public class MenuImportExportServiceImpl implements MenuImportExportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private static final String EXISTING_NAMES_SQL = "SELECT name FROM menuitems WHERE name IN (:names)";
+    private static final String INSERT_SQL = "INSERT INTO menuitems (name, category, price, created_at) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE menuitems SET category = ?, price = ? WHERE name = ?";
+    private static final String EXPORT_SQL = "SELECT item_id, name, category, price FROM menuitems ORDER BY category, name";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    /**
+     * Import menu items from a CSV or JSON stream
+     */
+    public MenuImportResponse importMenuItems(InputStream input, Format format, boolean upsert) throws IOException {
+        try {
+            if (format == Format.CSV) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+                return importMenuItems(new CsvRowIterator(reader), upsert);
+            }
+            try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+                return importMenuItems(new JsonRowIterator(parser), upsert);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Import menu items in batches, checking duplicates once per batch
+     */
+    public MenuImportResponse importMenuItems(Iterator<MenuItemRow> rows, boolean upsert) {
+        MenuImportResponse response = new MenuImportResponse();
+        Map<String, MenuItemRow> batch = new LinkedHashMap<>();
+
+        while (rows.hasNext()) {
+            MenuItemRow row = rows.next();
+            response.recordReceived();
+
+            String error = validateRow(row);
+            if (error != null) {
+                response.recordRejected(row.getSource() + ": " + error);
+                continue;
+            }
+
+            // Repeated names within a file: first one wins, unless upserting where the last one wins
+            MenuItemRow previous = upsert ? batch.put(row.getName(), row) : batch.putIfAbsent(row.getName(), row);
+            if (previous != null) {
+                response.recordSkipped();
+            }
+
+            if (batch.size() == BATCH_SIZE) {
+                writeBatch(batch, upsert, response);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(batch, upsert, response);
+        }
+        return response;
+    }
+
+    /**
+     * Stream the whole menu out as CSV or JSON
+     */
+    @Transactional(readOnly = true)
+    public void exportMenuItems(OutputStream output, Format format) throws IOException {
+        try {
+            if (format == Format.CSV) {
+                exportCsv(output);
+            } else {
+                exportJson(output);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Helper methods
+
+    private void writeBatch(Map<String, MenuItemRow> batch, boolean upsert, MenuImportResponse response) {
+        // One set-based duplicate check for the whole batch
+        Set<String> existingNames = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                EXISTING_NAMES_SQL, Map.of("names", batch.keySet()), String.class));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (MenuItemRow row : batch.values()) {
+            if (!existingNames.contains(row.getName())) {
+                inserts.add(new Object[]{row.getName(), row.getCategory(), row.getPrice(), now});
+            } else if (upsert) {
+                updates.add(new Object[]{row.getCategory(), row.getPrice(), row.getName()});
+            } else {
+                response.recordSkipped();
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            response.recordInserted(inserts.size());
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            response.recordUpdated(updates.size());
+        }
+
+        // Batch statements skip the entity listeners, so raise the menu invalidations here; they go out on commit
+        if (!inserts.isEmpty() || !updates.isEmpty()) {
+            invalidationBus.invalidateAll(CacheNames.MENU_ITEMS);
+            invalidationBus.invalidateAll(CacheNames.MENU);
+        }
+    }
+
+    private String validateRow(MenuItemRow row) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "Menu item name is required";
+        }
+        if (row.getName().length() > 100) {
+            return "Menu item name must not exceed 100 characters";
+        }
+        if (row.getCategory() == null || row.getCategory().isBlank()) {
+            return "Category is required";
+        }
+        if (row.getCategory().length() > 50) {
+            return "Category must not exceed 50 characters";
+        }
+        if (row.getPrice() == null || row.getPrice().signum() <= 0 || row.getPrice().compareTo(MAX_PRICE) > 0) {
+            return "Price must be a number greater than 0";
+        }
+        return null;
+    }
+
+    private void exportCsv(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("itemId,name,category,price\n");
+        streamMenuItems(rs -> {
+            try {
+                writer.write(rs.getLong("item_id") + "," + csvField(rs.getString("name")) + ","
+                        + csvField(rs.getString("category")) + "," + rs.getBigDecimal("price").toPlainString() + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void exportJson(OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        streamMenuItems(rs -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("itemId", rs.getLong("item_id"));
+                generator.writeStringField("name", rs.getString("name"));
+                generator.writeStringField("category", rs.getString("category"));
+                generator.writeNumberField("price", rs.getBigDecimal("price"));
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    private void streamMenuItems(RowCallbackHandler handler) {
+        // A fetch size makes the driver page through a cursor instead of buffering the whole menu
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL);
+            statement.setFetchSize(BATCH_SIZE);
+            return statement;
+        }, handler);
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static List<String> parseCsvLine(String line, int lineNumber) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidRequestException("Unterminated quoted field on line " + lineNumber);
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static BigDecimal parsePrice(String value) {
+        try {
+            return value == null || value.isBlank() ? null : new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isNameField(String field) {
+        return "name".equalsIgnoreCase(field) || "menuItemName".equalsIgnoreCase(field);
+    }
+
+    /**
+     * Reads one CSV line per row; columns are located by the header so extra columns are ignored
+     */
+    private static class CsvRowIterator implements Iterator<MenuItemRow> {
+        private final BufferedReader reader;
+        private int nameColumn = -1;
+        private int categoryColumn = -1;
+        private int priceColumn = -1;
+        private int lineNumber;
+        private String nextLine;
+
+        CsvRowIterator(BufferedReader reader) {
+            this.reader = reader;
+            String header = readLine();
+            if (header == null) {
+                throw new InvalidRequestException("CSV file is empty");
+            }
+            List<String> columns = parseCsvLine(header.replace("\uFEFF", ""), lineNumber);
+            for (int i = 0; i < columns.size(); i++) {
+                if (isNameField(columns.get(i))) {
+                    nameColumn = i;
+                } else if ("category".equalsIgnoreCase(columns.get(i))) {
+                    categoryColumn = i;
+                } else if ("price".equalsIgnoreCase(columns.get(i))) {
+                    priceColumn = i;
+                }
+            }
+            if (nameColumn < 0 || categoryColumn < 0 || priceColumn < 0) {
+                throw new InvalidRequestException("CSV header must contain name, category and price columns");
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLine != null;
+        }
+
+        @Override
+        public MenuItemRow next() {
+            if (nextLine == null) {
+                throw new NoSuchElementException();
+            }
+            List<String> fields = parseCsvLine(nextLine, lineNumber);
+            String source = "Line " + lineNumber;
+            advance();
+            return new MenuItemRow(field(fields, nameColumn), field(fields, categoryColumn),
+                    parsePrice(field(fields, priceColumn)), source);
+        }
+
+        private void advance() {
+            do {
+                nextLine = readLine();
+            } while (nextLine != null && nextLine.isBlank());
+        }
+
+        private String readLine() {
+            try {
+                lineNumber++;
+                return reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    /**
+     * Reads one object of a top-level JSON array per row using the streaming parser
+     */
+    private static class JsonRowIterator implements Iterator<MenuItemRow> {
+        private final JsonParser parser;
+        private int itemNumber;
+        private JsonToken nextToken;
+
+        JsonRowIterator(JsonParser parser) {
+            this.parser = parser;
+            if (nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidRequestException("JSON import must be an array of menu items");
+            }
+            nextToken = nextToken();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextToken == JsonToken.START_OBJECT;
+        }
+
+        @Override
+        public MenuItemRow next() {
+            if (nextToken != JsonToken.START_OBJECT) {
+                throw new NoSuchElementException();
+            }
+            itemNumber++;
+            String name = null;
+            String category = null;
+            BigDecimal price = null;
+            try {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (isNameField(field)) {
+                        name = readText();
+                    } else if ("category".equalsIgnoreCase(field)) {
+                        category = readText();
+                    } else if ("price".equalsIgnoreCase(field)) {
+                        price = value.isNumeric() ? parser.getDecimalValue() : parsePrice(readText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } catch (IOException e) {
+                throw new InvalidRequestException("Malformed JSON in item " + itemNumber, e);
+            }
+            nextToken = nextToken();
+            if (nextToken != JsonToken.START_OBJECT && nextToken != JsonToken.END_ARRAY) {
+                throw new InvalidRequestException("Expected a menu item object after item " + itemNumber);
+            }
+            return new MenuItemRow(name, category, price, "Item " + itemNumber);
+        }
+
+        private String readText() throws IOException {
+            String text = parser.getValueAsString();
+            parser.skipChildren();
+            return text == null ? null : text.trim();
+        }
+
+        private JsonToken nextToken() {
+            try {
+                return parser.nextToken();
+            } catch (IOException e) {
+                throw new InvalidRequestException("Malformed JSON after item " + itemNumber, e);
+            }
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package org.restaurant.service.impl;
 
+import org.restaurant.cache.CacheNames;
 import org.restaurant.entities.MenuItem;
 import org.restaurant.exceptions.ResourceNotFoundException;
 import org.restaurant.exceptions.ResourceAlreadyExistsException;
 import org.restaurant.repository.MenuItemRepository;
 import org.restaurant.service.MenuItemService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -40,6 +42,7 @@ public class MenuItemServiceImpl implements MenuItemService {
      * Get all menu items
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.MENU, key = "'" + CacheNames.ALL + "'")
     public List<MenuItem> getAllMenuItems() {
         return menuItemRepository.findAll();
     }
@@ -48,6 +51,7 @@ public class MenuItemServiceImpl implements MenuItemService {
      * Get menu item by ID
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.MENU_ITEMS, key = "#itemId.toString()")
     public MenuItem getMenuItemById(Long itemId) {
         return menuItemRepository.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with ID: " + itemId));
@@ -65,6 +69,7 @@ public class MenuItemServiceImpl implements MenuItemService {
      * Get all categories
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.MENU, key = "'" + CacheNames.CATEGORIES + "'")
     public List<String> getAllCategories() {
         return menuItemRepository.findAllCategories();
     }
@@ -1,13 +1,20 @@
 package org.restaurant.service.impl;
 
+import org.restaurant.cache.CacheInvalidationBus;
+import org.restaurant.cache.CacheNames;
+import org.restaurant.concurrency.RetryOnConflict;
 import org.restaurant.dto.request.CreateOrderRequest;
 import org.restaurant.dto.request.UpdateOrderStatusRequest;
+import org.restaurant.dto.response.BillResponse;
+import org.restaurant.dto.response.BulkOrderStatusResponse;
 import org.restaurant.dto.response.OrderResponse;
 import org.restaurant.entities.*;
 import org.restaurant.enums.OrderStatus;
 import org.restaurant.enums.TableStatus;
 import org.restaurant.exceptions.ResourceNotFoundException;
 import org.restaurant.exceptions.BusinessLogicException;
+import org.restaurant.monitoring.RestaurantMetrics;
+import org.restaurant.repository.OrderItemRepository;
 import org.restaurant.repository.OrderRepository;
 import org.restaurant.repository.MenuItemRepository;
 import org.restaurant.repository.RestaurantTableRepository;
@@ -19,7 +26,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,13 +45,23 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private RestaurantMetrics restaurantMetrics;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
     /**
      * Create a new order
      */
     public OrderResponse createOrder(CreateOrderRequest request) {
         // Validate table number exists and is available
         RestaurantTable table = tableRepository.findByTableNumber(Long.valueOf(request.getTableNumber()))
-                .orElseThrow(() -> new ResourceNotFoundException("Table not found: " + request.getTableNumber()));
+                .orElseThrow(() -> rejectOrder("table_not_found",
+                        new ResourceNotFoundException("Table not found: " + request.getTableNumber())));
 
         // Get current user (waiter)
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -63,12 +80,14 @@ public class OrderServiceImpl implements OrderService {
         // Add order items
         for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
             MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Menu item not found: " + itemRequest.getMenuItemId()));
+                    .orElseThrow(() -> rejectOrder("menu_item_not_found",
+                            new ResourceNotFoundException("Menu item not found: " + itemRequest.getMenuItemId())));
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(savedOrder);
             orderItem.setMenuItem(menuItem);
             orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.captureMenuItemSnapshot();
 
             savedOrder.addOrderItem(orderItem);
         }
@@ -106,15 +125,39 @@ public class OrderServiceImpl implements OrderService {
         return convertToOrderResponse(order);
     }
 
+    /**
+     * Get the itemised bill for an order
+     */
+    @Transactional(readOnly = true)
+    public BillResponse getBill(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
+
+        List<BillResponse.BillLine> lines = order.getOrderItems().stream()
+                .map(item -> new BillResponse.BillLine(item.getItemName(), item.getQuantity(),
+                        item.getUnitPrice(), item.getLineTotal()))
+                .collect(Collectors.toList());
+
+        return new BillResponse(order.getOrderId(), order.getTableNumber(), order.getStatus(),
+                order.getCreatedAt(), lines, order.getSubtotal());
+    }
+
     /**
      * Update order status
      */
+    @RetryOnConflict
     public OrderResponse updateOrderStatus(Long orderId, UpdateOrderStatusRequest request) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
+        // Already there, e.g. another waiter made the same move first: nothing to change
+        OrderStatus previousStatus = order.getStatus();
+        if (previousStatus == request.getStatus()) {
+            return convertToOrderResponse(order);
+        }
+
         // Validate status transition
-        validateStatusTransition(order.getStatus(), request.getStatus());
+        validateStatusTransition(previousStatus, request.getStatus());
 
         order.setStatus(request.getStatus());
 
@@ -127,6 +170,9 @@ public class OrderServiceImpl implements OrderService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        if (previousStatus != updatedOrder.getStatus()) {
+            recordStageTimings(updatedOrder);
+        }
         return convertToOrderResponse(updatedOrder);
     }
 
@@ -194,11 +240,12 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
         if (order.getStatus() != OrderStatus.PLACED) {
-            throw new BusinessLogicException("Only placed orders can be moved to kitchen");
+            throw rejectOrder("invalid_transition", new BusinessLogicException("Only placed orders can be moved to kitchen"));
         }
 
         order.setStatus(OrderStatus.IN_KITCHEN);
         Order updatedOrder = orderRepository.save(order);
+        recordStageTimings(updatedOrder);
         return convertToOrderResponse(updatedOrder);
     }
 
@@ -210,7 +257,7 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
         if (order.getStatus() != OrderStatus.IN_KITCHEN) {
-            throw new BusinessLogicException("Only kitchen orders can be marked as served");
+            throw rejectOrder("invalid_transition", new BusinessLogicException("Only kitchen orders can be marked as served"));
         }
 
         order.setStatus(OrderStatus.SERVED);
@@ -222,9 +269,26 @@ public class OrderServiceImpl implements OrderService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        recordStageTimings(updatedOrder);
         return convertToOrderResponse(updatedOrder);
     }
 
+    /**
+     * Move several placed orders to kitchen
+     */
+    public BulkOrderStatusResponse bulkMoveToKitchen(List<Long> orderIds) {
+        return bulkTransition(orderIds, OrderStatus.PLACED, OrderStatus.IN_KITCHEN,
+                "Only placed orders can be moved to kitchen");
+    }
+
+    /**
+     * Mark several kitchen orders as served and free their tables
+     */
+    public BulkOrderStatusResponse bulkMarkAsServed(List<Long> orderIds) {
+        return bulkTransition(orderIds, OrderStatus.IN_KITCHEN, OrderStatus.SERVED,
+                "Only kitchen orders can be marked as served");
+    }
+
     /**
      * Cancel order
      */
@@ -233,7 +297,7 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
         if (order.getStatus() == OrderStatus.SERVED) {
-            throw new BusinessLogicException("Cannot cancel served orders");
+            throw rejectOrder("invalid_transition", new BusinessLogicException("Cannot cancel served orders"));
         }
 
         // Free up the table if no other active orders
@@ -268,16 +332,140 @@ public class OrderServiceImpl implements OrderService {
         switch (currentStatus) {
             case PLACED:
                 if (newStatus != OrderStatus.IN_KITCHEN && newStatus != OrderStatus.PLACED) {
-                    throw new BusinessLogicException("Placed orders can only be moved to kitchen");
+                    throw rejectOrder("invalid_transition", new BusinessLogicException("Placed orders can only be moved to kitchen"));
                 }
                 break;
             case IN_KITCHEN:
                 if (newStatus != OrderStatus.SERVED && newStatus != OrderStatus.IN_KITCHEN) {
-                    throw new BusinessLogicException("Kitchen orders can only be marked as served");
+                    throw rejectOrder("invalid_transition", new BusinessLogicException("Kitchen orders can only be marked as served"));
                 }
                 break;
             case SERVED:
-                throw new BusinessLogicException("Served orders cannot be modified");
+                throw rejectOrder("invalid_transition", new BusinessLogicException("Served orders cannot be modified"));
+        }
+    }
+
+    private BulkOrderStatusResponse bulkTransition(List<Long> orderIds, OrderStatus fromStatus,
+                                                   OrderStatus toStatus, String rejectionMessage) {
+        Set<Long> requestedIds = new LinkedHashSet<>(orderIds);
+
+        // Validate every requested transition with a single read
+        Map<Long, Object[]> currentState = new HashMap<>();
+        for (Object[] row : orderRepository.findTransitionStateByOrderIds(requestedIds)) {
+            currentState.put((Long) row[0], row);
+        }
+
+        List<Long> eligibleIds = new ArrayList<>();
+        for (Long orderId : requestedIds) {
+            Object[] row = currentState.get(orderId);
+            if (row != null && row[1] == fromStatus) {
+                eligibleIds.add(orderId);
+            }
+        }
+
+        // Lock the orders that are still eligible, so the update below changes exactly those;
+        // any that another terminal moved since the read above are left out
+        LocalDateTime changedAt = LocalDateTime.now();
+        Set<Long> updatedIds = new HashSet<>();
+        if (!eligibleIds.isEmpty()) {
+            List<Long> lockedIds = orderRepository.lockOrderIdsByStatus(eligibleIds, fromStatus);
+            if (!lockedIds.isEmpty()) {
+                if (toStatus == OrderStatus.IN_KITCHEN) {
+                    orderRepository.moveOrdersToKitchen(lockedIds, changedAt);
+                } else {
+                    orderRepository.markOrdersServed(lockedIds, changedAt);
+                }
+                updatedIds.addAll(lockedIds);
+            }
+        }
+
+        // Free the tables of served orders in one statement
+        if (toStatus == OrderStatus.SERVED && !updatedIds.isEmpty()) {
+            Set<Long> tableIds = updatedIds.stream()
+                    .map(orderId -> (Long) currentState.get(orderId)[2])
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            if (!tableIds.isEmpty()) {
+                tableRepository.updateStatusForTables(tableIds, TableStatus.AVAILABLE);
+                // A bulk update skips the entity listeners, so raise the table invalidations here
+                for (Long tableId : tableIds) {
+                    invalidationBus.invalidate(CacheNames.TABLES, String.valueOf(tableId));
+                }
+                invalidationBus.invalidate(CacheNames.TABLES, CacheNames.ALL);
+            }
+        }
+
+        recordBulkStageTimings(updatedIds, currentState, changedAt);
+
+        List<BulkOrderStatusResponse.OrderOutcome> results = new ArrayList<>();
+        for (Long orderId : requestedIds) {
+            if (!currentState.containsKey(orderId)) {
+                restaurantMetrics.orderRejected("order_not_found");
+                results.add(new BulkOrderStatusResponse.OrderOutcome(orderId, false, "Order not found with ID: " + orderId));
+            } else if (!eligibleIds.contains(orderId)) {
+                restaurantMetrics.orderRejected("invalid_transition");
+                results.add(new BulkOrderStatusResponse.OrderOutcome(orderId, false, rejectionMessage));
+            } else if (!updatedIds.contains(orderId)) {
+                restaurantMetrics.orderRejected("concurrent_update");
+                results.add(new BulkOrderStatusResponse.OrderOutcome(orderId, false, "Order status was changed concurrently"));
+            } else {
+                results.add(new BulkOrderStatusResponse.OrderOutcome(orderId, true, "Order moved to " + toStatus));
+            }
+        }
+
+        return new BulkOrderStatusResponse(toStatus, results);
+    }
+
+    private <T extends RuntimeException> T rejectOrder(String reason, T exception) {
+        restaurantMetrics.orderRejected(reason);
+        return exception;
+    }
+
+    private void recordStageTimings(Order order) {
+        Long waiterId = order.getWaiter() != null ? order.getWaiter().getUserId() : null;
+        Set<String> categories = order.getOrderItems().stream()
+                .map(OrderItem::getCategory)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (order.getStatus() == OrderStatus.IN_KITCHEN) {
+            restaurantMetrics.recordStage(RestaurantMetrics.STAGE_PLACED_TO_KITCHEN,
+                    order.getCreatedAt(), order.getKitchenAt(), waiterId, categories);
+        } else if (order.getStatus() == OrderStatus.SERVED) {
+            restaurantMetrics.recordStage(RestaurantMetrics.STAGE_KITCHEN_TO_SERVED,
+                    order.getKitchenAt(), order.getServedAt(), waiterId, categories);
+            restaurantMetrics.recordStage(RestaurantMetrics.STAGE_PLACED_TO_SERVED,
+                    order.getCreatedAt(), order.getServedAt(), waiterId, categories);
+        }
+    }
+
+    // Rows come from findTransitionStateByOrderIds: [orderId, status, tableId, createdAt, kitchenAt, waiterId]
+    private void recordBulkStageTimings(Set<Long> updatedIds, Map<Long, Object[]> currentState, LocalDateTime changedAt) {
+        if (updatedIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Set<String>> categoriesByOrder = new HashMap<>();
+        for (Object[] row : orderItemRepository.findCategoriesByOrderIds(updatedIds)) {
+            categoriesByOrder.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+
+        for (Long orderId : updatedIds) {
+            Object[] row = currentState.get(orderId);
+            LocalDateTime createdAt = (LocalDateTime) row[3];
+            LocalDateTime kitchenAt = (LocalDateTime) row[4];
+            Long waiterId = (Long) row[5];
+            Set<String> categories = categoriesByOrder.getOrDefault(orderId, Collections.emptySet());
+
+            if (row[1] == OrderStatus.PLACED) {
+                restaurantMetrics.recordStage(RestaurantMetrics.STAGE_PLACED_TO_KITCHEN,
+                        createdAt, changedAt, waiterId, categories);
+            } else {
+                restaurantMetrics.recordStage(RestaurantMetrics.STAGE_KITCHEN_TO_SERVED,
+                        kitchenAt, changedAt, waiterId, categories);
+                restaurantMetrics.recordStage(RestaurantMetrics.STAGE_PLACED_TO_SERVED,
+                        createdAt, changedAt, waiterId, categories);
+            }
         }
     }
 
@@ -288,6 +476,7 @@ public class OrderServiceImpl implements OrderService {
         response.setStatus(order.getStatus());
         response.setCreatedAt(order.getCreatedAt());
         response.setItems(order.getItems());
+        response.setSubtotal(order.getSubtotal());
 
         if (order.getWaiter() != null) {
             response.setWaiterName(order.getWaiter().getFullName());
@@ -1,12 +1,16 @@
 package org.restaurant.service.impl;
 
+import org.restaurant.cache.CacheNames;
+import org.restaurant.concurrency.RetryOnConflict;
 import org.restaurant.entities.RestaurantTable;
 import org.restaurant.enums.TableStatus;
 import org.restaurant.exceptions.ResourceNotFoundException;
 import org.restaurant.exceptions.BusinessLogicException;
 import org.restaurant.repository.RestaurantTableRepository;
+import org.restaurant.seating.TableAllocator;
 import org.restaurant.service.RestaurantTableService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +23,9 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
     @Autowired
     private RestaurantTableRepository tableRepository;
 
+    @Autowired
+    private TableAllocator tableAllocator;
+
     /**
      * Create a new table
      */
@@ -38,6 +45,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
      * Get all tables
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.TABLES, key = "'" + CacheNames.ALL + "'")
     public List<RestaurantTable> getAllTables() {
         return tableRepository.findAll();
     }
@@ -46,6 +54,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
      * Get table by ID
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.TABLES, key = "#tableId.toString()")
     public RestaurantTable getTableById(Long tableId) {
         return tableRepository.findById(tableId)
                 .orElseThrow(() -> new ResourceNotFoundException("Table not found with ID: " + tableId));
@@ -104,10 +113,19 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
      */
     @Transactional(readOnly = true)
     public RestaurantTable findBestAvailableTable(Integer requiredCapacity) {
-        return tableRepository.findSmallestAvailableTable(requiredCapacity)
+        return tableAllocator.findTable(requiredCapacity)
                 .orElseThrow(() -> new ResourceNotFoundException("No available table found for capacity: " + requiredCapacity));
     }
 
+    /**
+     * Find the table, or adjoining tables to push together, that seat a party with the fewest empty seats
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantTable> findBestSeating(Integer partySize) {
+        return tableAllocator.findSeating(partySize)
+                .orElseThrow(() -> new ResourceNotFoundException("No available seating found for party of: " + partySize));
+    }
+
     /**
      * Update table capacity
      */
@@ -136,6 +154,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
     /**
      * Mark table as occupied
      */
+    @RetryOnConflict
     public RestaurantTable markTableAsOccupied(Long tableId) {
         RestaurantTable table = getTableById(tableId);
 
@@ -153,6 +172,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
     /**
      * Mark table as reserved
      */
+    @RetryOnConflict
     public RestaurantTable markTableAsReserved(Long tableId) {
         RestaurantTable table = getTableById(tableId);
 
@@ -176,6 +196,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
     /**
      * Mark table as available
      */
+    @RetryOnConflict
     public RestaurantTable markTableAsAvailable(Long tableId) {
         RestaurantTable table = getTableById(tableId);
         table.setStatus(TableStatus.AVAILABLE);
@@ -1,5 +1,6 @@
 package org.restaurant.service.impl;
 
+import org.restaurant.concurrency.RetryOnConflict;
 import org.restaurant.dto.request.CreateBookingRequest;
 import org.restaurant.dto.request.UpdateBookingRequest;
 import org.restaurant.dto.response.BookingResponse;
@@ -10,8 +11,11 @@ import org.restaurant.enums.BookingStatus;
 import org.restaurant.enums.TableStatus;
 import org.restaurant.exceptions.ResourceNotFoundException;
 import org.restaurant.exceptions.BusinessLogicException;
+import org.restaurant.monitoring.RestaurantMetrics;
 import org.restaurant.repository.TableBookingRepository;
 import org.restaurant.repository.RestaurantTableRepository;
+import org.restaurant.scheduling.BookingScheduler;
+import org.restaurant.seating.TableAllocator;
 import org.restaurant.service.TableBookingService;
 import org.restaurant.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +40,15 @@ public class TableBookingServiceImpl implements TableBookingService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TableAllocator tableAllocator;
+
+    @Autowired
+    private RestaurantMetrics restaurantMetrics;
+
+    @Autowired
+    private BookingScheduler bookingScheduler;
+
     /**
      * Create a new table booking
      */
@@ -51,6 +64,7 @@ public class TableBookingServiceImpl implements TableBookingService {
                 request.getBookingTime());
 
         if (availableTable == null) {
+            restaurantMetrics.bookingConflict("no_table_available");
             throw new BusinessLogicException("No available table found for the requested time and capacity");
         }
 
@@ -62,6 +76,7 @@ public class TableBookingServiceImpl implements TableBookingService {
                 request.getTableNumber(), startTime, endTime, BookingStatus.RESERVED);
 
         if (!conflictingBookings.isEmpty()) {
+            restaurantMetrics.bookingConflict("table_taken");
             throw new BusinessLogicException("Table " + request.getTableNumber() + " is not available at the requested time");
         }
 
@@ -82,6 +97,9 @@ public class TableBookingServiceImpl implements TableBookingService {
             tableRepository.save(availableTable);
         }
 
+        // Later bookings reserve their table, and release it if nobody turns up, when their time comes
+        bookingScheduler.bookingScheduled(savedBooking.getBookingId(), savedBooking.getBookingTime());
+
         return convertToBookingResponse(savedBooking);
     }
 
@@ -109,6 +127,7 @@ public class TableBookingServiceImpl implements TableBookingService {
     /**
      * Update booking
      */
+    @RetryOnConflict
     public BookingResponse updateBooking(Long bookingId, UpdateBookingRequest request) {
         TableBooking existingBooking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with ID: " + bookingId));
@@ -144,12 +163,16 @@ public class TableBookingServiceImpl implements TableBookingService {
         }
 
         TableBooking updatedBooking = bookingRepository.save(existingBooking);
+        if (request.getBookingTime() != null) {
+            bookingScheduler.bookingScheduled(bookingId, updatedBooking.getBookingTime());
+        }
         return convertToBookingResponse(updatedBooking);
     }
 
     /**
      * Cancel booking (soft delete by changing status)
      */
+    @RetryOnConflict
     public void cancelBooking(Long bookingId) {
         TableBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with ID: " + bookingId));
@@ -160,6 +183,7 @@ public class TableBookingServiceImpl implements TableBookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        bookingScheduler.bookingEnded(bookingId);
 
         // Free up the table if it was occupied by this booking
         if (booking.getRestaurantTable() != null &&
@@ -177,6 +201,7 @@ public class TableBookingServiceImpl implements TableBookingService {
             throw new ResourceNotFoundException("Booking not found with ID: " + bookingId);
         }
         bookingRepository.deleteById(bookingId);
+        bookingScheduler.bookingEnded(bookingId);
     }
 
     /**
@@ -221,6 +246,7 @@ public class TableBookingServiceImpl implements TableBookingService {
 
         booking.setStatus(BookingStatus.COMPLETED);
         TableBooking updatedBooking = bookingRepository.save(booking);
+        bookingScheduler.bookingEnded(bookingId);
 
         // Free up the table
         if (booking.getRestaurantTable() != null) {
@@ -244,9 +270,8 @@ public class TableBookingServiceImpl implements TableBookingService {
             }
         }
 
-        // Find smallest available table that can accommodate the guests
-        Optional<RestaurantTable> availableTable = tableRepository.findSmallestAvailableTable(numberOfGuests);
-        return availableTable.orElse(null);
+        // Find smallest available table that can accommodate the guests; a booking holds one table, so no combining
+        return tableAllocator.findTable(numberOfGuests).orElse(null);
     }
 
     private boolean isBookingTimeNow(LocalDateTime bookingTime) {
@@ -266,6 +291,7 @@ public class TableBookingServiceImpl implements TableBookingService {
         conflictingBookings.removeIf(booking -> booking.getBookingId().equals(excludeBookingId));
 
         if (!conflictingBookings.isEmpty()) {
+            restaurantMetrics.bookingConflict("table_taken");
             throw new BusinessLogicException("Table " + tableNumber + " is not available at the requested time");
         }
     }
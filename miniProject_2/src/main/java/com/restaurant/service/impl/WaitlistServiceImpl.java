@@ -0,0 +1,263 @@
+package org.restaurant.service.impl;
+
+import org.restaurant.cache.CacheInvalidationBus;
+import org.restaurant.cache.CacheNames;
+import org.restaurant.dto.request.JoinWaitlistRequest;
+import org.restaurant.dto.response.WaitlistEntryResponse;
+import org.restaurant.entities.RestaurantTable;
+import org.restaurant.enums.TableStatus;
+import org.restaurant.exceptions.BusinessLogicException;
+import org.restaurant.exceptions.ResourceNotFoundException;
+import org.restaurant.repository.OrderRepository;
+import org.restaurant.repository.RestaurantTableRepository;
+import org.restaurant.seating.TableAllocator;
+import org.restaurant.seating.TurnoverStats;
+import org.restaurant.seating.Waitlist;
+import org.restaurant.service.RestaurantTableService;
+import org.restaurant.service.WaitlistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Walk-in waitlist held in memory on this instance.
+ * - Every table invalidation, from this instance or another, checks whether the table is now free and, if so, offers
+ *   it to the waitlist. That covers tables freed by markTableAsAvailable, by serving an order and by bulk serving.
+ * - Turnover times are read from served orders, only those served since the last read, at most every
+ *   restaurant.waitlist.stats-refresh-ms and only while someone is looking at the waitlist.
+ */
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    // Orders served just before the last read may commit just after it, so each read looks back this far again
+    private static final Duration SERVED_OVERLAP = Duration.ofMinutes(1);
+
+    private final Waitlist waitlist;
+    private final TurnoverStats turnoverStats;
+    private final RestaurantTableService tableService;
+    private final RestaurantTableRepository tableRepository;
+    private final OrderRepository orderRepository;
+    private final TableAllocator tableAllocator;
+    private final Duration offerTimeout;
+    private final Duration statsRefreshInterval;
+    private final Duration statsLookback;
+
+    // Guarded by itself
+    private final Map<Long, LocalDateTime> countedOrders = new HashMap<>();
+    private LocalDateTime statsReadAt;
+    private LocalDateTime servedWatermark;
+
+    public WaitlistServiceImpl(RestaurantTableService tableService,
+                               RestaurantTableRepository tableRepository,
+                               OrderRepository orderRepository,
+                               TableAllocator tableAllocator,
+                               CacheInvalidationBus invalidationBus,
+                               @Value("${restaurant.waitlist.bands:2,4,6,8}") int[] bandLimits,
+                               @Value("${restaurant.waitlist.offer-timeout-ms:300000}") long offerTimeoutMs,
+                               @Value("${restaurant.waitlist.turnover-window:20}") int turnoverWindow,
+                               @Value("${restaurant.waitlist.default-turnover-minutes:60}") long defaultTurnoverMinutes,
+                               @Value("${restaurant.waitlist.stats-refresh-ms:30000}") long statsRefreshMs,
+                               @Value("${restaurant.waitlist.turnover-lookback-hours:168}") long lookbackHours) {
+        this.waitlist = new Waitlist(bandLimits);
+        this.turnoverStats = new TurnoverStats(turnoverWindow, Duration.ofMinutes(defaultTurnoverMinutes));
+        this.tableService = tableService;
+        this.tableRepository = tableRepository;
+        this.orderRepository = orderRepository;
+        this.tableAllocator = tableAllocator;
+        this.offerTimeout = Duration.ofMillis(offerTimeoutMs);
+        this.statsRefreshInterval = Duration.ofMillis(statsRefreshMs);
+        this.statsLookback = Duration.ofHours(lookbackHours);
+        invalidationBus.addEvictionListener(CacheNames.TABLES, this::tableEvicted);
+    }
+
+    /**
+     * Add a walk-in party, offering it a table straight away if one is free
+     */
+    public WaitlistEntryResponse joinWaitlist(JoinWaitlistRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        Waitlist.Entry entry = waitlist.join(request.getCustomerName(), request.getPartySize(), request.isPriority(), now);
+        logger.info("Party {} of {} joined the waitlist", entry.getId(), entry.getPartySize());
+
+        tableAllocator.findTable(request.getPartySize()).ifPresent(table -> offer(table, now));
+        return getWaitlist().stream()
+                .filter(response -> response.getId() == entry.getId())
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with ID: " + entry.getId()));
+    }
+
+    /**
+     * Get everyone waiting, with estimated seating times
+     */
+    public List<WaitlistEntryResponse> getWaitlist() {
+        LocalDateTime now = LocalDateTime.now();
+        expireOffers(now);
+        if (waitlist.isEmpty()) {
+            return List.of();
+        }
+        refreshTurnoverStats(now);
+
+        List<Waitlist.TableForecast> forecasts = new ArrayList<>();
+        for (RestaurantTable table : tableService.getAllTables()) {
+            Duration turnover = turnoverStats.expectedTurnover(table.getTableId());
+            LocalDateTime freeAt = now;
+            if (table.getStatus() != TableStatus.AVAILABLE) {
+                // Seated since the last read, or held for a booking: expect a full turnover from now
+                LocalDateTime seatedAt = turnoverStats.seatedAt(table.getTableId());
+                freeAt = (seatedAt != null ? seatedAt : now).plus(turnover);
+            }
+            forecasts.add(new Waitlist.TableForecast(table.getTableId(), table.getCapacity(), freeAt, turnover));
+        }
+
+        List<WaitlistEntryResponse> responses = new ArrayList<>();
+        Map<Integer, Integer> positions = new HashMap<>();
+        for (Waitlist.Entry entry : waitlist.estimate(now, forecasts)) {
+            Integer position = entry.getOfferedTableId() != null ? null : positions.merge(entry.getBand(), 1, Integer::sum);
+            responses.add(convertToResponse(entry, position, now));
+        }
+        return responses;
+    }
+
+    /**
+     * Take a party off the waitlist
+     */
+    public void leaveWaitlist(Long partyId) {
+        Waitlist.Entry entry = waitlist.leave(partyId);
+        if (entry == null) {
+            throw new ResourceNotFoundException("Waitlist entry not found with ID: " + partyId);
+        }
+        logger.info("Party {} left the waitlist", partyId);
+        if (entry.getOfferedTableId() != null) {
+            tableRepository.findById(entry.getOfferedTableId()).ifPresent(table -> offer(table, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Seat a party at its offered table. If the table has been taken meanwhile, the party goes back to its place.
+     */
+    public RestaurantTable seatParty(Long partyId) {
+        Waitlist.Entry entry;
+        try {
+            entry = waitlist.accept(partyId);
+        } catch (IllegalStateException e) {
+            throw new BusinessLogicException(e.getMessage());
+        }
+        if (entry == null) {
+            throw new ResourceNotFoundException("Waitlist entry not found with ID: " + partyId);
+        }
+
+        try {
+            RestaurantTable table = tableService.markTableAsOccupied(entry.getOfferedTableId());
+            logger.info("Party {} seated at table {}", partyId, table.getTableId());
+            return table;
+        } catch (BusinessLogicException | ResourceNotFoundException | OptimisticLockingFailureException e) {
+            waitlist.requeue(entry);
+            throw new BusinessLogicException("Table " + entry.getOfferedTableId()
+                    + " was taken before the party was seated; the party is back on the waitlist");
+        }
+    }
+
+    /**
+     * Turn down an offered table; it goes to the next party that fits
+     */
+    public void declineOffer(Long partyId) {
+        Waitlist.Entry next;
+        try {
+            next = waitlist.decline(partyId, LocalDateTime.now().plus(offerTimeout));
+        } catch (IllegalStateException e) {
+            throw new BusinessLogicException(e.getMessage());
+        }
+        logger.info("Party {} declined its table", partyId);
+        logOffer(next);
+    }
+
+    private void tableEvicted(String key) {
+        if (CacheNames.ALL.equals(key) || waitlist.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            tableRepository.findById(Long.valueOf(key)).ifPresent(table -> offer(table, now));
+        } catch (NumberFormatException e) {
+            // "*": the whole cache was cleared, so any table may have changed
+            tableRepository.findByStatus(TableStatus.AVAILABLE).forEach(table -> offer(table, now));
+        }
+    }
+
+    private void offer(RestaurantTable table, LocalDateTime now) {
+        if (table.getStatus() == TableStatus.AVAILABLE) {
+            logOffer(waitlist.offer(table.getTableId(), table.getCapacity(), now.plus(offerTimeout)));
+        }
+    }
+
+    private void expireOffers(LocalDateTime now) {
+        for (Waitlist.Entry next : waitlist.expireOffers(now, now.plus(offerTimeout))) {
+            logOffer(next);
+        }
+    }
+
+    private static void logOffer(Waitlist.Entry offered) {
+        if (offered != null) {
+            logger.info("Offered table {} to waitlist party {} of {}",
+                    offered.getOfferedTableId(), offered.getId(), offered.getPartySize());
+        }
+    }
+
+    // Adds orders served since the last read to the turnover times and re-reads who is seated where
+    private void refreshTurnoverStats(LocalDateTime now) {
+        synchronized (countedOrders) {
+            if (statsReadAt != null && now.isBefore(statsReadAt.plus(statsRefreshInterval))) {
+                return;
+            }
+            statsReadAt = now;
+
+            LocalDateTime since = servedWatermark != null ? servedWatermark.minus(SERVED_OVERLAP) : now.minus(statsLookback);
+            for (Object[] row : orderRepository.findServiceTimesSince(since)) {
+                LocalDateTime servedAt = (LocalDateTime) row[3];
+                if (countedOrders.putIfAbsent((Long) row[0], servedAt) == null) {
+                    turnoverStats.record((Long) row[1], (LocalDateTime) row[2], servedAt);
+                }
+                if (servedWatermark == null || servedAt.isAfter(servedWatermark)) {
+                    servedWatermark = servedAt;
+                }
+            }
+            if (servedWatermark != null) {
+                LocalDateTime cutoff = servedWatermark.minus(SERVED_OVERLAP);
+                countedOrders.values().removeIf(servedAt -> servedAt.isBefore(cutoff));
+            }
+
+            Map<Long, LocalDateTime> openTables = new HashMap<>();
+            for (Object[] row : orderRepository.findOpenOrderStartsByTable()) {
+                openTables.put((Long) row[0], (LocalDateTime) row[1]);
+            }
+            turnoverStats.replaceSeatedAt(openTables);
+        }
+    }
+
+    private WaitlistEntryResponse convertToResponse(Waitlist.Entry entry, Integer position, LocalDateTime now) {
+        WaitlistEntryResponse response = new WaitlistEntryResponse();
+        response.setId(entry.getId());
+        response.setCustomerName(entry.getCustomerName());
+        response.setPartySize(entry.getPartySize());
+        response.setBand(waitlist.bandLabel(entry.getBand()));
+        response.setPriority(entry.isPriority());
+        response.setPosition(position);
+        response.setJoinedAt(entry.getJoinedAt());
+        response.setEstimatedSeatingAt(entry.getEstimatedSeatingAt());
+        if (entry.getEstimatedSeatingAt() != null) {
+            response.setEstimatedWaitMinutes(Math.max(0, Duration.between(now, entry.getEstimatedSeatingAt()).toMinutes()));
+        }
+        response.setOfferedTableId(entry.getOfferedTableId());
+        response.setOfferExpiresAt(entry.getOfferExpiresAt());
+        return response;
+    }
+}
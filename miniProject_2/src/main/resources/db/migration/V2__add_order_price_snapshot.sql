@@ -0,0 +1,23 @@
+-- Capture item name and price on each order line so bills and revenue
+-- figures no longer depend on the current state of the menu.
+ALTER TABLE orderitems ADD COLUMN item_name VARCHAR(100);
+ALTER TABLE orderitems ADD COLUMN unit_price BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE orderitems ADD COLUMN line_total BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill existing lines from today's menu prices (amounts in paise)
+UPDATE orderitems oi
+SET item_name  = m.name,
+    unit_price = ROUND(m.price * 100),
+    line_total = ROUND(m.price * 100) * oi.quantity
+FROM menuitems m
+WHERE m.item_id = oi.item_id;
+
+ALTER TABLE orderitems ALTER COLUMN item_name SET NOT NULL;
+
+-- Order-level subtotal in paise, maintained by the application as items change
+ALTER TABLE orders ADD COLUMN subtotal BIGINT NOT NULL DEFAULT 0;
+
+UPDATE orders o
+SET subtotal = t.total
+FROM (SELECT order_id, SUM(line_total) AS total FROM orderitems GROUP BY order_id) t
+WHERE t.order_id = o.order_id;
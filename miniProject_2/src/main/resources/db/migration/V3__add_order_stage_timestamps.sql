@@ -0,0 +1,12 @@
+-- Record when each order reached the kitchen and the table, so stage
+-- latencies can be measured without an audit table.
+ALTER TABLE orders ADD COLUMN kitchen_at TIMESTAMP;
+ALTER TABLE orders ADD COLUMN served_at TIMESTAMP;
+
+-- Category snapshot per line, used to break latencies down by menu category
+ALTER TABLE orderitems ADD COLUMN category VARCHAR(50);
+
+UPDATE orderitems oi
+SET category = m.category
+FROM menuitems m
+WHERE m.item_id = oi.item_id;
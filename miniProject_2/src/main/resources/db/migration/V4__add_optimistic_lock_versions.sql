@@ -0,0 +1,6 @@
+-- Version counters for optimistic locking. Every update of an order, table or
+-- booking checks and bumps its version, so a write based on a stale read fails
+-- instead of silently overwriting a concurrent one.
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tables ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- The waitlist reads recently served orders to learn how long each table
+-- stays occupied; without this it scans every order ever served.
+CREATE INDEX IF NOT EXISTS idx_orders_served_at ON orders (served_at);
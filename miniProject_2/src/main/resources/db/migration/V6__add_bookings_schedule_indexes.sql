@@ -0,0 +1,4 @@
+-- The booking scheduler reads every reserved booking at startup, and freeing a
+-- no-show's table checks for other bookings due at that table.
+CREATE INDEX IF NOT EXISTS idx_bookings_status_time ON bookings (status, booking_datetime);
+CREATE INDEX IF NOT EXISTS idx_bookings_table_status ON bookings (table_id, status);
@@ -0,0 +1,161 @@
+package org.restaurant.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationBusTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private DataSource dataSource;
+    private PreparedStatement statement;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cacheManager = new ConcurrentMapCacheManager(CacheNames.MENU, CacheNames.MENU_ITEMS, CacheNames.USER_PRINCIPALS);
+        cacheManager.getCache(CacheNames.MENU_ITEMS).put("1", "Paneer Tikka");
+        cacheManager.getCache(CacheNames.MENU_ITEMS).put("2", "Butter Naan");
+        cacheManager.getCache(CacheNames.MENU).put(CacheNames.ALL, List.of("Paneer Tikka", "Butter Naan"));
+
+        dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidate_OutsideTransaction_EvictsImmediately() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(cacheManager, dataSource, false, "restaurant_cache");
+
+        bus.invalidate(CacheNames.MENU_ITEMS, "1");
+
+        assertNull(cache(CacheNames.MENU_ITEMS).get("1"));
+        assertNotNull(cache(CacheNames.MENU_ITEMS).get("2"));
+    }
+
+    @Test
+    void invalidate_InsideTransaction_EvictsOnlyAfterCommit() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(cacheManager, dataSource, false, "restaurant_cache");
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.invalidate(CacheNames.MENU_ITEMS, "1");
+        bus.invalidateAll(CacheNames.MENU);
+        assertNotNull(cache(CacheNames.MENU_ITEMS).get("1"));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertNull(cache(CacheNames.MENU_ITEMS).get("1"));
+        assertNull(cache(CacheNames.MENU).get(CacheNames.ALL));
+        assertNotNull(cache(CacheNames.MENU_ITEMS).get("2"));
+    }
+
+    @Test
+    void invalidate_RolledBack_KeepsEntries() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(cacheManager, dataSource, true, "restaurant_cache");
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.invalidate(CacheNames.MENU_ITEMS, "1");
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertNotNull(cache(CacheNames.MENU_ITEMS).get("1"));
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void commit_WithClusterEnabled_SendsOneNotifyForTheTransaction() throws Exception {
+        CacheInvalidationBus bus = new CacheInvalidationBus(cacheManager, dataSource, true, "restaurant_cache");
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.invalidate(CacheNames.MENU_ITEMS, "1");
+        bus.invalidate(CacheNames.MENU_ITEMS, "2");
+        bus.invalidate(CacheNames.MENU_ITEMS, "1");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(statement).setString(1, "restaurant_cache");
+        verify(statement).setString(eq(2), payload.capture());
+        verify(statement, times(1)).execute();
+        assertEquals(bus.getNodeId() + "|menuItems:1,menuItems:2", payload.getValue());
+    }
+
+    @Test
+    void receive_FromAnotherNode_EvictsKeys() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(cacheManager, dataSource, true, "restaurant_cache");
+        cache(CacheNames.USER_PRINCIPALS).put("chef one", "user");
+
+        bus.receive("othernode|menuItems:2,userPrincipals:chef+one");
+
+        assertNull(cache(CacheNames.MENU_ITEMS).get("2"));
+        assertNull(cache(CacheNames.USER_PRINCIPALS).get("chef one"));
+        assertNotNull(cache(CacheNames.MENU_ITEMS).get("1"));
+    }
+
+    @Test
+    void receive_OwnMessage_IsIgnored() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(cacheManager, dataSource, true, "restaurant_cache");
+
+        bus.receive(bus.getNodeId() + "|menuItems:2");
+
+        assertNotNull(cache(CacheNames.MENU_ITEMS).get("2"));
+    }
+
+    @Test
+    void receive_Everything_ClearsAllCaches() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(cacheManager, dataSource, true, "restaurant_cache");
+
+        bus.receive("othernode|*");
+
+        assertNull(cache(CacheNames.MENU_ITEMS).get("1"));
+        assertNull(cache(CacheNames.MENU).get(CacheNames.ALL));
+    }
+
+    @Test
+    void encode_TooManyKeys_FallsBackToClearingEachCache() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(cacheManager, dataSource, true, "restaurant_cache");
+        List<String> entries = new java.util.ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            entries.add("menuItems:" + i);
+        }
+        entries.add("menu:all");
+
+        assertEquals(bus.getNodeId() + "|menuItems:*,menu:*", bus.encode(entries));
+    }
+
+    @Test
+    void constructor_RejectsUnsafeChannelName() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CacheInvalidationBus(cacheManager, dataSource, true, "cache; DROP TABLE users"));
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+    }
+}
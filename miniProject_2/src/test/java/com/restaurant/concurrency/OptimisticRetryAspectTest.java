@@ -0,0 +1,96 @@
+package org.restaurant.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restaurant.exceptions.BusinessLogicException;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Seating target;
+    private Seating seating;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new Seating();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new OptimisticRetryAspect(meterRegistry));
+        seating = factory.getProxy();
+    }
+
+    @Test
+    void conflict_IsRetried_UntilAnAttemptSucceeds() {
+        target.conflictsLeft = 2;
+
+        assertEquals("seated", seating.occupy());
+
+        assertEquals(3, target.attempts);
+        assertEquals(2.0, conflicts("retried"));
+    }
+
+    @Test
+    void conflict_OnEveryAttempt_IsRethrownAfterMaxAttempts() {
+        target.conflictsLeft = Integer.MAX_VALUE;
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> seating.occupy());
+
+        assertEquals(3, target.attempts);
+        assertEquals(2.0, conflicts("retried"));
+        assertEquals(1.0, conflicts("rejected"));
+    }
+
+    @Test
+    void businessError_IsNotRetried() {
+        target.businessError = true;
+
+        assertThrows(BusinessLogicException.class, () -> seating.occupy());
+
+        assertEquals(1, target.attempts);
+    }
+
+    @Test
+    void conflict_InsideCallersTransaction_IsLeftToTheCaller() {
+        target.conflictsLeft = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> seating.occupy());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, target.attempts);
+    }
+
+    private double conflicts(String outcome) {
+        return meterRegistry.get("restaurant.optimistic_lock.conflicts")
+                .tag("operation", "Seating.occupy")
+                .tag("outcome", outcome)
+                .counter().count();
+    }
+
+    static class Seating {
+        int conflictsLeft;
+        boolean businessError;
+        int attempts;
+
+        @RetryOnConflict(backoffMs = 1, maxBackoffMs = 2)
+        public String occupy() {
+            attempts++;
+            if (businessError) {
+                throw new BusinessLogicException("Table is already occupied");
+            }
+            if (conflictsLeft-- > 0) {
+                throw new ObjectOptimisticLockingFailureException(Seating.class, 1L);
+            }
+            return "seated";
+        }
+    }
+}
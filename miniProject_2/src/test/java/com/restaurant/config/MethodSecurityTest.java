@@ -0,0 +1,91 @@
+package org.restaurant.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restaurant.entities.Order;
+import org.restaurant.entities.RestaurantTable;
+import org.restaurant.entities.User;
+import org.restaurant.repository.OrderRepository;
+import org.restaurant.repository.RestaurantTableRepository;
+import org.restaurant.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Method security against the full application, since the controller slices do not load SecurityConfig.
+ * GET /orders/waiter/{waiterId} lets a waiter through only for their own id, through a bean reference in the
+ * expression, so it fails unless the expression handler resolves beans.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MethodSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+
+    private Long waitersOrderId;
+
+    @BeforeEach
+    void setUp() {
+        // One order for the waiter and one for another member of staff
+        RestaurantTable table = tableRepository.findAll().get(0);
+        waitersOrderId = orderRepository.save(new Order(table.getTableId().intValue(), table, user("waiter"))).getOrderId();
+        orderRepository.save(new Order(table.getTableId().intValue(), table, user("manager")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(username = "waiter", roles = "WAITER")
+    void waiter_CanReadOwnOrders() throws Exception {
+        mockMvc.perform(get("/orders/waiter/" + userId("waiter")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(waitersOrderId.intValue()));
+    }
+
+    @Test
+    @WithMockUser(username = "waiter", roles = "WAITER")
+    void waiter_CannotReadAnotherWaitersOrders() throws Exception {
+        mockMvc.perform(get("/orders/waiter/" + userId("manager")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void admin_CanReadAnyWaitersOrders() throws Exception {
+        mockMvc.perform(get("/orders/waiter/" + userId("waiter")))
+                .andExpect(status().isOk());
+    }
+
+    // Seeded by DataInitializer
+    private Long userId(String username) {
+        return user(username).getUserId();
+    }
+
+    private User user(String username) {
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+}
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.restaurant.dto.response.MenuImportResponse;
 import org.restaurant.entities.MenuItem;
+import org.restaurant.service.MenuImportExportService;
 import org.restaurant.service.MenuItemService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -14,6 +16,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
@@ -35,6 +38,9 @@ class MenuControllerTest {
     @MockBean
     private MenuItemService menuItemService;
 
+    @MockBean
+    private MenuImportExportService menuImportExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -83,6 +89,7 @@ class MenuControllerTest {
                         .content(objectMapper.writeValueAsString(createRequest))
                         .with(csrf()))
                 .andExpect(status().isCreated())
+                .andExpect(header().exists("Server-Timing"))
                 .andExpect(jsonPath("$.itemId").value(1L))
                 .andExpect(jsonPath("$.menuItemName").value("Paneer Tikka"))
                 .andExpect(jsonPath("$.category").value("Veg Starters"))
@@ -212,4 +219,22 @@ class MenuControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("false"));
     }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void importMenuItems_ShouldReturnSummary_WhenCsvUploaded() throws Exception {
+        MenuImportResponse summary = new MenuImportResponse();
+        summary.setReceived(2);
+        summary.setInserted(2);
+        when(menuImportExportService.importMenuItems(any(InputStream.class),
+                eq(MenuImportExportService.Format.CSV), eq(false))).thenReturn(summary);
+
+        mockMvc.perform(post("/menu/import")
+                        .contentType("text/csv")
+                        .content("name,category,price\nPaneer Tikka,Veg Starters,6.99\nChicken 65,Non-Veg Starters,7.49\n")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.inserted").value(2));
+    }
 }
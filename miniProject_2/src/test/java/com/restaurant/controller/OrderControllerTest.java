@@ -3,8 +3,11 @@ package org.restaurant.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.restaurant.dto.request.BulkOrderStatusRequest;
 import org.restaurant.dto.request.CreateOrderRequest;
 import org.restaurant.dto.request.UpdateOrderStatusRequest;
+import org.restaurant.dto.response.BillResponse;
+import org.restaurant.dto.response.BulkOrderStatusResponse;
 import org.restaurant.dto.response.OrderResponse;
 import org.restaurant.dto.response.SuccessResponse;
 import org.restaurant.enums.OrderStatus;
@@ -18,6 +21,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
@@ -66,6 +70,21 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.id").value(1L));
     }
 
+    @Test
+    @WithMockUser(roles = {"ADMIN", "MANAGER", "WAITER"})
+    void getBill_ShouldReturnBill() throws Exception {
+        BillResponse bill = new BillResponse();
+        bill.setOrderId(1L);
+        bill.setLines(Collections.singletonList(new BillResponse.BillLine("Paneer Tikka", 2, 699L, 1398L)));
+        bill.setSubtotal(1398L);
+        when(orderService.getBill(anyLong())).thenReturn(bill);
+
+        mockMvc.perform(get("/orders/1/bill").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines[0].lineTotal").value(1398L))
+                .andExpect(jsonPath("$.subtotal").value(1398L));
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN", "MANAGER", "WAITER", "CHEF"})
     void updateOrderStatus_ShouldReturnUpdatedOrder() throws Exception {
@@ -108,4 +127,21 @@ class OrderControllerTest {
         mockMvc.perform(delete("/orders/1").with(csrf()))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN", "MANAGER", "WAITER"})
+    void bulkMoveToKitchen_ShouldReturnOutcomes() throws Exception {
+        BulkOrderStatusResponse response = new BulkOrderStatusResponse(OrderStatus.IN_KITCHEN, List.of(
+                new BulkOrderStatusResponse.OrderOutcome(1L, true, "Order moved to IN_KITCHEN"),
+                new BulkOrderStatusResponse.OrderOutcome(2L, false, "Only placed orders can be moved to kitchen")));
+        when(orderService.bulkMoveToKitchen(anyList())).thenReturn(response);
+
+        mockMvc.perform(put("/orders/bulk/kitchen")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkOrderStatusRequest(List.of(1L, 2L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(1))
+                .andExpect(jsonPath("$.results[1].updated").value(false));
+    }
 }
@@ -10,10 +10,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
@@ -76,4 +78,27 @@ class RestaurantTableControllerTest {
         mockMvc.perform(delete("/tables/1").with(csrf()))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    @WithMockUser(roles = "WAITER")
+    void markTableAsOccupied_LostRace_ReturnsConflict() throws Exception {
+        when(tableService.markTableAsOccupied(1L))
+                .thenThrow(new ObjectOptimisticLockingFailureException(RestaurantTable.class, 1L));
+
+        mockMvc.perform(put("/tables/1/occupy").with(csrf()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Concurrent Update"));
+    }
+
+    @Test
+    @WithMockUser(roles = "WAITER")
+    void findBestSeating_ShouldReturnTablesToJoin() throws Exception {
+        RestaurantTable second = new RestaurantTable(4, TableStatus.AVAILABLE);
+        second.setTableId(2L);
+        when(tableService.findBestSeating(8)).thenReturn(List.of(table, second));
+
+        mockMvc.perform(get("/tables/best-seating/8").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].tableId").value(2L));
+    }
 }
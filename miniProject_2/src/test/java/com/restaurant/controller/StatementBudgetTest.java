@@ -0,0 +1,169 @@
+package org.restaurant.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restaurant.dto.request.BulkOrderStatusRequest;
+import org.restaurant.entities.MenuItem;
+import org.restaurant.entities.Order;
+import org.restaurant.entities.OrderItem;
+import org.restaurant.entities.RestaurantTable;
+import org.restaurant.entities.TableBooking;
+import org.restaurant.entities.User;
+import org.restaurant.enums.BookingStatus;
+import org.restaurant.repository.MenuItemRepository;
+import org.restaurant.repository.OrderRepository;
+import org.restaurant.repository.RestaurantTableRepository;
+import org.restaurant.repository.TableBookingRepository;
+import org.restaurant.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.restaurant.support.SqlStatementMatchers.sqlStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Statement budgets for the endpoints that walk lists of orders and bookings, against the full application on H2.
+ * Each endpoint gets several rows, several waiters and several items per order, so a per-row lazy load repeats a
+ * statement and goes over budget.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementBudgetTest {
+
+    private static final int ORDERS = 6;
+    private static final int BOOKINGS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TableBookingRepository bookingRepository;
+
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> orderIds = new ArrayList<>();
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Seeded by DataInitializer
+        List<User> waiters = List.of(user("waiter"), user("manager"), user("chef"));
+        List<MenuItem> items = menuItemRepository.findAll().subList(0, 3);
+        List<RestaurantTable> tables = tableRepository.findAll();
+
+        for (int i = 0; i < ORDERS; i++) {
+            RestaurantTable table = tables.get(i);
+            Order order = new Order(table.getTableId().intValue(), table, waiters.get(i % waiters.size()));
+            for (MenuItem item : items) {
+                order.addOrderItem(new OrderItem(2, order, item));
+            }
+            orderIds.add(orderRepository.save(order).getOrderId());
+        }
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            RestaurantTable table = tables.get(ORDERS + i);
+            TableBooking booking = new TableBooking();
+            booking.setCustomerName("Guest " + i);
+            booking.setBookingTime(LocalDateTime.now().plusDays(1));
+            booking.setTableNumber(table.getTableId().intValue());
+            booking.setNumberOfGuests(2);
+            booking.setRestaurantTable(table);
+            booking.setStatus(BookingStatus.RESERVED);
+            bookingIds.add(bookingRepository.save(booking).getBookingId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getAllOrders_LoadsItemsAndWaitersInBatches() throws Exception {
+        // Orders, then the items and the waiters of all of them
+        mockMvc.perform(get("/orders"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ORDERS))
+                .andExpect(sqlStatements().atMost(3))
+                .andExpect(sqlStatements().noRepeatedStatements());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getBill_ReadsTheOrderAndItsLines() throws Exception {
+        mockMvc.perform(get("/orders/" + orderIds.get(0) + "/bill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines.length()").value(3))
+                .andExpect(sqlStatements().atMost(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void bulkTransitions_TakeAFixedNumberOfStatementsWhateverTheBatchSize() throws Exception {
+        // Current states, locking the eligible orders, the update, and the item categories for the stage timers
+        mockMvc.perform(put("/orders/bulk/kitchen")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkOrderStatusRequest(orderIds))))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements().atMost(4))
+                .andExpect(sqlStatements().noRepeatedStatements());
+
+        // Plus freeing the tables
+        mockMvc.perform(put("/orders/bulk/served")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkOrderStatusRequest(orderIds))))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements().atMost(5))
+                .andExpect(sqlStatements().noRepeatedStatements());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getAllBookings_IsOneQuery() throws Exception {
+        mockMvc.perform(get("/bookings"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(BOOKINGS))
+                .andExpect(sqlStatements().atMost(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void cancelBooking_ReadsTheBookingAndItsTable() throws Exception {
+        // The booking, its table, and the status update
+        mockMvc.perform(delete("/bookings/" + bookingIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements().atMost(3));
+    }
+
+    private User user(String username) {
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+}
@@ -0,0 +1,88 @@
+package org.restaurant.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.restaurant.dto.request.JoinWaitlistRequest;
+import org.restaurant.dto.response.WaitlistEntryResponse;
+import org.restaurant.exceptions.BusinessLogicException;
+import org.restaurant.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(WaitlistController.class)
+class WaitlistControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    @Test
+    @WithMockUser(roles = "WAITER")
+    void joinWaitlist_ShouldReturnCreated() throws Exception {
+        when(waitlistService.joinWaitlist(any(JoinWaitlistRequest.class))).thenReturn(entry(1L, 25L));
+
+        mockMvc.perform(post("/waitlist")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new JoinWaitlistRequest("Rao", 4))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.estimatedWaitMinutes").value(25));
+    }
+
+    @Test
+    @WithMockUser(roles = "WAITER")
+    void joinWaitlist_WithoutPartySize_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/waitlist")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new JoinWaitlistRequest("Rao", null))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "WAITER")
+    void getWaitlist_ShouldReturnList() throws Exception {
+        when(waitlistService.getWaitlist()).thenReturn(List.of(entry(1L, 0L), entry(2L, 40L)));
+
+        mockMvc.perform(get("/waitlist").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].estimatedWaitMinutes").value(40));
+    }
+
+    @Test
+    @WithMockUser(roles = "WAITER")
+    void seatParty_TableTaken_ReturnsBadRequest() throws Exception {
+        when(waitlistService.seatParty(1L))
+                .thenThrow(new BusinessLogicException("Table 3 was taken before the party was seated; the party is back on the waitlist"));
+
+        mockMvc.perform(post("/waitlist/1/seat").with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static WaitlistEntryResponse entry(Long id, Long waitMinutes) {
+        WaitlistEntryResponse entry = new WaitlistEntryResponse();
+        entry.setId(id);
+        entry.setCustomerName("Rao");
+        entry.setPartySize(4);
+        entry.setBand("3-4");
+        entry.setEstimatedWaitMinutes(waitMinutes);
+        return entry;
+    }
+}
@@ -0,0 +1,163 @@
+package org.restaurant.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes between separate in-memory H2 databases standing in for a primary and its replicas. Each database
+ * names itself in a one-row table, so a query shows which one a transaction ran on.
+ */
+class ReplicaRouterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource primary;
+    private Map<String, DataSource> replicas;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = database("primary");
+        replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", database("replica-1"));
+        replicas.put("replica-2", database("replica-2"));
+    }
+
+    @Test
+    void readOnlyTransactions_RotateAcrossReplicas() {
+        Routed routed = new Routed(new ReplicaRouter(primary, replicas, Duration.ofSeconds(5), meterRegistry));
+
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(routed.read());
+        }
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1", "replica-2"), nodes);
+        assertEquals(2.0, routedCount("replica-1", "read"));
+        assertEquals(2.0, routedCount("replica-2", "read"));
+    }
+
+    @Test
+    void writesAndNonTransactionalWork_GoToPrimary() {
+        Routed routed = new Routed(new ReplicaRouter(primary, replicas, Duration.ofSeconds(5), meterRegistry));
+
+        assertEquals("primary", routed.write());
+        assertEquals("primary", routed.jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        assertEquals(2.0, routedCount("primary", "write"));
+    }
+
+    @Test
+    void readOnlyTransaction_StaysOnPrimary_WhenJoiningAWriteTransaction() {
+        Routed routed = new Routed(new ReplicaRouter(primary, replicas, Duration.ofSeconds(5), meterRegistry));
+
+        String node = routed.transactions(false).execute(status -> {
+            routed.jdbcTemplate.update("UPDATE node SET visits = visits + 1");
+            return routed.read();
+        });
+
+        assertEquals("primary", node);
+    }
+
+    @Test
+    void unreachableReplica_IsSkipped() {
+        JdbcDataSource missing = new JdbcDataSource();
+        // Nothing listens on port 1, so every connection attempt is refused
+        missing.setURL("jdbc:h2:tcp://localhost:1/replica_missing");
+        replicas.put("replica-2", missing);
+        ReplicaRouter router = new ReplicaRouter(primary, replicas, Duration.ofSeconds(5), meterRegistry);
+        Routed routed = new Routed(router);
+
+        router.checkReplicas();
+
+        assertEquals("replica-1", routed.read());
+        assertEquals("replica-1", routed.read());
+        assertEquals(0.0, meterRegistry.get("restaurant.datasource.replica.usable").tag("replica", "replica-2").gauge().value());
+    }
+
+    @Test
+    void laggingReplicas_FallBackToPrimary_UntilTheyCatchUp() {
+        double[] lag = {30};
+        ReplicaRouter router = new ReplicaRouter(primary, replicas, Duration.ofSeconds(5), meterRegistry) {
+            @Override
+            double replicationLag(Connection connection, String primaryPosition) {
+                return lag[0];
+            }
+        };
+        Routed routed = new Routed(router);
+
+        router.checkReplicas();
+        assertEquals("primary", routed.read());
+        assertEquals(1.0, routedCount("primary", "fallback"));
+        assertEquals(30.0, meterRegistry.get("restaurant.datasource.replica.lag").tag("replica", "replica-1").gauge().value());
+
+        lag[0] = 1;
+        router.checkReplicas();
+        assertEquals("replica-1", routed.read());
+    }
+
+    private double routedCount(String target, String reason) {
+        return meterRegistry.get("restaurant.datasource.routed").tag("target", target).tag("reason", reason).counter().count();
+    }
+
+    private static DataSource database(String name) throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name.replace('-', '_') + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS node");
+            statement.execute("CREATE TABLE node (name VARCHAR(20), visits INT)");
+            statement.execute("INSERT INTO node VALUES ('" + name + "', 0)");
+        }
+        return dataSource;
+    }
+
+    /**
+     * The router behind a lazy routing DataSource, as ReadReplicaConfig sets it up, with a transaction manager on top
+     */
+    private static final class Routed {
+        final DataSourceTransactionManager transactionManager;
+        final JdbcTemplate jdbcTemplate;
+
+        Routed(ReplicaRouter router) {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+            dataSource.setTargetDataSource(new ReadWriteRoutingDataSource(router));
+            dataSource.setDefaultAutoCommit(true);
+            dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            dataSource.afterPropertiesSet();
+            transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        TransactionTemplate transactions(boolean readOnly) {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(readOnly);
+            return template;
+        }
+
+        String read() {
+            return transactions(true).execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        String write() {
+            return transactions(false).execute(status -> {
+                jdbcTemplate.update("UPDATE node SET visits = visits + 1");
+                return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+            });
+        }
+    }
+}
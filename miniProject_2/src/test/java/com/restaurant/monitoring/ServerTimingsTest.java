@@ -0,0 +1,31 @@
+package org.restaurant.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerTimings.clear();
+    }
+
+    @Test
+    void toHeaderValue_RendersOnlyEnteredPhases() {
+        ServerTimings timings = ServerTimings.start();
+        ServerTimings.record(ServerTimings.Phase.DB, System.nanoTime() - 2_000_000);
+
+        String header = timings.toHeaderValue();
+        assertTrue(header.startsWith("total;dur="));
+        assertTrue(header.contains("db;dur="));
+        assertFalse(header.contains("serialization"));
+    }
+
+    @Test
+    void record_IsIgnoredOutsideARequest() {
+        ServerTimings.record(ServerTimings.Phase.SERVICE, System.nanoTime());
+        assertNull(ServerTimings.current());
+    }
+}
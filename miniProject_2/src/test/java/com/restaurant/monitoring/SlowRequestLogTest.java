@@ -0,0 +1,28 @@
+package org.restaurant.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestLogTest {
+
+    @Test
+    void snapshot_KeepsNewestEntriesWhenFull() {
+        SlowRequestLog log = new SlowRequestLog(2);
+        Instant now = Instant.now();
+
+        log.record(new SlowRequestLog.SlowRequest(now.minusSeconds(3), "GET", "/orders", 200, 610.0, Map.of()));
+        log.record(new SlowRequestLog.SlowRequest(now.minusSeconds(2), "GET", "/menu", 200, 720.0, Map.of()));
+        log.record(new SlowRequestLog.SlowRequest(now.minusSeconds(1), "PUT", "/orders/{id}/served", 200, 830.0,
+                Map.of("db", 400.0)));
+
+        List<SlowRequestLog.SlowRequest> snapshot = log.snapshot();
+        assertEquals(2, snapshot.size());
+        assertEquals("/orders/{id}/served", snapshot.get(0).getUri());
+        assertEquals("/menu", snapshot.get(1).getUri());
+    }
+}
@@ -0,0 +1,70 @@
+package org.restaurant.monitoring;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCountingProxyTest {
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement_counting;DB_CLOSE_DELAY=-1");
+        dataSource = StatementCountingProxy.wrap(h2);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS dishes (id INT PRIMARY KEY, name VARCHAR(50))");
+            statement.execute("DELETE FROM dishes");
+            statement.execute("INSERT INTO dishes VALUES (1, 'Soup'), (2, 'Salad'), (3, 'Pasta')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementStats.clear();
+    }
+
+    @Test
+    void countsStatementsAndRows_OnlyWhileTracking() throws Exception {
+        SqlStatementStats stats = SqlStatementStats.start();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT name FROM dishes WHERE id <= ?")) {
+            statement.setInt(1, 2);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    assertNotNull(resultSet.getString(1));
+                }
+            }
+        }
+
+        assertEquals(1, stats.getStatementCount());
+        assertEquals(2, stats.getRowCount());
+    }
+
+    @Test
+    void flagsRepeatedStatementShapes() throws Exception {
+        SqlStatementStats stats = SqlStatementStats.start();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (int id = 1; id <= 3; id++) {
+                statement.executeQuery("SELECT name FROM dishes WHERE id = " + id).close();
+            }
+        }
+
+        assertEquals(3, stats.getStatementCount());
+        assertEquals(Integer.valueOf(3), stats.getRepeatedStatements(3).get("select name from dishes where id = ?"));
+        assertTrue(stats.getRepeatedStatements(4).isEmpty());
+    }
+}
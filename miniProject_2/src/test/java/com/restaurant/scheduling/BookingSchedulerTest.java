@@ -0,0 +1,140 @@
+package org.restaurant.scheduling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restaurant.enums.BookingStatus;
+import org.restaurant.enums.TableStatus;
+import org.restaurant.monitoring.RestaurantMetrics;
+import org.restaurant.repository.TableBookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingSchedulerTest {
+
+    private static final LocalDateTime AT_SEVEN = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(19);
+
+    private TableBookingRepository bookingRepository;
+    private BookingTransitions transitions;
+    private RestaurantMetrics restaurantMetrics;
+    private BookingScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(TableBookingRepository.class);
+        transitions = mock(BookingTransitions.class);
+        restaurantMetrics = mock(RestaurantMetrics.class);
+        scheduler = new BookingScheduler(bookingRepository, transitions, restaurantMetrics,
+                15, 15, 120, 1000, 4096, 60_000, 3_600_000, 500);
+    }
+
+    @Test
+    void sevenOClockWave_IsActivatedInOneUpdate() {
+        List<Object[]> pending = new ArrayList<>();
+        List<Object[]> states = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            pending.add(new Object[]{id, AT_SEVEN});
+            states.add(new Object[]{id, AT_SEVEN, BookingStatus.RESERVED, id, TableStatus.AVAILABLE});
+        }
+        when(bookingRepository.findScheduleByStatus(BookingStatus.RESERVED, 0L)).thenReturn(pending);
+        stubLifecycleStates(states);
+        when(transitions.reserveTables(anyCollection())).thenReturn(200);
+        scheduler.sync(0L);
+        assertEquals(200, scheduler.pendingBookings());
+
+        scheduler.tick(millis(AT_SEVEN.minusMinutes(16)));
+        verifyNoInteractions(transitions);
+
+        scheduler.tick(millis(AT_SEVEN.minusMinutes(15)));
+
+        verify(bookingRepository, times(1)).findLifecycleStates(anyCollection());
+        verify(transitions, times(1)).reserveTables(argThat(tableIds -> tableIds.size() == 200));
+        verify(restaurantMetrics).bookingTransitions("activated", 200);
+        // Each now waits for its no-show check
+        assertEquals(200, scheduler.pendingBookings());
+    }
+
+    @Test
+    void noShowCheck_ReleasesUnseatedParties_AndCompletesSeatedOnesLater() {
+        when(bookingRepository.findScheduleByStatus(BookingStatus.RESERVED, 0L)).thenReturn(List.of(
+                new Object[]{1L, AT_SEVEN}, new Object[]{2L, AT_SEVEN}));
+        scheduler.sync(0L);
+        stubLifecycleStates(List.of(
+                new Object[]{1L, AT_SEVEN, BookingStatus.RESERVED, 10L, TableStatus.RESERVED},
+                new Object[]{2L, AT_SEVEN, BookingStatus.RESERVED, 20L, TableStatus.OCCUPIED}));
+        scheduler.tick(millis(AT_SEVEN.minusMinutes(15)));
+
+        scheduler.tick(millis(AT_SEVEN.plusMinutes(15)));
+
+        verify(transitions).releaseNoShows(eq(Set.of(1L, 2L)), eq(Set.of(10L, 20L)),
+                eq(AT_SEVEN), eq(AT_SEVEN.plusMinutes(30)));
+        assertEquals(1, scheduler.pendingBookings());
+
+        scheduler.tick(millis(AT_SEVEN.plusMinutes(120)));
+
+        verify(transitions).completeBookings(argThat(ids -> ids.size() == 1 && ids.contains(2L)));
+        assertEquals(0, scheduler.pendingBookings());
+    }
+
+    @Test
+    void bookingMovedLaterElsewhere_IsRescheduledInsteadOfActivated() {
+        when(bookingRepository.findScheduleByStatus(BookingStatus.RESERVED, 0L)).thenReturn(
+                List.<Object[]>of(new Object[]{1L, AT_SEVEN}));
+        scheduler.sync(0L);
+        stubLifecycleStates(
+                List.<Object[]>of(new Object[]{1L, AT_SEVEN.plusHours(1), BookingStatus.RESERVED, 10L, TableStatus.AVAILABLE}));
+
+        scheduler.tick(millis(AT_SEVEN.minusMinutes(15)));
+        verify(transitions, never()).reserveTables(anyCollection());
+
+        scheduler.tick(millis(AT_SEVEN.plusMinutes(45)));
+        verify(transitions).reserveTables(argThat((Collection<Long> tableIds) -> tableIds.contains(10L)));
+    }
+
+    @Test
+    void endedBooking_IsForgotten() {
+        scheduler.bookingScheduled(1L, AT_SEVEN);
+        assertEquals(1, scheduler.pendingBookings());
+
+        scheduler.bookingEnded(1L);
+        scheduler.tick(millis(AT_SEVEN.plusHours(3)));
+
+        assertEquals(0, scheduler.pendingBookings());
+        verifyNoInteractions(transitions);
+    }
+
+    @Test
+    void cancelledElsewhere_IsDroppedWhenItFires() {
+        when(bookingRepository.findScheduleByStatus(BookingStatus.RESERVED, 0L)).thenReturn(
+                List.<Object[]>of(new Object[]{1L, AT_SEVEN}));
+        scheduler.sync(0L);
+        stubLifecycleStates(
+                List.<Object[]>of(new Object[]{1L, AT_SEVEN, BookingStatus.CANCELLED, 10L, TableStatus.AVAILABLE}));
+
+        scheduler.tick(millis(AT_SEVEN.minusMinutes(15)));
+
+        verifyNoInteractions(transitions);
+        assertEquals(0, scheduler.pendingBookings());
+    }
+
+    // Like the query, returns only the rows of the bookings asked for
+    private void stubLifecycleStates(List<Object[]> rows) {
+        when(bookingRepository.findLifecycleStates(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> bookingIds = invocation.getArgument(0);
+            return rows.stream().filter(row -> bookingIds.contains((Long) row[0])).toList();
+        });
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
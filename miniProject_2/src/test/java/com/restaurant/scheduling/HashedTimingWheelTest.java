@@ -0,0 +1,60 @@
+package org.restaurant.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(Duration.ofSeconds(1), 8, 0);
+
+    @Test
+    void timers_FireOnTheFirstTickAtOrAfterTheirDeadline_TogetherWhenTheyShareIt() {
+        wheel.schedule("early", 2_500);
+        wheel.schedule("late", 3_000);
+
+        assertTrue(wheel.advance(2_999).isEmpty());
+        assertEquals(Set.of("early", "late"), new HashSet<>(wheel.advance(3_000)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadline_FiresOnTheNextTick() {
+        wheel.schedule("overdue", -60_000);
+
+        assertTrue(wheel.advance(999).isEmpty());
+        assertEquals(List.of("overdue"), wheel.advance(1_000));
+    }
+
+    @Test
+    void timerMoreThanOneTurnAway_IsPassedOverUntilItsTurn() {
+        // Eight one-second buckets, so this shares a bucket with ticks 4 and 12
+        wheel.schedule("later", 20_000);
+
+        assertTrue(wheel.advance(19_999).isEmpty());
+        assertEquals(List.of("later"), wheel.advance(20_000));
+    }
+
+    @Test
+    void longPause_FiresEverythingOverdueInOneAdvance() {
+        wheel.schedule("soon", 5_000);
+        wheel.schedule("hours", 7_200_000);
+
+        assertEquals(Set.of("soon", "hours"), new HashSet<>(wheel.advance(10_000_000)));
+    }
+
+    @Test
+    void cancelledTimer_NeverFires() {
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 3_000);
+        wheel.schedule("kept", 3_000);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertEquals(List.of("kept"), wheel.advance(3_000));
+    }
+}
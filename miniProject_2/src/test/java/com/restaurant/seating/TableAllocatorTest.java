@@ -0,0 +1,173 @@
+package org.restaurant.seating;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restaurant.cache.CacheInvalidationBus;
+import org.restaurant.cache.CacheNames;
+import org.restaurant.entities.RestaurantTable;
+import org.restaurant.enums.TableStatus;
+import org.restaurant.repository.RestaurantTableRepository;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the allocator against a table repository backed by a map, with the real invalidation bus delivering evictions
+ */
+class TableAllocatorTest {
+
+    private final Map<Long, RestaurantTable> database = new TreeMap<>();
+    private RestaurantTableRepository tableRepository;
+    private CacheInvalidationBus invalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        tableRepository = mock(RestaurantTableRepository.class);
+        when(tableRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(database.values()));
+        when(tableRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<RestaurantTable> found = new ArrayList<>();
+            for (Long tableId : invocation.<Iterable<Long>>getArgument(0)) {
+                if (database.containsKey(tableId)) {
+                    found.add(database.get(tableId));
+                }
+            }
+            return found;
+        });
+        invalidationBus = new CacheInvalidationBus(new ConcurrentMapCacheManager(CacheNames.TABLES),
+                mock(DataSource.class), false, "restaurant_cache");
+    }
+
+    @Test
+    void findTable_PicksTheSmallestTableThatFits() {
+        table(1L, 2, TableStatus.AVAILABLE);
+        table(2L, 6, TableStatus.AVAILABLE);
+        table(3L, 4, TableStatus.AVAILABLE);
+        table(4L, 4, TableStatus.OCCUPIED);
+
+        TableAllocator allocator = allocator();
+
+        assertEquals(3L, allocator.findTable(3).orElseThrow().getTableId());
+        assertEquals(2L, allocator.findTable(5).orElseThrow().getTableId());
+        assertTrue(allocator.findTable(7).isEmpty());
+    }
+
+    @Test
+    void findSeating_JoinsAdjoiningTables_ForAPartyLargerThanAnyTable() {
+        table(1L, 4, TableStatus.AVAILABLE);
+        table(2L, 4, TableStatus.AVAILABLE);
+        table(3L, 6, TableStatus.AVAILABLE);
+
+        TableAllocator allocator = allocator("1+2");
+
+        assertEquals(List.of(1L, 2L), ids(allocator.findSeating(8).orElseThrow()));
+        assertTrue(allocator.findTable(8).isEmpty());
+    }
+
+    @Test
+    void findSeating_PrefersTheFitWithFewerEmptySeats_AndASingleTableOnATie() {
+        table(1L, 2, TableStatus.AVAILABLE);
+        table(2L, 2, TableStatus.AVAILABLE);
+        table(3L, 2, TableStatus.AVAILABLE);
+        table(4L, 6, TableStatus.AVAILABLE);
+        table(5L, 4, TableStatus.AVAILABLE);
+
+        TableAllocator allocator = allocator("1+2+3");
+
+        // 1+2 seats four exactly, but so does table 5 on its own
+        assertEquals(List.of(5L), ids(allocator.findSeating(4).orElseThrow()));
+        // 1+2+3 seats six exactly; the six-top wins the tie
+        assertEquals(List.of(4L), ids(allocator.findSeating(6).orElseThrow()));
+        // Table 5 is gone: 1+2 wastes nothing where the six-top would waste two
+        database.get(5L).setStatus(TableStatus.OCCUPIED);
+        invalidationBus.invalidate(CacheNames.TABLES, "5");
+        assertEquals(List.of(1L, 2L), ids(allocator.findSeating(4).orElseThrow()));
+    }
+
+    @Test
+    void runs_AreOnlyOfferedWhileEveryTableIsFree() {
+        table(1L, 4, TableStatus.AVAILABLE);
+        table(2L, 4, TableStatus.OCCUPIED);
+        table(3L, 4, TableStatus.AVAILABLE);
+
+        TableAllocator allocator = allocator("1+2+3");
+
+        // 1 and 3 are free but not next to each other
+        assertTrue(allocator.findSeating(8).isEmpty());
+
+        database.get(2L).setStatus(TableStatus.AVAILABLE);
+        invalidationBus.invalidate(CacheNames.TABLES, "2");
+
+        assertEquals(List.of(1L, 2L), ids(allocator.findSeating(8).orElseThrow()));
+        assertEquals(List.of(1L, 2L, 3L), ids(allocator.findSeating(12).orElseThrow()));
+    }
+
+    @Test
+    void staleChoice_IsCorrectedFromTheDatabase_WithoutAnInvalidation() {
+        table(1L, 4, TableStatus.AVAILABLE);
+        table(2L, 6, TableStatus.AVAILABLE);
+        TableAllocator allocator = allocator();
+        assertEquals(1L, allocator.findTable(4).orElseThrow().getTableId());
+
+        // Taken on another node whose invalidation has not arrived yet
+        database.get(1L).setStatus(TableStatus.OCCUPIED);
+
+        assertEquals(2L, allocator.findTable(4).orElseThrow().getTableId());
+        assertEquals(2L, allocator.findTable(4).orElseThrow().getTableId());
+    }
+
+    @Test
+    void newAndDeletedTables_FollowTheirInvalidations() {
+        table(1L, 4, TableStatus.AVAILABLE);
+        TableAllocator allocator = allocator();
+        assertTrue(allocator.findTable(6).isEmpty());
+
+        table(2L, 6, TableStatus.AVAILABLE);
+        invalidationBus.invalidate(CacheNames.TABLES, "2");
+        assertEquals(2L, allocator.findTable(6).orElseThrow().getTableId());
+
+        database.remove(2L);
+        invalidationBus.invalidate(CacheNames.TABLES, "2");
+        assertTrue(allocator.findTable(6).isEmpty());
+    }
+
+    @Test
+    void clearedCache_RebuildsFromScratch() {
+        table(1L, 4, TableStatus.AVAILABLE);
+        TableAllocator allocator = allocator();
+        assertTrue(allocator.findTable(4).isPresent());
+
+        database.get(1L).setCapacity(8);
+        invalidationBus.clearAll();
+
+        assertEquals(1L, allocator.findTable(8).orElseThrow().getTableId());
+        verify(tableRepository, times(2)).findAll();
+    }
+
+    @Test
+    void group_ListingATableTwice_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> allocator("1+2+1"));
+    }
+
+    private TableAllocator allocator(String... combinableGroups) {
+        return new TableAllocator(tableRepository, invalidationBus, combinableGroups);
+    }
+
+    private void table(Long tableId, int capacity, TableStatus status) {
+        RestaurantTable table = new RestaurantTable(capacity, status);
+        table.setTableId(tableId);
+        database.put(tableId, table);
+    }
+
+    private static List<Long> ids(List<RestaurantTable> tables) {
+        return tables.stream().map(RestaurantTable::getTableId).filter(Objects::nonNull).toList();
+    }
+}
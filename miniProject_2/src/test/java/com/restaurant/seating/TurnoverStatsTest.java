@@ -0,0 +1,52 @@
+package org.restaurant.seating;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TurnoverStatsTest {
+
+    private static final LocalDateTime SEATED = LocalDateTime.of(2026, 10, 19, 19, 0);
+
+    @Test
+    void expectedTurnover_IsTheMeanOfTheTablesLastFewStays() {
+        TurnoverStats stats = new TurnoverStats(2, Duration.ofMinutes(60));
+
+        stats.record(1L, SEATED, SEATED.plusMinutes(30));
+        stats.record(1L, SEATED, SEATED.plusMinutes(50));
+        assertEquals(Duration.ofMinutes(40), stats.expectedTurnover(1L));
+
+        // The 30-minute stay drops out of the window
+        stats.record(1L, SEATED, SEATED.plusMinutes(90));
+        assertEquals(Duration.ofMinutes(70), stats.expectedTurnover(1L));
+    }
+
+    @Test
+    void tableWithoutHistory_FallsBackToAllTables_ThenToTheDefault() {
+        TurnoverStats stats = new TurnoverStats(2, Duration.ofMinutes(60));
+        assertEquals(Duration.ofMinutes(60), stats.expectedTurnover(3L));
+
+        stats.record(1L, SEATED, SEATED.plusMinutes(30));
+        stats.record(1L, SEATED, SEATED.plusMinutes(50));
+        stats.record(1L, SEATED, SEATED.plusMinutes(90));
+        stats.record(2L, SEATED, SEATED.plusMinutes(10));
+
+        // 50 and 90 from table 1, 10 from table 2
+        assertEquals(Duration.ofMinutes(50), stats.expectedTurnover(3L));
+    }
+
+    @Test
+    void seatedAt_IsReplacedWholesale() {
+        TurnoverStats stats = new TurnoverStats(5, Duration.ofMinutes(60));
+        stats.replaceSeatedAt(Map.of(1L, SEATED, 2L, SEATED.plusMinutes(5)));
+
+        stats.replaceSeatedAt(Map.of(2L, SEATED.plusMinutes(5)));
+
+        assertNull(stats.seatedAt(1L));
+        assertEquals(SEATED.plusMinutes(5), stats.seatedAt(2L));
+    }
+}
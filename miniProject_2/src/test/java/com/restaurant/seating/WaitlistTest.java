@@ -0,0 +1,146 @@
+package org.restaurant.seating;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 19, 0);
+    private static final Duration HOUR = Duration.ofMinutes(60);
+
+    private Waitlist waitlist;
+
+    @BeforeEach
+    void setUp() {
+        waitlist = new Waitlist(new int[]{2, 4});
+    }
+
+    @Test
+    void parties_QueueByBand_PriorityFirstThenArrival() {
+        long pair = join("Pair", 2);
+        long four = join("Four", 4);
+        long priorityPair = waitlist.join("Priority", 2, true, NOW).getId();
+        long three = join("Three", 3);
+        long large = join("Large", 7);
+
+        assertEquals(List.of(priorityPair, pair, four, three, large), ids(waitlist.estimate(NOW, List.of())));
+        assertEquals("1-2", waitlist.bandLabel(0));
+        assertEquals("3-4", waitlist.bandLabel(1));
+        assertEquals("5+", waitlist.bandLabel(2));
+    }
+
+    @Test
+    void freedTable_IsOfferedToTheLargestBandThatFits() {
+        long pair = join("Pair", 2);
+        long four = join("Four", 4);
+        long three = join("Three", 3);
+
+        // The 3-4 band's head does not fit a 3-top, the next party in it does
+        assertEquals(three, waitlist.offer(30L, 3, NOW.plusMinutes(5)).getId());
+        assertNull(waitlist.offer(30L, 3, NOW.plusMinutes(5)));
+        assertEquals(four, waitlist.offer(40L, 4, NOW.plusMinutes(5)).getId());
+        assertEquals(pair, waitlist.offer(20L, 2, NOW.plusMinutes(5)).getId());
+        assertNull(waitlist.offer(21L, 2, NOW.plusMinutes(5)));
+    }
+
+    @Test
+    void decline_PassesTheTableOn_AndKeepsThePartysPlace() {
+        long four = join("Four", 4);
+        long three = join("Three", 3);
+        waitlist.offer(40L, 4, NOW.plusMinutes(5));
+
+        Waitlist.Entry next = waitlist.decline(four, NOW.plusMinutes(10));
+
+        assertEquals(three, next.getId());
+        assertEquals(40L, next.getOfferedTableId());
+        List<Waitlist.Entry> board = waitlist.estimate(NOW, List.of());
+        assertEquals(List.of(three, four), ids(board));
+        assertNull(board.get(1).getOfferedTableId());
+    }
+
+    @Test
+    void lapsedOffer_IsHandledLikeADecline() {
+        long first = join("First", 2);
+        long second = join("Second", 2);
+        waitlist.offer(20L, 2, NOW.plusMinutes(5));
+
+        assertTrue(waitlist.expireOffers(NOW.plusMinutes(4), NOW.plusMinutes(9)).isEmpty());
+        List<Waitlist.Entry> next = waitlist.expireOffers(NOW.plusMinutes(6), NOW.plusMinutes(11));
+
+        assertEquals(List.of(second), ids(next));
+        assertEquals(NOW.plusMinutes(11), next.get(0).getOfferExpiresAt());
+        assertFalse(waitlist.isOffered(21L));
+        assertTrue(waitlist.isOffered(20L));
+        assertEquals(List.of(second, first), ids(waitlist.estimate(NOW, List.of())));
+    }
+
+    @Test
+    void accept_TakesThePartyOff_AndRequeueRestoresItsPlace() {
+        long first = join("First", 2);
+        long second = join("Second", 2);
+        assertThrows(IllegalStateException.class, () -> waitlist.accept(first));
+        waitlist.offer(20L, 2, NOW.plusMinutes(5));
+
+        Waitlist.Entry seated = waitlist.accept(first);
+
+        assertEquals(20L, seated.getOfferedTableId());
+        assertNull(waitlist.accept(first));
+        assertEquals(List.of(second), ids(waitlist.estimate(NOW, List.of())));
+
+        waitlist.requeue(seated);
+        assertEquals(List.of(first, second), ids(waitlist.estimate(NOW, List.of())));
+    }
+
+    @Test
+    void estimate_HandsPartiesToTablesAsTheyFreeUp() {
+        Waitlist pairs = new Waitlist(new int[]{2});
+        pairs.join("First", 2, false, NOW);
+        pairs.join("Second", 2, false, NOW);
+        pairs.join("Third", 2, false, NOW);
+        pairs.join("Large", 5, false, NOW);
+        List<Waitlist.TableForecast> tables = List.of(
+                new Waitlist.TableForecast(1L, 2, NOW.minusMinutes(3), HOUR),
+                new Waitlist.TableForecast(2L, 2, NOW.plusMinutes(30), HOUR));
+
+        List<Waitlist.Entry> board = pairs.estimate(NOW, tables);
+
+        assertEquals(NOW, board.get(0).getEstimatedSeatingAt());
+        assertEquals(NOW.plusMinutes(30), board.get(1).getEstimatedSeatingAt());
+        // Table 1 comes round again after its turnover
+        assertEquals(NOW.plusMinutes(60), board.get(2).getEstimatedSeatingAt());
+        // No table seats five
+        assertNull(board.get(3).getEstimatedSeatingAt());
+    }
+
+    @Test
+    void estimate_CountsAnOfferedTableAsTaken() {
+        long first = join("First", 2);
+        join("Second", 2);
+        waitlist.offer(1L, 2, NOW.plusMinutes(5));
+
+        List<Waitlist.Entry> board = waitlist.estimate(NOW, List.of(new Waitlist.TableForecast(1L, 2, NOW, HOUR)));
+
+        assertEquals(first, board.get(0).getId());
+        assertEquals(NOW, board.get(0).getEstimatedSeatingAt());
+        assertEquals(NOW.plusMinutes(60), board.get(1).getEstimatedSeatingAt());
+    }
+
+    @Test
+    void bandLimits_MustAscend() {
+        assertThrows(IllegalArgumentException.class, () -> new Waitlist(new int[]{4, 2}));
+    }
+
+    private long join(String customerName, int partySize) {
+        return waitlist.join(customerName, partySize, false, NOW).getId();
+    }
+
+    private static List<Long> ids(List<Waitlist.Entry> entries) {
+        return entries.stream().map(Waitlist.Entry::getId).toList();
+    }
+}
@@ -0,0 +1,103 @@
+package org.restaurant.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.restaurant.cache.CacheInvalidationBus;
+import org.restaurant.cache.CacheNames;
+import org.restaurant.dto.response.MenuImportResponse;
+import org.restaurant.exceptions.InvalidRequestException;
+import org.restaurant.service.MenuImportExportService.Format;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MenuImportExportServiceImplTest {
+
+    @InjectMocks MenuImportExportServiceImpl service;
+    @Mock JdbcTemplate jdbcTemplate;
+    @Mock NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Mock CacheInvalidationBus invalidationBus;
+    @Spy ObjectMapper objectMapper = new ObjectMapper();
+
+    @Captor ArgumentCaptor<List<Object[]>> batchCaptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void importCsv_SkipsExistingAndRejectsInvalidRows() throws Exception {
+        when(namedParameterJdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class)))
+                .thenReturn(List.of("Aloo Tikki"));
+
+        MenuImportResponse response = service.importMenuItems(stream(
+                "name,category,price\n" +
+                "Aloo Tikki,Veg Starters,4.99\n" +
+                "\"Dal Makhani, Special\",Veg Gravies,8.49\n" +
+                "Mystery Dish,,3.00\n" +
+                "Free Naan,Indian Breads,0\n"), Format.CSV, false);
+
+        assertEquals(4, response.getReceived());
+        assertEquals(1, response.getInserted());
+        assertEquals(1, response.getSkipped());
+        assertEquals(2, response.getRejected());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), batchCaptor.capture());
+        assertEquals("Dal Makhani, Special", batchCaptor.getValue().get(0)[0]);
+    }
+
+    @Test
+    void importJson_UpsertUpdatesExistingItems() throws Exception {
+        when(namedParameterJdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class)))
+                .thenReturn(List.of("Chicken 65"));
+
+        MenuImportResponse response = service.importMenuItems(stream(
+                "[{\"name\": \"Chicken 65\", \"category\": \"Non-Veg Starters\", \"price\": 7.99}," +
+                " {\"menuItemName\": \"Chilli Paneer\", \"category\": \"Veg Starters\", \"price\": \"6.49\", \"itemId\": 9}]"),
+                Format.JSON, true);
+
+        assertEquals(1, response.getInserted());
+        assertEquals(1, response.getUpdated());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE"), anyList());
+    }
+
+    @Test
+    void import_InvalidatesTheMenuCaches() throws Exception {
+        when(namedParameterJdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class)))
+                .thenReturn(List.of());
+
+        service.importMenuItems(stream("name,category,price\nGarlic Naan,Indian Breads,2.49\n"), Format.CSV, false);
+
+        verify(invalidationBus).invalidateAll(CacheNames.MENU_ITEMS);
+        verify(invalidationBus).invalidateAll(CacheNames.MENU);
+    }
+
+    @Test
+    void importThatChangesNothing_LeavesTheCachesAlone() throws Exception {
+        when(namedParameterJdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class)))
+                .thenReturn(List.of("Garlic Naan"));
+
+        service.importMenuItems(stream("name,category,price\nGarlic Naan,Indian Breads,2.49\n"), Format.CSV, false);
+
+        verifyNoInteractions(invalidationBus);
+    }
+
+    @Test
+    void importCsv_MissingColumns_Throws() {
+        assertThrows(InvalidRequestException.class,
+                () -> service.importMenuItems(stream("name,price\nNaan,2.00\n"), Format.CSV, false));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,14 +3,20 @@ package org.restaurant.service.impl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.restaurant.cache.CacheInvalidationBus;
+import org.restaurant.cache.CacheNames;
 import org.restaurant.dto.request.CreateOrderRequest;
 import org.restaurant.dto.request.UpdateOrderStatusRequest;
+import org.restaurant.dto.response.BillResponse;
+import org.restaurant.dto.response.BulkOrderStatusResponse;
 import org.restaurant.entities.*;
 import org.restaurant.enums.OrderStatus;
 import org.restaurant.enums.TableStatus;
 import org.restaurant.exceptions.BusinessLogicException;
 import org.restaurant.exceptions.ResourceNotFoundException;
+import org.restaurant.monitoring.RestaurantMetrics;
 import org.restaurant.repository.MenuItemRepository;
+import org.restaurant.repository.OrderItemRepository;
 import org.restaurant.repository.OrderRepository;
 import org.restaurant.repository.RestaurantTableRepository;
 import org.restaurant.service.UserService;
@@ -18,6 +24,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -33,6 +40,9 @@ class OrderServiceImplTest {
     @Mock private MenuItemRepository menuItemRepository;
     @Mock private RestaurantTableRepository tableRepository;
     @Mock private UserService userService;
+    @Mock private OrderItemRepository orderItemRepository;
+    @Mock private RestaurantMetrics restaurantMetrics;
+    @Mock private CacheInvalidationBus invalidationBus;
 
     @BeforeEach
     void setUp() {
@@ -85,4 +95,97 @@ class OrderServiceImplTest {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
         assertThrows(BusinessLogicException.class, () -> orderService.cancelOrder(1L));
     }
+
+    @Test
+    void getBill_UsesCapturedPrices() {
+        MenuItem naan = new MenuItem("Butter Naan", "Indian Breads", new BigDecimal("2.49"));
+        Order order = new Order(); order.setOrderId(3L);
+        order.addOrderItem(new OrderItem(2, order, naan));
+
+        // Later menu price changes must not affect the bill
+        naan.setPrice(new BigDecimal("3.99"));
+        when(orderRepository.findById(3L)).thenReturn(Optional.of(order));
+
+        BillResponse bill = orderService.getBill(3L);
+        assertEquals(1, bill.getLines().size());
+        assertEquals(249L, bill.getLines().get(0).getUnitPrice());
+        assertEquals(498L, bill.getLines().get(0).getLineTotal());
+        assertEquals(498L, bill.getSubtotal());
+    }
+
+    @Test
+    void moveToKitchen_WrongStatus_CountsRejection() {
+        Order order = new Order(); order.setStatus(OrderStatus.SERVED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        assertThrows(BusinessLogicException.class, () -> orderService.moveToKitchen(1L));
+        verify(restaurantMetrics).orderRejected("invalid_transition");
+    }
+
+    @Test
+    void markAsServed_RecordsStageTimings() {
+        MenuItem naan = new MenuItem("Butter Naan", "Indian Breads", new BigDecimal("2.49"));
+        Order order = new Order(); order.setOrderId(4L);
+        order.addOrderItem(new OrderItem(1, order, naan));
+        order.setCreatedAt(LocalDateTime.now().minusMinutes(30));
+        order.setStatus(OrderStatus.IN_KITCHEN);
+        when(orderRepository.findById(4L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        orderService.markAsServed(4L);
+
+        assertNotNull(order.getServedAt());
+        verify(restaurantMetrics).recordStage(RestaurantMetrics.STAGE_KITCHEN_TO_SERVED,
+                order.getKitchenAt(), order.getServedAt(), null, Set.of("Indian Breads"));
+        verify(restaurantMetrics).recordStage(RestaurantMetrics.STAGE_PLACED_TO_SERVED,
+                order.getCreatedAt(), order.getServedAt(), null, Set.of("Indian Breads"));
+    }
+
+    @Test
+    void bulkMarkAsServed_ReportsPerOrderOutcome() {
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(40);
+        LocalDateTime kitchenAt = LocalDateTime.now().minusMinutes(25);
+        List<Object[]> rows = List.of(
+                new Object[]{1L, OrderStatus.IN_KITCHEN, 5L, createdAt, kitchenAt, 9L},
+                new Object[]{2L, OrderStatus.PLACED, 6L, createdAt, null, 9L});
+        when(orderRepository.findTransitionStateByOrderIds(anyCollection())).thenReturn(rows);
+        when(orderRepository.lockOrderIdsByStatus(List.of(1L), OrderStatus.IN_KITCHEN)).thenReturn(List.of(1L));
+        when(orderRepository.markOrdersServed(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(1);
+        List<Object[]> categories = Collections.singletonList(new Object[]{1L, "Desserts"});
+        when(orderItemRepository.findCategoriesByOrderIds(anyCollection())).thenReturn(categories);
+
+        BulkOrderStatusResponse response = orderService.bulkMarkAsServed(List.of(1L, 2L, 3L));
+
+        assertEquals(1, response.getUpdatedCount());
+        assertEquals(2, response.getFailedCount());
+        assertTrue(response.getResults().get(0).isUpdated());
+        assertEquals("Only kitchen orders can be marked as served", response.getResults().get(1).getMessage());
+        assertEquals("Order not found with ID: 3", response.getResults().get(2).getMessage());
+        verify(tableRepository).updateStatusForTables(Set.of(5L), TableStatus.AVAILABLE);
+        verify(invalidationBus).invalidate(CacheNames.TABLES, "5");
+        verify(orderRepository, never()).save(any());
+        verify(restaurantMetrics).recordStage(eq(RestaurantMetrics.STAGE_KITCHEN_TO_SERVED), eq(kitchenAt),
+                any(LocalDateTime.class), eq(9L), eq(Set.of("Desserts")));
+        verify(restaurantMetrics).orderRejected("invalid_transition");
+        verify(restaurantMetrics).orderRejected("order_not_found");
+    }
+
+    @Test
+    void bulkMoveToKitchen_ReportsOrdersMovedSinceTheReadAsConcurrentUpdates() {
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(10);
+        List<Object[]> rows = List.of(
+                new Object[]{1L, OrderStatus.PLACED, 5L, createdAt, null, 9L},
+                new Object[]{2L, OrderStatus.PLACED, 6L, createdAt, null, 9L});
+        when(orderRepository.findTransitionStateByOrderIds(anyCollection())).thenReturn(rows);
+        // Order 2 went to the kitchen from another terminal before the lock was taken
+        when(orderRepository.lockOrderIdsByStatus(List.of(1L, 2L), OrderStatus.PLACED)).thenReturn(List.of(1L));
+        when(orderRepository.moveOrdersToKitchen(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(1);
+
+        BulkOrderStatusResponse response = orderService.bulkMoveToKitchen(List.of(1L, 2L));
+
+        assertEquals(1, response.getUpdatedCount());
+        assertTrue(response.getResults().get(0).isUpdated());
+        assertEquals("Order status was changed concurrently", response.getResults().get(1).getMessage());
+        verify(orderRepository, never()).markOrdersServed(anyCollection(), any());
+        verify(restaurantMetrics).orderRejected("concurrent_update");
+    }
 }
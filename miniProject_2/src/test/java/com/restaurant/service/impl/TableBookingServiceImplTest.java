@@ -11,8 +11,10 @@ import org.restaurant.enums.BookingStatus;
 import org.restaurant.enums.TableStatus;
 import org.restaurant.exceptions.BusinessLogicException;
 import org.restaurant.exceptions.ResourceNotFoundException;
+import org.restaurant.monitoring.RestaurantMetrics;
 import org.restaurant.repository.RestaurantTableRepository;
 import org.restaurant.repository.TableBookingRepository;
+import org.restaurant.scheduling.BookingScheduler;
 import org.restaurant.service.UserService;
 
 import java.time.LocalDateTime;
@@ -28,6 +30,8 @@ class TableBookingServiceImplTest {
     @Mock private TableBookingRepository bookingRepository;
     @Mock private RestaurantTableRepository tableRepository;
     @Mock private UserService userService;
+    @Mock private RestaurantMetrics restaurantMetrics;
+    @Mock private BookingScheduler bookingScheduler;
 
     @BeforeEach
     void setUp() {
@@ -62,6 +66,17 @@ class TableBookingServiceImplTest {
         assertThrows(BusinessLogicException.class, () -> bookingService.cancelBooking(9L));
     }
 
+    @Test
+    void cancelBooking_StopsTheBookingsScheduledTransitions() {
+        TableBooking b = new TableBooking(); b.setStatus(BookingStatus.RESERVED);
+        when(bookingRepository.findById(9L)).thenReturn(Optional.of(b));
+
+        bookingService.cancelBooking(9L);
+
+        assertEquals(BookingStatus.CANCELLED, b.getStatus());
+        verify(bookingScheduler).bookingEnded(9L);
+    }
+
     @Test
     void deleteBooking_NotFound_Throws() {
         when(bookingRepository.existsById(10L)).thenReturn(false);
@@ -0,0 +1,115 @@
+package org.restaurant.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restaurant.cache.CacheInvalidationBus;
+import org.restaurant.cache.CacheNames;
+import org.restaurant.dto.request.JoinWaitlistRequest;
+import org.restaurant.dto.response.WaitlistEntryResponse;
+import org.restaurant.entities.RestaurantTable;
+import org.restaurant.enums.TableStatus;
+import org.restaurant.exceptions.BusinessLogicException;
+import org.restaurant.exceptions.ResourceNotFoundException;
+import org.restaurant.repository.OrderRepository;
+import org.restaurant.repository.RestaurantTableRepository;
+import org.restaurant.seating.TableAllocator;
+import org.restaurant.service.RestaurantTableService;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class WaitlistServiceImplTest {
+
+    private RestaurantTableService tableService;
+    private RestaurantTableRepository tableRepository;
+    private OrderRepository orderRepository;
+    private CacheInvalidationBus invalidationBus;
+    private WaitlistServiceImpl waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        tableService = mock(RestaurantTableService.class);
+        tableRepository = mock(RestaurantTableRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        TableAllocator tableAllocator = mock(TableAllocator.class);
+        when(tableAllocator.findTable(anyInt())).thenReturn(Optional.empty());
+        invalidationBus = new CacheInvalidationBus(new ConcurrentMapCacheManager(CacheNames.TABLES),
+                mock(DataSource.class), false, "restaurant_cache");
+        waitlistService = new WaitlistServiceImpl(tableService, tableRepository, orderRepository, tableAllocator,
+                invalidationBus, new int[]{2, 4, 6, 8}, 300_000, 20, 60, 30_000, 168);
+    }
+
+    @Test
+    void freedTable_IsOfferedToTheWaitingParty() {
+        Long partyId = waitlistService.joinWaitlist(new JoinWaitlistRequest("Rao", 4)).getId();
+        when(tableRepository.findById(3L)).thenReturn(Optional.of(table(3L, 4, TableStatus.AVAILABLE)));
+
+        // As raised after commit when the table is marked available or its order is served
+        invalidationBus.invalidate(CacheNames.TABLES, "3");
+
+        WaitlistEntryResponse entry = waitlistService.getWaitlist().get(0);
+        assertEquals(partyId, entry.getId());
+        assertEquals(3L, entry.getOfferedTableId());
+        assertEquals(0L, entry.getEstimatedWaitMinutes());
+    }
+
+    @Test
+    void estimate_UsesTheTablesTurnoverFromServedOrders() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> served = Collections.singletonList(new Object[]{10L, 1L, now.minusHours(2), now.minusHours(2).plusMinutes(40)});
+        List<Object[]> open = Collections.singletonList(new Object[]{1L, now.minusMinutes(10)});
+        when(orderRepository.findServiceTimesSince(any(LocalDateTime.class))).thenReturn(served);
+        when(orderRepository.findOpenOrderStartsByTable()).thenReturn(open);
+        when(tableService.getAllTables()).thenReturn(List.of(table(1L, 4, TableStatus.OCCUPIED)));
+
+        WaitlistEntryResponse entry = waitlistService.joinWaitlist(new JoinWaitlistRequest("Rao", 3));
+
+        // Seated ten minutes ago at a table that usually turns over in forty
+        assertTrue(entry.getEstimatedWaitMinutes() >= 29 && entry.getEstimatedWaitMinutes() <= 30);
+        assertEquals("3-4", entry.getBand());
+        assertEquals(1, entry.getPosition());
+    }
+
+    @Test
+    void seatParty_TableTaken_PutsThePartyBack() {
+        Long partyId = waitlistService.joinWaitlist(new JoinWaitlistRequest("Rao", 2)).getId();
+        when(tableRepository.findById(5L)).thenReturn(Optional.of(table(5L, 2, TableStatus.AVAILABLE)));
+        invalidationBus.invalidate(CacheNames.TABLES, "5");
+        when(tableService.markTableAsOccupied(5L)).thenThrow(new BusinessLogicException("Table is already occupied"));
+
+        assertThrows(BusinessLogicException.class, () -> waitlistService.seatParty(partyId));
+
+        WaitlistEntryResponse entry = waitlistService.getWaitlist().get(0);
+        assertEquals(partyId, entry.getId());
+        assertNull(entry.getOfferedTableId());
+        assertEquals(1, entry.getPosition());
+    }
+
+    @Test
+    void seatParty_WithoutOffer_Throws() {
+        Long partyId = waitlistService.joinWaitlist(new JoinWaitlistRequest("Rao", 2)).getId();
+
+        assertThrows(BusinessLogicException.class, () -> waitlistService.seatParty(partyId));
+        verify(tableService, never()).markTableAsOccupied(any());
+    }
+
+    @Test
+    void leaveWaitlist_UnknownParty_Throws() {
+        assertThrows(ResourceNotFoundException.class, () -> waitlistService.leaveWaitlist(99L));
+    }
+
+    private static RestaurantTable table(Long tableId, int capacity, TableStatus status) {
+        RestaurantTable table = new RestaurantTable(capacity, status);
+        table.setTableId(tableId);
+        return table;
+    }
+}
@@ -0,0 +1,48 @@
+package org.restaurant.support;
+
+import org.restaurant.monitoring.SqlStatementBudgetFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc matchers over the SQL statement headers written by {@link SqlStatementBudgetFilter}.
+ * Only meaningful in full-context tests against a real database; in {@code @WebMvcTest} slices the services
+ * are mocked and every request issues zero statements.
+ */
+public final class SqlStatementMatchers {
+
+    private SqlStatementMatchers() {}
+
+    public static SqlStatementMatchers sqlStatements() {
+        return new SqlStatementMatchers();
+    }
+
+    /**
+     * The request issued no more than {@code max} JDBC statements
+     */
+    public ResultMatcher atMost(int max) {
+        return result -> {
+            int count = headerValue(result.getResponse().getHeader(SqlStatementBudgetFilter.STATEMENT_COUNT_HEADER),
+                    SqlStatementBudgetFilter.STATEMENT_COUNT_HEADER);
+            assertTrue(count <= max, "Expected at most " + max + " SQL statements but request issued " + count);
+        };
+    }
+
+    /**
+     * The request did not repeat any statement shape often enough to look like an N+1 loop
+     */
+    public ResultMatcher noRepeatedStatements() {
+        return result -> {
+            int repeated = headerValue(result.getResponse().getHeader(SqlStatementBudgetFilter.REPEATED_STATEMENTS_HEADER),
+                    SqlStatementBudgetFilter.REPEATED_STATEMENTS_HEADER);
+            assertTrue(repeated == 0, "Request repeated " + repeated + " statement shape(s); check the log for N+1 warnings");
+        };
+    }
+
+    private static int headerValue(String value, String header) {
+        assertNotNull(value, "Missing " + header + " header; is SqlStatementBudgetFilter registered?");
+        return Integer.parseInt(value);
+    }
+}